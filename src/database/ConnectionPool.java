@@ -0,0 +1,476 @@
+package database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded pool of connections to the Card & Deck Database (CDDB), so callers lease an already open
+ * connection rather than paying to open a new one on every call. A leased connection is returned
+ * to the pool by closing it, and connections left idle in the pool for too long are closed, checked
+ * for once per idle timeout by a timer shared by every pool, so idle connections are closed even
+ * if the pool is no longer used. Leases waiting for a connection to free up are served in the order
+ * they were made, so a pool of a single connection serializes its callers as a queue. Keeps
+ * metrics on how many connections are leased and how long leases wait for a connection to free
+ * up. Can also cache the statements prepared on each of its connections, see
+ * {@link StatementCache}.
+ */
+public class ConnectionPool {
+
+  /**
+   * Timer closing the connections left idle too long in every pool, on a daemon thread so it
+   * doesn't keep the process alive.
+   */
+  private static final ScheduledExecutorService evictionTimer =
+      Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread evictor = new Thread(runnable, "connection-evictor");
+        evictor.setDaemon(true);
+        return evictor;
+      });
+
+  /**
+   * URL of the CDDB to open connections to.
+   */
+  private final String url;
+
+  /**
+   * Properties to open each connection with.
+   */
+  private final Properties properties;
+
+  /**
+   * Maximum number of connections open at once, leased or idle.
+   */
+  private final int maxConnections;
+
+  /**
+   * Time a connection can be left idle before it's closed, in nanoseconds.
+   */
+  private final long idleTimeoutNanos;
+
+  /**
+   * Time a lease can wait for a connection to free up before failing, in nanoseconds.
+   */
+  private final long leaseTimeoutNanos;
+
+  /**
+   * Cache of the statements prepared on each connection, or null if statements aren't cached.
+   */
+  private final StatementCache statementCache;
+
+  /**
+   * Task of the eviction timer closing the connections of this pool left idle too long.
+   */
+  private final ScheduledFuture<?> evictionTask;
+
+  /**
+   * Idle connections, most recently returned first.
+   */
+  private final Deque<IdleConnection> idleConnections;
+
+  /**
+   * Leases waiting for a connection, in the order they were made.
+   */
+  private final Deque<Object> waitingLeases;
+
+  /**
+   * Number of connections open, leased or idle, or being opened.
+   */
+  private int openConnections;
+
+  /**
+   * Number of connections currently leased.
+   */
+  private int activeLeases;
+
+  /**
+   * Most connections leased at once.
+   */
+  private int peakActiveLeases;
+
+  /**
+   * Number of leases made.
+   */
+  private long leaseCount;
+
+  /**
+   * Total time leases have waited for a connection, in nanoseconds.
+   */
+  private long totalWaitNanos;
+
+  /**
+   * Longest time a lease has waited for a connection, in nanoseconds.
+   */
+  private long maxWaitNanos;
+
+  /**
+   * Number of connections opened.
+   */
+  private long connectionsOpened;
+
+  /**
+   * Number of idle connections closed for being idle too long.
+   */
+  private long connectionsEvicted;
+
+  /**
+   * If the pool has been closed.
+   */
+  private boolean closed;
+
+  /**
+   * Creates an empty pool of connections to the CDDB at the given URL, opened with the given
+   * properties.
+   * @param url URL of the CDDB
+   * @param properties properties to open each connection with
+   * @param maxConnections maximum number of connections open at once
+   * @param idleTimeoutMillis time a connection can be left idle before it's closed, in milliseconds
+   * @param leaseTimeoutMillis time a lease can wait for a connection before failing, in
+   *        milliseconds
+   * @param maxCachedStatements maximum number of statements to cache for each connection, or 0
+   *        to not cache statements
+   * @throws IllegalArgumentException if given URL or properties are null, given maximum or
+   *         timeouts aren't positive, or given maximum of cached statements is negative
+   */
+  ConnectionPool(String url, Properties properties, int maxConnections, long idleTimeoutMillis,
+      long leaseTimeoutMillis, int maxCachedStatements) {
+    if (url == null || properties == null) {
+      throw new IllegalArgumentException("Given URL and properties can't be null!");
+    }
+    else if (maxConnections < 1 || idleTimeoutMillis < 1 || leaseTimeoutMillis < 1) {
+      throw new IllegalArgumentException("Given maximum connections and timeouts must be "
+          + "positive!");
+    }
+    else if (maxCachedStatements < 0) {
+      throw new IllegalArgumentException("Given maximum cached statements can't be negative!");
+    }
+    this.url = url;
+    this.properties = properties;
+    this.maxConnections = maxConnections;
+    this.idleTimeoutNanos = idleTimeoutMillis * 1_000_000;
+    this.leaseTimeoutNanos = leaseTimeoutMillis * 1_000_000;
+    this.statementCache = maxCachedStatements == 0 ? null :
+        new StatementCache(maxCachedStatements);
+    this.idleConnections = new ArrayDeque<>();
+    this.waitingLeases = new ArrayDeque<>();
+    this.closed = false;
+    this.evictionTask = evictionTimer.scheduleWithFixedDelay(() -> evictIdle(System.nanoTime()),
+        idleTimeoutMillis, idleTimeoutMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Leases a connection to the CDDB, reusing an idle connection if there is one, else opening a
+   * new one if the pool isn't full, else waiting for a leased connection to be returned. The
+   * connection is returned to the pool by closing it.
+   * @return leased connection
+   * @throws SQLException if the pool is closed, a connection fails to be opened, or no connection
+   *         frees up in time
+   */
+  Connection lease() throws SQLException {
+    long start = System.nanoTime();
+    Connection connection = null;
+    Object waitingLease = new Object();
+    synchronized (this) {
+      waitingLeases.add(waitingLease);
+      try {
+        while (true) {
+          if (closed) {
+            throw new SQLException("Connection pool to CDDB has been closed!");
+          }
+          evictIdle(System.nanoTime());
+
+          // Only the longest waiting lease may take a connection
+          if (waitingLeases.peek() == waitingLease) {
+            if (!idleConnections.isEmpty()) {
+              connection = idleConnections.pop().connection;
+              break;
+            }
+            else if (openConnections < maxConnections) {
+              // Reserve a slot, connection is opened outside the lock
+              openConnections++;
+              break;
+            }
+          }
+
+          long remaining = leaseTimeoutNanos - (System.nanoTime() - start);
+          if (remaining <= 0) {
+            throw new SQLException(String.format("Timed out after %d ms waiting for one of %d "
+                + "connections to the CDDB to be returned!", leaseTimeoutNanos / 1_000_000,
+                maxConnections));
+          }
+          wait(remaining / 1_000_000, (int) (remaining % 1_000_000));
+        }
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new SQLException("Interrupted while waiting for a connection to the CDDB!");
+      }
+      finally {
+        waitingLeases.remove(waitingLease);
+        notifyAll();
+      }
+    }
+
+    boolean opened = connection == null;
+    if (opened) {
+      try {
+        connection = DriverManager.getConnection(url, properties);
+      }
+      catch (SQLException e) {
+        synchronized (this) {
+          openConnections--;
+          notifyAll();
+        }
+        throw e;
+      }
+    }
+
+    synchronized (this) {
+      if (opened) {
+        connectionsOpened++;
+      }
+      long waited = System.nanoTime() - start;
+      leaseCount++;
+      totalWaitNanos += waited;
+      maxWaitNanos = Math.max(maxWaitNanos, waited);
+      activeLeases++;
+      peakActiveLeases = Math.max(peakActiveLeases, activeLeases);
+    }
+
+    return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+        new Class<?>[]{Connection.class}, new LeasedConnection(connection));
+  }
+
+  /**
+   * Takes back a leased connection, resetting it for the next lease. Connections that fail to be
+   * reset, or are returned after the pool has been closed, are closed instead.
+   * @param connection connection being returned
+   */
+  private void release(Connection connection) {
+    boolean reusable;
+    try {
+      reusable = !connection.isClosed();
+      if (reusable && !connection.getAutoCommit()) {
+        connection.rollback();
+        connection.setAutoCommit(true);
+      }
+    }
+    catch (SQLException e) {
+      reusable = false;
+    }
+
+    synchronized (this) {
+      activeLeases--;
+      if (reusable && !closed) {
+        idleConnections.push(new IdleConnection(connection, System.nanoTime()));
+        evictIdle(System.nanoTime());
+      }
+      else {
+        openConnections--;
+        closeQuietly(connection);
+      }
+      notifyAll();
+    }
+  }
+
+  /**
+   * Closes each idle connection that has been idle longer than the idle timeout, as of the given
+   * time.
+   * @param now current time, in nanoseconds
+   */
+  private synchronized void evictIdle(long now) {
+    Iterator<IdleConnection> oldestFirst = idleConnections.descendingIterator();
+    while (oldestFirst.hasNext()) {
+      IdleConnection idle = oldestFirst.next();
+      if (now - idle.returnedAt < idleTimeoutNanos) {
+        break;
+      }
+      oldestFirst.remove();
+      openConnections--;
+      connectionsEvicted++;
+      closeQuietly(idle.connection);
+    }
+  }
+
+  /**
+   * Closes the pool and each of its idle connections, and stops checking for idle connections.
+   * Connections still leased are closed as they're returned, and no further leases are made.
+   */
+  synchronized void close() {
+    closed = true;
+    evictionTask.cancel(false);
+    while (!idleConnections.isEmpty()) {
+      openConnections--;
+      closeQuietly(idleConnections.pop().connection);
+    }
+    notifyAll();
+  }
+
+  /**
+   * Closes the given connection, ignoring any failure, as the connection is being discarded.
+   * @param connection connection to close
+   */
+  private void closeQuietly(Connection connection) {
+    if (statementCache != null) {
+      statementCache.discard(connection);
+    }
+    try {
+      connection.close();
+    }
+    catch (SQLException e) {
+      // Connection is being discarded either way
+    }
+  }
+
+  /**
+   * Returns the cache of the statements prepared on each connection, for its metrics on reuse of
+   * statements.
+   * @return cache of statements, or null if statements aren't cached
+   */
+  public StatementCache getStatementCache() {
+    return statementCache;
+  }
+
+  public synchronized int getMaxConnections() {
+    return maxConnections;
+  }
+
+  public synchronized int getOpenConnections() {
+    return openConnections;
+  }
+
+  public synchronized int getIdleConnections() {
+    return idleConnections.size();
+  }
+
+  public synchronized int getActiveLeases() {
+    return activeLeases;
+  }
+
+  public synchronized int getPeakActiveLeases() {
+    return peakActiveLeases;
+  }
+
+  public synchronized long getLeaseCount() {
+    return leaseCount;
+  }
+
+  public synchronized long getConnectionsOpened() {
+    return connectionsOpened;
+  }
+
+  public synchronized long getConnectionsEvicted() {
+    return connectionsEvicted;
+  }
+
+  /**
+   * Returns the total time leases have waited for a connection, including the time taken to open
+   * new connections.
+   * @return total wait time, in milliseconds
+   */
+  public synchronized double getTotalWaitMillis() {
+    return totalWaitNanos / 1e6;
+  }
+
+  /**
+   * Returns the longest time a lease has waited for a connection.
+   * @return longest wait time, in milliseconds
+   */
+  public synchronized double getMaxWaitMillis() {
+    return maxWaitNanos / 1e6;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return String.format("ConnectionPool[open=%d/%d, idle=%d, active=%d, peakActive=%d, leases=%d, "
+            + "opened=%d, evicted=%d, totalWait=%.2fms, maxWait=%.2fms]", openConnections,
+        maxConnections, idleConnections.size(), activeLeases, peakActiveLeases, leaseCount,
+        connectionsOpened, connectionsEvicted, totalWaitNanos / 1e6, maxWaitNanos / 1e6);
+  }
+
+  /**
+   * Connection sitting idle in the pool, with the time it was returned.
+   */
+  private static class IdleConnection {
+
+    private final Connection connection;
+
+    private final long returnedAt;
+
+    private IdleConnection(Connection connection, long returnedAt) {
+      this.connection = connection;
+      this.returnedAt = returnedAt;
+    }
+  }
+
+  /**
+   * Handles calls to a leased connection, passing each call through to the underlying connection,
+   * except for closing it, which returns it to the pool. Once returned, the lease acts as a closed
+   * connection.
+   */
+  private class LeasedConnection implements InvocationHandler {
+
+    /**
+     * Underlying connection being leased.
+     */
+    private final Connection connection;
+
+    /**
+     * If the lease has been returned to the pool.
+     */
+    private boolean returned;
+
+    private LeasedConnection(Connection connection) {
+      this.connection = connection;
+      this.returned = false;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      // Statements given only SQL are reused from the cache
+      if (method.getName().equals("prepareStatement") && statementCache != null && !returned
+          && args.length == 1) {
+        return statementCache.prepare(connection, (String) args[0]);
+      }
+
+      switch (method.getName()) {
+        case "close":
+          if (!returned) {
+            returned = true;
+            release(connection);
+          }
+          return null;
+        case "isClosed":
+          return returned || connection.isClosed();
+        case "equals":
+          return proxy == args[0];
+        case "hashCode":
+          return System.identityHashCode(proxy);
+        case "toString":
+          return "Leased " + connection;
+        default:
+          if (returned) {
+            throw new SQLException("Connection has already been returned to the pool!");
+          }
+          try {
+            return method.invoke(connection, args);
+          }
+          catch (InvocationTargetException e) {
+            throw e.getCause();
+          }
+      }
+    }
+  }
+}
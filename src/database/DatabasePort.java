@@ -1,28 +1,171 @@
 package database;
 
-import java.io.File;
 import java.io.FileNotFoundException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.Set;
 import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteConfig.JournalMode;
+import org.sqlite.SQLiteConfig.SynchronousMode;
+import org.sqlite.SQLiteConfig.TempStore;
 
 /**
  * Provides methods for opening and closing a connection to the Card & Deck Database (CDDB),
  * creating a new CDDB, and utility methods for querying and inserting info into the CDDB.
+ * Connections are pooled for the life of the port, until it's closed.
  */
-public abstract class DatabasePort {
+public abstract class DatabasePort implements AutoCloseable {
+
+  /**
+   * Size of the page cache of each connection while bulk loading, in kibibytes.
+   */
+  private static final int bulkLoadCacheSize = 512 * 1024;
+
+  /**
+   * Maximum number of foreign key violations to list when a bulk load fails validation.
+   */
+  private static final int violationsToList = 5;
+
+  /**
+   * Full-text indices of the words in card names, card text, and printing flavor text, along with
+   * the triggers keeping them in sync with the tables they index as cards are added or updated.
+   * Indices read their columns from the tables they index, and triggers remove the old words of a
+   * row by its rowid, rather than searching the index for it - the CDDB is never vacuumed, which
+   * could renumber those rowids. Indices also hold the prefixes of two and three characters of
+   * each word, for prefix searches.
+   */
+  private static final List<String> fullTextTables = Arrays.asList(
+      "CREATE VIRTUAL TABLE CardSearch USING fts5(name, text, content = 'Card', "
+          + "content_rowid = 'rowid', prefix = '2 3')",
+      "CREATE VIRTUAL TABLE FlavorSearch USING fts5(card_name UNINDEXED, expansion UNINDEXED, "
+          + "number UNINDEXED, flavor_text, content = 'CardExpansion', content_rowid = 'rowid', "
+          + "prefix = '2 3')",
+      "CREATE TRIGGER CardSearchInsert AFTER INSERT ON Card BEGIN "
+          + "INSERT INTO CardSearch(rowid, name, text) VALUES (new.rowid, new.name, new.text); END",
+      "CREATE TRIGGER CardSearchUpdate AFTER UPDATE OF name, text ON Card "
+          + "WHEN old.name IS NOT new.name OR old.text IS NOT new.text BEGIN "
+          + "INSERT INTO CardSearch(CardSearch, rowid, name, text) "
+          + "VALUES ('delete', old.rowid, old.name, old.text); "
+          + "INSERT INTO CardSearch(rowid, name, text) VALUES (new.rowid, new.name, new.text); END",
+      "CREATE TRIGGER CardSearchDelete AFTER DELETE ON Card BEGIN "
+          + "INSERT INTO CardSearch(CardSearch, rowid, name, text) "
+          + "VALUES ('delete', old.rowid, old.name, old.text); END",
+      "CREATE TRIGGER FlavorSearchInsert AFTER INSERT ON CardExpansion BEGIN "
+          + "INSERT INTO FlavorSearch(rowid, card_name, expansion, number, flavor_text) "
+          + "VALUES (new.rowid, new.card_name, new.expansion, new.number, new.flavor_text); END",
+      "CREATE TRIGGER FlavorSearchUpdate AFTER UPDATE OF flavor_text ON CardExpansion "
+          + "WHEN old.flavor_text IS NOT new.flavor_text BEGIN "
+          + "INSERT INTO FlavorSearch(FlavorSearch, rowid, card_name, expansion, number, "
+          + "flavor_text) VALUES ('delete', old.rowid, old.card_name, old.expansion, old.number, "
+          + "old.flavor_text); "
+          + "INSERT INTO FlavorSearch(rowid, card_name, expansion, number, flavor_text) "
+          + "VALUES (new.rowid, new.card_name, new.expansion, new.number, new.flavor_text); END",
+      "CREATE TRIGGER FlavorSearchDelete AFTER DELETE ON CardExpansion BEGIN "
+          + "INSERT INTO FlavorSearch(FlavorSearch, rowid, card_name, expansion, number, "
+          + "flavor_text) VALUES ('delete', old.rowid, old.card_name, old.expansion, old.number, "
+          + "old.flavor_text); END",
+      "INSERT INTO CardSearch(CardSearch) VALUES ('rebuild')",
+      "INSERT INTO FlavorSearch(FlavorSearch) VALUES ('rebuild')");
+
+  /**
+   * Sources of the number of cards with each value of each card attribute filtered by card
+   * queries, as the attribute, then the table, column of values, and column of card names it's
+   * counted from - tables of values are by their name, and stats by their name as a
+   * {@link value_objects.card.query.Stat}.
+   */
+  private static final String[][] valueFrequencySources = {
+      {"Color", "Color", "color", "card_name"},
+      {"ColorIdentity", "ColorIdentity", "color", "card_name"},
+      {"Supertype", "Supertype", "type", "card_name"},
+      {"Type", "Type", "type", "card_name"},
+      {"Subtype", "Subtype", "type", "card_name"},
+      {"Mana", "Mana", "mana_type", "card_name"},
+      {"cmc", "Card", "cmc", "name"},
+      {"power", "PowerToughness", "power_value", "card_name"},
+      {"toughness", "PowerToughness", "toughness_value", "card_name"},
+      {"loyalty", "Loyalty", "loyalty_value", "card_name"}};
+
+  /**
+   * Maximum number of card names bound to a single statement counting their values.
+   */
+  private static final int maxBoundCardNames = 500;
+
+  /**
+   * Maximum number of read only connections to the CDDB open at once.
+   */
+  private static final int maxReaderConnections = 4;
+
+  /**
+   * Maximum number of statements cached for each read only connection, see
+   * {@link StatementCache}.
+   */
+  private static final int maxCachedStatements = 64;
+
+  /**
+   * Time a pooled connection can be left idle before it's closed, in milliseconds.
+   */
+  private static final long idleTimeoutMillis = 60 * 1000;
+
+  /**
+   * Time to wait for a pooled connection to be returned before failing, in milliseconds.
+   */
+  private static final long leaseTimeoutMillis = 30 * 1000;
+
+  /**
+   * Version of the card info of each CDDB in the process, by absolute path, changed whenever a set
+   * is added to that CDDB. CDDBs without card info added since the process started are at 0.
+   */
+  private static final Map<Path, Long> cardVersions = new HashMap<>();
 
   /**
    * Path to the CDDB.
    */
   private final Path pathToDatabase;
 
+  /**
+   * If the CDDB is being bulk loaded, i.e. connections skip journaling, syncing, and foreign key
+   * enforcement until {@link #finishBulkLoad()} is called.
+   */
+  private boolean bulkLoad;
+
+  /**
+   * Statements from the initalization file held back until the end of a bulk load, i.e. the
+   * creation of secondary indices.
+   */
+  private final List<String> deferredStatements;
+
+  /**
+   * Pool of read only connections to the CDDB.
+   */
+  private ConnectionPool readerPool;
+
+  /**
+   * Pool of the single connection allowed to write to the CDDB, opened as per if the CDDB is
+   * being bulk loaded.
+   */
+  private ConnectionPool writerPool;
+
+  /**
+   * Connection of the transaction each thread is running, if any.
+   */
+  private final ThreadLocal<Connection> transactions;
+
   /**
    * Takes in a {@link Path} referencing the Card and Deck Database (CDDB), that may or may not
    * exist. If given initalizationPath is null, signals to simply connect to an existing database,
@@ -37,11 +180,34 @@ public abstract class DatabasePort {
    */
   public DatabasePort(Path pathToDatabase, Path initalizationPath)
       throws IllegalArgumentException, SQLException {
+    this(pathToDatabase, initalizationPath, false);
+  }
+
+  /**
+   * Takes in a {@link Path} referencing the Card and Deck Database (CDDB), that may or may not
+   * exist, as with {@link #DatabasePort(Path, Path)}. If told to bulk load, connections to the CDDB
+   * run with an in memory journal, no syncing to disk, a large page cache, and without enforcing
+   * foreign keys, and the creation of secondary indices from the initalization file, along with
+   * full-text indices, is held back until {@link #finishBulkLoad()} is called. When bulk loading
+   * an existing CDDB, i.e. resuming an interrupted bulk load, the initalization file is only used
+   * for its secondary indices.
+   * @param pathToDatabase path to CDDB, either existing or one to create
+   * @param initalizationPath to create a new database from the given path
+   * @param bulkLoad if the CDDB is about to be bulk loaded
+   * @throws IllegalArgumentException if given Path is null, or given Path exists and not told to
+   *         bulk load, or given initalization Path doesn't exist
+   * @throws SQLException if there is a failure to insert info from the given initalization path,
+   * should only occur if trying to create a new database
+   */
+  public DatabasePort(Path pathToDatabase, Path initalizationPath, boolean bulkLoad)
+      throws IllegalArgumentException, SQLException {
     boolean createNew = initalizationPath != null;
+    boolean resumeBulkLoad = createNew && bulkLoad && pathToDatabase != null
+        && Files.exists(pathToDatabase);
     if (pathToDatabase == null) {
       throw new IllegalArgumentException("Give path to database can't be null!");
     }
-    else if (createNew && Files.exists(pathToDatabase)) {
+    else if (createNew && !bulkLoad && Files.exists(pathToDatabase)) {
       throw new IllegalArgumentException("Told to create a new database, but give path references "
           + "an existing file!");
     }
@@ -54,20 +220,29 @@ public abstract class DatabasePort {
           + "doesn't reference an existing file!");
     }
     this.pathToDatabase = pathToDatabase;
+    this.bulkLoad = bulkLoad;
+    this.deferredStatements = new ArrayList<>();
+    this.transactions = new ThreadLocal<>();
+    createConnectionPools();
 
     if (createNew) {
       try {
-        createDatabase(initalizationPath);
+        createDatabase(initalizationPath, resumeBulkLoad);
       }
       catch (FileNotFoundException e) {
         throw new IllegalArgumentException(e.getMessage() +
             "\nCould not open file from given initalization path!");
       }
+      if (!bulkLoad) {
+        createFullTextTables();
+      }
     }
   }
 
   /**
-   * Takes in a {@link Path} referencing an existing Card and Deck Database (CDDB).
+   * Takes in a {@link Path} referencing an existing Card and Deck Database (CDDB). The CDDB is
+   * opened as is, without being written to, so it may be read only or shared - a CDDB predating
+   * the current initalization file is brought up to date by {@link #migrate(Path)}.
    * @param pathToDatabase path to existing CDDB
    * @throws SQLException should never occur as no information is being inserted
    */
@@ -77,17 +252,51 @@ public abstract class DatabasePort {
 
   /**
    * If creating a new database, creates a new database at pathToDatabase and inserts into it data
-   * stored in the file at the given initalizationPath
+   * stored in the file at the given initalizationPath. If bulk loading, statements creating
+   * secondary indices are held back instead.
    * @param initalizationPath path to draw database info from
+   * @param onlyDefer if the database already exists, so only statements to hold back are to be
+   *        drawn from the file
    * @throws SQLException if failure to insert info into newly created database
    * @throws FileNotFoundException if file listed at initalizationPath fails to be open, read, etc.
    */
-  private void createDatabase(Path initalizationPath) throws SQLException, FileNotFoundException {
-    StringBuilder initAsString;
+  private void createDatabase(Path initalizationPath, boolean onlyDefer)
+      throws SQLException, FileNotFoundException {
+    List<String> initStatements = readInitalizationFile(initalizationPath);
+
+    Connection connection = null;
+    PreparedStatement preparedStatement = null;
     try {
-      File file = initalizationPath.toFile();
-      Scanner sc = new Scanner(file);
-      initAsString = new StringBuilder();
+      connection = connectWriter();
+      for (String toAdd : initStatements) {
+        if (bulkLoad && isSecondaryIndex(toAdd)) {
+          deferredStatements.add(toAdd);
+        }
+        else if (!onlyDefer) {
+          preparedStatement = connection.prepareStatement(toAdd);
+          preparedStatement.execute();
+          closePreparedStatement(preparedStatement);
+        }
+      }
+    }
+    catch (SQLException e) {
+      throw new SQLException(e.getMessage() + "\nFailed to create new database!");
+    }
+    finally {
+      closePreparedStatement(preparedStatement);
+      disconnect(connection);
+    }
+  }
+
+  /**
+   * Reads the statements of the initalization file at the given path, skipping comments.
+   * @param initalizationPath path to the initalization file
+   * @return statements of the file, in order
+   * @throws FileNotFoundException if the file fails to be opened
+   */
+  private List<String> readInitalizationFile(Path initalizationPath) throws FileNotFoundException {
+    StringBuilder initAsString = new StringBuilder();
+    try (Scanner sc = new Scanner(initalizationPath.toFile())) {
       while(sc.hasNextLine()) {
         String nextLine = sc.nextLine();
         if (!nextLine.startsWith("--")) { // Ignore comments
@@ -100,42 +309,465 @@ public abstract class DatabasePort {
           String.format("Failed to find file at path %s", initalizationPath.toString()));
     }
 
-    Connection connection = null;
-    PreparedStatement preparedStatement = null;
+    List<String> initStatements = new ArrayList<>();
+    Scanner initScanner = new Scanner(initAsString.toString());
+    initScanner.useDelimiter(";");
+    while (initScanner.hasNext()) {
+      initStatements.add(initScanner.next());
+    }
+    return initStatements;
+  }
+
+  /**
+   * Returns if the given statement from an initalization file creates a secondary index.
+   * @param statement statement to check
+   * @return if the statement creates an index
+   */
+  private boolean isSecondaryIndex(String statement) {
+    return statement.trim().toUpperCase().matches("CREATE\\s+(UNIQUE\\s+)?INDEX\\s.*");
+  }
+
+  /**
+   * Returns if the given statement from an initalization file creates a table or an index.
+   * @param statement statement to check
+   * @return if the statement creates a table or index
+   */
+  private boolean isTableOrIndex(String statement) {
+    return statement.trim().toUpperCase().matches("CREATE\\s+(UNIQUE\\s+)?(TABLE|INDEX)\\s.*");
+  }
+
+  /**
+   * Returns the given statement from an initalization file creating a table or index such that it
+   * does nothing if the table or index already exists.
+   * @param statement statement creating a table or index
+   * @return statement only creating the table or index if it's missing
+   */
+  private String ifNotExists(String statement) {
+    return statement.trim().replaceFirst(
+        "(?i)^CREATE\\s+(UNIQUE\\s+)?(TABLE|INDEX)\\s+(IF\\s+NOT\\s+EXISTS\\s+)?",
+        "CREATE $1$2 IF NOT EXISTS ");
+  }
+
+  /**
+   * Brings an existing CDDB up to date with the initalization file at the given path, i.e. a CDDB
+   * created before some of its tables or indices were added to the file. Creates every table and
+   * index of the file missing from the CDDB, along with the full-text indices and value
+   * frequencies if it has none, and gathers statistics for the query planner if any index was
+   * created. Opening a CDDB never changes it, so this is to be called before adding sets to a CDDB
+   * that may predate the current initalization file.
+   * @param initalizationPath path to the initalization file
+   * @throws IllegalArgumentException if given path is null or the file fails to be opened
+   * @throws IllegalStateException if the CDDB is being bulk loaded
+   * @throws SQLException if tables or indices fail to be created, or statistics fail to be
+   *         gathered
+   */
+  public void migrate(Path initalizationPath)
+      throws IllegalArgumentException, IllegalStateException, SQLException {
+    if (initalizationPath == null) {
+      throw new IllegalArgumentException("Given initalization path can't be null!");
+    }
+    else if (bulkLoad) {
+      throw new IllegalStateException("CDDB can't be migrated while being bulk loaded!");
+    }
+
+    List<String> initStatements;
     try {
-      connection = connect();
-      Scanner initScanner = new Scanner(initAsString.toString());
-      initScanner.useDelimiter(";");
-      while (initScanner.hasNext()) {
-        String toAdd = initScanner.next();
-        preparedStatement = connection.prepareStatement(toAdd);
-        preparedStatement.execute();
+      initStatements = readInitalizationFile(initalizationPath);
+    }
+    catch (FileNotFoundException e) {
+      throw new IllegalArgumentException(e.getMessage() +
+          "\nCould not open file from given initalization path!");
+    }
+
+    boolean missingValueFrequencies;
+    Connection connection = connectWriter();
+    try (Statement statement = connection.createStatement()) {
+      missingValueFrequencies = !hasTable(statement, "ValueFrequency");
+      int existingIndices = countIndices(statement);
+      for (String initStatement : initStatements) {
+        if (isTableOrIndex(initStatement)) {
+          statement.execute(ifNotExists(initStatement));
+        }
+      }
+      if (countIndices(statement) > existingIndices) {
+        statement.execute("ANALYZE");
       }
     }
     catch (SQLException e) {
-      throw new SQLException(e.getMessage() + "\nFailed to create new database!");
+      throw new SQLException(e.getMessage() + "\nFailed to migrate CDDB!");
     }
     finally {
-      closePreparedStatement(preparedStatement);
       disconnect(connection);
     }
+
+    createFullTextTables();
+    if (missingValueFrequencies) {
+      gatherValueFrequencies();
+    }
   }
 
   /**
-   * Opens a connection to the CDDB.
-   * @throws SQLException if there is a failure to connect to the CDDB
+   * Creates the full-text indices of card names, card text, and printing flavor text, if the CDDB
+   * doesn't have them yet, filled in with the cards already in the CDDB. From then on they're kept
+   * in sync by triggers as sets are added. Created all at once in a single transaction.
+   * @throws SQLException if the indices fail to be created or filled in
    */
-  protected Connection connect() throws SQLException {
+  private void createFullTextTables() throws SQLException {
+    Connection connection = connectWriter();
+    boolean created = false;
+    try (Statement statement = connection.createStatement()) {
+      created = !hasTable(statement, "CardSearch");
+      if (created) {
+        connection.setAutoCommit(false);
+        for (String fullTextTable : fullTextTables) {
+          statement.execute(fullTextTable);
+        }
+        connection.commit();
+      }
+    }
+    catch (SQLException e) {
+      throw new SQLException(e.getMessage() + "\nFailed to create full-text indices of CDDB!");
+    }
+    finally {
+      disconnect(connection);
+    }
+
+    // Full-text search only becomes available to queries once catalogs of the CDDB are reloaded
+    if (created) {
+      cardsChanged();
+    }
+  }
+
+  /**
+   * Gathers the number of cards with each value of each card attribute filtered by card queries,
+   * e.g. each color, type, or converted mana cost, replacing those gathered before, for estimating
+   * how many cards a filter matches. Gathered all at once in a single transaction over every card
+   * in the CDDB, so only done once many sets have been added - while bulk loading, held back until
+   * the bulk load is finished.
+   * @throws SQLException if the frequencies fail to be gathered
+   */
+  protected void gatherValueFrequencies() throws SQLException {
+    if (bulkLoad) {
+      return;
+    }
+
+    Connection connection = connectWriter();
+    try (Statement statement = connection.createStatement()) {
+      connection.setAutoCommit(false);
+      statement.execute("DELETE FROM ValueFrequency");
+      for (String[] source : valueFrequencySources) {
+        statement.execute(String.format("INSERT INTO ValueFrequency(attribute, value, cards) "
+            + "SELECT '%s', %s, COUNT(*) FROM %s GROUP BY %s", source[0], source[2], source[1],
+            source[2]));
+      }
+      connection.commit();
+    }
+    catch (SQLException e) {
+      throw new SQLException(e.getMessage() + "\nFailed to gather value frequencies of CDDB!");
+    }
+    finally {
+      disconnect(connection);
+    }
+
+    // Frequencies only reach queries once catalogs of the CDDB are reloaded
+    cardsChanged();
+  }
+
+  /**
+   * Counts how many of the given cards have each value of each card attribute filtered by card
+   * queries, looking up only the given cards. Counted before and after the cards are added or
+   * refreshed, to adjust the value frequencies of the CDDB by the difference, see
+   * {@link #adjustValueFrequencies(Map, Map)}. While bulk loading, nothing is counted.
+   * @param cardNames names of the cards to count the values of
+   * @return number of the given cards with each value, by value, by card attribute
+   * @throws SQLException if the values fail to be counted
+   */
+  protected Map<String, Map<String, Integer>> countValues(Collection<String> cardNames)
+      throws SQLException {
+    Map<String, Map<String, Integer>> valueCounts = new HashMap<>();
+    if (bulkLoad || cardNames.isEmpty()) {
+      return valueCounts;
+    }
+
+    List<String> names = new ArrayList<>(cardNames);
+    Connection connection = connectWriter();
     try {
-      // Path to CDDB
-      String url = "jdbc:sqlite:" + pathToDatabase.toString();
+      for (int start = 0; start < names.size(); start += maxBoundCardNames) {
+        List<String> boundNames = names.subList(start,
+            Math.min(start + maxBoundCardNames, names.size()));
+        String placeholders = String.join(",", Collections.nCopies(boundNames.size(), "?"));
+        for (String[] source : valueFrequencySources) {
+          String countQuery = String.format("SELECT %s, COUNT(*) FROM %s WHERE %s IN (%s) "
+              + "GROUP BY %s", source[2], source[1], source[3], placeholders, source[2]);
+          try (PreparedStatement preparedStatement = connection.prepareStatement(countQuery)) {
+            for (int i = 0; i < boundNames.size(); i++) {
+              preparedStatement.setString(i + 1, boundNames.get(i));
+            }
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+              while (resultSet.next()) {
+                valueCounts.computeIfAbsent(source[0], attribute -> new HashMap<>())
+                    .merge(resultSet.getString(1), resultSet.getInt(2), Integer::sum);
+              }
+            }
+          }
+        }
+      }
+    }
+    catch (SQLException e) {
+      throw new SQLException(e.getMessage() + "\nFailed to count values of cards!");
+    }
+    finally {
+      disconnect(connection);
+    }
+    return valueCounts;
+  }
+
+  /**
+   * Adjusts the number of cards with each value of each card attribute by the difference between
+   * the given counts of some cards' values from before and after they were added or refreshed, as
+   * counted by {@link #countValues(Collection)}, so only values of those cards are written rather
+   * than gathering every frequency again. Adjusted all at once in a single transaction. While bulk
+   * loading, nothing is adjusted.
+   * @param countsBefore values of the cards before they were added or refreshed
+   * @param countsAfter values of the cards after they were added or refreshed
+   * @throws SQLException if the frequencies fail to be adjusted
+   */
+  protected void adjustValueFrequencies(Map<String, Map<String, Integer>> countsBefore,
+      Map<String, Map<String, Integer>> countsAfter) throws SQLException {
+    if (bulkLoad || countsBefore.equals(countsAfter)) {
+      return;
+    }
+
+    String update = "UPDATE ValueFrequency SET cards = cards + ? WHERE attribute = ? AND value = ?";
+    String insert = "INSERT INTO ValueFrequency(attribute, value, cards) VALUES (?, ?, ?)";
+    String dropEmpty = "DELETE FROM ValueFrequency WHERE cards <= 0";
+    Connection connection = connectWriter();
+    try (PreparedStatement updateStatement = connection.prepareStatement(update);
+        PreparedStatement insertStatement = connection.prepareStatement(insert);
+        PreparedStatement dropStatement = connection.prepareStatement(dropEmpty)) {
+      connection.setAutoCommit(false);
+      for (String[] source : valueFrequencySources) {
+        Map<String, Integer> before = countsBefore.getOrDefault(source[0],
+            Collections.emptyMap());
+        Map<String, Integer> after = countsAfter.getOrDefault(source[0], Collections.emptyMap());
+        Set<String> values = new HashSet<>(before.keySet());
+        values.addAll(after.keySet());
+        for (String value : values) {
+          int difference = after.getOrDefault(value, 0) - before.getOrDefault(value, 0);
+          if (difference == 0) {
+            continue;
+          }
+          updateStatement.setInt(1, difference);
+          updateStatement.setString(2, source[0]);
+          updateStatement.setString(3, value);
+          if (updateStatement.executeUpdate() == 0) {
+            insertStatement.setString(1, source[0]);
+            insertStatement.setString(2, value);
+            insertStatement.setInt(3, difference);
+            insertStatement.executeUpdate();
+          }
+        }
+      }
+      dropStatement.executeUpdate();
+      connection.commit();
+    }
+    catch (SQLException e) {
+      connection.rollback();
+      throw new SQLException(e.getMessage() + "\nFailed to adjust value frequencies of CDDB!");
+    }
+    finally {
+      disconnect(connection);
+    }
+
+    // Frequencies only reach queries once catalogs of the CDDB are reloaded
+    cardsChanged();
+  }
+
+  /**
+   * Returns the number of indices in the CDDB.
+   * @param statement statement to query the CDDB with
+   * @return number of indices
+   * @throws SQLException if indices fail to be counted
+   */
+  private int countIndices(Statement statement) throws SQLException {
+    try (ResultSet resultSet = statement.executeQuery(
+        "SELECT COUNT(*) FROM sqlite_master WHERE type = 'index'")) {
+      return resultSet.next() ? resultSet.getInt(1) : 0;
+    }
+  }
+
+  /**
+   * Returns if the CDDB has a table of the given name.
+   * @param statement statement to query the CDDB with
+   * @param table name of the table
+   * @return if the table exists
+   * @throws SQLException if tables fail to be checked
+   */
+  private boolean hasTable(Statement statement, String table) throws SQLException {
+    try (ResultSet resultSet = statement.executeQuery(String.format(
+        "SELECT COUNT(*) FROM sqlite_master WHERE type = 'table' AND name = '%s'", table))) {
+      return resultSet.next() && resultSet.getInt(1) > 0;
+    }
+  }
+
+  /**
+   * Finishes a bulk load of the CDDB - creates the secondary indices held back, validates every
+   * foreign key at once, gathers statistics for the query planner, creates the full-text indices
+   * of the cards loaded, and gathers their value frequencies. Connections made afterwards are made
+   * as normal.
+   * @throws IllegalStateException if the CDDB isn't being bulk loaded
+   * @throws SQLException if indices fail to be created or statistics fail to be gathered, or if any
+   *         foreign key is violated
+   */
+  public void finishBulkLoad() throws IllegalStateException, SQLException {
+    if (!bulkLoad) {
+      throw new IllegalStateException("CDDB isn't being bulk loaded!");
+    }
+
+    Connection connection = connectWriter();
+    try (Statement statement = connection.createStatement()) {
+      for (String deferredStatement : deferredStatements) {
+        // Index may have been created by an earlier bulk load that was interrupted
+        statement.execute(ifNotExists(deferredStatement));
+      }
+
+      int violations = 0;
+      StringBuilder listedViolations = new StringBuilder();
+      try (ResultSet resultSet = statement.executeQuery("PRAGMA foreign_key_check")) {
+        while (resultSet.next()) {
+          if (violations < violationsToList) {
+            listedViolations.append(String.format("\n row %d of %s references %s",
+                resultSet.getLong(2), resultSet.getString(1), resultSet.getString(3)));
+          }
+          violations++;
+        }
+      }
+      if (violations > 0) {
+        throw new SQLException(String.format("%d foreign key violations found:%s", violations,
+            listedViolations));
+      }
+
+      statement.execute("ANALYZE");
+    }
+    catch (SQLException e) {
+      throw new SQLException(e.getMessage() + "\nFailed to finish bulk load of CDDB!");
+    }
+    finally {
+      disconnect(connection);
+    }
+
+    bulkLoad = false;
+    deferredStatements.clear();
+    createFullTextTables();
+    gatherValueFrequencies();
+
+    // Connections opened for bulk loading are discarded for ones opened as normal
+    readerPool.close();
+    writerPool.close();
+    createConnectionPools();
+    disconnect(connectWriter());
+  }
+
+  /**
+   * Closes the pools of connections to the CDDB, closing every idle connection - in WAL mode, the
+   * last connection to close checkpoints the CDDB and removes its write-ahead log. Connections
+   * still leased are closed as they're returned, and no further connections are leased.
+   */
+  @Override
+  public void close() {
+    readerPool.close();
+    writerPool.close();
+  }
+
+  /**
+   * Returns the pool of read only connections to the CDDB, for its metrics on leases of
+   * connections.
+   * @return pool of read only connections to the CDDB
+   */
+  public ConnectionPool getReaderPool() {
+    return readerPool;
+  }
+
+  /**
+   * Returns the pool of the single connection writing to the CDDB, for its metrics on leases of
+   * the connection.
+   * @return pool of the connection writing to the CDDB
+   */
+  public ConnectionPool getWriterPool() {
+    return writerPool;
+  }
 
+  /**
+   * Returns the current version of the card info of the CDDB at the given path, which changes
+   * whenever a set is added to that CDDB from within this process, for caches of card info to
+   * tell when they are stale.
+   * @param pathToDatabase path to the CDDB
+   * @return current version of the CDDB's card info
+   */
+  protected static long getCardVersion(Path pathToDatabase) {
+    synchronized (cardVersions) {
+      return cardVersions.getOrDefault(pathToDatabase.toAbsolutePath().normalize(), 0L);
+    }
+  }
+
+  /**
+   * Marks the card info of the CDDB as changed, i.e. once a set has been added to it, so caches of
+   * its card info are dropped.
+   */
+  protected void cardsChanged() {
+    synchronized (cardVersions) {
+      cardVersions.merge(pathToDatabase.toAbsolutePath().normalize(), 1L, Long::sum);
+    }
+  }
+
+  /**
+   * Creates the pools of connections to the CDDB - a pool of a single connection for writing, and a
+   * pool of read only connections for reading. Outside of bulk loading, the CDDB is kept in WAL
+   * mode, so readers aren't blocked by the writer, nor the writer by readers. While bulk loading,
+   * the writer trades durability and foreign key enforcement for speed. Readers cache the
+   * statements they prepare, so repeated queries skip being compiled again.
+   */
+  private void createConnectionPools() {
+    // Path to CDDB
+    String url = "jdbc:sqlite:" + pathToDatabase.toString();
+
+    SQLiteConfig writerConfig = new SQLiteConfig();
+    if (bulkLoad) {
+      // Keep the rollback journal in memory rather than turning it off, so a set that fails to
+      // be added can still be rolled back
+      writerConfig.enforceForeignKeys(false);
+      writerConfig.setJournalMode(JournalMode.MEMORY);
+      writerConfig.setSynchronous(SynchronousMode.OFF);
+      writerConfig.setCacheSize(-bulkLoadCacheSize);
+      writerConfig.setTempStore(TempStore.MEMORY);
+    }
+    else {
       // Enable foreign keys
-      SQLiteConfig config = new SQLiteConfig();
-      config.enforceForeignKeys(true);
+      writerConfig.enforceForeignKeys(true);
+      writerConfig.setJournalMode(JournalMode.WAL);
+    }
+    writerPool = new ConnectionPool(url, writerConfig.toProperties(), 1, idleTimeoutMillis,
+        leaseTimeoutMillis, 0);
+
+    SQLiteConfig readerConfig = new SQLiteConfig();
+    readerConfig.setReadOnly(true);
+    readerPool = new ConnectionPool(url, readerConfig.toProperties(), maxReaderConnections,
+        idleTimeoutMillis, leaseTimeoutMillis, maxCachedStatements);
+  }
+
+  /**
+   * Leases a read only connection to the CDDB from the pool of readers, which is returned to the
+   * pool once closed.
+   * @throws SQLException if there is a failure to connect to the CDDB
+   */
+  protected Connection connect() throws SQLException {
+    Connection transaction = transactions.get();
+    if (transaction != null) {
+      return joinTransaction(transaction);
+    }
 
-      // Return connection to CDDB
-      return DriverManager.getConnection(url, config.toProperties());
+    try {
+      return readerPool.lease();
     }
     catch (SQLException e) {
       throw new SQLException(e.getMessage() + "\nFailed to connect to CDDB!");
@@ -143,7 +775,103 @@ public abstract class DatabasePort {
   }
 
   /**
-   * Closes an a given connection to the CDDB.
+   * Leases the single connection allowed to write to the CDDB, which is returned once closed.
+   * Callers wanting to write wait in a queue for the writer, and are served in the order they
+   * asked for it, so writes to the CDDB are serialized.
+   * @throws SQLException if there is a failure to connect to the CDDB
+   */
+  protected Connection connectWriter() throws SQLException {
+    Connection transaction = transactions.get();
+    if (transaction != null) {
+      return joinTransaction(transaction);
+    }
+
+    try {
+      return writerPool.lease();
+    }
+    catch (SQLException e) {
+      throw new SQLException(e.getMessage() + "\nFailed to connect to CDDB for writing!");
+    }
+  }
+
+  /**
+   * Work to run against the CDDB in a single transaction.
+   */
+  @FunctionalInterface
+  protected interface TransactionWork {
+
+    /**
+     * Runs the work, connecting to the CDDB as normal.
+     * @throws SQLException if the work fails
+     */
+    void run() throws SQLException;
+  }
+
+  /**
+   * Runs the given work in a single transaction on the writer connection to the CDDB. While the
+   * work runs, every connection it makes from the calling thread, reading or writing, is the
+   * transaction's connection, so the work reads its own writes and commits them all at once. If
+   * the work fails, none of its writes are kept. Work run while the calling thread is already in a
+   * transaction is made part of that transaction.
+   * @param work work to run
+   * @throws IllegalArgumentException if given work is null
+   * @throws SQLException if the work fails, or the transaction fails to be committed
+   */
+  protected void runInTransaction(TransactionWork work)
+      throws IllegalArgumentException, SQLException {
+    if (work == null) {
+      throw new IllegalArgumentException("Given work can't be null!");
+    }
+    else if (transactions.get() != null) {
+      work.run();
+      return;
+    }
+
+    Connection connection = connectWriter();
+    try {
+      connection.setAutoCommit(false);
+      transactions.set(connection);
+      work.run();
+      connection.commit();
+    }
+    catch (SQLException | RuntimeException e) {
+      try {
+        connection.rollback();
+      }
+      catch (SQLException rollbackFailure) {
+        e.addSuppressed(rollbackFailure);
+      }
+      throw e;
+    }
+    finally {
+      transactions.remove();
+      disconnect(connection);
+    }
+  }
+
+  /**
+   * Wraps the given connection of a transaction for work that is part of the transaction, such
+   * that closing the wrapper leaves the transaction's connection open.
+   * @param transaction connection of the transaction
+   * @return wrapper of the connection
+   */
+  private Connection joinTransaction(Connection transaction) {
+    return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+        new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+          if (method.getName().equals("close")) {
+            return null;
+          }
+          try {
+            return method.invoke(transaction, args);
+          }
+          catch (InvocationTargetException e) {
+            throw e.getCause();
+          }
+        });
+  }
+
+  /**
+   * Closes an a given connection to the CDDB, returning it to the pool of connections.
    * @throws SQLException if there is a failure to close the CDDB
    */
   protected void disconnect(Connection connection) throws SQLException {
@@ -0,0 +1,282 @@
+package database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of the statements prepared on each connection of a {@link ConnectionPool}, so a query run
+ * again on the same connection reuses its already compiled statement and query plan rather than
+ * being compiled anew. Statements are keyed by their SQL, so queries written as templates with
+ * "?" placeholders for their values - such as card queries - share a statement between every query
+ * of the same shape, i.e. the same filters and options with the same number of values each. Each
+ * connection caches up to a maximum number of statements, evicting the least recently used
+ * statement once full. A cached statement is taken out of the cache while in use, and put back
+ * once closed. Keeps counts of hits, misses, and evictions.
+ */
+public class StatementCache {
+
+  /**
+   * Maximum number of statements cached for each connection.
+   */
+  private final int maxStatements;
+
+  /**
+   * Cached statements of each connection by SQL, least recently used first.
+   */
+  private final Map<Connection, LinkedHashMap<String, PreparedStatement>> statements;
+
+  private long hits;
+
+  private long misses;
+
+  private long evictions;
+
+  /**
+   * Creates an empty cache of the given number of statements for each connection.
+   * @param maxStatements maximum number of statements to cache for each connection
+   * @throws IllegalArgumentException if given maximum isn't positive
+   */
+  StatementCache(int maxStatements) {
+    if (maxStatements < 1) {
+      throw new IllegalArgumentException("Given maximum number of statements must be positive!");
+    }
+    this.maxStatements = maxStatements;
+    this.statements = new IdentityHashMap<>();
+  }
+
+  /**
+   * Returns a statement of the given SQL prepared on the given connection, reusing the connection's
+   * cached statement for that SQL if there is one, else preparing a new one. The statement is put
+   * back in the cache by closing it.
+   * @param connection connection to prepare the statement on
+   * @param sql SQL of the statement
+   * @return prepared statement
+   * @throws SQLException if the statement fails to be prepared
+   */
+  PreparedStatement prepare(Connection connection, String sql) throws SQLException {
+    PreparedStatement statement;
+    synchronized (this) {
+      statement = statementsOf(connection).remove(sql);
+      if (statement == null) {
+        misses++;
+      }
+      else {
+        hits++;
+      }
+    }
+
+    if (statement == null) {
+      statement = connection.prepareStatement(sql);
+    }
+    return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+        new Class<?>[]{PreparedStatement.class}, new CachedStatement(connection, sql, statement));
+  }
+
+  /**
+   * Returns the cached statements of the given connection, tracking the connection if it isn't
+   * already.
+   * @param connection connection to get the statements of
+   * @return cached statements of the connection by SQL
+   */
+  private synchronized LinkedHashMap<String, PreparedStatement> statementsOf(Connection connection) {
+    return statements.computeIfAbsent(connection,
+        unused -> new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+            if (size() > maxStatements) {
+              evictions++;
+              closeQuietly(eldest.getValue());
+              return true;
+            }
+            return false;
+          }
+        });
+  }
+
+  /**
+   * Puts the given statement back in the cache once it's closed, resetting it for its next use.
+   * Statements that fail to be reset, whose connection has been discarded, or whose SQL already
+   * has a statement cached for the connection, are closed instead.
+   * @param connection connection the statement was prepared on
+   * @param sql SQL of the statement
+   * @param statement statement being put back
+   * @param resultSet last result set of the statement, if any
+   */
+  private void release(Connection connection, String sql, PreparedStatement statement,
+      ResultSet resultSet) {
+    boolean reusable;
+    try {
+      if (resultSet != null) {
+        resultSet.close();
+      }
+      statement.clearParameters();
+      reusable = !statement.isClosed();
+    }
+    catch (SQLException e) {
+      reusable = false;
+    }
+
+    synchronized (this) {
+      Map<String, PreparedStatement> cached = statements.get(connection);
+      if (reusable && cached != null && !cached.containsKey(sql)) {
+        cached.put(sql, statement);
+        return;
+      }
+    }
+    closeQuietly(statement);
+  }
+
+  /**
+   * Drops the cached statements of the given connection, as the connection is being closed.
+   * @param connection connection being closed
+   */
+  void discard(Connection connection) {
+    Map<String, PreparedStatement> cached;
+    synchronized (this) {
+      cached = statements.remove(connection);
+    }
+    if (cached != null) {
+      cached.values().forEach(this::closeQuietly);
+    }
+  }
+
+  /**
+   * Closes the given statement, ignoring any failure, as the statement is being discarded.
+   * @param statement statement to close
+   */
+  private void closeQuietly(PreparedStatement statement) {
+    try {
+      statement.close();
+    }
+    catch (SQLException e) {
+      // Statement is being discarded either way
+    }
+  }
+
+  public synchronized int getMaxStatements() {
+    return maxStatements;
+  }
+
+  /**
+   * Returns the number of statements cached across every connection.
+   * @return number of cached statements
+   */
+  public synchronized int getSize() {
+    int size = 0;
+    for (Map<String, PreparedStatement> cached : statements.values()) {
+      size += cached.size();
+    }
+    return size;
+  }
+
+  public synchronized long getHits() {
+    return hits;
+  }
+
+  public synchronized long getMisses() {
+    return misses;
+  }
+
+  public synchronized long getEvictions() {
+    return evictions;
+  }
+
+  /**
+   * Returns the fraction of statements prepared that reused a cached statement.
+   * @return hit rate, between 0 and 1, or 0 if no statements have been prepared
+   */
+  public synchronized double getHitRate() {
+    long lookups = hits + misses;
+    return lookups == 0 ? 0 : (double) hits / lookups;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return String.format("StatementCache[size=%d, maxPerConnection=%d, hits=%d, misses=%d, "
+        + "hitRate=%.2f, evictions=%d]", getSize(), maxStatements, hits, misses, getHitRate(),
+        evictions);
+  }
+
+  /**
+   * Handles calls to a cached statement, passing each call through to the underlying statement,
+   * except for closing it, which puts it back in the cache. Once put back, the statement acts as a
+   * closed statement.
+   */
+  private class CachedStatement implements InvocationHandler {
+
+    /**
+     * Connection the statement was prepared on.
+     */
+    private final Connection connection;
+
+    /**
+     * SQL of the statement.
+     */
+    private final String sql;
+
+    /**
+     * Underlying statement being used.
+     */
+    private final PreparedStatement statement;
+
+    /**
+     * Last result set of the statement, closed once the statement is put back.
+     */
+    private ResultSet resultSet;
+
+    /**
+     * If the statement has been put back in the cache.
+     */
+    private boolean returned;
+
+    private CachedStatement(Connection connection, String sql, PreparedStatement statement) {
+      this.connection = connection;
+      this.sql = sql;
+      this.statement = statement;
+      this.returned = false;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      switch (method.getName()) {
+        case "close":
+          if (!returned) {
+            returned = true;
+            release(connection, sql, statement, resultSet);
+          }
+          return null;
+        case "isClosed":
+          return returned || statement.isClosed();
+        case "equals":
+          return proxy == args[0];
+        case "hashCode":
+          return System.identityHashCode(proxy);
+        case "toString":
+          return "Cached " + statement;
+        default:
+          if (returned) {
+            throw new SQLException("Statement has already been closed!");
+          }
+          try {
+            Object result = method.invoke(statement, args);
+            if (result instanceof ResultSet) {
+              resultSet = (ResultSet) result;
+            }
+            return result;
+          }
+          catch (InvocationTargetException e) {
+            throw e.getCause();
+          }
+      }
+    }
+  }
+}
@@ -0,0 +1,168 @@
+package database.access;
+
+import database.access.DefaultDatabaseChannel.DefaultCard;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded cache of the {@link DefaultCard}s built from a single Card & Deck Database (CDDB), shared
+ * by every channel to that CDDB in the process. Each card is cached with all of its printings, by
+ * name, and once full the least recently used card is evicted to make room for a new one. The
+ * whole cache is dropped whenever the card info of the CDDB changes, i.e. a set is added to it, as
+ * per a version of the CDDB's card info. Keeps counts of hits, misses, evictions, and
+ * invalidations.
+ */
+public class CardCache {
+
+  /**
+   * Maximum number of cards cached at once.
+   */
+  private final int maxCards;
+
+  /**
+   * Current version of the card info of the CDDB.
+   */
+  private final LongSupplier currentVersion;
+
+  /**
+   * Cached cards by name, least recently used first.
+   */
+  private final LinkedHashMap<String, DefaultCard> cards;
+
+  /**
+   * Version of the card info the cached cards were built from.
+   */
+  private long version;
+
+  private long hits;
+
+  private long misses;
+
+  private long evictions;
+
+  private long invalidations;
+
+  /**
+   * Creates an empty cache of the given number of cards.
+   * @param maxCards maximum number of cards to cache at once
+   * @param currentVersion supplier of the current version of the card info of the CDDB, which
+   *        changes whenever the card info does
+   * @throws IllegalArgumentException if given supplier is null, or given maximum isn't positive
+   */
+  CardCache(int maxCards, LongSupplier currentVersion) {
+    if (currentVersion == null) {
+      throw new IllegalArgumentException("Given version supplier can't be null!");
+    }
+    else if (maxCards < 1) {
+      throw new IllegalArgumentException("Given maximum number of cards must be positive!");
+    }
+    this.maxCards = maxCards;
+    this.currentVersion = currentVersion;
+    this.cards = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, DefaultCard> eldest) {
+        if (size() > CardCache.this.maxCards) {
+          evictions++;
+          return true;
+        }
+        return false;
+      }
+    };
+    this.version = currentVersion.getAsLong();
+  }
+
+  /**
+   * Returns the current version of the card info of the CDDB, to pass to
+   * {@link #put(String, DefaultCard, long)} along with cards built from that version.
+   * @return current version of the card info
+   */
+  long getVersion() {
+    return currentVersion.getAsLong();
+  }
+
+  /**
+   * Returns the cached card with the given name, if there is one.
+   * @param name name of the card
+   * @return cached card, or null if the card isn't cached
+   */
+  synchronized DefaultCard get(String name) {
+    checkVersion();
+    DefaultCard card = cards.get(name);
+    if (card == null) {
+      misses++;
+    }
+    else {
+      hits++;
+    }
+    return card;
+  }
+
+  /**
+   * Caches the given card under the given name, unless the card info of the CDDB has changed since
+   * the given version the card was built from.
+   * @param name name of the card
+   * @param card card to cache, with all of its printings
+   * @param builtFrom version of the card info the card was built from
+   */
+  synchronized void put(String name, DefaultCard card, long builtFrom) {
+    checkVersion();
+    if (builtFrom == version) {
+      cards.put(name, card);
+    }
+  }
+
+  /**
+   * Drops every cached card if the card info of the CDDB has changed since they were built.
+   */
+  private void checkVersion() {
+    long latest = currentVersion.getAsLong();
+    if (latest != version) {
+      version = latest;
+      if (!cards.isEmpty()) {
+        cards.clear();
+        invalidations++;
+      }
+    }
+  }
+
+  public synchronized int getMaxCards() {
+    return maxCards;
+  }
+
+  public synchronized int getSize() {
+    return cards.size();
+  }
+
+  public synchronized long getHits() {
+    return hits;
+  }
+
+  public synchronized long getMisses() {
+    return misses;
+  }
+
+  public synchronized long getEvictions() {
+    return evictions;
+  }
+
+  public synchronized long getInvalidations() {
+    return invalidations;
+  }
+
+  /**
+   * Returns the fraction of lookups that were hits.
+   * @return hit rate, between 0 and 1, or 0 if there have been no lookups
+   */
+  public synchronized double getHitRate() {
+    long lookups = hits + misses;
+    return lookups == 0 ? 0 : (double) hits / lookups;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return String.format("CardCache[size=%d/%d, hits=%d, misses=%d, hitRate=%.2f, evictions=%d, "
+        + "invalidations=%d]", cards.size(), maxCards, hits, misses, getHitRate(), evictions,
+        invalidations);
+  }
+}
@@ -0,0 +1,355 @@
+package database.access;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import value_objects.card.printing.CardPrinting;
+import value_objects.card.printing.DefaultCardPrinting;
+import value_objects.card.relationship.CardRelationship;
+import value_objects.card.relationship.DefaultCardRelationship;
+
+/**
+ * Fetches the info of a group of cards from the Card & Deck Database (CDDB) all at once, so each
+ * table of card info is queried a fixed number of times for the whole group, rather than once per
+ * card. Cards are looked up by IN-lists of their names, split into chunks small enough to stay
+ * under SQLite's limit on bound parameters. Fetched info is held in memory, for each card of the
+ * group to be built from. Can fetch only the summary of each card, i.e. its base info, mana costs,
+ * and types, leaving out its colors, relationships, stats, and printings.
+ */
+class CardHydrator {
+
+  /**
+   * Most card names bound to a single query, with room for queries binding each name three times
+   * under SQLite's default limit of 999 bound parameters.
+   */
+  private static final int namesPerQuery = 300;
+
+  private final Map<String, String> texts;
+
+  private final Map<String, Integer> convertedManaCosts;
+
+  private final Map<String, Map<String, Integer>> manaCosts;
+
+  private final Map<String, SortedSet<String>> supertypes;
+
+  private final Map<String, SortedSet<String>> types;
+
+  private final Map<String, SortedSet<String>> subtypes;
+
+  private final Map<String, SortedSet<String>> colors;
+
+  private final Map<String, SortedSet<String>> colorIdentities;
+
+  private final Map<String, CardRelationship> relationships;
+
+  private final Map<String, String> loyalties;
+
+  private final Map<String, String[]> powerToughnesses;
+
+  private final Map<String, SortedSet<CardPrinting>> printings;
+
+  /**
+   * Rarity, flavor text, and Scryfall id of each printing.
+   */
+  private final Map<CardPrinting, String[]> printingInfo;
+
+  private final Map<CardPrinting, SortedSet<String>> artists;
+
+  /**
+   * If all the info of each card was fetched, rather than only its summary.
+   */
+  private final boolean detailed;
+
+  /**
+   * Reads a row of a query's results.
+   */
+  @FunctionalInterface
+  private interface RowReader {
+
+    /**
+     * Reads the current row of the given results.
+     * @param row results, at the row to read
+     * @throws SQLException if the row fails to be read
+     */
+    void read(ResultSet row) throws SQLException;
+  }
+
+  /**
+   * Fetches the info of each of the given cards from the CDDB.
+   * @param connection connection to the CDDB to use for retrieving data
+   * @param cardNames names of the cards to fetch info for
+   * @throws IllegalArgumentException if given connection or names are null, or the connection is
+   *         closed
+   * @throws SQLException if there is an error in retrieving data from the CDDB
+   */
+  CardHydrator(Connection connection, Set<String> cardNames) throws SQLException {
+    this(connection, cardNames, true);
+  }
+
+  /**
+   * Fetches either all the info or only the summary of each of the given cards from the CDDB.
+   * @param connection connection to the CDDB to use for retrieving data
+   * @param cardNames names of the cards to fetch info for
+   * @param detailed if all the info of each card is to be fetched, rather than only its summary
+   * @throws IllegalArgumentException if given connection or names are null, or the connection is
+   *         closed
+   * @throws SQLException if there is an error in retrieving data from the CDDB
+   */
+  CardHydrator(Connection connection, Set<String> cardNames, boolean detailed)
+      throws SQLException {
+    if (connection == null || cardNames == null) {
+      throw new IllegalArgumentException("Given connection and card names can't be null!");
+    }
+    else if (connection.isClosed()) {
+      throw new IllegalArgumentException("Given connection can't be closed!");
+    }
+
+    this.texts = new HashMap<>();
+    this.convertedManaCosts = new HashMap<>();
+    this.manaCosts = new HashMap<>();
+    this.supertypes = new HashMap<>();
+    this.types = new HashMap<>();
+    this.subtypes = new HashMap<>();
+    this.colors = new HashMap<>();
+    this.colorIdentities = new HashMap<>();
+    this.relationships = new HashMap<>();
+    this.loyalties = new HashMap<>();
+    this.powerToughnesses = new HashMap<>();
+    this.printings = new HashMap<>();
+    this.printingInfo = new HashMap<>();
+    this.artists = new HashMap<>();
+    this.detailed = detailed;
+
+    List<String> names = new ArrayList<>(cardNames);
+    for (int start = 0; start < names.size(); start += namesPerQuery) {
+      fetchChunk(connection, names.subList(start, Math.min(names.size(), start + namesPerQuery)));
+    }
+  }
+
+  /**
+   * Fetches the info of each of the given cards from the CDDB, a single query per table.
+   * @param connection connection to the CDDB to use for retrieving data
+   * @param names names of the cards to fetch info for
+   * @throws SQLException if there is an error in retrieving data from the CDDB
+   */
+  private void fetchChunk(Connection connection, List<String> names) throws SQLException {
+    forEachRow(connection, "SELECT name, text, cmc FROM Card WHERE name IN (%1$s)", 1, names,
+        "base info", row -> {
+          texts.put(row.getString("name"), row.getString("text"));
+          convertedManaCosts.put(row.getString("name"), row.getInt("cmc"));
+        });
+
+    forEachRow(connection, "SELECT card_name, mana_type, quantity FROM Mana "
+        + "WHERE card_name IN (%1$s)", 1, names, "mana type info", row ->
+        manaCosts.computeIfAbsent(row.getString("card_name"), name -> new HashMap<>())
+            .put(row.getString("mana_type"), row.getInt("quantity")));
+
+    fetchValues(connection, "Supertype", "type", names, "supertype", supertypes);
+    fetchValues(connection, "Type", "type", names, "type", types);
+    fetchValues(connection, "Subtype", "type", names, "subtype", subtypes);
+    if (!detailed) {
+      return;
+    }
+
+    fetchValues(connection, "Color", "color", names, "color", colors);
+    fetchValues(connection, "ColorIdentity", "color", names, "color identity", colorIdentities);
+
+    // A card related to two cards takes precedence over one related to three
+    Set<String> chunk = new TreeSet<>(names);
+    forEachRow(connection, "SELECT card_a, card_b, type FROM TwoCards "
+        + "WHERE card_a IN (%1$s) OR card_b IN (%1$s)", 2, names, "two card relationship info",
+        row -> addRelationship(chunk, row, "card_a", "card_b"));
+    forEachRow(connection, "SELECT card_a, card_b, card_c, type FROM ThreeCards "
+        + "WHERE card_a IN (%1$s) OR card_b IN (%1$s) OR card_c IN (%1$s)", 3, names,
+        "three card relationship info", row -> addRelationship(chunk, row, "card_a", "card_b",
+            "card_c"));
+
+    forEachRow(connection, "SELECT card_name, loyalty FROM Loyalty WHERE card_name IN (%1$s)", 1,
+        names, "loyalty", row -> loyalties.putIfAbsent(row.getString("card_name"),
+            row.getString("loyalty")));
+    forEachRow(connection, "SELECT card_name, power, toughness FROM PowerToughness "
+        + "WHERE card_name IN (%1$s)", 1, names, "power and toughness", row ->
+        powerToughnesses.putIfAbsent(row.getString("card_name"),
+            new String[]{row.getString("power"), row.getString("toughness")}));
+
+    forEachRow(connection, "SELECT card_name, expansion, number, rarity, flavor_text, scryfall_id "
+        + "FROM CardExpansion WHERE card_name IN (%1$s)", 1, names, "card expansion info", row -> {
+          CardPrinting printing = printing(row);
+          printings.computeIfAbsent(printing.getCardName(), name -> new TreeSet<>()).add(printing);
+          printingInfo.put(printing, new String[]{row.getString("rarity"),
+              row.getString("flavor_text"), row.getString("scryfall_id")});
+        });
+    forEachRow(connection, "SELECT card_name, expansion, number, artist FROM Artist "
+        + "WHERE card_name IN (%1$s)", 1, names, "artists", row ->
+        artists.computeIfAbsent(printing(row), printing -> new TreeSet<>())
+            .add(row.getString("artist")));
+  }
+
+  /**
+   * Fetches the values of the given column of the given table for each of the given cards, where
+   * each card may have multiple values.
+   * @param connection connection to the CDDB to use for retrieving data
+   * @param table table to retrieve data from
+   * @param column column of the table to retrieve
+   * @param names names of the cards to fetch values for
+   * @param infoType type of info being retrieved
+   * @param values mapping of card names to their values to add to
+   * @throws SQLException if there is an error in retrieving data from the CDDB
+   */
+  private void fetchValues(Connection connection, String table, String column, List<String> names,
+      String infoType, Map<String, SortedSet<String>> values) throws SQLException {
+    forEachRow(connection, String.format("SELECT card_name, %s FROM %s WHERE card_name IN (%%1$s)",
+        column, table), 1, names, infoType, row ->
+        values.computeIfAbsent(row.getString("card_name"), name -> new TreeSet<>())
+            .add(row.getString(column)));
+  }
+
+  /**
+   * Runs the given query for the given cards, and reads each row of its results.
+   * @param connection connection to the CDDB to use for retrieving data
+   * @param query query to run, with "%1$s" wherever the list of card names is to be bound
+   * @param lists number of times the list of card names appears in the query
+   * @param names names of the cards to bind
+   * @param infoType type of info being retrieved
+   * @param reader reader of each row of the results
+   * @throws SQLException if there is an error in retrieving data from the CDDB
+   */
+  private void forEachRow(Connection connection, String query, int lists, List<String> names,
+      String infoType, RowReader reader) throws SQLException {
+    // Lists are padded out to a power of two by repeating the last name, so batches of similar
+    // sizes share the same statement in the statement cache
+    int slots = 1;
+    while (slots < names.size()) {
+      slots *= 2;
+    }
+    slots = Math.max(names.size(), Math.min(slots, namesPerQuery));
+
+    String placeholders = String.join(",", Collections.nCopies(slots, "?"));
+    try (PreparedStatement preparedStatement =
+        connection.prepareStatement(String.format(query, placeholders))) {
+      int parameter = 1;
+      for (int list = 0; list < lists; list++) {
+        for (int slot = 0; slot < slots; slot++) {
+          preparedStatement.setString(parameter++, names.get(Math.min(slot, names.size() - 1)));
+        }
+      }
+
+      try (ResultSet resultSet = preparedStatement.executeQuery()) {
+        while (resultSet.next()) {
+          reader.read(resultSet);
+        }
+      }
+    }
+    catch (SQLException e) {
+      throw new SQLException(e.getMessage() +
+          String.format("\nFailed to retrieve %s for %d cards from database!", infoType,
+              names.size()));
+    }
+  }
+
+  /**
+   * Given a row relating multiple cards, adds the relationship for each card of the given chunk
+   * that's part of it and doesn't already have a relationship.
+   * @param chunk names of the cards being fetched
+   * @param row row relating the cards
+   * @param columns columns of the row holding the names of the related cards
+   * @throws SQLException if the row fails to be read
+   */
+  private void addRelationship(Set<String> chunk, ResultSet row, String... columns)
+      throws SQLException {
+    SortedSet<String> cardNames = new TreeSet<>();
+    for (String column : columns) {
+      cardNames.add(row.getString(column));
+    }
+    CardRelationship relationship = new DefaultCardRelationship(cardNames, row.getString("type"));
+    for (String cardName : cardNames) {
+      if (chunk.contains(cardName)) {
+        relationships.putIfAbsent(cardName, relationship);
+      }
+    }
+  }
+
+  /**
+   * Returns the printing identified by the card name, expansion, and number of the given row.
+   * @param row row identifying a printing
+   * @return printing of the row
+   * @throws SQLException if the row fails to be read
+   */
+  private CardPrinting printing(ResultSet row) throws SQLException {
+    return new DefaultCardPrinting(row.getString("card_name"), row.getString("expansion"),
+        row.getString("number"));
+  }
+
+  boolean isDetailed() {
+    return detailed;
+  }
+
+  boolean hasCard(String cardName) {
+    return texts.containsKey(cardName);
+  }
+
+  String getText(String cardName) {
+    return texts.get(cardName);
+  }
+
+  int getConvertedManaCost(String cardName) {
+    return convertedManaCosts.get(cardName);
+  }
+
+  Map<String, Integer> getManaCosts(String cardName) {
+    return manaCosts.getOrDefault(cardName, new HashMap<>());
+  }
+
+  SortedSet<String> getSupertypes(String cardName) {
+    return supertypes.getOrDefault(cardName, new TreeSet<>());
+  }
+
+  SortedSet<String> getTypes(String cardName) {
+    return types.getOrDefault(cardName, new TreeSet<>());
+  }
+
+  SortedSet<String> getSubtypes(String cardName) {
+    return subtypes.getOrDefault(cardName, new TreeSet<>());
+  }
+
+  SortedSet<String> getColors(String cardName) {
+    return colors.getOrDefault(cardName, new TreeSet<>());
+  }
+
+  SortedSet<String> getColorIdentity(String cardName) {
+    return colorIdentities.getOrDefault(cardName, new TreeSet<>());
+  }
+
+  CardRelationship getRelationship(String cardName) {
+    return relationships.getOrDefault(cardName, new DefaultCardRelationship());
+  }
+
+  String getLoyalty(String cardName) {
+    return loyalties.get(cardName);
+  }
+
+  String[] getPowerToughness(String cardName) {
+    return powerToughnesses.get(cardName);
+  }
+
+  SortedSet<CardPrinting> getPrintings(String cardName) {
+    return printings.getOrDefault(cardName, new TreeSet<>());
+  }
+
+  String[] getPrintingInfo(CardPrinting printing) {
+    return printingInfo.get(printing);
+  }
+
+  SortedSet<String> getArtists(CardPrinting printing) {
+    return artists.getOrDefault(printing, new TreeSet<>());
+  }
+}
@@ -0,0 +1,606 @@
+package database.access;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import value_objects.card.query.Comparison;
+import value_objects.card.query.SearchOption;
+import value_objects.card.query.Stat;
+
+/**
+ * In-memory index of every card and printing in the Card & Deck Database (CDDB), for answering
+ * card queries without going to the CDDB. Cards and printings are numbered, with each card's
+ * printings numbered one after another, and stats are held as columns of primitive values by card
+ * number. Every value of colors, color identities, supertypes, types, subtypes, expansions,
+ * rarities, and artists has a bitmap of the cards with that value, and for expansions, rarities,
+ * and artists also a bitmap of the printings with that value, so filters are evaluated as unions,
+ * intersections, and differences of bitmaps. Loaded all at once, as of a single version of the
+ * CDDB's card info, then shared by every channel to the CDDB until a set is added to it. Keeps
+ * counts of the queries it answered and the queries it couldn't.
+ */
+public class CardIndex {
+
+  /**
+   * Version of the card info the index was loaded from.
+   */
+  private final long version;
+
+  /**
+   * Names of the cards by card number.
+   */
+  private final String[] cardNames;
+
+  /**
+   * Number of the first printing of each card by card number, followed by the number of printings.
+   */
+  private final int[] firstPrintings;
+
+  /**
+   * Expansion of each printing by printing number.
+   */
+  private final String[] expansions;
+
+  /**
+   * Number within its expansion of each printing by printing number.
+   */
+  private final String[] numbers;
+
+  /**
+   * Bitmaps of the cards with each value, by value, by the table or column of the value.
+   */
+  private final Map<String, Map<String, BitSet>> cardValues;
+
+  /**
+   * Bitmaps of the printings with each value, by value, by the column of the value.
+   */
+  private final Map<String, Map<String, BitSet>> printingValues;
+
+  /**
+   * Column of the value of each stat, by stat.
+   */
+  private final Map<Stat, Column> stats;
+
+  /**
+   * Column of the quantity of each mana type, by mana type.
+   */
+  private final Map<String, Column> manaTypes;
+
+  private long queriesAnswered;
+
+  private long queriesUnsupported;
+
+  /**
+   * Loads the index from the CDDB.
+   * @param connection connection to the CDDB to use for retrieving data
+   * @param version version of the card info being loaded
+   * @throws IllegalArgumentException if given connection is null or closed
+   * @throws SQLException if there is an error in retrieving data from the CDDB
+   */
+  CardIndex(Connection connection, long version) throws SQLException {
+    if (connection == null || connection.isClosed()) {
+      throw new IllegalArgumentException("Given connection can't be null or closed!");
+    }
+    this.version = version;
+    this.cardValues = new HashMap<>();
+    this.printingValues = new HashMap<>();
+    this.stats = new EnumMap<>(Stat.class);
+    this.manaTypes = new HashMap<>();
+
+    // Cards and printings are both numbered in order of card name, so each card's printings are
+    // numbered one after another
+    List<String> names = new ArrayList<>();
+    Map<String, Integer> cardNumbers = new HashMap<>();
+    Column cmc = new Column();
+    forEachRow(connection, "SELECT name, cmc FROM Card ORDER BY name", "cards", row -> {
+      cardNumbers.put(row.getString("name"), names.size());
+      cmc.put(names.size(), row.getInt("cmc"));
+      names.add(row.getString("name"));
+    });
+    this.cardNames = names.toArray(new String[0]);
+    this.stats.put(Stat.CMC, cmc);
+
+    List<String> printingExpansions = new ArrayList<>();
+    List<String> printingNumbers = new ArrayList<>();
+    Map<String, Integer> printingNumbersByKey = new HashMap<>();
+    int[] firstPrintings = new int[cardNames.length + 1];
+    int[] lastCard = new int[]{-1};
+    forEachRow(connection, "SELECT card_name, expansion, number, rarity FROM CardExpansion "
+        + "ORDER BY card_name, expansion, number", "printings", row -> {
+      Integer card = cardNumbers.get(row.getString("card_name"));
+      if (card == null) {
+        return;
+      }
+      int printing = printingExpansions.size();
+      while (lastCard[0] < card) {
+        firstPrintings[++lastCard[0]] = printing;
+      }
+      printingExpansions.add(row.getString("expansion"));
+      printingNumbers.add(row.getString("number"));
+      printingNumbersByKey.put(printingKey(row.getString("card_name"), row.getString("expansion"),
+          row.getString("number")), printing);
+      addValue(cardValues, "expansion", row.getString("expansion"), card);
+      addValue(printingValues, "expansion", row.getString("expansion"), printing);
+      addValue(cardValues, "rarity", row.getString("rarity"), card);
+      addValue(printingValues, "rarity", row.getString("rarity"), printing);
+    });
+    while (lastCard[0] < cardNames.length) {
+      firstPrintings[++lastCard[0]] = printingExpansions.size();
+    }
+    this.firstPrintings = firstPrintings;
+    this.expansions = printingExpansions.toArray(new String[0]);
+    this.numbers = printingNumbers.toArray(new String[0]);
+
+    forEachRow(connection, "SELECT card_name, expansion, number, artist FROM Artist", "artists",
+        row -> {
+          Integer card = cardNumbers.get(row.getString("card_name"));
+          Integer printing = printingNumbersByKey.get(printingKey(row.getString("card_name"),
+              row.getString("expansion"), row.getString("number")));
+          if (card != null && printing != null) {
+            addValue(cardValues, "artist", row.getString("artist"), card);
+            addValue(printingValues, "artist", row.getString("artist"), printing);
+          }
+        });
+
+    loadValues(connection, "Color", "color", cardNumbers);
+    loadValues(connection, "ColorIdentity", "color", cardNumbers);
+    loadValues(connection, "Supertype", "type", cardNumbers);
+    loadValues(connection, "Type", "type", cardNumbers);
+    loadValues(connection, "Subtype", "type", cardNumbers);
+
+    Column power = new Column();
+    Column toughness = new Column();
+    forEachRow(connection, "SELECT card_name, power_value, toughness_value FROM PowerToughness",
+        "powers and toughnesses", row -> {
+          Integer card = cardNumbers.get(row.getString("card_name"));
+          if (card != null) {
+            power.put(card, row.getInt("power_value"));
+            toughness.put(card, row.getInt("toughness_value"));
+          }
+        });
+    this.stats.put(Stat.POWER, power);
+    this.stats.put(Stat.TOUGHNESS, toughness);
+
+    Column loyalty = new Column();
+    forEachRow(connection, "SELECT card_name, loyalty_value FROM Loyalty", "loyalties", row -> {
+      Integer card = cardNumbers.get(row.getString("card_name"));
+      if (card != null) {
+        loyalty.put(card, row.getInt("loyalty_value"));
+      }
+    });
+    this.stats.put(Stat.LOYALTY, loyalty);
+
+    forEachRow(connection, "SELECT card_name, mana_type, quantity FROM Mana", "mana costs",
+        row -> {
+          Integer card = cardNumbers.get(row.getString("card_name"));
+          if (card != null) {
+            manaTypes.computeIfAbsent(row.getString("mana_type"), manaType -> new Column())
+                .put(card, row.getInt("quantity"));
+          }
+        });
+  }
+
+  /**
+   * Loads the bitmaps of the cards with each value stored in the given column of the given table.
+   * @param connection connection to the CDDB to use for retrieving data
+   * @param table table of the values, with a "card_name" column
+   * @param column column of the values
+   * @param cardNumbers number of each card, by name
+   * @throws SQLException if there is an error in retrieving data from the CDDB
+   */
+  private void loadValues(Connection connection, String table, String column,
+      Map<String, Integer> cardNumbers) throws SQLException {
+    forEachRow(connection, String.format("SELECT card_name, %s FROM %s", column, table), table,
+        row -> {
+          Integer card = cardNumbers.get(row.getString("card_name"));
+          if (card != null) {
+            addValue(cardValues, table, row.getString(column), card);
+          }
+        });
+  }
+
+  /**
+   * Runs the given query, and reads each row of its results.
+   * @param connection connection to the CDDB to use for retrieving data
+   * @param query query to run
+   * @param infoType type of info being retrieved
+   * @param reader reader of each row of the results
+   * @throws SQLException if there is an error in retrieving data from the CDDB
+   */
+  private void forEachRow(Connection connection, String query, String infoType,
+      RowReader reader) throws SQLException {
+    try (PreparedStatement preparedStatement = connection.prepareStatement(query);
+        ResultSet resultSet = preparedStatement.executeQuery()) {
+      while (resultSet.next()) {
+        reader.read(resultSet);
+      }
+    }
+    catch (SQLException e) {
+      throw new SQLException(e.getMessage() +
+          String.format("\nFailed to retrieve %s for card index!", infoType));
+    }
+  }
+
+  /**
+   * Sets the bit of the given card or printing in the bitmap of the given value.
+   * @param values bitmaps of each value, by value, by the table or column of the value
+   * @param attribute table or column of the value
+   * @param value value to set the bit of
+   * @param bit number of the card or printing
+   */
+  private void addValue(Map<String, Map<String, BitSet>> values, String attribute, String value,
+      int bit) {
+    values.computeIfAbsent(attribute, unused -> new HashMap<>())
+        .computeIfAbsent(value, unused -> new BitSet()).set(bit);
+  }
+
+  /**
+   * Returns the key identifying a printing, from its card name, expansion, and number.
+   * @return key of the printing
+   */
+  private String printingKey(String cardName, String expansion, String number) {
+    return cardName + '\0' + expansion + '\0' + number;
+  }
+
+  long getVersion() {
+    return version;
+  }
+
+  /**
+   * Returns a bitmap of every card.
+   * @return bitmap of every card
+   */
+  BitSet allCards() {
+    BitSet cards = new BitSet(cardNames.length);
+    cards.set(0, cardNames.length);
+    return cards;
+  }
+
+  /**
+   * Returns a bitmap of the cards meeting the given parameters for values of the given table, as
+   * the CDDB would for a "card_name" from that table - cards with a value that's one of the "must
+   * include" or "one of" values, if any, and that isn't a "disallow" value, having every "must
+   * include" value.
+   * @param table table of the values, i.e. Color, ColorIdentity, Supertype, Type, or Subtype
+   * @param params parameters to meet
+   * @return bitmap of the cards meeting the parameters
+   */
+  BitSet matchCards(String table, Map<SearchOption, SortedSet<String>> params) {
+    return match(cardValues.getOrDefault(table, Collections.emptyMap()),
+        cardValues.getOrDefault(table, Collections.emptyMap()), params, false);
+  }
+
+  /**
+   * Returns a bitmap of the printings meeting the given parameters for values of the given column,
+   * as the CDDB would for a printing - printings with a value that's one of the "must include" or
+   * "one of" values, if any, and that isn't a "disallow" value, of cards having every "must
+   * include" value across their printings.
+   * @param column column of the values, i.e. expansion, rarity, or artist
+   * @param params parameters to meet
+   * @return bitmap of the printings meeting the parameters
+   */
+  BitSet matchPrintings(String column, Map<SearchOption, SortedSet<String>> params) {
+    return match(printingValues.getOrDefault(column, Collections.emptyMap()),
+        cardValues.getOrDefault(column, Collections.emptyMap()), params, true);
+  }
+
+  /**
+   * Returns a bitmap of the cards or printings with an allowed value, of cards having every "must
+   * include" value.
+   * @param values bitmaps of the cards or printings with each value
+   * @param cardValues bitmaps of the cards with each value
+   * @param params parameters to meet
+   * @param printings if the bitmap is of printings rather than cards
+   * @return bitmap of the cards or printings meeting the parameters
+   */
+  private BitSet match(Map<String, BitSet> values, Map<String, BitSet> cardValues,
+      Map<SearchOption, SortedSet<String>> params, boolean printings) {
+    Set<String> allowed = new TreeSet<>();
+    if (params.containsKey(SearchOption.MustInclude) || params.containsKey(SearchOption.OneOf)) {
+      allowed.addAll(params.getOrDefault(SearchOption.MustInclude, Collections.emptySortedSet()));
+      allowed.addAll(params.getOrDefault(SearchOption.OneOf, Collections.emptySortedSet()));
+    }
+    else {
+      allowed.addAll(values.keySet());
+    }
+    allowed.removeAll(params.getOrDefault(SearchOption.Disallow, Collections.emptySortedSet()));
+
+    BitSet matches = new BitSet();
+    for (String value : allowed) {
+      matches.or(values.getOrDefault(value, new BitSet()));
+    }
+
+    if (params.containsKey(SearchOption.MustInclude)) {
+      BitSet required = allCards();
+      for (String value : params.get(SearchOption.MustInclude)) {
+        required.and(cardValues.getOrDefault(value, new BitSet()));
+      }
+      matches.and(printings ? toPrintings(required) : required);
+    }
+    return matches;
+  }
+
+  /**
+   * Returns if the given stat is held by this index.
+   * @param stat stat to check
+   * @return if the stat is held
+   */
+  boolean hasStat(Stat stat) {
+    return stats.containsKey(stat);
+  }
+
+  /**
+   * Returns a bitmap of the cards with a value of the given stat meeting the given comparison to
+   * the given quantity.
+   * @param stat stat to compare
+   * @param comparison how to compare the stat to the quantity
+   * @param quantity quantity to compare to
+   * @return bitmap of the cards meeting the comparison
+   */
+  BitSet matchStat(Stat stat, Comparison comparison, int quantity) {
+    return stats.get(stat).match(comparison, quantity);
+  }
+
+  /**
+   * Returns a bitmap of the cards with a value of the given stat meeting the given comparison to
+   * their value of the other given stat.
+   * @param thisStat stat to compare
+   * @param comparison how to compare the stats
+   * @param otherStat stat to compare to
+   * @return bitmap of the cards meeting the comparison
+   */
+  BitSet matchStatVersusStat(Stat thisStat, Comparison comparison, Stat otherStat) {
+    Column thisColumn = stats.get(thisStat);
+    Column otherColumn = stats.get(otherStat);
+    BitSet matches = (BitSet) thisColumn.present.clone();
+    matches.and(otherColumn.present);
+    for (int card = matches.nextSetBit(0); card >= 0; card = matches.nextSetBit(card + 1)) {
+      if (!comparison.compare(thisColumn.values[card], otherColumn.values[card])) {
+        matches.clear(card);
+      }
+    }
+    return matches;
+  }
+
+  /**
+   * Returns a bitmap of the cards with a quantity of the given mana type in their mana cost meeting
+   * the given comparison to the given quantity.
+   * @param manaType mana type to compare
+   * @param comparison how to compare the quantity of the mana type to the given quantity
+   * @param quantity quantity to compare to
+   * @return bitmap of the cards meeting the comparison
+   */
+  BitSet matchManaType(String manaType, Comparison comparison, int quantity) {
+    Column column = manaTypes.get(manaType);
+    return column == null ? new BitSet() : column.match(comparison, quantity);
+  }
+
+  /**
+   * Returns a bitmap of every printing of the given cards.
+   * @param cards bitmap of cards
+   * @return bitmap of their printings
+   */
+  BitSet toPrintings(BitSet cards) {
+    BitSet printings = new BitSet(expansions.length);
+    for (int card = cards.nextSetBit(0); card >= 0; card = cards.nextSetBit(card + 1)) {
+      printings.set(firstPrintings[card], firstPrintings[card + 1]);
+    }
+    return printings;
+  }
+
+  /**
+   * Returns a bitmap of the cards of the given printings.
+   * @param printings bitmap of printings
+   * @return bitmap of their cards
+   */
+  BitSet toCards(BitSet printings) {
+    BitSet cards = new BitSet(cardNames.length);
+    int card = 0;
+    for (int printing = printings.nextSetBit(0); printing >= 0;
+        printing = printings.nextSetBit(printing + 1)) {
+      while (firstPrintings[card + 1] <= printing) {
+        card++;
+      }
+      cards.set(card);
+    }
+    return cards;
+  }
+
+  /**
+   * Returns the number of the given cards with each value of the given table, leaving out values
+   * none of the cards have.
+   * @param table table of the values, i.e. Color, ColorIdentity, Supertype, Type, or Subtype
+   * @param cards bitmap of the cards to count
+   * @return mapping of values to the number of the cards with each
+   */
+  Map<String, Integer> countCards(String table, BitSet cards) {
+    Map<String, Integer> counts = new HashMap<>();
+    for (Map.Entry<String, BitSet> entry :
+        cardValues.getOrDefault(table, Collections.emptyMap()).entrySet()) {
+      BitSet matches = (BitSet) entry.getValue().clone();
+      matches.and(cards);
+      if (!matches.isEmpty()) {
+        counts.put(entry.getKey(), matches.cardinality());
+      }
+    }
+    return counts;
+  }
+
+  /**
+   * Returns the number of cards with one of the given printings having each value of the given
+   * column, leaving out values none of the printings have.
+   * @param column column of the values, i.e. expansion, rarity, or artist
+   * @param printings bitmap of the printings to count the cards of
+   * @return mapping of values to the number of cards with a printing having each
+   */
+  Map<String, Integer> countPrintingCards(String column, BitSet printings) {
+    Map<String, Integer> counts = new HashMap<>();
+    for (Map.Entry<String, BitSet> entry :
+        printingValues.getOrDefault(column, Collections.emptyMap()).entrySet()) {
+      BitSet matches = (BitSet) entry.getValue().clone();
+      matches.and(printings);
+      if (!matches.isEmpty()) {
+        counts.put(entry.getKey(), toCards(matches).cardinality());
+      }
+    }
+    return counts;
+  }
+
+  /**
+   * Returns the given printings as a mapping of card names to the expansions of their printings,
+   * with the numbers of the printings from each expansion.
+   * @param printings bitmap of printings
+   * @return mapping of card names to expansions to numbers
+   */
+  Map<String, Map<String, Set<String>>> toPrintingMap(BitSet printings) {
+    Map<String, Map<String, Set<String>>> cardNameToExpansionsToNumbers = new HashMap<>();
+    int card = 0;
+    for (int printing = printings.nextSetBit(0); printing >= 0;
+        printing = printings.nextSetBit(printing + 1)) {
+      while (firstPrintings[card + 1] <= printing) {
+        card++;
+      }
+      cardNameToExpansionsToNumbers.computeIfAbsent(cardNames[card], name -> new HashMap<>())
+          .computeIfAbsent(expansions[printing], expansion -> new TreeSet<>())
+          .add(numbers[printing]);
+    }
+    return cardNameToExpansionsToNumbers;
+  }
+
+  /**
+   * Returns a page of the given printings as a mapping of card names to the expansions of their
+   * printings, with the numbers of the printings from each expansion, for only the given number
+   * of cards ordered by name after the given card name. Cards are numbered in order of name, so
+   * the page starts at the first card after the given name, found by binary search, and only the
+   * printings up to the end of the page are read.
+   * @param printings bitmap of printings
+   * @param afterCardName name of the last card of the previous page, or the empty name for the
+   *        first page
+   * @param pageSize maximum number of cards in the page
+   * @return mapping of the card names in the page to expansions to numbers
+   */
+  Map<String, Map<String, Set<String>>> toPrintingPage(BitSet printings, String afterCardName,
+      int pageSize) {
+    int found = Arrays.binarySearch(cardNames, afterCardName);
+    int card = found >= 0 ? found + 1 : -found - 1;
+
+    Map<String, Map<String, Set<String>>> page = new HashMap<>();
+    for (int printing = printings.nextSetBit(firstPrintings[card]); printing >= 0;
+        printing = printings.nextSetBit(printing + 1)) {
+      while (firstPrintings[card + 1] <= printing) {
+        card++;
+      }
+      // Stop at the first printing of the card after the last card of the page
+      if (!page.containsKey(cardNames[card]) && page.size() == pageSize) {
+        break;
+      }
+      page.computeIfAbsent(cardNames[card], name -> new HashMap<>())
+          .computeIfAbsent(expansions[printing], expansion -> new TreeSet<>())
+          .add(numbers[printing]);
+    }
+    return page;
+  }
+
+  /**
+   * Counts a query as answered by this index, or as having parameters this index can't answer.
+   * @param answered if the query was answered
+   */
+  synchronized void countQuery(boolean answered) {
+    if (answered) {
+      queriesAnswered++;
+    }
+    else {
+      queriesUnsupported++;
+    }
+  }
+
+  public int getCardCount() {
+    return cardNames.length;
+  }
+
+  public int getPrintingCount() {
+    return expansions.length;
+  }
+
+  public synchronized long getQueriesAnswered() {
+    return queriesAnswered;
+  }
+
+  public synchronized long getQueriesUnsupported() {
+    return queriesUnsupported;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return String.format("CardIndex[cards=%d, printings=%d, answered=%d, unsupported=%d]",
+        cardNames.length, expansions.length, queriesAnswered, queriesUnsupported);
+  }
+
+  /**
+   * Column of an integer value of cards, by card number, along with a bitmap of the cards that have
+   * a value.
+   */
+  private static class Column {
+
+    private int[] values;
+
+    private final BitSet present;
+
+    private Column() {
+      this.values = new int[16];
+      this.present = new BitSet();
+    }
+
+    /**
+     * Sets the value of the given card.
+     * @param card number of the card
+     * @param value value of the card
+     */
+    private void put(int card, int value) {
+      if (card >= values.length) {
+        int[] grown = new int[Math.max(card + 1, values.length * 2)];
+        System.arraycopy(values, 0, grown, 0, values.length);
+        values = grown;
+      }
+      values[card] = value;
+      present.set(card);
+    }
+
+    /**
+     * Returns a bitmap of the cards with a value meeting the given comparison to the given
+     * quantity, scanning the values of the cards that have one.
+     * @param comparison how to compare values
+     * @param quantity quantity to compare to
+     * @return bitmap of the cards meeting the comparison
+     */
+    private BitSet match(Comparison comparison, int quantity) {
+      BitSet matches = new BitSet();
+      for (int card = present.nextSetBit(0); card >= 0; card = present.nextSetBit(card + 1)) {
+        if (comparison.compare(values[card], quantity)) {
+          matches.set(card);
+        }
+      }
+      return matches;
+    }
+  }
+
+  /**
+   * Reads a single row of the results of a query.
+   */
+  @FunctionalInterface
+  private interface RowReader {
+
+    void read(ResultSet row) throws SQLException;
+  }
+}
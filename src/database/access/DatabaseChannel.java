@@ -5,6 +5,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.SortedSet;
 import value_objects.card.query.CardQuery;
+import value_objects.card.query.CardQueryCounts;
 import value_objects.deck.Deck;
 import value_objects.deck.instance.DeckInstance;
 import value_objects.deck.instance.InformativeDeckInstance;
@@ -35,6 +36,50 @@ public interface DatabaseChannel {
    */
   SortedSet<Card> queryCards(CardQuery cardQuery) throws IllegalArgumentException, SQLException;
 
+  /**
+   * Returns a list of {@link Card}s from the CDDB that match the parameters given by the inputted
+   * {@link CardQuery}, as with {@link #queryCards(CardQuery)}, for list views of many cards. Only
+   * the name, mana costs, types, and printings of each card are loaded up front, the rest of each
+   * card's info, such as the details of its printings, is loaded from the CDDB the first time it's
+   * asked for.
+   * @param cardQuery desired query parameters to match cards against
+   * @return list of {@link Card}s that match given card parameters
+   * @throws IllegalArgumentException if given {@link CardQuery} is null.
+   * @throws SQLException if there is a failure to query card info from the CDDB
+   */
+  SortedSet<Card> queryCardsLazily(CardQuery cardQuery)
+      throws IllegalArgumentException, SQLException;
+
+  /**
+   * Returns a page of the {@link Card}s from the CDDB that match the parameters given by the
+   * inputted {@link CardQuery}, as with {@link #queryCards(CardQuery)}. Matching cards are ordered
+   * by name, and only the cards of the page are read and built, so the cost of building a page
+   * doesn't grow with the number of cards matching - though the filters of the query are still
+   * evaluated over every card each page. Pages are walked through by passing the name of the last
+   * card of one page to get the next, until a page with fewer cards than the page size is returned.
+   * @param cardQuery desired query parameters to match cards against
+   * @param afterCardName name of the last card of the previous page, or null for the first page
+   * @param pageSize maximum number of cards to return
+   * @return list of {@link Card}s that match given card parameters, ordered by name after the
+   *         given card name, up to the page size
+   * @throws IllegalArgumentException if given {@link CardQuery} is null, or page size isn't
+   * positive
+   * @throws SQLException if there is a failure to query card info from the CDDB
+   */
+  SortedSet<Card> queryCards(CardQuery cardQuery, String afterCardName, int pageSize)
+      throws IllegalArgumentException, SQLException;
+
+  /**
+   * Returns the number of {@link Card}s and printings from the CDDB that match the parameters given
+   * by the inputted {@link CardQuery}, along with how many matching cards have each color, type,
+   * expansion, rarity, etc., without loading any of the cards themselves.
+   * @param cardQuery desired query parameters to match cards against
+   * @return counts of the cards that match given card parameters
+   * @throws IllegalArgumentException if given {@link CardQuery} is null.
+   * @throws SQLException if there is a failure to count card info from the CDDB
+   */
+  CardQueryCounts countCards(CardQuery cardQuery) throws IllegalArgumentException, SQLException;
+
   /**
    * Returns a {@link Card} representing all the information associated with a given card name, from
    * the CDDB. Given string must match desired card name exactly
@@ -72,7 +117,7 @@ public interface DatabaseChannel {
   void addDeck(String name, String desp) throws IllegalArgumentException, SQLException;
 
   /**
-   * Adds this {@link Deck} and its {@link DeckInstance}s to the CDDB.
+   * Adds this {@link Deck} and its {@link DeckInstance}s to the CDDB, in a single transaction.
    * @param deck deck to add
    * @throws IllegalArgumentException if given deck is null, or if there is already a deck in the
    *         CDDB that has the unique ID of the given deck
@@ -82,7 +127,7 @@ public interface DatabaseChannel {
 
   /**
    * Updates {@link Deck} in the CDDB with matching {@param deckID} by adding the given
-   * {@link DeckInstance} to the matching {@link Deck}.
+   * {@link DeckInstance} to the matching {@link Deck}, in a single transaction.
    * @param deck deck instance to add to corresponding {@link Deck}
    * @throws IllegalArgumentException if CDDB doesn't contain a deck with given ID, or if given
    *        {@link DeckInstance} is null
@@ -128,4 +173,18 @@ public interface DatabaseChannel {
    * @return a InformativeDeckInstance of the given DeckInstance
    */
   InformativeDeckInstance getDeckInstanceInfo(DeckInstance deckInstance) throws SQLException;
+
+  /**
+   * Runs the given {@link UnitOfWork} as a single transaction, so each deck it adds, updates, or
+   * deletes through this channel is written to the CDDB all at once, or not at all if the work
+   * fails. Reads the work makes through this channel see its own writes. Only calls made from the
+   * calling thread are part of the transaction. Adding a {@link Deck} or {@link DeckInstance} is
+   * always a transaction of its own, so this is for writing multiple decks, or multiple edits to a
+   * deck, together.
+   * @param work work to run
+   * @throws IllegalArgumentException if given work is null, or the work is invalid
+   * @throws SQLException if the work fails to read from or write to the CDDB, in which case none
+   *         of its writes are kept
+   */
+  void inTransaction(UnitOfWork work) throws IllegalArgumentException, SQLException;
 }
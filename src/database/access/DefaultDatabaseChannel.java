@@ -1,6 +1,7 @@
 package database.access;
 
 import database.DatabasePort;
+import database.StatementCache;
 import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -10,8 +11,10 @@ import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -22,12 +25,15 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.function.Function;
 import value_objects.card.Card;
 import value_objects.card.printing.InformativeCardPrinting;
 import value_objects.card.query.SearchOption;
 import value_objects.card.relationship.CardRelationship;
 import value_objects.card.relationship.DefaultCardRelationship;
 import value_objects.card.query.CardQuery;
+import value_objects.card.query.CardQueryCounts;
+import value_objects.card.query.Facet;
 import value_objects.card.printing.CardPrinting;
 import value_objects.card.printing.DefaultCardPrinting;
 import value_objects.deck.Deck;
@@ -37,6 +43,7 @@ import value_objects.deck.instance.DefaultDeckInstance;
 import value_objects.card.query.Comparison;
 import value_objects.card.query.Stat;
 import value_objects.deck.instance.InformativeDeckInstance;
+import value_objects.utility.Pair;
 import value_objects.utility.Triple;
 
 /**
@@ -45,6 +52,50 @@ import value_objects.utility.Triple;
  */
 public class DefaultDatabaseChannel extends DatabasePort implements DatabaseChannel {
 
+  /**
+   * Maximum number of cards cached for each CDDB.
+   */
+  private static final int maxCachedCards = 4096;
+
+  /**
+   * Cache of cards of each CDDB, by absolute path, shared by every channel to that CDDB.
+   */
+  private static final Map<Path, CardCache> cardCaches = new HashMap<>();
+
+  /**
+   * Latest catalog of reference values of each CDDB, by absolute path, shared by every channel to
+   * that CDDB.
+   */
+  private static final Map<Path, ReferenceCatalog> catalogs = new HashMap<>();
+
+  /**
+   * Latest in-memory index of the cards of each CDDB, by absolute path, shared by every channel to
+   * that CDDB.
+   */
+  private static final Map<Path, CardIndex> cardIndexes = new HashMap<>();
+
+  /**
+   * Absolute path to the CDDB, identifying its cache of cards, catalog, and card index.
+   */
+  private final Path databaseKey;
+
+  /**
+   * Cache of cards of the CDDB.
+   */
+  private final CardCache cardCache;
+
+  /**
+   * If card queries are evaluated against the in-memory index of the cards of the CDDB where
+   * possible, rather than always being run against the CDDB.
+   */
+  private boolean cardIndexEnabled;
+
+  /**
+   * If card queries are planned by how many cards each of their filters is estimated to match,
+   * see {@link ReferenceCatalog#getValueFrequencies(String)}.
+   */
+  private boolean queryPlanningEnabled;
+
   /**
    * Takes in a {@link Path} referencing the Card and Deck Database (CDDB) to establish a
    * connection with the database.
@@ -53,6 +104,107 @@ public class DefaultDatabaseChannel extends DatabasePort implements DatabaseChan
    */
   public DefaultDatabaseChannel(Path pathToDatabase) throws SQLException {
     super(pathToDatabase);
+    this.databaseKey = pathToDatabase.toAbsolutePath().normalize();
+    this.queryPlanningEnabled = true;
+    synchronized (cardCaches) {
+      this.cardCache = cardCaches.computeIfAbsent(databaseKey, path ->
+          new CardCache(maxCachedCards, () -> getCardVersion(path)));
+    }
+  }
+
+  /**
+   * Returns the in-memory index of the cards of the CDDB. The index is loaded once and shared by
+   * every channel to the CDDB, then loaded again the first time it's asked for after a set is
+   * added to the CDDB.
+   * @return index of the cards of the CDDB
+   * @throws SQLException if there is a failure to load the index from the CDDB
+   */
+  public CardIndex getCardIndex() throws SQLException {
+    synchronized (cardIndexes) {
+      long version = getCardVersion(databaseKey);
+      CardIndex cardIndex = cardIndexes.get(databaseKey);
+      if (cardIndex == null || cardIndex.getVersion() != version) {
+        Connection connection = connect();
+        try {
+          cardIndex = new CardIndex(connection, version);
+        }
+        catch (SQLException e) {
+          throw new SQLException(e.getMessage() + "\nFailed to load card index of CDDB!");
+        }
+        finally {
+          disconnect(connection);
+        }
+        cardIndexes.put(databaseKey, cardIndex);
+      }
+      return cardIndex;
+    }
+  }
+
+  /**
+   * Sets if card queries through this channel are evaluated against the in-memory index of the
+   * cards of the CDDB, for those the index can evaluate, rather than being run against the CDDB.
+   * Off by default, as the index holds every card of the CDDB in memory once loaded.
+   * @param cardIndexEnabled if card queries are to be evaluated against the index
+   */
+  public void setCardIndexEnabled(boolean cardIndexEnabled) {
+    this.cardIndexEnabled = cardIndexEnabled;
+  }
+
+  /**
+   * Sets if card queries run through this channel are planned by how many cards each of their
+   * filters is estimated to match, as per the value frequencies gathered when sets were added to
+   * the CDDB, rather than running every filter in full. On by default, CDDBs without value
+   * frequencies aren't planned either way.
+   * @param queryPlanningEnabled if card queries are to be planned
+   */
+  public void setQueryPlanningEnabled(boolean queryPlanningEnabled) {
+    this.queryPlanningEnabled = queryPlanningEnabled;
+  }
+
+  /**
+   * Returns the catalog of reference values of the CDDB, i.e. its expansions, types, colors, etc.
+   * The catalog is loaded once and shared by every channel to the CDDB, then loaded again the
+   * first time it's asked for after a set is added to the CDDB.
+   * @return catalog of reference values of the CDDB
+   * @throws SQLException if there is a failure to load the catalog from the CDDB
+   */
+  public ReferenceCatalog getCatalog() throws SQLException {
+    synchronized (catalogs) {
+      long version = getCardVersion(databaseKey);
+      ReferenceCatalog catalog = catalogs.get(databaseKey);
+      if (catalog == null || catalog.getVersion() != version) {
+        Connection connection = connect();
+        try {
+          catalog = new ReferenceCatalog(connection, version);
+        }
+        catch (SQLException e) {
+          throw new SQLException(e.getMessage() + "\nFailed to load reference catalog of CDDB!");
+        }
+        finally {
+          disconnect(connection);
+        }
+        catalogs.put(databaseKey, catalog);
+      }
+      return catalog;
+    }
+  }
+
+  /**
+   * Returns the cache of cards of the CDDB, shared by every channel to it, for its metrics on
+   * hits, misses, and evictions.
+   * @return cache of cards of the CDDB
+   */
+  public CardCache getCardCache() {
+    return cardCache;
+  }
+
+  /**
+   * Returns the cache of the statements prepared on each read only connection to the CDDB, for its
+   * metrics on how often card queries of the same shape reuse a compiled statement.
+   * @return cache of statements of the readers of the CDDB
+   */
+  public StatementCache getStatementCache() {
+    return getReaderPool().getStatementCache();
   }
 
   @Override
@@ -80,148 +232,151 @@ public class DefaultDatabaseChannel extends DatabasePort implements DatabaseChan
     hasDeckBeenAdded(deckID);
 
     Connection connection = connect();
+    try {
 
-    String deckName;
-    String deckDesp;
-    // Query for deck info
-    String deckInfoQuery = "SELECT * FROM Deck WHERE id=?";
-    try (PreparedStatement preparedStatement = connection.prepareStatement(deckInfoQuery);) {
-      preparedStatement.setInt(1, deckID);
-      ResultSet deckInstancesInfo = preparedStatement.executeQuery();
-      deckName = deckInstancesInfo.getString("name");
-      deckDesp = deckInstancesInfo.getString("desp");
-    }
-    catch (SQLException e) {
-      throw new SQLException(e.getMessage() +
-          String.format("\nFailed to query for info related to deck %d!", deckID));
-    }
-
-    // Query for info of all deck instances related to current deck
-    List<LocalDateTime> deckInstanceKeys = new ArrayList<>();
-    String deckInstanceInfoQuery = "SELECT * FROM DeckInstance WHERE deck_id=?";
-    try (PreparedStatement preparedStatement = connection.prepareStatement(deckInstanceInfoQuery);) {
-      preparedStatement.setInt(1, deckID);
-      ResultSet deckInstancesInfo = preparedStatement.executeQuery();
-
-      // Get datetimes from deck instances, retrieve as TimeStamp --> LocalDateTime
-      while (deckInstancesInfo.next()) {
-        Timestamp timestamp = deckInstancesInfo.getTimestamp("creation");
-        LocalDateTime toAdd = timestamp.toLocalDateTime();
-        deckInstanceKeys.add(toAdd);
+      String deckName;
+      String deckDesp;
+      // Query for deck info
+      String deckInfoQuery = "SELECT * FROM Deck WHERE id=?";
+      try (PreparedStatement preparedStatement = connection.prepareStatement(deckInfoQuery);) {
+        preparedStatement.setInt(1, deckID);
+        ResultSet deckInstancesInfo = preparedStatement.executeQuery();
+        deckName = deckInstancesInfo.getString("name");
+        deckDesp = deckInstancesInfo.getString("desp");
+      }
+      catch (SQLException e) {
+        throw new SQLException(e.getMessage() +
+            String.format("\nFailed to query for info related to deck %d!", deckID));
       }
-    }
-    catch (SQLException e) {
-      throw new SQLException(e.getMessage() +
-          String.format("\nFailed to query for info of deck instances"
-          + " related to deck %d!", deckID));
-    }
-
 
-    // Build deck instances,
-    SortedSet<DeckInstance> deckInstances = new TreeSet<>();
-    Map<String, SortedSet<String>> categoryContents = new HashMap<>();
-    Map<CardPrinting, Integer> cardPrintingQuantities = new HashMap<>();
-    for (LocalDateTime creation : deckInstanceKeys) {
-      Set<String> categories = new HashSet<>();
-      // Get categories
-      String categoriesQuery = "SELECT category FROM DeckInstCategory WHERE deck_id=? "
-          + "AND deck_inst_creation=?";
-      try (PreparedStatement preparedStatement = connection.prepareStatement(categoriesQuery);) {
+      // Query for info of all deck instances related to current deck
+      List<LocalDateTime> deckInstanceKeys = new ArrayList<>();
+      String deckInstanceInfoQuery = "SELECT * FROM DeckInstance WHERE deck_id=?";
+      try (PreparedStatement preparedStatement = connection.prepareStatement(deckInstanceInfoQuery);) {
         preparedStatement.setInt(1, deckID);
-        preparedStatement.setTimestamp(2, Timestamp.valueOf(creation));
-        ResultSet categoriesResult = preparedStatement.executeQuery();
-        while (categoriesResult.next()) {
-          categories.add(categoriesResult.getString("category"));
+        ResultSet deckInstancesInfo = preparedStatement.executeQuery();
+
+        // Get datetimes from deck instances, retrieve as TimeStamp --> LocalDateTime
+        while (deckInstancesInfo.next()) {
+          Timestamp timestamp = deckInstancesInfo.getTimestamp("creation");
+          LocalDateTime toAdd = timestamp.toLocalDateTime();
+          deckInstanceKeys.add(toAdd);
         }
       }
       catch (SQLException e) {
         throw new SQLException(e.getMessage() +
-            String.format("\nFailed to query for categories for deck with"
-            + " ID %d!", deckID));
+            String.format("\nFailed to query for info of deck instances"
+            + " related to deck %d!", deckID));
       }
 
-      // Get category cards
-      try {
-        for (String currentCategory : categories) {
-          String categoryQuery = "SELECT * FROM DeckInstCardCategory WHERE deck_id=? "
-              + "AND deck_inst_creation=? AND category=?";
 
-          ResultSet cardsInCategory = null;
-          try (PreparedStatement preparedStatement = connection.prepareStatement(categoryQuery);) {
-            preparedStatement.setInt(1, deckID);
-            preparedStatement.setTimestamp(2, Timestamp.valueOf(creation));
-            preparedStatement.setString(3, currentCategory);
-            cardsInCategory = preparedStatement.executeQuery();
-
-            SortedSet<String> cardsToAdd = new TreeSet<>();
-            while (cardsInCategory.next()) {
-              String cardToAdd = cardsInCategory.getString("card_name");
-              if (cardsToAdd.contains(cardToAdd)) {
-                throw new SQLException(String.format("Connected database is malformed for"
-                    + "allowing duplicate entries of card %d in category %d of deck instance"
-                    + "%d %s!", cardToAdd, currentCategory, deckID, creation.toString()));
+      // Build deck instances,
+      SortedSet<DeckInstance> deckInstances = new TreeSet<>();
+      Map<String, SortedSet<String>> categoryContents = new HashMap<>();
+      Map<CardPrinting, Integer> cardPrintingQuantities = new HashMap<>();
+      for (LocalDateTime creation : deckInstanceKeys) {
+        Set<String> categories = new HashSet<>();
+        // Get categories
+        String categoriesQuery = "SELECT category FROM DeckInstCategory WHERE deck_id=? "
+            + "AND deck_inst_creation=?";
+        try (PreparedStatement preparedStatement = connection.prepareStatement(categoriesQuery);) {
+          preparedStatement.setInt(1, deckID);
+          preparedStatement.setTimestamp(2, Timestamp.valueOf(creation));
+          ResultSet categoriesResult = preparedStatement.executeQuery();
+          while (categoriesResult.next()) {
+            categories.add(categoriesResult.getString("category"));
+          }
+        }
+        catch (SQLException e) {
+          throw new SQLException(e.getMessage() +
+              String.format("\nFailed to query for categories for deck with"
+              + " ID %d!", deckID));
+        }
+
+        // Get category cards
+        try {
+          for (String currentCategory : categories) {
+            String categoryQuery = "SELECT * FROM DeckInstCardCategory WHERE deck_id=? "
+                + "AND deck_inst_creation=? AND category=?";
+
+            ResultSet cardsInCategory = null;
+            try (PreparedStatement preparedStatement = connection.prepareStatement(categoryQuery);) {
+              preparedStatement.setInt(1, deckID);
+              preparedStatement.setTimestamp(2, Timestamp.valueOf(creation));
+              preparedStatement.setString(3, currentCategory);
+              cardsInCategory = preparedStatement.executeQuery();
+
+              SortedSet<String> cardsToAdd = new TreeSet<>();
+              while (cardsInCategory.next()) {
+                String cardToAdd = cardsInCategory.getString("card_name");
+                if (cardsToAdd.contains(cardToAdd)) {
+                  throw new SQLException(String.format("Connected database is malformed for"
+                      + "allowing duplicate entries of card %d in category %d of deck instance"
+                      + "%d %s!", cardToAdd, currentCategory, deckID, creation.toString()));
+                }
+                cardsToAdd.add(cardToAdd);
               }
-              cardsToAdd.add(cardToAdd);
+              categoryContents.put(currentCategory, cardsToAdd);
+            }
+            catch (SQLException e) {
+              throw new SQLException(e.getMessage() +
+                  String.format("\nFailed to query for cards in category %s for"
+                  + " deck instance %d %s!", currentCategory, deckID, creation.toString()));
+            }
+            finally {
+              closeResultSet(cardsInCategory);
+            }
+          }
+        }
+        catch (SQLException e) {
+          throw new SQLException(e.getMessage() +
+              String.format("\nFailed to query for card categories for deck "
+              + "instance %d %s!", deckID, creation.toString()));
+        }
+
+        // Get card printings
+        String cardPrintingsQuery = "SELECT * FROM DeckInstCardExpansion WHERE deck_id=? "
+            + "AND deck_inst_creation=?";
+        try (PreparedStatement preparedStatement = connection.prepareStatement(cardPrintingsQuery);) {
+          preparedStatement.setInt(1, deckID);
+          preparedStatement.setTimestamp(2, Timestamp.valueOf(creation));
+          ResultSet cardPrintings = preparedStatement.executeQuery();
+
+          try {
+            while (cardPrintings.next()) {
+              String cardName = cardPrintings.getString("card_name");
+              String expansion = cardPrintings.getString("expansion");
+              String cardNumber = cardPrintings.getString("card_number");
+              CardPrinting toAdd = new DefaultCardPrinting(cardName, expansion, cardNumber);
+
+              int cardQuantity = cardPrintings.getInt("quantity");
+              cardPrintingQuantities.put(toAdd, cardQuantity);
             }
-            categoryContents.put(currentCategory, cardsToAdd);
           }
           catch (SQLException e) {
             throw new SQLException(e.getMessage() +
-                String.format("\nFailed to query for cards in category %s for"
-                + " deck instance %d %s!", currentCategory, deckID, creation.toString()));
+                String.format("\nFailed to get card printing info for deck "
+                + "instance %d %s!", deckID, creation.toString()));
           }
           finally {
-            closeResultSet(cardsInCategory);
-          }
-        }
-      }
-      catch (SQLException e) {
-        throw new SQLException(e.getMessage() +
-            String.format("\nFailed to query for card categories for deck "
-            + "instance %d %s!", deckID, creation.toString()));
-      }
-
-      // Get card printings
-      String cardPrintingsQuery = "SELECT * FROM DeckInstCardExpansion WHERE deck_id=? "
-          + "AND deck_inst_creation=?";
-      try (PreparedStatement preparedStatement = connection.prepareStatement(cardPrintingsQuery);) {
-        preparedStatement.setInt(1, deckID);
-        preparedStatement.setTimestamp(2, Timestamp.valueOf(creation));
-        ResultSet cardPrintings = preparedStatement.executeQuery();
-
-        try {
-          while (cardPrintings.next()) {
-            String cardName = cardPrintings.getString("card_name");
-            String expansion = cardPrintings.getString("expansion");
-            String cardNumber = cardPrintings.getString("card_number");
-            CardPrinting toAdd = new DefaultCardPrinting(cardName, expansion, cardNumber);
-
-            int cardQuantity = cardPrintings.getInt("quantity");
-            cardPrintingQuantities.put(toAdd, cardQuantity);
+            closeResultSet(cardPrintings);
           }
         }
         catch (SQLException e) {
           throw new SQLException(e.getMessage() +
-              String.format("\nFailed to get card printing info for deck "
+              String.format("\nFailed to query for card printings in deck"
               + "instance %d %s!", deckID, creation.toString()));
         }
-        finally {
-          closeResultSet(cardPrintings);
-        }
-      }
-      catch (SQLException e) {
-        throw new SQLException(e.getMessage() +
-            String.format("\nFailed to query for card printings in deck"
-            + "instance %d %s!", deckID, creation.toString()));
+
+        DeckInstance toAdd = new DefaultDeckInstance(deckID, creation, categoryContents, cardPrintingQuantities);
+        deckInstances.add(toAdd);
       }
 
-      DeckInstance toAdd = new DefaultDeckInstance(deckID, creation, categoryContents, cardPrintingQuantities);
-      deckInstances.add(toAdd);
+      return new DefaultDeck(deckID, deckName, deckDesp, deckInstances);
+    }
+    finally {
+      disconnect(connection);
     }
-
-    disconnect(connection);
-
-    return new DefaultDeck(deckID, deckName, deckDesp, deckInstances);
   }
 
   @Override
@@ -233,17 +388,20 @@ public class DefaultDatabaseChannel extends DatabasePort implements DatabaseChan
       throw new IllegalArgumentException("Given name can't be empty or blank!");
     }
 
-    // Assign ID to new Deck by getting all decks in CDDB, finding max ID, and adding 1.
-    // If no decks added, begin with ID of 0.
-    int newDeckId = 0;
-    SortedSet<Integer> sortedDeckIds = new TreeSet<>(getDecks().keySet());
-    if (!sortedDeckIds.isEmpty()) {
-      newDeckId = sortedDeckIds.last() + 1;
-    }
+    // Assigning the ID and adding the deck in one transaction keeps the ID unique
+    runInTransaction(() -> {
+      // Assign ID to new Deck by getting all decks in CDDB, finding max ID, and adding 1.
+      // If no decks added, begin with ID of 0.
+      int newDeckId = 0;
+      SortedSet<Integer> sortedDeckIds = new TreeSet<>(getDecks().keySet());
+      if (!sortedDeckIds.isEmpty()) {
+        newDeckId = sortedDeckIds.last() + 1;
+      }
 
-    SortedSet<DeckInstance> history = new TreeSet<>();
-    history.add(new DefaultDeckInstance(newDeckId, LocalDateTime.now(), new HashMap<>(), new HashMap<>()));
-    addDeck(new DefaultDeck(newDeckId, name, desp, history));
+      SortedSet<DeckInstance> history = new TreeSet<>();
+      history.add(new DefaultDeckInstance(newDeckId, LocalDateTime.now(), new HashMap<>(), new HashMap<>()));
+      addDeck(new DefaultDeck(newDeckId, name, desp, history));
+    });
   }
 
   @Override
@@ -251,27 +409,30 @@ public class DefaultDatabaseChannel extends DatabasePort implements DatabaseChan
     if (deck == null) {
       throw new IllegalArgumentException("Given deck can't be null!");
     }
-    hasDeckNotBeenAdded(deck.getDeckID());
 
-    int deckID = deck.getDeckID();
-    String deckName = deck.getDeckName();
-    String deckInsert = "INSERT INTO DECK(id,name,desp) VALUES (?,?,?)";
-    try (Connection connection = connect();
-        PreparedStatement preparedStatement = connection.prepareStatement(deckInsert)) {
-      preparedStatement.setInt(1, deckID);
-      preparedStatement.setString(2, deckName);
-      preparedStatement.setString(3, deck.getDescription());
-      preparedStatement.executeUpdate();
-    }
-    catch (SQLException e) {
-      throw new SQLException(e.getMessage() +
-          String.format("\nFailed to add new deck with ID %d and name %s!", deckID, deckName));
-    }
+    runInTransaction(() -> {
+      hasDeckNotBeenAdded(deck.getDeckID());
 
-    SortedSet<DeckInstance> history = deck.getHistory();
-    for (DeckInstance deckInstance : history) {
-      addDeckInstance(deckInstance);
-    }
+      int deckID = deck.getDeckID();
+      String deckName = deck.getDeckName();
+      String deckInsert = "INSERT INTO DECK(id,name,desp) VALUES (?,?,?)";
+      try (Connection connection = connectWriter();
+          PreparedStatement preparedStatement = connection.prepareStatement(deckInsert)) {
+        preparedStatement.setInt(1, deckID);
+        preparedStatement.setString(2, deckName);
+        preparedStatement.setString(3, deck.getDescription());
+        preparedStatement.executeUpdate();
+      }
+      catch (SQLException e) {
+        throw new SQLException(e.getMessage() +
+            String.format("\nFailed to add new deck with ID %d and name %s!", deckID, deckName));
+      }
+
+      SortedSet<DeckInstance> history = deck.getHistory();
+      for (DeckInstance deckInstance : history) {
+        addDeckInstance(deckInstance);
+      }
+    });
   }
 
   @Override
@@ -279,109 +440,111 @@ public class DefaultDatabaseChannel extends DatabasePort implements DatabaseChan
     if (deck == null) {
       throw new IllegalArgumentException("Given deck instance can't be null!");
     }
-    hasDeckBeenAdded(deck.getParentDeckID());
 
-    Connection connection = connect();
-    String insertStatement;
-
-    // Add deck instance info
-    int deckID = deck.getParentDeckID();
-    LocalDateTime creationInfo = deck.getCreationInfo();
-    Timestamp creationTimestamp = Timestamp.valueOf(creationInfo);
-    insertStatement = "INSERT INTO DeckInstance(deck_id, creation) VALUES (?,?)";
-    try (PreparedStatement preparedStatement = connection.prepareStatement(insertStatement)) {
-      preparedStatement.setInt(1, deckID);
-      preparedStatement.setTimestamp(2, creationTimestamp);
-      preparedStatement.executeUpdate();
-    }
-    catch (SQLException e){
-      throw new SQLException(e.getMessage() +
-          String.format("\nFailed to add deck instance %s, %d!", creationInfo.toString(),
-          deckID));
-    }
+    runInTransaction(() -> {
+      hasDeckBeenAdded(deck.getParentDeckID());
 
-    // Add categories
-    Set<String> categories = deck.getCategories();
-    for (String category : categories) {
-      insertStatement = "INSERT INTO DeckInstCategory(deck_id, deck_inst_creation, category) "
-          + "VALUES (?,?,?)";
-      try (PreparedStatement preparedStatement = connection.prepareStatement(insertStatement);) {
-        preparedStatement.setInt(1, deckID);
-        preparedStatement.setTimestamp(2, creationTimestamp);
-        preparedStatement.setString(3, category);
-        preparedStatement.executeUpdate();
-      }
-      catch (SQLException e){
-        throw new SQLException(e.getMessage() +
-            String.format("\nFailed to add category %s for deck instance %d, "
-                + "%s!", category, deck, creationInfo.toString()));
-      }
-    }
+      Connection connection = connectWriter();
+      try {
+        // Add deck instance info
+        int deckID = deck.getParentDeckID();
+        LocalDateTime creationInfo = deck.getCreationInfo();
+        Timestamp creationTimestamp = Timestamp.valueOf(creationInfo);
+        String insertStatement = "INSERT INTO DeckInstance(deck_id, creation) VALUES (?,?)";
+        try (PreparedStatement preparedStatement = connection.prepareStatement(insertStatement)) {
+          preparedStatement.setInt(1, deckID);
+          preparedStatement.setTimestamp(2, creationTimestamp);
+          preparedStatement.executeUpdate();
+        }
+        catch (SQLException e){
+          throw new SQLException(e.getMessage() +
+              String.format("\nFailed to add deck instance %s, %d!", creationInfo.toString(),
+              deckID));
+        }
 
-    // Add cards
-    Set<String> cards = deck.getCardNames();
-    for (String card : cards) {
-      insertStatement = "INSERT INTO DeckInstCard(deck_id, deck_inst_creation, card_name) VALUES (?,?,?)";
-      try (PreparedStatement preparedStatement = connection.prepareStatement(insertStatement);) {
-        preparedStatement.setInt(1, deckID);
-        preparedStatement.setTimestamp(2, creationTimestamp);
-        preparedStatement.setString(3, card);
-        preparedStatement.executeUpdate();
-      }
-      catch (SQLException e){
-        throw new SQLException(e.getMessage() + String.format("\nFailed to add card %s for deck instance %s, "
-            + "%s!", card, deck, creationInfo.toString()));
-      }
-    }
+        // Add categories
+        insertStatement = "INSERT INTO DeckInstCategory(deck_id, deck_inst_creation, category) "
+            + "VALUES (?,?,?)";
+        try (PreparedStatement preparedStatement = connection.prepareStatement(insertStatement)) {
+          for (String category : deck.getCategories()) {
+            preparedStatement.setInt(1, deckID);
+            preparedStatement.setTimestamp(2, creationTimestamp);
+            preparedStatement.setString(3, category);
+            preparedStatement.addBatch();
+          }
+          preparedStatement.executeBatch();
+        }
+        catch (SQLException e){
+          throw new SQLException(e.getMessage() +
+              String.format("\nFailed to add categories for deck instance %d, %s!", deckID,
+                  creationInfo.toString()));
+        }
 
-    // Add card expansions
-    Map<CardPrinting, Integer> cardExpansion = deck.getCardPrintingQuantities();
-    for (CardPrinting cardPrinting : cardExpansion.keySet()) {
-      String cardName = cardPrinting.getCardName();
-      String expansion = cardPrinting.getCardExpansion();
-      String identifier = cardPrinting.getIdentifyingNumber();
-      int quantity = cardExpansion.get(cardPrinting);
-      insertStatement = "INSERT INTO DeckInstCardExpansion(deck_id, deck_inst_creation, "
-          + "card_name, expansion, card_number, quantity) VALUES (?,?,?,?,?,?)";
-      try (PreparedStatement preparedStatement = connection.prepareStatement(insertStatement)) {
-        preparedStatement.setInt(1, deckID);
-        preparedStatement.setTimestamp(2, creationTimestamp);
-        preparedStatement.setString(3, cardName);
-        preparedStatement.setString(4, expansion);
-        preparedStatement.setString(5, identifier);
-        preparedStatement.setInt(6, quantity);
-        preparedStatement.executeUpdate();
-      }
-      catch (SQLException e){
-        throw new SQLException(e.getMessage() +
-            String.format("\nFailed to add card printing %s, %s, %s for deck "
-            + "instance %s, %s!", cardName, expansion, identifier, deck,
-            creationInfo.toString()));
-      }
-    }
+        // Add cards
+        insertStatement = "INSERT INTO DeckInstCard(deck_id, deck_inst_creation, card_name) VALUES (?,?,?)";
+        try (PreparedStatement preparedStatement = connection.prepareStatement(insertStatement)) {
+          for (String card : deck.getCardNames()) {
+            preparedStatement.setInt(1, deckID);
+            preparedStatement.setTimestamp(2, creationTimestamp);
+            preparedStatement.setString(3, card);
+            preparedStatement.addBatch();
+          }
+          preparedStatement.executeBatch();
+        }
+        catch (SQLException e){
+          throw new SQLException(e.getMessage() +
+              String.format("\nFailed to add cards for deck instance %d, %s!", deckID,
+                  creationInfo.toString()));
+        }
+
+        // Add card expansions
+        Map<CardPrinting, Integer> cardExpansion = deck.getCardPrintingQuantities();
+        insertStatement = "INSERT INTO DeckInstCardExpansion(deck_id, deck_inst_creation, "
+            + "card_name, expansion, card_number, quantity) VALUES (?,?,?,?,?,?)";
+        try (PreparedStatement preparedStatement = connection.prepareStatement(insertStatement)) {
+          for (CardPrinting cardPrinting : cardExpansion.keySet()) {
+            preparedStatement.setInt(1, deckID);
+            preparedStatement.setTimestamp(2, creationTimestamp);
+            preparedStatement.setString(3, cardPrinting.getCardName());
+            preparedStatement.setString(4, cardPrinting.getCardExpansion());
+            preparedStatement.setString(5, cardPrinting.getIdentifyingNumber());
+            preparedStatement.setInt(6, cardExpansion.get(cardPrinting));
+            preparedStatement.addBatch();
+          }
+          preparedStatement.executeBatch();
+        }
+        catch (SQLException e){
+          throw new SQLException(e.getMessage() +
+              String.format("\nFailed to add card printings for deck instance %d, %s!", deckID,
+                  creationInfo.toString()));
+        }
 
-    // Add cards in categories
-    Map<String, SortedSet<String>> cardCategories = deck.getCardNamesByCategory();
-    for (String category : cardCategories.keySet()) {
-      Set<String> categoryCards = cardCategories.get(category);
-      for (String card : categoryCards) {
+        // Add cards in categories
+        Map<String, SortedSet<String>> cardCategories = deck.getCardNamesByCategory();
         insertStatement = "INSERT INTO DeckInstCardCategory(deck_id, deck_inst_creation, "
             + "card_name, category) VALUES (?,?,?,?)";
-        try (PreparedStatement preparedStatement = connection.prepareStatement(insertStatement)){
-          preparedStatement.setInt(1, deckID);
-          preparedStatement.setTimestamp(2, creationTimestamp);
-          preparedStatement.setString(3, card);
-          preparedStatement.setString(4, category);
-          preparedStatement.executeUpdate();
+        try (PreparedStatement preparedStatement = connection.prepareStatement(insertStatement)) {
+          for (String category : cardCategories.keySet()) {
+            for (String card : cardCategories.get(category)) {
+              preparedStatement.setInt(1, deckID);
+              preparedStatement.setTimestamp(2, creationTimestamp);
+              preparedStatement.setString(3, card);
+              preparedStatement.setString(4, category);
+              preparedStatement.addBatch();
+            }
+          }
+          preparedStatement.executeBatch();
         }
         catch (SQLException e){
           throw new SQLException(e.getMessage() +
-              String.format("\nFailed to add card %s, to category %s for deck "
-                  + "instance %s, %s!", card, category, deck, creationInfo.toString()));
+              String.format("\nFailed to add cards to categories for deck instance %d, %s!",
+                  deckID, creationInfo.toString()));
         }
       }
-    }
-    disconnect(connection);
+      finally {
+        disconnect(connection);
+      }
+    });
   }
 
   @Override
@@ -390,7 +553,7 @@ public class DefaultDatabaseChannel extends DatabasePort implements DatabaseChan
     hasDeckBeenAdded(deckID);
 
     String deletionRequest = "DELETE FROM Deck WHERE id=?";
-    try (Connection connection = connect();
+    try (Connection connection = connectWriter();
     PreparedStatement preparedStatement = connection.prepareStatement(deletionRequest);) {
       preparedStatement.setInt(1, deckID);
       preparedStatement.executeUpdate();
@@ -410,7 +573,7 @@ public class DefaultDatabaseChannel extends DatabasePort implements DatabaseChan
     hasDeckBeenAdded(deckID);
 
     String updateRequest = "UPDATE Deck SET name=? WHERE id=?";
-    try (Connection connection = connect();
+    try (Connection connection = connectWriter();
     PreparedStatement preparedStatement = connection.prepareStatement(updateRequest);) {
       preparedStatement.setString(1, newName);
       preparedStatement.setInt(2, deckID);
@@ -431,7 +594,7 @@ public class DefaultDatabaseChannel extends DatabasePort implements DatabaseChan
     hasDeckBeenAdded(deckID);
 
     String updateRequest = "UPDATE Deck SET desp=? WHERE id=?";
-    try (Connection connection = connect();
+    try (Connection connection = connectWriter();
         PreparedStatement preparedStatement = connection.prepareStatement(updateRequest);){
       preparedStatement.setString(1, newDesp);
       preparedStatement.setInt(2, deckID);
@@ -449,6 +612,14 @@ public class DefaultDatabaseChannel extends DatabasePort implements DatabaseChan
     return new DefaultInformativeDeckInstance(deckInstance);
   }
 
+  @Override
+  public void inTransaction(UnitOfWork work) throws IllegalArgumentException, SQLException {
+    if (work == null) {
+      throw new IllegalArgumentException("Given work can't be null!");
+    }
+    runInTransaction(() -> work.run(this));
+  }
+
   @Override
   public CardQuery getQuery() throws SQLException {
     return new DefaultCardQuery();
@@ -456,52 +627,357 @@ public class DefaultDatabaseChannel extends DatabasePort implements DatabaseChan
 
   @Override
   public SortedSet<Card> queryCards(CardQuery cardQuery) throws IllegalArgumentException, SQLException {
+    Map<String, Map<String, Set<String>>> cardNameToExpansionsToNumbers = queryPrintings(cardQuery);
+    Map<String, DefaultCard> cachedCards = cachedCards(cardNameToExpansionsToNumbers.keySet());
+    SortedSet<Card> cards = new TreeSet<>();
+    for (String cardName : cardNameToExpansionsToNumbers.keySet()) {
+      Map<String, Set<String>> expansions = cardNameToExpansionsToNumbers.get(cardName);
+      Card toAdd = new DefaultCard(cardName, expansions, cachedCards.get(cardName));
+      cards.add(toAdd);
+    }
+
+    return cards;
+  }
+
+  @Override
+  public SortedSet<Card> queryCards(CardQuery cardQuery, String afterCardName, int pageSize)
+      throws IllegalArgumentException, SQLException {
+    Map<String, Map<String, Set<String>>> cardNameToExpansionsToNumbers =
+        queryPrintingPage(cardQuery, afterCardName, pageSize);
+    Map<String, DefaultCard> cachedCards = cachedCards(cardNameToExpansionsToNumbers.keySet());
+    SortedSet<Card> cards = new TreeSet<>();
+    for (String cardName : cardNameToExpansionsToNumbers.keySet()) {
+      Map<String, Set<String>> expansions = cardNameToExpansionsToNumbers.get(cardName);
+      cards.add(new DefaultCard(cardName, expansions, cachedCards.get(cardName)));
+    }
+    return cards;
+  }
+
+  @Override
+  public SortedSet<Card> queryCardsLazily(CardQuery cardQuery)
+      throws IllegalArgumentException, SQLException {
+    Map<String, Map<String, Set<String>>> cardNameToExpansionsToNumbers = queryPrintings(cardQuery);
+
+    // Summaries of cached cards come from the cache, the rest are fetched all at once
+    Map<String, DefaultCard> cachedCards = new HashMap<>();
+    Set<String> uncachedNames = new HashSet<>();
+    for (String cardName : cardNameToExpansionsToNumbers.keySet()) {
+      DefaultCard cached = cardCache.get(cardName);
+      if (cached == null) {
+        uncachedNames.add(cardName);
+      }
+      else {
+        cachedCards.put(cardName, cached);
+      }
+    }
+    CardHydrator summaries = null;
+    if (!uncachedNames.isEmpty()) {
+      Connection connection = connect();
+      try {
+        summaries = new CardHydrator(connection, uncachedNames, false);
+      }
+      finally {
+        disconnect(connection);
+      }
+    }
+
+    SortedSet<Card> cards = new TreeSet<>();
+    for (String cardName : cardNameToExpansionsToNumbers.keySet()) {
+      Map<String, Set<String>> expansions = cardNameToExpansionsToNumbers.get(cardName);
+      DefaultCard cached = cachedCards.get(cardName);
+      if (cached != null) {
+        cards.add(new LazyCard(cardName, expansions, cached));
+      }
+      else if (summaries != null && summaries.hasCard(cardName)) {
+        cards.add(new LazyCard(cardName, expansions, summaries));
+      }
+    }
+    return cards;
+  }
+
+  /**
+   * Runs the given {@link CardQuery} against the CDDB, and returns the printings of each card that
+   * match the query. If enabled, the query is evaluated against the in-memory index of the cards
+   * of the CDDB instead, unless it has parameters the index can't evaluate.
+   * @param cardQuery query to run
+   * @return mapping of the names of matching cards to the expansions of their matching printings,
+   *         with the numbers of the printings from each expansion
+   * @throws IllegalArgumentException if given query is null
+   * @throws SQLException if there is a failure to run the query
+   */
+  private Map<String, Map<String, Set<String>>> queryPrintings(CardQuery cardQuery)
+      throws IllegalArgumentException, SQLException {
+    if (cardQuery == null) {
+      throw new IllegalArgumentException("Given cardQuery can't be null!");
+    }
+
+    if (cardIndexEnabled && cardQuery instanceof DefaultCardQuery) {
+      CardIndex cardIndex = getCardIndex();
+      BitSet printings = ((DefaultCardQuery) cardQuery).evaluate(cardIndex);
+      cardIndex.countQuery(printings != null);
+      if (printings != null) {
+        return cardIndex.toPrintingMap(printings);
+      }
+    }
+
+    Map<String, Map<String, Set<String>>> cardNameToExpansionsToNumbers = new HashMap<>();
+    Pair<String, List<Object>> query = cardQuery.asParameterizedQuery();
+    try (Connection connection = connect();
+    PreparedStatement preparedStatement = connection.prepareStatement(query.getA())) {
+      List<Object> parameters = query.getB();
+      for (int i = 0; i < parameters.size(); i++) {
+        preparedStatement.setObject(i + 1, parameters.get(i));
+      }
+      ResultSet cardQueryResults = preparedStatement.executeQuery();
+
+      while (cardQueryResults.next()) {
+        String cardName = cardQueryResults.getString("card_name");
+        // Replace single quotes with doubled up single quotes for SQL
+        String expansion = cardQueryResults.getString("expansion");
+        String number = cardQueryResults.getString("number");
+
+        // Card name and expansion info defaults
+        Map<String, Set<String>> expansionInfo = new HashMap<>();
+        expansionInfo.put(expansion, new TreeSet<>());
+
+        // Check that card name and expansion info are added
+        if (cardNameToExpansionsToNumbers.containsKey(cardName) ) {
+          expansionInfo = cardNameToExpansionsToNumbers.get(cardName);
+          if (!expansionInfo.containsKey(expansion)) {
+            expansionInfo.put(expansion, new TreeSet<>());
+          }
+        }
+        else {
+          cardNameToExpansionsToNumbers.put(cardName, expansionInfo);
+        }
+
+        // Add number info
+        cardNameToExpansionsToNumbers.get(cardName).get(expansion).add(number);
+      }
+    }
+    catch (SQLException e) {
+      throw new SQLException(e.getMessage() + "\nFailed to query for given card query!");
+    }
+    return cardNameToExpansionsToNumbers;
+  }
+
+  /**
+   * Returns the printings of the cards that match the given {@link CardQuery}, for only a page of
+   * those cards - the given number of cards ordered by name after the given card name. If enabled,
+   * the query is evaluated against the in-memory index of the cards of the CDDB, unless it has
+   * parameters the index can't evaluate, and only the printings of the cards in the page are read
+   * from the evaluated bitmap. Otherwise the CDDB evaluates every filter of the query in full,
+   * orders the matching printings by card name, and they're read only until the page is full.
+   * @param cardQuery query to run
+   * @param afterCardName name of the last card of the previous page, or null for the first page
+   * @param pageSize maximum number of cards to return the printings of
+   * @return mapping of the names of matching cards in the page to the expansions of their matching
+   *         printings, with the numbers of the printings from each expansion
+   * @throws IllegalArgumentException if given query is null, or page size isn't positive
+   * @throws SQLException if there is a failure to run the query
+   */
+  private Map<String, Map<String, Set<String>>> queryPrintingPage(CardQuery cardQuery,
+      String afterCardName, int pageSize) throws IllegalArgumentException, SQLException {
     if (cardQuery == null) {
       throw new IllegalArgumentException("Given cardQuery can't be null!");
     }
+    else if (pageSize < 1) {
+      throw new IllegalArgumentException("Given page size must be positive!");
+    }
+    // Every card name comes after the empty name, so the first page runs the same statement
+    String after = afterCardName == null ? "" : afterCardName;
+
+    if (cardIndexEnabled && cardQuery instanceof DefaultCardQuery) {
+      CardIndex cardIndex = getCardIndex();
+      BitSet printings = ((DefaultCardQuery) cardQuery).evaluate(cardIndex);
+      cardIndex.countQuery(printings != null);
+      if (printings != null) {
+        return cardIndex.toPrintingPage(printings, after, pageSize);
+      }
+    }
 
     Map<String, Map<String, Set<String>>> cardNameToExpansionsToNumbers = new HashMap<>();
-    String query = cardQuery.asQuery();
+    Pair<String, List<Object>> query = cardQuery.asParameterizedQuery();
+    String pageQuery = String.format("SELECT card_name, expansion, number FROM (%s) "
+        + "WHERE card_name > ? ORDER BY card_name", query.getA());
     try (Connection connection = connect();
-    PreparedStatement preparedStatement = connection.prepareStatement(query);
-        ResultSet cardQueryResults = preparedStatement.executeQuery();) {
+    PreparedStatement preparedStatement = connection.prepareStatement(pageQuery)) {
+      List<Object> parameters = query.getB();
+      for (int i = 0; i < parameters.size(); i++) {
+        preparedStatement.setObject(i + 1, parameters.get(i));
+      }
+      preparedStatement.setString(parameters.size() + 1, after);
+      ResultSet cardQueryResults = preparedStatement.executeQuery();
 
+      // Stop at the first printing of the card after the last card of the page
       while (cardQueryResults.next()) {
         String cardName = cardQueryResults.getString("card_name");
-        // Replace single quotes with doubled up single quotes for SQL
-        String expansion = cardQueryResults.getString("expansion");
-        String number = cardQueryResults.getString("number");
+        if (!cardNameToExpansionsToNumbers.containsKey(cardName)
+            && cardNameToExpansionsToNumbers.size() == pageSize) {
+          break;
+        }
+        cardNameToExpansionsToNumbers.computeIfAbsent(cardName, name -> new HashMap<>())
+            .computeIfAbsent(cardQueryResults.getString("expansion"), expansion -> new TreeSet<>())
+            .add(cardQueryResults.getString("number"));
+      }
+    }
+    catch (SQLException e) {
+      throw new SQLException(e.getMessage() + "\nFailed to query page of given card query!");
+    }
+    return cardNameToExpansionsToNumbers;
+  }
 
-        // Card name and expansion info defaults
-        Map<String, Set<String>> expansionInfo = new HashMap<>();
-        expansionInfo.put(expansion, new TreeSet<>());
+  @Override
+  public CardQueryCounts countCards(CardQuery cardQuery)
+      throws IllegalArgumentException, SQLException {
+    if (cardQuery == null) {
+      throw new IllegalArgumentException("Given cardQuery can't be null!");
+    }
 
-        // Check that card name and expansion info are added
-        if (cardNameToExpansionsToNumbers.containsKey(cardName) ) {
-          expansionInfo = cardNameToExpansionsToNumbers.get(cardName);
-          if (!expansionInfo.containsKey(expansion)) {
-            expansionInfo.put(expansion, new TreeSet<>());
-          }
-        }
-        else {
-          cardNameToExpansionsToNumbers.put(cardName, expansionInfo);
+    if (cardIndexEnabled && cardQuery instanceof DefaultCardQuery) {
+      CardIndex cardIndex = getCardIndex();
+      BitSet printings = ((DefaultCardQuery) cardQuery).evaluate(cardIndex);
+      cardIndex.countQuery(printings != null);
+      if (printings != null) {
+        BitSet cards = cardIndex.toCards(printings);
+        CardQueryCounts counts = new CardQueryCounts(cards.cardinality(),
+            printings.cardinality());
+        for (Facet facet : Facet.values()) {
+          Pair<String, String> source = facetSource(facet);
+          Map<String, Integer> facetCounts = isPrintingFacet(facet) ?
+              cardIndex.countPrintingCards(source.getB(), printings) :
+              cardIndex.countCards(source.getA(), cards);
+          facetCounts.forEach((value, count) -> counts.putFacetCount(facet, value, count));
         }
+        return counts;
+      }
+    }
 
-        // Add number info
-        cardNameToExpansionsToNumbers.get(cardName).get(expansion).add(number);
+    // Matching printings are counted as a whole, then the values of each facet of the matching
+    // cards or printings are grouped and counted, all in a single statement - ordered so the
+    // totals come first, as a UNION ALL doesn't otherwise keep the order of its selects
+    Pair<String, List<Object>> query = cardQuery.asParameterizedQuery();
+    StringBuilder countQuery = new StringBuilder(String.format("WITH Matches AS (%s) "
+        + "SELECT 0 AS part, NULL AS facet, COUNT(DISTINCT card_name) AS value, "
+        + "COUNT(*) AS quantity FROM Matches", query.getA()));
+    for (Facet facet : Facet.values()) {
+      Pair<String, String> source = facetSource(facet);
+      String matching = isPrintingFacet(facet) ?
+          "(card_name, expansion, number) IN (SELECT card_name, expansion, number FROM Matches)" :
+          "card_name IN (SELECT card_name FROM Matches)";
+      countQuery.append(String.format(" UNION ALL SELECT 1, '%s', %s, "
+          + "COUNT(DISTINCT card_name) FROM %s WHERE %s GROUP BY %s", facet.name(), source.getB(),
+          source.getA(), matching, source.getB()));
+    }
+    countQuery.append(" ORDER BY part");
+
+    CardQueryCounts counts = null;
+    try (Connection connection = connect();
+    PreparedStatement preparedStatement = connection.prepareStatement(countQuery.toString())) {
+      List<Object> parameters = query.getB();
+      for (int i = 0; i < parameters.size(); i++) {
+        preparedStatement.setObject(i + 1, parameters.get(i));
+      }
+      try (ResultSet countResults = preparedStatement.executeQuery()) {
+        while (countResults.next()) {
+          String facet = countResults.getString("facet");
+          if (facet == null) {
+            counts = new CardQueryCounts(countResults.getInt("value"),
+                countResults.getInt("quantity"));
+          }
+          else {
+            counts.putFacetCount(Facet.valueOf(facet), countResults.getString("value"),
+                countResults.getInt("quantity"));
+          }
+        }
       }
     }
     catch (SQLException e) {
-      throw new SQLException(e.getMessage() + "\nFailed to query for given card query!");
+      throw new SQLException(e.getMessage() + "\nFailed to count given card query!");
     }
+    return counts;
+  }
 
-    SortedSet<Card> cards = new TreeSet<>();
-    for (String cardName : cardNameToExpansionsToNumbers.keySet()) {
-      Map<String, Set<String>> expansions = cardNameToExpansionsToNumbers.get(cardName);
-      Card toAdd = new DefaultCard(cardName, expansions);
-      cards.add(toAdd);
+  /**
+   * Returns the table and column holding the values of the given {@link Facet}.
+   * @param facet facet to get the values of
+   * @return table and column of the values of the facet
+   */
+  private static Pair<String, String> facetSource(Facet facet) {
+    switch (facet) {
+      case COLOR:
+        return new Pair<>("Color", "color");
+      case COLOR_IDENTITY:
+        return new Pair<>("ColorIdentity", "color");
+      case SUPERTYPE:
+        return new Pair<>("Supertype", "type");
+      case TYPE:
+        return new Pair<>("Type", "type");
+      case SUBTYPE:
+        return new Pair<>("Subtype", "type");
+      case EXPANSION:
+        return new Pair<>("CardExpansion", "expansion");
+      case RARITY:
+        return new Pair<>("CardExpansion", "rarity");
+      case ARTIST:
+        return new Pair<>("Artist", "artist");
+      default:
+        throw new IllegalArgumentException("Unsupported facet " + facet + "!");
+    }
+  }
+
+  /**
+   * Returns if the values of the given {@link Facet} belong to a card's printings, rather than the
+   * card itself, so only the values of its matching printings are counted.
+   * @param facet facet to check
+   * @return if the facet's values belong to printings
+   */
+  private static boolean isPrintingFacet(Facet facet) {
+    return facet == Facet.EXPANSION || facet == Facet.RARITY || facet == Facet.ARTIST;
+  }
+
+  /**
+   * Returns the {@link DefaultCard} of each of the given cards with all of its printings, from the
+   * card cache where cached. Cards that aren't cached are built from info fetched from the CDDB
+   * for all of them at once, rather than querying for each card on its own, then cached.
+   * @param cardNames names of the cards to return
+   * @return mapping of card names to their cards, without any of the given cards that aren't in
+   *         the CDDB
+   * @throws SQLException if there is a failure to query card info from the CDDB
+   */
+  private Map<String, DefaultCard> cachedCards(Set<String> cardNames) throws SQLException {
+    Map<String, DefaultCard> cards = new HashMap<>();
+    Set<String> uncachedNames = new HashSet<>();
+    for (String cardName : cardNames) {
+      DefaultCard card = cardCache.get(cardName);
+      if (card == null) {
+        uncachedNames.add(cardName);
+      }
+      else {
+        cards.put(cardName, card);
+      }
     }
 
+    if (!uncachedNames.isEmpty()) {
+      // Version is read before fetching, so cards fetched as a set is added aren't cached
+      long version = cardCache.getVersion();
+      CardHydrator hydrator;
+      Connection connection = connect();
+      try {
+        hydrator = new CardHydrator(connection, uncachedNames);
+      }
+      finally {
+        disconnect(connection);
+      }
+
+      for (String cardName : uncachedNames) {
+        if (hydrator.hasCard(cardName)) {
+          DefaultCard card = new DefaultCard(cardName, hydrator);
+          cardCache.put(cardName, card, version);
+          cards.put(cardName, card);
+        }
+      }
+    }
     return cards;
   }
 
@@ -533,111 +1009,97 @@ public class DefaultDatabaseChannel extends DatabasePort implements DatabaseChan
     }
   }
 
-  /**
-   * Retrieves all information stored in the given column apart of the given table from the CDDB.
-   * @param tableName name of the table to query
-   * @param columnName name of the column that is apart of the given table to query from
-   * @return sorted set of the row info from the given column apart of the
-   * @throws SQLException failure to query information from the CDDB
-   * @throws IllegalStateException if connection to the database is closed or not working
-   */
-  private SortedSet<String> retrieveColumnInfo(String tableName, String columnName) throws SQLException {
-    Connection connection = connect();
-    SortedSet<String> toReturn = retrieveColumnInfo(tableName, columnName, connection);
-    disconnect(connection);
-    return toReturn;
+  @Override
+  public Card getCard(String name) throws SQLException, IllegalArgumentException {
+    if (name == null) {
+      throw new IllegalArgumentException("Given card can't be null!");
+    }
+
+    DefaultCard card = cachedCards(Collections.singleton(name)).get(name);
+    if (card == null) {
+      throw new IllegalArgumentException(String.format("Database doesn't contain card %s!", name));
+    }
+    return card;
   }
 
   /**
-   * Given the name of a table in the CDDB, and a column in that table that contains String values,
-   * retrieves a SortedSet of all the values stored in that column in the CDDB.
-   * @param tableName name of the table to retrieve info from
-   * @param columnName name of column to retrieve info from
-   * @param connection connection to the CCCB to use for withdrawing information
-   * @return sorted set of all the String values stored in the given column of the given table
-   * @throws IllegalArgumentException if given table name and / or column name is null, empty, or
-   * contains only spaces - or if given connection is null or closed
-   * @throws SQLException if there is an error retrieving info from the CDDB
+   * Compares the given {@link Card}s as per {@link Card#compareTo(Card)}, by name then by their
+   * printings, without loading the details of either card's printings.
+   * @param card card to compare
+   * @param other card to compare against
+   * @return negative if the card comes first, positive if the other card comes first, else 0
+   * @throws IllegalArgumentException if the other card is null
    */
-  private SortedSet<String> retrieveColumnInfo(String tableName, String columnName,
-      Connection connection) throws IllegalArgumentException, SQLException {
-    if (connection == null || connection.isClosed()) {
-      throw new IllegalArgumentException("Given connection can't be null or closed!");
+  private static int compareCards(Card card, Card other) throws IllegalArgumentException {
+    if (other == null) {
+      throw new IllegalArgumentException("Given card can't be null!");
     }
-    else if (tableName == null || tableName.isBlank() || columnName == null || columnName.isBlank()) {
-      throw new IllegalArgumentException("Given table and column name can't be "
-          + "null, empty, or full of spaces!");
+
+    int nameCompare = card.getName().compareTo(other.getName());
+    if (nameCompare != 0) {
+      return nameCompare;
     }
 
-    SortedSet<String> toReturn = new TreeSet<>();
-    String query = String.format("SELECT DISTINCT(%s) FROM %s", columnName, tableName);
-    try (PreparedStatement preparedStatement = connection.prepareStatement(query);
-    ResultSet queryResult = preparedStatement.executeQuery()) {
+    // Neither should be empty
+    SortedSet<? extends CardPrinting> expansions = printingsOf(card);
+    SortedSet<? extends CardPrinting> otherExpansions = printingsOf(other);
+    assert !expansions.isEmpty() && !otherExpansions.isEmpty();
 
-      while (queryResult.next()) {
-        String result = queryResult.getString(columnName);
-        toReturn.add(result);
-      }
-    }
-    catch (SQLException e) {
-      throw new SQLException(e.getMessage() +
-          String.format("\nFailed to query for column %s from table %s!", columnName, tableName));
+    boolean thisIsShorter;
+    SortedSet<? extends CardPrinting> shorterExpansions;
+    SortedSet<? extends CardPrinting> longerExpansions;
+    if (expansions.size() < otherExpansions.size()) {
+      thisIsShorter = true;
+      shorterExpansions = expansions;
+      longerExpansions = otherExpansions;
     }
-    return Collections.unmodifiableSortedSet(toReturn);
-  }
-
-  @Override
-  public Card getCard(String name) throws SQLException, IllegalArgumentException {
-    if (name == null) {
-      throw new IllegalArgumentException("Given card can't be null!");
+    else {
+      thisIsShorter = false;
+      shorterExpansions = otherExpansions;
+      longerExpansions = expansions;
     }
 
-    // Check if card is in database
-
-    Connection connection = null;
-    PreparedStatement preparedStatement = null;
-    ResultSet resultSet = null;
-    try {
-      connection = connect();
-      String checkQuery = "SELECT name FROM Card WHERE name = ?";
-      preparedStatement = connection.prepareStatement(checkQuery);
-      preparedStatement.setString(1, name);
-      resultSet = preparedStatement.executeQuery();
+    Iterator<? extends CardPrinting> shortExpansionsIterator = shorterExpansions.iterator();
+    Iterator<? extends CardPrinting> longerExpansionsIterator = longerExpansions.iterator();
+    while (shortExpansionsIterator.hasNext()) {
+      CardPrinting curShorterExpansionsItem = shortExpansionsIterator.next();
+      CardPrinting curLongerExpansionItem = longerExpansionsIterator.next();
+      int curComparison = thisIsShorter ?
+          curShorterExpansionsItem.compareTo(curLongerExpansionItem) :
+          curLongerExpansionItem.compareTo(curShorterExpansionsItem);
 
-      if (!resultSet.next()) {
-        throw new IllegalArgumentException(String.format("Database doesn't contain card %s!", name));
+      if (curComparison != 0) {
+        return curComparison;
       }
+    }
 
-      close(resultSet, preparedStatement);
-
-      String cardQuery = "";
-
-
-      Card card = null;
+    int remainingDifference = 0;
+    while (longerExpansionsIterator.hasNext()) {
+      longerExpansionsIterator.next();
 
-      return card;
-    }
-    catch (SQLException e) {
-      throw new SQLException("Failed to query for card");
-    }
-    finally {
-      close(resultSet, preparedStatement);
-      disconnect(connection);
+      if (thisIsShorter) {
+        remainingDifference--;
+      }
+      else {
+        remainingDifference++;
+      }
     }
+
+    // If remaining difference is 0, should be the exact same card with exact same printings
+    return remainingDifference;
   }
 
   /**
-   * Formats and returns a given String that is malformatted by most SQL implementation Replaces
-   * any single quote with double up single quotes to prevent invalid SQL queries
-   * "foo's" --> "foo''s"
-   * @param word word to format
-   * @return properly formatted word
+   * Returns the printings of the given {@link Card}, without loading their details if the card is
+   * a {@link LazyCard}.
+   * @param card card to get the printings of
+   * @return printings of the card
    */
-  private String formatWordToSQL(String word) {
-    if (word == null) {
-      throw new IllegalArgumentException("Given word can't be null!");
+  private static SortedSet<? extends CardPrinting> printingsOf(Card card) {
+    if (card instanceof LazyCard) {
+      return ((LazyCard) card).printings;
     }
-    return word.replace("'", "''");
+    return card.getCardPrintings();
   }
 
   /**
@@ -719,6 +1181,23 @@ public class DefaultDatabaseChannel extends DatabasePort implements DatabaseChan
      */
     protected DefaultCard(String name, Map<String, Set<String>> expansions) throws SQLException,
         IllegalArgumentException {
+      this(name, expansions, cachedCards(Collections.singleton(name)).get(name));
+    }
+
+    /**
+     * Builds a {@link DefaultCard} from a given card name and list of associated expansions from
+     * which the card was printed, as a view of the given card with all its printings limited to
+     * the printings from those expansions.
+     * @param name name of card to associate with
+     * @param expansions expansions card was printed in to associate with, with associated numbers
+     * @param allPrintings card with all of its printings, or null if the card isn't in the CDDB
+     * @throws IllegalArgumentException if given name or set of expansions is null, given set of
+     * expansions is empty, if given name is not a card name in the CDDB, or if expansions contain
+     * an expansion or printing of the card not within the CDDB
+     * @throws SQLException if the catalog of expansions fails to be loaded from the CDDB
+     */
+    private DefaultCard(String name, Map<String, Set<String>> expansions, DefaultCard allPrintings)
+        throws IllegalArgumentException, SQLException {
       if (name == null) {
         throw new IllegalArgumentException("Given name can't be null!");
       }
@@ -726,430 +1205,341 @@ public class DefaultDatabaseChannel extends DatabasePort implements DatabaseChan
         throw new IllegalArgumentException("Given expansions can't be null nor empty!");
       }
 
-      SortedSet<String> sets = retrieveColumnInfo("Expansion", "expansion");
-
+      SortedSet<String> sets = getCatalog().getExpansions();
       for (String expansion : expansions.keySet()) {
         if (!sets.contains(expansion)) {
-          throw new IllegalArgumentException(String.format("Database doesn't contain printing "
-              + "for card %s from expansion %s!", name, expansion));
+          throw new IllegalArgumentException(String.format("Database doesn't contain expansion "
+              + "%s!", expansion));
         }
       }
 
-      Connection connection = connect();
-      this.name = setName(connection, name);
-      this.text = setText(connection, name);
-      this.cmc = setCMC(connection, name);
-      this.manaCosts = setManaCosts(connection, name);
-      this.supertypes = setSupertypes(connection, name);
-      this.types = setTypes(connection, name);
-      this.subtypes = setSubtypes(connection, name);
-      this.colors = setColors(connection, name);
-      this.colorIdentity = setColorIdentity(connection, name);
-      this.relationship = setCardRelationship(connection, name);
-      this.additionalInfo = setAdditionalInfo(connection, name);
-      this.cardPrintings = setCardPrintings(connection, expansions, name);
-      disconnect(connection);
-    }
+      if (allPrintings == null) {
+        throw new IllegalArgumentException(String.format("Database doesn't contain card %s!",
+            name));
+      }
 
-    /**
-     * Retrieves the name of this {@link Card} using the given connection to the CDDB.
-     * @param connection connection to the CDDB to use for retrieving data
-     * @param cardName name of card to retrieve data for
-     * @return name of this card from the database
-     * @throws SQLException if there is an error in retrieving data from the CDDB
-     * @throws IllegalArgumentException if any given parameter is null, or if given connection is
-     * closed
-     */
-    private String setName(Connection connection, String cardName) throws SQLException {
-      return getCardInfo(connection,"name", "name", cardName);
+      this.name = allPrintings.name;
+      this.text = allPrintings.text;
+      this.cmc = allPrintings.cmc;
+      this.manaCosts = allPrintings.manaCosts;
+      this.supertypes = allPrintings.supertypes;
+      this.types = allPrintings.types;
+      this.subtypes = allPrintings.subtypes;
+      this.colors = allPrintings.colors;
+      this.colorIdentity = allPrintings.colorIdentity;
+      this.relationship = allPrintings.relationship;
+      this.additionalInfo = allPrintings.additionalInfo;
+      this.cardPrintings = setCardPrintings(allPrintings.cardPrintings, expansions);
     }
 
     /**
-     * Retrieves the text of this {@link Card} using the given connection to the CDDB.
-     * @param connection connection to the CDDB to use
-     * @param cardName name of card to retrieve data for
-     * @return text of this card from the CDDB
-     * @throws SQLException if there is an error in retrieving data from the CDDB
-     * @throws IllegalArgumentException if any given parameter is null, or if given connection is
-     * closed
+     * Builds a {@link DefaultCard} from a given card name with all of the card's printings, from
+     * info already fetched from the CDDB for a group of cards including this one.
+     * @param name name of card to associate with
+     * @param hydrator info fetched from the CDDB for a group of cards including this one
+     * @throws IllegalArgumentException if any given parameters are null, if given name is not a
+     * card name in the CDDB, or if the card is missing any of its stats
      */
-    private String setText(Connection connection, String cardName) throws SQLException {
-      return getCardInfo(connection,"text", "card text", cardName);
-    }
+    private DefaultCard(String name, CardHydrator hydrator) throws IllegalArgumentException {
+      if (name == null || hydrator == null) {
+        throw new IllegalArgumentException("Given name and hydrator can't be null!");
+      }
+      else if (!hydrator.isDetailed()) {
+        throw new IllegalArgumentException("Given hydrator must have fetched all card info!");
+      }
+      else if (!hydrator.hasCard(name)) {
+        throw new IllegalArgumentException(String.format("Database doesn't contain card %s!",
+            name));
+      }
 
-    /**
-     * Retrieves some base info of this {@link Card} using the given connection to the CDDB, from
-     * the Card table in the CDDB.
-     * @param connection connection to the CDDB to use for retrieving data
-     * @param column name of column to retrieve data from
-     * @param infoType type of info retrieved from the column
-     * @param cardName name of card to retrieve data for
-     * @return some piece of base info of this card from the Card table in the CDDB
-     * @throws SQLException if there is an error in retrieving data from the CDDB
-     * @throws IllegalArgumentException if given connection is closed, or if any of the given
-     * parameters are null
-     */
-    private String getCardInfo(Connection connection, String column, String infoType,
-        String cardName) throws SQLException {
-      Map<String, String> conditions = new HashMap<>();
-      conditions.put("name", cardName);
-      Set<String> toReturn = retrieveSingleColumn(connection, "Card", column,
-          conditions, true, infoType, cardName);
-      return singleItemSetToString(toReturn);
+      this.name = name;
+      this.text = hydrator.getText(name);
+      this.cmc = hydrator.getConvertedManaCost(name);
+      this.manaCosts = hydrator.getManaCosts(name);
+      this.supertypes = hydrator.getSupertypes(name);
+      this.types = hydrator.getTypes(name);
+      this.subtypes = hydrator.getSubtypes(name);
+      this.colors = hydrator.getColors(name);
+      this.colorIdentity = hydrator.getColorIdentity(name);
+      this.relationship = hydrator.getRelationship(name);
+      this.additionalInfo = setAdditionalInfo(hydrator);
+
+      SortedSet<InformativeCardPrinting> cardPrintings = new TreeSet<>();
+      for (CardPrinting printing : hydrator.getPrintings(name)) {
+        String[] printingInfo = hydrator.getPrintingInfo(printing);
+        cardPrintings.add(new DefaultInformativeCardPrinting(printing,
+            hydrator.getArtists(printing), printingInfo[0], printingInfo[1], printingInfo[2]));
+      }
+      this.cardPrintings = cardPrintings;
     }
 
     /**
-     * Retrieves all the info from a single column, for a given table, associated this {@link Card}.
-     * @param connection connection to the CDDB to use for retrieving data
-     * @param table name of table to retrieve info from
-     * @param column name of column on given table to retrieve data from
-     * @param conditions search conditions to apply to query, in form of column name to a matching
-     * string
-     * @param singleResult boolean flag to single if returned set should contain a single item or
-     * multiple items
-     * @param infoType type of info being retrieved
-     * @param cardName name of card to retrieve data for
-     * @return set of all data from given column of given table associated with given card name, as
-     * per given conditions
-     * @throws SQLException if there is an error in retrieving data from the CDDB
-     * @throws IllegalArgumentException if any given parameter is null, or if given connection is
-     * closed
+     * Collects any additional information associated with this {@link Card} such as power,
+     * toughness, or loyalty.
+     * @param hydrator info fetched from the CDDB for a group of cards including this one
+     * @return any additional info and their respective quantities associated with this {@link Card}
+     * @throws IllegalArgumentException if the card is missing the stats its types call for
      */
-    private SortedSet<String> retrieveSingleColumn(Connection connection, String table, String column,
-        Map<String, String> conditions, boolean singleResult, String infoType, String cardName)
-        throws SQLException {
-
-      if (connection == null || table == null || column == null ||
-          conditions == null || infoType == null) {
-        throw new IllegalArgumentException("None of the given parameters can be null!");
+    private Map<String, String> setAdditionalInfo(CardHydrator hydrator) {
+      // When constructing variables, call after initiating types
+      Map<String, String> additionalInfo = new HashMap<>();
+      if (types.contains("Planeswalker")) {
+        String loyalty = hydrator.getLoyalty(name);
+        if (loyalty == null) {
+          throw new IllegalArgumentException(String.format("Database doesn't contain loyalty for "
+              + "card %s!", name));
+        }
+        additionalInfo.put("loyalty", loyalty);
       }
-      else if (connection.isClosed()) {
-        throw new IllegalArgumentException("Given connection can't be closed!");
+      else if (types.contains("Creature") || subtypes.contains("Vehicle")) {
+        String[] powerToughness = hydrator.getPowerToughness(name);
+        if (powerToughness == null) {
+          throw new IllegalArgumentException(String.format("Database doesn't contain power and "
+              + "toughness for card %s!", name));
+        }
+        additionalInfo.put("power", powerToughness[0]);
+        additionalInfo.put("toughness", powerToughness[1]);
       }
+      return additionalInfo;
+    }
 
-      StringBuilder query = new StringBuilder(String.format("SELECT %s FROM %s", column, table));
-
-      boolean singleCondition = true;
-      for (String key : conditions.keySet()) {
-        String value = formatWordToSQL(conditions.get(key));
-        String mergeCond;
-        if (singleCondition) {
-          singleCondition = false;
-          mergeCond = "WHERE";
-        }
-        else {
-          mergeCond = "AND";
+    /**
+     * For a set of expansions this {@link Card } was printed in, picks out the printings of the
+     * card from those expansions.
+     * @param allPrintings every printing of the card
+     * @param expansions set of expansions associated card was printed in, with associated numbers
+     * @return set of InformativeCardPrinting for the expansions given
+     * @throws IllegalArgumentException if any of the printings isn't within the CDDB
+     */
+    private SortedSet<InformativeCardPrinting> setCardPrintings(
+        SortedSet<InformativeCardPrinting> allPrintings, Map<String, Set<String>> expansions) {
+      SortedSet<InformativeCardPrinting> informativeCardPrinting = new TreeSet<>();
+      Set<String> printedExpansions = new HashSet<>();
+      for (InformativeCardPrinting printing : allPrintings) {
+        printedExpansions.add(printing.getCardExpansion());
+        Set<String> numbers = expansions.get(printing.getCardExpansion());
+        if (numbers != null && numbers.contains(printing.getIdentifyingNumber())) {
+          informativeCardPrinting.add(printing);
         }
-
-        query.append(String.format(" %s %s = '%s'", mergeCond, key, value));
       }
 
-      try (PreparedStatement preparedStatement = connection.prepareStatement(query.toString());
-          ResultSet resultSet = preparedStatement.executeQuery()) {
-        SortedSet<String> toReturn = new TreeSet<>();
-        while (resultSet.next()) {
-          toReturn.add(resultSet.getString(column));
-          if (singleResult) {
-            assert toReturn.size() == 1;
-            return toReturn;
+      for (String expansion : expansions.keySet()) {
+        if (!printedExpansions.contains(expansion)) {
+          throw new IllegalArgumentException(String.format("Database doesn't contain printing "
+              + "for card %s from expansion %s!", name, expansion));
+        }
+        for (String number : expansions.get(expansion)) {
+          if (!informativeCardPrinting.contains(new DefaultCardPrinting(name, expansion, number))) {
+            throw new IllegalArgumentException(String.format("Database doesn't contain printing "
+                + "%s of card %s from expansion %s!", number, name, expansion));
           }
         }
-        return toReturn;
       }
-      catch (SQLException e) {
-        throw new SQLException(e.getMessage() +
-            String.format("Failed to retrieve %s for card %s from database!", infoType, cardName));
+      return informativeCardPrinting;
+    }
+
+    @Override
+    public String getName() {
+      return name;
+    }
+
+    @Override
+    public int getConvertedManaCost() {
+      return cmc;
+    }
+
+    @Override
+    public Map<String, Integer> getManaCost() {
+      return Collections.unmodifiableMap(manaCosts);
+    }
+
+    @Override
+    public SortedSet<String> getColors() {
+      return Collections.unmodifiableSortedSet(colors);
+    }
+
+    @Override
+    public SortedSet<String> getColorIdentity() {
+      return Collections.unmodifiableSortedSet(colorIdentity);
+    }
+
+    @Override
+    public String getText() {
+      return text;
+    }
+
+    @Override
+    public SortedSet<String> getSupertypes() {
+      return Collections.unmodifiableSortedSet(supertypes);
+    }
+
+    @Override
+    public SortedSet<String> getTypes() {
+      return Collections.unmodifiableSortedSet(types);
+    }
+
+    @Override
+    public SortedSet<String> getSubtypes() {
+      return Collections.unmodifiableSortedSet(subtypes);
+    }
+
+    @Override
+    public SortedSet<InformativeCardPrinting> getCardPrintings() {
+      return Collections.unmodifiableSortedSet(cardPrintings);
+    }
+
+    @Override
+    public Map<String, String> getExtraStats() {
+      return Collections.unmodifiableMap(additionalInfo);
+    }
+
+    @Override
+    public CardRelationship getRelationships() {
+      return relationship;
+    }
+
+    @Override
+    public int compareTo(Card other) throws IllegalArgumentException {
+      return compareCards(this, other);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (other instanceof Card) {
+        Card otherCard = (Card) other;
+        return name.equals(otherCard.getName()) && cardPrintings.equals(printingsOf(otherCard));
       }
+      return false;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(name, cardPrintings);
     }
+  }
+
+  /**
+   * Implementation of the {@link Card} interface for list views, which holds only the summary of a
+   * card - its name, mana costs, types, and the identities of its printings - and loads the rest of
+   * its info, e.g. its printings' artists and rarities, its colors, relationships, and stats, the
+   * first time any of it is asked for. Compares and equals other cards as a {@link DefaultCard}
+   * with the same printings would, without loading its details.
+   */
+  private class LazyCard implements Card {
 
     /**
-     * Retrieves the mana symbols and respective quantities associated with this {@link Card}.
-     * @param connection connection to the CDDB to use for retrieving data
-     * @param cardName name of card to retrieve data for
-     * @return mapping of mana symbols to their quantities for this card
-     * @throws SQLException if there is an error in retrieving data from the CDDB
-     * @throws IllegalArgumentException if any given parameter is null, or if given connection is
-     * closed
+     * Name of the Card as it appears in the CDDB.
      */
-    private Map<String, Integer> setManaCosts(Connection connection, String cardName) throws SQLException {
-      cardName = formatWordToSQL(cardName);
-      String query = String.format("SELECT mana_type, quantity FROM Mana WHERE card_name = '%s'", cardName);
-      try (PreparedStatement preparedStatement = connection.prepareStatement(query);
-          ResultSet resultSet = preparedStatement.executeQuery()) {
-        Map<String, Integer> manaTypeToQuantity = new HashMap<>();
-        while (resultSet.next()) {
-          String manaType = resultSet.getString("mana_type");
-          int quantity = resultSet.getInt("quantity");
-          manaTypeToQuantity.put(manaType, quantity);
-        }
-        return manaTypeToQuantity;
-      }
-      catch (SQLException e) {
-        throw new SQLException(e.getMessage() +
-            String.format("Failed to retrieve mana type info for card %s from database!", cardName));
-      }
-    }
+    private final String name;
 
     /**
-     * Retrieves the supertypes associated with this {@link Card}.
-     * @param connection connection to the CDDB to use for retrieving data
-     * @param cardName name of card to retrieve data for
-     * @return set of supertypes associated with this card
-     * @throws SQLException if there is an error in retrieving data from the CDDB
-     * @throws IllegalArgumentException if any given parameter is null, or if given connection is
-     * closed
+     * Expansions the card was printed in to associate with, with associated numbers.
      */
-    private SortedSet<String> setSupertypes(Connection connection, String cardName) throws SQLException {
-      return retrieveTypeInfo(connection, "Supertype", "supertype", cardName);
-    }
+    private final Map<String, Set<String>> expansions;
 
     /**
-     * Retrieves the types associated with this {@link Card}.
-     * @param connection connection to the CDDB to use for retrieving data
-     * @param cardName name of card to retrieve data for
-     * @return set of types associated with this card
-     * @throws SQLException if there is an error in retrieving data from the CDDB
-     * @throws IllegalArgumentException if any given parameter is null, or if given connection is
-     * closed
+     * Identities of the card's printings, from the given expansions.
      */
-    private SortedSet<String> setTypes(Connection connection, String cardName) throws SQLException {
-      return retrieveTypeInfo(connection,"Type", "type", cardName);
-    }
+    private final SortedSet<CardPrinting> printings;
+
+    /**
+     * Converted mana cost of the associated card as it appears in the CDDB.
+     */
+    private final int cmc;
 
     /**
-     * Retrieves the subtypes associated with this {@link Card}.
-     * @param connection connection to the CDDB to use for retrieving data
-     * @param cardName name of card to retrieve data for
-     * @return set of subtypes associatd with this card
-     * @throws SQLException if there is an error in retrieving data from the CDDB
-     * @throws IllegalArgumentException if given connection is closed, or if any of the given
-     * parameters are null
+     * Manacosts and their associated manacosts as they appear in the CDDB for this Card.
      */
-    private SortedSet<String> setSubtypes(Connection connection, String cardName) throws SQLException {
-      return retrieveTypeInfo(connection,"Subtype", "subtype", cardName);
-    }
+    private final Map<String, Integer> manaCosts;
 
     /**
-     * Retrieves types associated with this {@link Card}, for a given category of type (supertype,
-     * type, subtype).
-     * @param connection connection to the CDDB to use for retrieving data
-     * @param table to retrieve data from
-     * @param type category of type to retrieve
-     * @param cardName name of card to retrieve data for
-     * @return set of given category of type associated with this card
-     * @throws SQLException if there is an error in retrieving data from the CDDB
-     * @throws IllegalArgumentException if given connection is closed, or if any of the given
-     * parameters are null
+     * Supertypes of the Card as it appears in the CDDB.
      */
-    private SortedSet<String> retrieveTypeInfo(Connection connection, String table, String type, String cardName) throws SQLException {
-      Map<String, String> conditions = new HashMap<>();
-      conditions.put("card_name", cardName);
-      return retrieveSingleColumn(connection, table, "type", conditions,
-          false, type, cardName);
-    }
+    private final SortedSet<String> supertypes;
 
     /**
-     * Retrieves the colors associated with this {@link Card}.
-     * @param connection connection to the CDDB to use for retrieving data
-     * @param cardName name of card to retrieve data for
-     * @return set of colors associated with this card
-     * @throws SQLException if there is an error in retrieving data from the CDDB
-     * @throws IllegalArgumentException if any given parameter is null, or if given connection is
-     * closed
+     * Types of the Card as it appears in the CDDB.
      */
-    private SortedSet<String> setColors(Connection connection, String cardName) throws SQLException {
-      return getColorInfo(connection,"Color", "color", cardName);
-    }
+    private final SortedSet<String> types;
 
     /**
-     * Retrieves the colors associated with this {@link Card}'s color identity.
-     * @param connection connection to the CDDB to use for retrieving data
-     * @param cardName name of card to retrieve data for
-     * @return colors making up this card's color identity
-     * @throws SQLException if there is an error in retrieving data from the CDDB
-     * @throws IllegalArgumentException if any given parameter is null, or if given connection is
-     * closed
+     * Subtypes of the Card as it appears in the CDDB.
      */
-    private SortedSet<String> setColorIdentity(Connection connection, String cardName) throws SQLException {
-      return getColorInfo(connection,"ColorIdentity", "color identity", cardName);
-    }
+    private final SortedSet<String> subtypes;
 
     /**
-     * Retrieves color info from a given table associated with this {@link Card}.
-     * @param connection connection to the CDDB to use for retrieving data
-     * @param table table to retrieve info from
-     * @param infoType type of info being retrieved
-     * @param cardName name of card to retrieve data for
-     * @return set of colors from given table associated with this card
-     * @throws SQLException if there is an error in retrieving data from the CDDB
-     * @throws IllegalArgumentException if any given parameter is null, or if given connection is
-     * closed
+     * All the info of the card, once loaded.
      */
-    private SortedSet<String> getColorInfo(Connection connection, String table, String infoType,
-        String cardName) throws SQLException {
-      Map<String, String> conditions = new HashMap<>();
-      conditions.put("card_name", cardName);
-      return retrieveSingleColumn(connection, table, "color", conditions,
-          false, infoType, cardName);
-    }
+    private DefaultCard details;
 
     /**
-     * Builds a {@link CardRelationship} for any relationships this {@link Card} may have with
-     * other cards.
-     * @param connection connection to the CDDB to use for retrieving data
-     * @param cardName name of card to retrieve data for
-     * @return a CardRelationship to represent the relationship this card may have with other cards
-     * @throws SQLException if there is an error in retrieving data from the CDDB
-     * @throws IllegalArgumentException if any given parameter is null, or if given connection is
-     * closed
+     * Builds a {@link LazyCard} from the summary of the card fetched from the CDDB.
+     * @param name name of card to associate with
+     * @param expansions expansions card was printed in to associate with, with associated numbers
+     * @param summaries summaries fetched from the CDDB for a group of cards including this one
      */
-    private CardRelationship setCardRelationship(Connection connection,
-        String cardName) throws SQLException {
-      SortedSet<String> cardNames = new TreeSet<>();
-
-      cardName = formatWordToSQL(cardName);
-
-      String twoCardQuery = String.format("SELECT * FROM TwoCards WHERE card_a = '%s' "
-          + "OR card_b = '%s'", cardName, cardName);
-      try (PreparedStatement preparedStatement = connection.prepareStatement(twoCardQuery);
-          ResultSet resultSet = preparedStatement.executeQuery()) {
-        if (resultSet.next()) {
-          String relationship = resultSet.getString("type");
-          cardNames.add(resultSet.getString("card_a"));
-          cardNames.add(resultSet.getString("card_b"));
-          return new DefaultCardRelationship(cardNames, relationship);
-        }
-      }
-      catch (SQLException e) {
-        throw new SQLException(e.getMessage() +
-            String.format("Failed to check for two card relationship info for card %s from "
-                + "database!", cardName));
-      }
-
-      String threeCardQuery = String.format("SELECT * FROM ThreeCards WHERE card_a = '%s' "
-          + "OR card_b = '%s' OR card_c = '%s'", cardName, cardName, cardName);
-      try (PreparedStatement preparedStatement = connection.prepareStatement(threeCardQuery);
-          ResultSet resultSet = preparedStatement.executeQuery()) {
-        if (resultSet.next()) {
-          String relationship = resultSet.getString("type");
-          cardNames.add(resultSet.getString("card_a"));
-          cardNames.add(resultSet.getString("card_b"));
-          cardNames.add(resultSet.getString("card_c"));
-          return new DefaultCardRelationship(cardNames, relationship);
-        }
-      }
-      catch (SQLException e) {
-        throw new SQLException(e.getMessage() +
-            String.format("Failed to check for three card relationship info for card %s from database!", cardName));
-      }
-
-      return new DefaultCardRelationship();
+    private LazyCard(String name, Map<String, Set<String>> expansions, CardHydrator summaries) {
+      this.name = name;
+      this.expansions = expansions;
+      this.printings = printings(name, expansions);
+      this.cmc = summaries.getConvertedManaCost(name);
+      this.manaCosts = summaries.getManaCosts(name);
+      this.supertypes = summaries.getSupertypes(name);
+      this.types = summaries.getTypes(name);
+      this.subtypes = summaries.getSubtypes(name);
     }
 
     /**
-     * Retrieves any additional information associated with this {@link Card} such as power,
-     * toughness, or loyalty.
-     * @param connection connection to the CDDB to use for retrieving data
-     * @param cardName name of card to retrieve data for
-     * @return any additional info and their respective quantities associated with this {@link Card}
-     * @throws SQLException if there is an error in retrieving data from the CDDB
-     * @throws IllegalArgumentException if any given parameter is null, or if given connection is
-     * closed
+     * Builds a {@link LazyCard} from a cached card with all of its printings.
+     * @param name name of card to associate with
+     * @param expansions expansions card was printed in to associate with, with associated numbers
+     * @param allPrintings cached card with all of its printings
      */
-    private Map<String, String> setAdditionalInfo(Connection connection,
-        String cardName) throws SQLException {
-      // When constructing variables, call after initiating types
-      Map<String, String> additionalInfo = new HashMap<>();
-      Map<String, String> conditions = new HashMap<>();
-      if (types.contains("Planeswalker")) {
-        String loyalty = "loyalty";
-        conditions.put("card_name", cardName);
-        Set<String> result = retrieveSingleColumn(connection, "Loyalty", loyalty,
-            conditions, true, loyalty, cardName);
-        additionalInfo.put(loyalty, singleItemSetToString(result));
-      }
-      else if (types.contains("Creature") || subtypes.contains("Vehicle")) {
-        String[] powerToughness = new String[]{"power", "toughness"};
-        for (String category : powerToughness) {
-          conditions.put("card_name", cardName);
-          Set<String> result = retrieveSingleColumn(connection,"PowerToughness", category,
-              conditions, true, category, cardName);
-          additionalInfo.put(category, singleItemSetToString(result));
-        }
-      }
-      return additionalInfo;
+    private LazyCard(String name, Map<String, Set<String>> expansions, DefaultCard allPrintings) {
+      this.name = name;
+      this.expansions = expansions;
+      this.printings = printings(name, expansions);
+      this.cmc = allPrintings.getConvertedManaCost();
+      this.manaCosts = allPrintings.getManaCost();
+      this.supertypes = allPrintings.getSupertypes();
+      this.types = allPrintings.getTypes();
+      this.subtypes = allPrintings.getSubtypes();
     }
 
     /**
-     * For a set of expansions this {@link Card } was printed in, retrieves the unique information
-     * associated with each card printing.
-     * @param connection connection to the CDDB to use for retrieving data
-     * @param expansions set of expansions associated card was printed in to retrieve data from,
-     * with associated numbers
-     * @param cardName name of card to retrieve data for
-     * @return set of InformativeCardPrinting for the expansions given t
-     * @throws SQLException if there is an error in retrieving data from the CDDB
-     * @throws IllegalArgumentException if any given parameter is null, if given connection is
-     * closed, or if given set of expansions is null
+     * Returns the identities of the printings of the given card from the given expansions.
+     * @param name name of the card
+     * @param expansions expansions card was printed in, with associated numbers
+     * @return identities of the card's printings
      */
-    private SortedSet<InformativeCardPrinting> setCardPrintings(Connection connection,
-        Map<String, Set<String>> expansions, String cardName) throws SQLException {
-
-      if (connection == null || expansions == null || cardName == null) {
-        throw new IllegalArgumentException("Given parameters can't be null!");
-      }
-      else if (connection.isClosed()) {
-        throw new IllegalArgumentException("Given connection can't be closed!");
-      }
-      else if (expansions.isEmpty()) {
-        throw new IllegalArgumentException("Given set of expansions can't be empty!");
-      }
-
-      SortedSet<InformativeCardPrinting> informativeCardPrinting = new TreeSet<>();
+    private SortedSet<CardPrinting> printings(String name, Map<String, Set<String>> expansions) {
+      SortedSet<CardPrinting> printings = new TreeSet<>();
       for (String expansion : expansions.keySet()) {
         for (String number : expansions.get(expansion)) {
-          informativeCardPrinting
-              .add(new DefaultInformativeCardPrinting(connection, cardName, expansion, number));
-
+          printings.add(new DefaultCardPrinting(name, expansion, number));
         }
       }
-      return informativeCardPrinting;
-    }
-
-    /**
-     * Retrieves the converted mana cost with this {@link Card}.
-     * @param connection connection to the CDDB to use for retrieving data
-     * @param cardName name of card to retrieve data for
-     * @return associated card's converted mana cost
-     * @throws SQLException if there is an error in retrieving data from the CDDB
-     * @throws IllegalArgumentException if any given parameter is null, or if given connection is
-     * closed
-     */
-    private int setCMC(Connection connection, String cardName) throws SQLException {
-      Map<String, String> conditions = new HashMap<>();
-      conditions.put("name", cardName);
-      Set<String> singleResult = retrieveSingleColumn(connection, "Card", "cmc",
-          conditions, true, "converted mana cost", cardName);
-      return Integer.parseInt(singleItemSetToString(singleResult));
+      return printings;
     }
 
     /**
-     * Given a set of Strings with a single item, returns the sole String in that set.
-     * @param set set of Strings to pull from
-     * @return single String in the given set
-     * @throws IllegalArgumentException if given set in null or contains a number of items other
-     * than one
+     * Returns all the info of this card, loading it from the card cache or the CDDB the first
+     * time it's asked for.
+     * @return all the info of this card
+     * @throws IllegalStateException if the card's info fails to be loaded
      */
-    private String singleItemSetToString(Set<String> set) {
-      if (set == null) {
-        throw new IllegalArgumentException("Given set can't be null!");
-      }
-      else if (set.size() != 1) {
-        throw new IllegalArgumentException("Given set should only contain a single item!");
+    private synchronized DefaultCard details() {
+      if (details == null) {
+        try {
+          details = new DefaultCard(name, expansions, cachedCards(Collections.singleton(name))
+              .get(name));
+        }
+        catch (SQLException e) {
+          throw new IllegalStateException(e.getMessage() +
+              String.format("\nFailed to load details of card %s!", name));
+        }
       }
-      String[] dummy = new String[1];
-      dummy = set.toArray(dummy);
-      return dummy[0];
+      return details;
     }
 
     @Override
@@ -1164,125 +1554,71 @@ public class DefaultDatabaseChannel extends DatabasePort implements DatabaseChan
 
     @Override
     public Map<String, Integer> getManaCost() {
-      return Collections.unmodifiableMap(manaCosts);
+      return manaCosts;
     }
 
     @Override
     public SortedSet<String> getColors() {
-      return Collections.unmodifiableSortedSet(colors);
+      return details().getColors();
     }
 
     @Override
     public SortedSet<String> getColorIdentity() {
-      return Collections.unmodifiableSortedSet(colorIdentity);
+      return details().getColorIdentity();
     }
 
     @Override
     public String getText() {
-      return text;
+      return details().getText();
     }
 
     @Override
     public SortedSet<String> getSupertypes() {
-      return Collections.unmodifiableSortedSet(supertypes);
+      return supertypes;
     }
 
     @Override
     public SortedSet<String> getTypes() {
-      return Collections.unmodifiableSortedSet(types);
+      return types;
     }
 
     @Override
     public SortedSet<String> getSubtypes() {
-      return Collections.unmodifiableSortedSet(subtypes);
+      return subtypes;
     }
 
     @Override
     public SortedSet<InformativeCardPrinting> getCardPrintings() {
-      return Collections.unmodifiableSortedSet(cardPrintings);
+      return details().getCardPrintings();
     }
 
     @Override
     public Map<String, String> getExtraStats() {
-      return Collections.unmodifiableMap(additionalInfo);
+      return details().getExtraStats();
     }
 
     @Override
     public CardRelationship getRelationships() {
-      return relationship;
+      return details().getRelationships();
     }
 
     @Override
     public int compareTo(Card other) throws IllegalArgumentException {
-      if (other == null) {
-        throw new IllegalArgumentException("Given card can't be null!");
-      }
-
-      int nameCompare = getName().compareTo(other.getName());
-      if (nameCompare != 0) {
-        return nameCompare;
-      }
-
-      // Neither should be empty
-      SortedSet<InformativeCardPrinting> otherExpansions = other.getCardPrintings();
-      assert !getCardPrintings().isEmpty() && !otherExpansions.isEmpty();
-
-      boolean thisIsShorter;
-      SortedSet<InformativeCardPrinting> shorterExpansions;
-      SortedSet<InformativeCardPrinting> longerExpansions;
-      if (getCardPrintings().size() < otherExpansions.size()) {
-        thisIsShorter = true;
-        shorterExpansions = getCardPrintings();
-        longerExpansions = otherExpansions;
-      }
-      else {
-        thisIsShorter = false;
-        shorterExpansions = otherExpansions;
-        longerExpansions = getCardPrintings();
-      }
-
-      Iterator<InformativeCardPrinting> shortExpansionsIterator = shorterExpansions.iterator();
-      Iterator<InformativeCardPrinting> longerExpansionsIterator = longerExpansions.iterator();
-      while (shortExpansionsIterator.hasNext()) {
-        InformativeCardPrinting curShorterExpansionsItem = shortExpansionsIterator.next();
-        InformativeCardPrinting curLongerExpansionItem = longerExpansionsIterator.next();
-        int curComparison = thisIsShorter ?
-            curShorterExpansionsItem.compareTo(curLongerExpansionItem) :
-            curLongerExpansionItem.compareTo(curShorterExpansionsItem);
-
-        if (curComparison != 0) {
-          return curComparison;
-        }
-      }
-
-      int remainingDifference = 0;
-      while (longerExpansionsIterator.hasNext()) {
-        longerExpansionsIterator.next();
-
-        if (thisIsShorter) {
-          remainingDifference--;
-        }
-        else {
-          remainingDifference++;
-        }
-      }
-
-      // If remaining difference is 0, should be the exact same card with exact same printings
-      return remainingDifference;
+      return compareCards(this, other);
     }
 
     @Override
     public boolean equals(Object other) {
       if (other instanceof Card) {
         Card otherCard = (Card) other;
-        return name.equals(otherCard.getName()) && cardPrintings.equals(otherCard.getCardPrintings());
+        return name.equals(otherCard.getName()) && printings.equals(printingsOf(otherCard));
       }
       return false;
     }
 
     @Override
     public int hashCode() {
-      return Objects.hash(name, cardPrintings);
+      return Objects.hash(name, printings);
     }
   }
 
@@ -1305,55 +1641,21 @@ public class DefaultDatabaseChannel extends DatabasePort implements DatabaseChan
 
     private final String scryfallId;
 
-    public DefaultInformativeCardPrinting(Connection connection, String cardName,
-        String cardExpansion, String identifyingNumber) throws SQLException {
-      if (connection == null || connection.isClosed()) {
-        throw new IllegalArgumentException("Given connection can't be null or closed!");
-      }
-      this.cardPrinting = new DefaultCardPrinting(cardName, cardExpansion, identifyingNumber);
-
-      cardName = formatWordToSQL(cardName);
-      String formattedExpansion = formatWordToSQL(cardExpansion);
-      String cardExpansionQuery = String.format("SELECT * FROM CardExpansion "
-              + "WHERE card_name = '%s' AND expansion = '%s' AND number = '%s'",
-          cardName, formattedExpansion, identifyingNumber);
-      try (PreparedStatement preparedStatement = connection.prepareStatement(cardExpansionQuery);
-          ResultSet resultSet = preparedStatement.executeQuery()) {
-        assert resultSet.next(); // Should only have one row
-        this.rarity = resultSet.getString("rarity");
-        this.flavorText = resultSet.getString("flavor_text");
-        this.scryfallId = resultSet.getString("scryfall_id");
-        assert !resultSet.next(); // Should return false
-
-      } catch (SQLException e) {
-        throw new SQLException(e.getMessage() +
-            String.format("Failed to retrieve card expansion info for card %s from database!",
-                cardName));
-      }
-
-      this.artists = setArtists(connection);
-    }
-
-    private SortedSet<String> setArtists(Connection connection) {
-      String cardName = formatWordToSQL(cardPrinting.getCardName());
-      String expansion = cardPrinting.getCardExpansion();
-      String number = cardPrinting.getIdentifyingNumber();
-
-      String artistsQuery = String.format("SELECT artist FROM Artist WHERE card_name = '%s' "
-          + "AND expansion = '%s' AND number = '%s'",
-          cardName, formatWordToSQL(expansion), number);
-      SortedSet<String> artists = new TreeSet<>();
-      try (PreparedStatement preparedStatement1 = connection.prepareStatement(artistsQuery);
-          ResultSet artistResultSet = preparedStatement1.executeQuery()) {
-        while (artistResultSet.next()) {
-          artists.add(artistResultSet.getString("artist"));
-        }
-      }
-      catch (SQLException e) {
-        throw new IllegalArgumentException(String.format("Failed to find artists for "
-            + "card printing %s, %s, %s!", cardName, expansion, number));
-      }
-      return artists;
+    /**
+     * Builds a {@link DefaultInformativeCardPrinting} from info already retrieved from the CDDB.
+     * @param cardPrinting card printing this represents
+     * @param artists artists of the printing
+     * @param rarity rarity of the printing
+     * @param flavorText flavor text of the printing
+     * @param scryfallId Scryfall id of the printing
+     */
+    private DefaultInformativeCardPrinting(CardPrinting cardPrinting, SortedSet<String> artists,
+        String rarity, String flavorText, String scryfallId) {
+      this.cardPrinting = cardPrinting;
+      this.artists = artists;
+      this.rarity = rarity;
+      this.flavorText = flavorText;
+      this.scryfallId = scryfallId;
     }
 
     @Override
@@ -1461,6 +1763,21 @@ public class DefaultDatabaseChannel extends DatabasePort implements DatabaseChan
      */
     private final SortedSet<String> blocks;
 
+    /**
+     * Sorted set of all the types of relationships between multifaced cards stored in the CDDB.
+     */
+    private final SortedSet<String> multifacedTypes;
+
+    /**
+     * Catalog of the reference values of the CDDB, for the number of cards with each value.
+     */
+    private final ReferenceCatalog catalog;
+
+    /**
+     * If the CDDB has full-text indices to search the words of names, text, and flavor text by.
+     */
+    private final boolean fullTextSearch;
+
     /**
      * Specific table names to use for each type of {@link Stat}.
      */
@@ -1553,24 +1870,24 @@ public class DefaultDatabaseChannel extends DatabasePort implements DatabaseChan
      * of parameter list
      */
     private DefaultCardQuery() throws SQLException {
-      // Get search options
-
+      // Get search options, from the catalog shared with every other query
       try {
-        Connection connection = connect();
-        supertypes = retrieveColumnInfo("Supertype", "type", connection);
-        types = retrieveColumnInfo("Type", "type", connection);
-        subtypes = retrieveColumnInfo("Subtype", "type", connection);
-        rarities = retrieveColumnInfo("CardExpansion", "rarity", connection);
-        colors = retrieveColumnInfo("Color", "color", connection);
-        manaTypes = retrieveColumnInfo("Mana", "mana_type", connection);
-        blocks = retrieveColumnInfo("Block", "block", connection);
-        artists = retrieveColumnInfo("Artist", "artist", connection);
-        sets = retrieveColumnInfo("Expansion", "expansion", connection);
-        disconnect(connection);
+        catalog = getCatalog();
       }
       catch (SQLException e) {
         throw new SQLException("Failed to rerieve search options for CardQuery!\n" + e.getMessage());
       }
+      supertypes = catalog.getSupertypes();
+      types = catalog.getTypes();
+      subtypes = catalog.getSubtypes();
+      rarities = catalog.getRarities();
+      colors = catalog.getColors();
+      manaTypes = catalog.getManaTypes();
+      blocks = catalog.getBlocks();
+      artists = catalog.getArtists();
+      sets = catalog.getExpansions();
+      multifacedTypes = catalog.getMultifacedTypes();
+      fullTextSearch = catalog.hasFullTextSearch();
 
       nameParams = new HashMap<>();
       textParams = new HashMap<>();
@@ -1641,14 +1958,7 @@ public class DefaultDatabaseChannel extends DatabasePort implements DatabaseChan
 
     @Override
     public SortedSet<String> getAvailableMultifacedTypes() throws SQLException {
-      SortedSet<String> twoTypes = retrieveColumnInfo("TwoCards", "type");
-      SortedSet<String> threeTypes = retrieveColumnInfo("ThreeCards", "type");
-
-      SortedSet<String> types = new TreeSet<>();
-      types.addAll(twoTypes);
-      types.addAll(threeTypes);
-
-      return Collections.unmodifiableSortedSet(types);
+      return Collections.unmodifiableSortedSet(multifacedTypes);
     }
 
     @Override
@@ -1789,11 +2099,11 @@ public class DefaultDatabaseChannel extends DatabasePort implements DatabaseChan
       else if (!blocks.contains(block)) {
         throw new IllegalArgumentException(String.format("Given block %s is not contained in the CDDB!", block));
       }
-      block = formatWordToSQL(block);
 
-      String expansionsFromBlockQuery = String.format("SELECT expansion FROM Block WHERE block = '%s'", block);
+      String expansionsFromBlockQuery = "SELECT expansion FROM Block WHERE block = ?";
       try (Connection connection = connect();
       PreparedStatement preparedStatement = connection.prepareStatement(expansionsFromBlockQuery)) {
+        preparedStatement.setString(1, block);
         ResultSet resultSet = preparedStatement.executeQuery();
         while (resultSet.next()) {
           addSearchOptionParam(setParams, searchFor, resultSet.getString("expansion"));
@@ -1818,8 +2128,6 @@ public class DefaultDatabaseChannel extends DatabasePort implements DatabaseChan
         throw new IllegalArgumentException("Given params can't be null!");
       }
 
-      paramToAdd = formatWordToSQL(paramToAdd);
-
       if (params.containsKey(addUnder)) {
         params.get(addUnder).add(paramToAdd);
       }
@@ -1873,19 +2181,25 @@ public class DefaultDatabaseChannel extends DatabasePort implements DatabaseChan
     /**
      * Builds the part of this {@link CardQuery} concerned with querying cards that meet the
      * name parameters entered so far.
-     * @return part of this CardQuery dealing with name and text parameters as a StringBuilder
+     * @param candidates table of the candidate cards to restrict the query to, or null if not
+     *        restricted
+     * @param bindValues if values are to be written as placeholders to bind, rather than literals
+     * @return part of this CardQuery dealing with name and text parameters
      */
-    private StringBuilder buildNameQuery() {
-      return buildGenericCardQuery(nameParams, "name");
+    private QueryBuilder buildNameQuery(String candidates, boolean bindValues) {
+      return buildGenericCardQuery(nameParams, "name", candidates, bindValues);
     }
 
     /**
      * Builds the part of this {@link CardQuery} concerned with querying cards that meet the
      * text parameters entered so far.
-     * @return part of this CardQuery dealing with name and text parameters as a StringBuilder
+     * @param candidates table of the candidate cards to restrict the query to, or null if not
+     *        restricted
+     * @param bindValues if values are to be written as placeholders to bind, rather than literals
+     * @return part of this CardQuery dealing with name and text parameters
      */
-    private StringBuilder buildTextQuery() {
-      return buildGenericCardQuery(textParams, "text");
+    private QueryBuilder buildTextQuery(String candidates, boolean bindValues) {
+      return buildGenericCardQuery(textParams, "text", candidates, bindValues);
     }
 
     /**
@@ -1894,31 +2208,47 @@ public class DefaultDatabaseChannel extends DatabasePort implements DatabaseChan
      * or text - tat are independent of printing or card type.
      * @param params set of parameters to draw from
      * @param conditionalColumn column in Card table to compare info against
-     * @return part of this CardQuery dealing with color identity parameters as a StringBuilder
+     * @param candidates table of the candidate cards to restrict the query to, or null if not
+     *        restricted
+     * @param bindValues if values are to be written as placeholders to bind, rather than literals
+     * @return part of this CardQuery dealing with color identity parameters
      */
-    private StringBuilder buildGenericCardQuery(Map<SearchOption, SortedSet<String>> params, String conditionalColumn) {
+    private QueryBuilder buildGenericCardQuery(Map<SearchOption, SortedSet<String>> params,
+        String conditionalColumn, String candidates, boolean bindValues) {
       String table = "Card";
       String[] returnColumns = new String[]{"name"};
       String innerQueryColumn = "name";
-      return buildGenericQuery(params, table, returnColumns, conditionalColumn, innerQueryColumn, false);
+      if (useFullTextSearch(params, bindValues)) {
+        return buildFullTextQuery(params, table, "CardSearch", returnColumns, conditionalColumn,
+            candidates, bindValues);
+      }
+      return buildGenericQuery(params, table, returnColumns, conditionalColumn, innerQueryColumn,
+          false, candidates, bindValues);
     }
 
     /**
      * Builds the part of this {@link CardQuery} concerned with querying cards that meet the
      * color identities parameters entered so far.
-     * @return part of this CardQuery dealing with color identity parameters as a StringBuilder
+     * @param candidates table of the candidate cards to restrict the query to, or null if not
+     *        restricted
+     * @param bindValues if values are to be written as placeholders to bind, rather than literals
+     * @return part of this CardQuery dealing with color identity parameters
      */
-    private StringBuilder buildColorIdentityQuery() {
-      return buildGenericColorQuery(colorParams, "Color");
+    private QueryBuilder buildColorIdentityQuery(String candidates, boolean bindValues) {
+      return buildGenericColorQuery(colorParams, "Color", candidates, bindValues);
     }
 
     /**
      * Builds the part of this {@link CardQuery} concerned with querying cards that meet the
      * color parameters entered so far.
-     * @return part of this CardQuery dealing with color parameters as a StringBuilder
+     * @param candidates table of the candidate cards to restrict the query to, or null if not
+     *        restricted
+     * @param bindValues if values are to be written as placeholders to bind, rather than literals
+     * @return part of this CardQuery dealing with color parameters
      */
-    private StringBuilder buildColorQuery() {
-      return buildGenericColorQuery(colorIdentityParams, "ColorIdentity");
+    private QueryBuilder buildColorQuery(String candidates, boolean bindValues) {
+      return buildGenericColorQuery(colorIdentityParams, "ColorIdentity", candidates,
+          bindValues);
     }
 
     /**
@@ -1926,40 +2256,54 @@ public class DefaultDatabaseChannel extends DatabasePort implements DatabaseChan
      * of parameters, where the given set of parameters relate to some part of a card's color or
      * color identity.
      * @param table table to compare info to
-     * @return part of this CardQuery dealing with color identity parameters as a StringBuilder
+     * @param candidates table of the candidate cards to restrict the query to, or null if not
+     *        restricted
+     * @param bindValues if values are to be written as placeholders to bind, rather than literals
+     * @return part of this CardQuery dealing with color identity parameters
      */
-    private StringBuilder buildGenericColorQuery(Map<SearchOption, SortedSet<String>> params, String table) {
+    private QueryBuilder buildGenericColorQuery(Map<SearchOption, SortedSet<String>> params,
+        String table, String candidates, boolean bindValues) {
       String[] returnColumns = new String[]{"card_name"};
       String conditionalColumn = "color";
       String innerQueryColumn = "card_name";
-      return buildGenericQuery(params, table, returnColumns, conditionalColumn, innerQueryColumn, true);
+      return buildGenericQuery(params, table, returnColumns, conditionalColumn, innerQueryColumn,
+          true, candidates, bindValues);
     }
 
     /**
      * Builds the part of this {@link CardQuery} concerned with querying cards that meet the
      * supertype parameters entered so far.
-     * @return part of this CardQuery dealing with supertype parameters as a StringBuilder
+     * @param candidates table of the candidate cards to restrict the query to, or null if not
+     *        restricted
+     * @param bindValues if values are to be written as placeholders to bind, rather than literals
+     * @return part of this CardQuery dealing with supertype parameters
      */
-    private StringBuilder buildSupertypeQuery() {
-      return buildGenericTypeQuery(supertypeParams, "Supertype");
+    private QueryBuilder buildSupertypeQuery(String candidates, boolean bindValues) {
+      return buildGenericTypeQuery(supertypeParams, "Supertype", candidates, bindValues);
     }
 
     /**
      * Builds the part of this {@link CardQuery} concerned with querying cards that meet the
      * text parameters entered so far.
-     * @return part of this CardQuery dealing with type parameters as a StringBuilder
+     * @param candidates table of the candidate cards to restrict the query to, or null if not
+     *        restricted
+     * @param bindValues if values are to be written as placeholders to bind, rather than literals
+     * @return part of this CardQuery dealing with type parameters
      */
-    private StringBuilder buildTypeQuery() {
-      return buildGenericTypeQuery(typeParams, "Type");
+    private QueryBuilder buildTypeQuery(String candidates, boolean bindValues) {
+      return buildGenericTypeQuery(typeParams, "Type", candidates, bindValues);
     }
 
     /**
      * Builds the part of this {@link CardQuery} concerned with querying cards that meet the
      * subtype parameters entered so far.
-     * @return part of this CardQuery dealing with subtype parameters as a StringBuilder
+     * @param candidates table of the candidate cards to restrict the query to, or null if not
+     *        restricted
+     * @param bindValues if values are to be written as placeholders to bind, rather than literals
+     * @return part of this CardQuery dealing with subtype parameters
      */
-    private StringBuilder buildSubtypeQuery() {
-      return buildGenericTypeQuery(subtypeParams, "Subtype");
+    private QueryBuilder buildSubtypeQuery(String candidates, boolean bindValues) {
+      return buildGenericTypeQuery(subtypeParams, "Subtype", candidates, bindValues);
     }
 
     /**
@@ -1967,71 +2311,187 @@ public class DefaultDatabaseChannel extends DatabasePort implements DatabaseChan
      * Type of types are supertypes, types, and subtypes.
      * @param params type params to use in query
      * @param table table to draw type info from
-     * @return part of this CardQuery dealing with given type parameters as a StringBuilder
+     * @param candidates table of the candidate cards to restrict the query to, or null if not
+     *        restricted
+     * @param bindValues if values are to be written as placeholders to bind, rather than literals
+     * @return part of this CardQuery dealing with given type parameters
      */
-    private StringBuilder buildGenericTypeQuery(Map<SearchOption, SortedSet<String>> params, String table) {
+    private QueryBuilder buildGenericTypeQuery(Map<SearchOption, SortedSet<String>> params,
+        String table, String candidates, boolean bindValues) {
       String[] returnColumns = new String[]{"card_name"};
       String conditionalColumn = "type";
       String innerQueryColumn = "card_name";
-      return buildGenericQuery(params, table, returnColumns, conditionalColumn, innerQueryColumn, true);
+      return buildGenericQuery(params, table, returnColumns, conditionalColumn, innerQueryColumn,
+          true, candidates, bindValues);
     }
 
     /**
      * Builds the part of this {@link CardQuery} concerned with querying cards that meet the
      * expansion parameters entered so far.
-     * @return part of this CardQuery dealing with expansion parameters as a StringBuilder
+     * @param bindValues if values are to be written as placeholders to bind, rather than literals
+     * @return part of this CardQuery dealing with expansion parameters
      */
-    private StringBuilder buildExpansionQuery() {
+    private QueryBuilder buildExpansionQuery(boolean bindValues) {
       String table = "CardExpansion";
       String conditionalColumn = "expansion";
-      return buildGenericCardPrintingQuery(setParams, table, conditionalColumn, true);
+      return buildGenericCardPrintingQuery(setParams, table, conditionalColumn, true, bindValues);
     }
 
     /**
      * Builds the part of this {@link CardQuery} concerned with querying cards that meet the
      * artist parameters entered so far.
-     * @return part of this CardQuery dealing with artist parameters as a StringBuilder
+     * @param bindValues if values are to be written as placeholders to bind, rather than literals
+     * @return part of this CardQuery dealing with artist parameters
      */
-    private StringBuilder buildArtistQuery() {
+    private QueryBuilder buildArtistQuery(boolean bindValues) {
       String table = "Artist";
       String conditionalColumn = "artist";
-      return buildGenericCardPrintingQuery(artistParams, table, conditionalColumn, true);
+      return buildGenericCardPrintingQuery(artistParams, table, conditionalColumn, true,
+          bindValues);
     }
 
     /**
      * Builds the part of this {@link CardQuery} concerned with querying cards that meet the
      * rarity parameters entered so far.
-     * @return part of this CardQuery dealing with rarity parameters as a StringBuilder
+     * @param bindValues if values are to be written as placeholders to bind, rather than literals
+     * @return part of this CardQuery dealing with rarity parameters
      */
-    private StringBuilder buildRarityQuery() {
+    private QueryBuilder buildRarityQuery(boolean bindValues) {
       String table = "CardExpansion";
       String conditionalColumn = "rarity";
-      return buildGenericCardPrintingQuery(rarityParams, table, conditionalColumn, true);
+      return buildGenericCardPrintingQuery(rarityParams, table, conditionalColumn, true,
+          bindValues);
     }
 
     /**
      * Builds the part of this {@link CardQuery} concerned with querying cards that meet the
      * flavor text parameters entered so far.
-     * @return part of this CardQuery dealing with flavor text parameters as a StringBuilder
+     * @param bindValues if values are to be written as placeholders to bind, rather than literals
+     * @return part of this CardQuery dealing with flavor text parameters
      */
-    private StringBuilder buildFlavorTextQuery() {
+    private QueryBuilder buildFlavorTextQuery(boolean bindValues) {
       String table = "CardExpansion";
       String conditionalColumn = "flavor_text";
-      return buildGenericCardPrintingQuery(flavorTextParams, table, conditionalColumn, false);
+      if (useFullTextSearch(flavorTextParams, bindValues)) {
+        return buildFullTextQuery(flavorTextParams, table, "FlavorSearch",
+            new String[]{"card_name", "expansion", "number"}, conditionalColumn, null, bindValues);
+      }
+      return buildGenericCardPrintingQuery(flavorTextParams, table, conditionalColumn, false,
+          bindValues);
     }
 
     /**
      * Builds the part of this {@link CardQuery} concerned with querying cards that meet the
      * a given set of parameters related to a card's printing - such as artist, rarity, etc.
+     * @param bindValues if values are to be written as placeholders to bind, rather than literals
      * @return part of this CardQuery dealing with a set of given card printing parameters
-     * as a StringBuilder
      */
-    private StringBuilder buildGenericCardPrintingQuery(Map<SearchOption, SortedSet<String>> params,
-        String table, String conditionalColumn, boolean inOrLike) {
+    private QueryBuilder buildGenericCardPrintingQuery(Map<SearchOption, SortedSet<String>> params,
+        String table, String conditionalColumn, boolean inOrLike, boolean bindValues) {
       String[] returnColumns = new String[]{"card_name", "expansion", "number"};
       String innerQueryColumn = "card_name";
       return buildGenericQuery(params, table, returnColumns, conditionalColumn, innerQueryColumn,
-          inOrLike);
+          inOrLike, null, bindValues);
+    }
+
+    /**
+     * Returns if the given word parameters are to be searched for through the full-text indices of
+     * the CDDB, rather than by comparing each word with "LIKE". Full-text indices are only used for
+     * queries with values to bind, i.e. those that are run, and only if the CDDB has them and each
+     * word is made up of only letters and digits, so it's a single word to the indices.
+     * @param params set of word parameters
+     * @param bindValues if values are to be written as placeholders to bind, rather than literals
+     * @return if the words are to be searched for through the full-text indices
+     */
+    private boolean useFullTextSearch(Map<SearchOption, SortedSet<String>> params,
+        boolean bindValues) {
+      if (!bindValues || !fullTextSearch) {
+        return false;
+      }
+      for (SortedSet<String> words : params.values()) {
+        for (String word : words) {
+          if (!word.matches("[\\p{L}\\p{N}]+")) {
+            return false;
+          }
+        }
+      }
+      return true;
+    }
+
+    /**
+     * Builds a part of this {@link CardQuery} concerned with querying cards that meet the given
+     * set of word parameters through the given full-text index, matching words in the given column
+     * that start with each given word. "Must include" words must all be matched, at least one
+     * "one of" word must be matched, and no "disallow" words may be matched.
+     * @param params set of word parameters to use in this query
+     * @param table table the full-text index indexes
+     * @param searchTable full-text index to search through
+     * @param returnColumns columns to return from the query, in both the table and the index
+     * @param searchColumn column in the full-text index to search the words of
+     * @param candidates table of the candidate cards to restrict the query to, or null if not
+     *        restricted
+     * @param bindValues if values are to be written as placeholders to bind, rather than literals
+     * @return part of this CardQuery built for the given parameters
+     */
+    private QueryBuilder buildFullTextQuery(Map<SearchOption, SortedSet<String>> params,
+        String table, String searchTable, String[] returnColumns, String searchColumn,
+        String candidates, boolean bindValues) {
+      QueryBuilder completeQuery = new QueryBuilder(bindValues);
+      if (params.isEmpty()) {
+        return completeQuery;
+      }
+
+      List<String> required = new ArrayList<>();
+      if (params.containsKey(SearchOption.OneOf)) {
+        required.add(String.format("(%s)", toPrefixTerms(params.get(SearchOption.OneOf), " OR ")));
+      }
+      if (params.containsKey(SearchOption.MustInclude)) {
+        required.add(toPrefixTerms(params.get(SearchOption.MustInclude), " AND "));
+      }
+      String disallowed = params.containsKey(SearchOption.Disallow) ?
+          String.format("%s : (%s)", searchColumn,
+              toPrefixTerms(params.get(SearchOption.Disallow), " OR ")) : "";
+
+      String columns = String.join(", ", returnColumns);
+      if (required.isEmpty()) {
+        // Nothing to look up, so every card but those with disallowed words
+        String compared = returnColumns.length > 1 ? String.format("(%s)", columns) : columns;
+        completeQuery.append(String.format("SELECT %s FROM %s WHERE %s NOT IN (SELECT %s FROM %s "
+            + "WHERE %s MATCH ", columns, table, compared, columns, searchTable, searchTable));
+        completeQuery.appendValue(disallowed);
+        completeQuery.append(")");
+        if (candidates != null) {
+          completeQuery.append(String.format(" AND %s IN %s", returnColumns[0], candidates));
+        }
+      }
+      else {
+        String match = String.format("%s : (%s)", searchColumn, String.join(" AND ", required));
+        if (!disallowed.isEmpty()) {
+          match += " NOT " + disallowed;
+        }
+        completeQuery.append(String.format("SELECT %s FROM %s WHERE %s MATCH ",
+            columns, searchTable, searchTable));
+        completeQuery.appendValue(match);
+        if (candidates != null) {
+          completeQuery.append(String.format(" AND %s IN %s", returnColumns[0], candidates));
+        }
+      }
+      return completeQuery;
+    }
+
+    /**
+     * Turns the given words into full-text search terms matching words starting with each of them,
+     * joined by the given operator, in the form of '"x"* OR "y"* OR ... OR "z"*'.
+     * @param words words to turn into terms
+     * @param operator operator to join the terms by, with surrounding spaces
+     * @return terms joined by the operator
+     */
+    private String toPrefixTerms(Collection<String> words, String operator) {
+      List<String> terms = new ArrayList<>();
+      for (String word : words) {
+        terms.add(String.format("\"%s\"*", word));
+      }
+      return String.join(operator, terms);
     }
 
     /**
@@ -2045,35 +2505,42 @@ public class DefaultDatabaseChannel extends DatabasePort implements DatabaseChan
      * and grouping
      * @param inOrLike whether to compare given parameters in form of "IN (x, y, ..., z)" or
      * "(x LIKE "%a%" AND x LIKE "%b%" AND ... AND x LIKE "%y%")
-     * @return part of this CardQuery built for the given parameters and query specific info as
-     * a StringBuilder
+     * @param candidates table of the candidate cards to restrict the query to, or null if not
+     *        restricted
+     * @param bindValues if values are to be written as placeholders to bind, rather than literals
+     * @return part of this CardQuery built for the given parameters and query specific info
      */
-    private StringBuilder buildGenericQuery(Map<SearchOption, SortedSet<String>> params,
+    private QueryBuilder buildGenericQuery(Map<SearchOption, SortedSet<String>> params,
         String table, String[] returnColumns, String conditionalColumn, String innerQueryColumn,
-        boolean inOrLike) {
+        boolean inOrLike, String candidates, boolean bindValues) {
 
+      QueryBuilder completeQuery = new QueryBuilder(bindValues);
       if (params.isEmpty()) {
-        return new StringBuilder();
+        return completeQuery;
       }
       else if (table == null || table.isEmpty()) {
         throw new IllegalArgumentException("Given table can't be null or empty!");
       }
 
-      StringBuilder completeQuery = new StringBuilder();
       boolean mergeCondAsWhere = true;
 
       completeQuery.append("SELECT ");
-      completeQuery.append(stringArrayToStringList(returnColumns, false));
+      completeQuery.append(String.join(", ", returnColumns));
       completeQuery.append(String.format(" FROM %s", table));
 
+      if (candidates != null) {
+        completeQuery.append(String.format(" WHERE %s IN %s", innerQueryColumn, candidates));
+        mergeCondAsWhere = false;
+      }
+
       if (params.containsKey(SearchOption.Disallow)) {
         Set<String> disallowParams = params.get(SearchOption.Disallow);
 
-        StringBuilder conditionals = inOrLike ?
-            stringCollectionToStringInList(conditionalColumn, disallowParams, true,
-                mergeCondAsWhere, false, innerQueryColumn) :
-            stringCollectionToStringLikeList(conditionalColumn, disallowParams, true,
-                mergeCondAsWhere, false);
+        QueryBuilder conditionals = inOrLike ?
+            stringCollectionToStringInList(completeQuery.newPart(), conditionalColumn,
+                disallowParams, true, mergeCondAsWhere, false, innerQueryColumn) :
+            stringCollectionToStringLikeList(completeQuery.newPart(), conditionalColumn,
+                disallowParams, true, mergeCondAsWhere, false);
 
         completeQuery.append(conditionals);
         mergeCondAsWhere = false;
@@ -2091,11 +2558,11 @@ public class DefaultDatabaseChannel extends DatabasePort implements DatabaseChan
           oneOfParams.addAll(params.get(SearchOption.OneOf));
         }
 
-        StringBuilder conditionals = inOrLike ?
-            stringCollectionToStringInList(conditionalColumn, oneOfParams, false,
-                mergeCondAsWhere, true, "") :
-            stringCollectionToStringLikeList(conditionalColumn, oneOfParams, false,
-                mergeCondAsWhere, true);
+        QueryBuilder conditionals = inOrLike ?
+            stringCollectionToStringInList(completeQuery.newPart(), conditionalColumn,
+                oneOfParams, false, mergeCondAsWhere, true, "") :
+            stringCollectionToStringLikeList(completeQuery.newPart(), conditionalColumn,
+                oneOfParams, false, mergeCondAsWhere, true);
 
         completeQuery.append(conditionals);
         mergeCondAsWhere = false;
@@ -2106,21 +2573,18 @@ public class DefaultDatabaseChannel extends DatabasePort implements DatabaseChan
         if (inOrLike) {
           String mergeCond = mergeCondAsWhere ? "WHERE" : "AND";
           completeQuery.append(String.format(" %s %s IN (", mergeCond, innerQueryColumn));
-
-          StringBuilder conditionals = stringCollectionToStringInList(conditionalColumn, mustIncludeParams,
-                  false, true, false, innerQueryColumn);
-
-          String mustIncludeQuery =
-              String.format("SELECT %s FROM %s%s",
-                  innerQueryColumn, table,
-                  conditionals.toString());
-
-          completeQuery.append(mustIncludeQuery);
+          completeQuery.append(String.format("SELECT %s FROM %s", innerQueryColumn, table));
+          if (candidates != null) {
+            completeQuery.append(String.format(" WHERE %s IN %s", innerQueryColumn, candidates));
+          }
+          completeQuery.append(stringCollectionToStringInList(completeQuery.newPart(),
+              conditionalColumn, mustIncludeParams, false, candidates == null, false,
+              innerQueryColumn));
           completeQuery.append(")");
         }
         else {
-          completeQuery.append(stringCollectionToStringLikeList(conditionalColumn, mustIncludeParams,
-              false, mergeCondAsWhere, false));
+          completeQuery.append(stringCollectionToStringLikeList(completeQuery.newPart(),
+              conditionalColumn, mustIncludeParams, false, mergeCondAsWhere, false));
         }
       }
 
@@ -2129,7 +2593,8 @@ public class DefaultDatabaseChannel extends DatabasePort implements DatabaseChan
 
     /**
      * Turns the given collection of Strings into a "in" list formatted for SQL in the form of
-     * "WHERE/AND columnName IN ('x', 'y', ...,'z').
+     * "WHERE/AND columnName IN ('x', 'y', ...,'z'), written to the given empty query.
+     * @param toReturn empty query to write the list to
      * @param columnName column name to compare against
      * @param strings collection of Strings to use as parameters to compare column name against
      * @param includeNot whether or not to include "NOT" before "IN", "IN" --> "NOT IN"
@@ -2139,16 +2604,19 @@ public class DefaultDatabaseChannel extends DatabasePort implements DatabaseChan
      * COUNT(DISTINCT(groupingColumn)) = x" where x is the number of given parameters
      * @param requiredGroupingColumn column to group results by if {@param requiredGroupingColumn}
      * is false
-     * @return StringBuilder in form describe above, as per given parameters
+     * @return given query in form describe above, as per given parameters
      */
-    private StringBuilder stringCollectionToStringInList(String columnName, Collection<String> strings,
-        boolean includeNot, boolean whereAsMergeCond, boolean optionalOrRequired,
-        String requiredGroupingColumn) {
+    private QueryBuilder stringCollectionToStringInList(QueryBuilder toReturn, String columnName,
+        Collection<String> strings, boolean includeNot, boolean whereAsMergeCond,
+        boolean optionalOrRequired, String requiredGroupingColumn) {
+      if (strings == null) {
+        throw new IllegalArgumentException("Given string array can't be null!");
+      }
       String mergeCond = whereAsMergeCond ? "WHERE" : "AND";
       String includeNotFormat = includeNot ? " NOT" : "";
-      StringBuilder toReturn = new StringBuilder(String.format(" %s %s%s IN (%s)",
-          mergeCond, columnName, includeNotFormat,
-          stringCollectionToStringList(strings, true)));
+      toReturn.append(String.format(" %s %s%s IN (", mergeCond, columnName, includeNotFormat));
+      toReturn.appendValues(strings);
+      toReturn.append(")");
 
       if (!optionalOrRequired && !includeNot) {
         int numOfParams = strings.size();
@@ -2160,22 +2628,25 @@ public class DefaultDatabaseChannel extends DatabasePort implements DatabaseChan
 
     /**
      * Turns the given collection of Strings into a "like" list formatted for SQL in the form of
-     * "WHERE/AND (columnName LIKE '%x%' AND/OR ... AND/OR columnName LKE '%z%').
+     * "WHERE/AND (columnName LIKE '%x%' AND/OR ... AND/OR columnName LKE '%z%'), written to the
+     * given empty query.
+     * @param toReturn empty query to write the list to
      * @param columnName column name to compare against
      * @param strings collection of Strings to use as parameters to compare column name against
      * @param includeNot whether or not to include "NOT" before every "LIKE", "LIKE" --> "NOT LIKE"
      * @param whereAsMergeCond whether to use "WHERE" or "AND"
      * @param optionalOrRequired whether to use "OR" (optional) or "AND" (required), should column
      * being compared meet one or all the parameters
-     * @return StringBuilder in form describe above, as per given parameters
+     * @return given query in form describe above, as per given parameters
      */
-    private StringBuilder stringCollectionToStringLikeList(String columnName, Collection<String> strings,
-        boolean includeNot, boolean whereAsMergeCond, boolean optionalOrRequired) {
+    private QueryBuilder stringCollectionToStringLikeList(QueryBuilder toReturn, String columnName,
+        Collection<String> strings, boolean includeNot, boolean whereAsMergeCond,
+        boolean optionalOrRequired) {
       String mergeCond = whereAsMergeCond ? "WHERE" : "AND";
-      StringBuilder toReturn = new StringBuilder(String.format(" %s (", mergeCond));
+      toReturn.append(String.format(" %s (", mergeCond));
 
       String includeNotFormat = includeNot ? " NOT" : "";
-      String notLikeFormat = "%s" + includeNotFormat + " LIKE '%%%s%%'";
+      String notLikeFormat = "%s" + includeNotFormat + " LIKE ";
 
       String optionalOrRequiredFormat = optionalOrRequired ? "OR" : "AND";
 
@@ -2188,66 +2659,30 @@ public class DefaultDatabaseChannel extends DatabasePort implements DatabaseChan
 
           toReturn.append(String.format(" %s ", optionalOrRequiredFormat));
         }
-        toReturn.append(String.format(notLikeFormat, columnName, disallowParam));
+        toReturn.append(String.format(notLikeFormat, columnName));
+        toReturn.appendValue("%" + disallowParam + "%");
       }
       toReturn.append(")");
       return toReturn;
     }
 
-    /**
-     * Turns given array of Strings into a single StringBuilder "list" in the form of "x, y, ..., z"
-     * or "'x', 'y', ...,'z'" if {@param includeQuote} is true.
-     * @param strings array of strings to work with
-     * @param includeQuote whether or not to include quotes around each String
-     * @return "list" of given Strings as a StringBuilder
-     */
-    private StringBuilder stringArrayToStringList(String[] strings, boolean includeQuote) {
-      return stringCollectionToStringList(Arrays.asList(strings), includeQuote);
-    }
-
-    /**
-     * Turns given collection of Strings into a single StringBuilder "list" in the form of "x, y, ..., z"
-     * or "'x', 'y', ...,'z'" if {@param includeQuote} is true.
-     * @param strings collection of strings to work with
-     * @param includeQuotes whether or not to include quotes around each String
-     * @return "list" of given Strings as a StringBuilder
-     */
-    private StringBuilder stringCollectionToStringList(Collection<String> strings, boolean includeQuotes) {
-      if (strings == null) {
-        throw new IllegalArgumentException("Given string array can't be null!");
-      }
-      StringBuilder toReturn = new StringBuilder();
-
-      boolean first = true;
-      for (String string : strings) {
-        if (first) {
-          first = false;
-        }
-        else {
-          toReturn.append(", ");
-        }
-        String toAppend = includeQuotes ? String.format("'%s'", string) : string;
-        toReturn.append(toAppend);
-      }
-
-      return toReturn;
-    }
-
     /**
      * Builds the part of this {@link CardQuery} concerned with querying cards that meet the
      * stat parameters entered so far.
-     * @return part of this CardQuery dealing with color parameters as a StringBuilder
-     */
-    private StringBuilder buildStatQuery() {
-      StringBuilder completeQuery = new StringBuilder();
-      StringBuilder conditions = new StringBuilder();
+     * @param candidates table of the candidate cards to restrict the query to, or null if not
+     *        restricted
+     * @param bindValues if values are to be written as placeholders to bind, rather than literals
+     * @return part of this CardQuery dealing with color parameters
+     */
+    private QueryBuilder buildStatQuery(String candidates, boolean bindValues) {
+      QueryBuilder completeQuery = new QueryBuilder(bindValues);
+      QueryBuilder conditions = completeQuery.newPart();
       int i = 0;
       String startingTable = "";
       String startingTableCardNameColumn = "";
       for (Triple<Stat, Comparison, Integer> conditional : statParams) {
         Stat curStat = conditional.getA();
         String comparison = conditional.getB().getValue();
-        String comparisonQuantity = conditional.getC().toString();
         String curTable = statTableNames.get(curStat);
         String curCardNameColumn = statCardNameColumnNames.get(curStat);
         String curComparisonColumn = statValueColumnNames.get(curStat);
@@ -2266,10 +2701,15 @@ public class DefaultDatabaseChannel extends DatabasePort implements DatabaseChan
           cond = "AND";
         }
 
-        conditions.append(String.format(" %s %s.%s %s %s",
-            cond, curTableShorthand, curComparisonColumn, comparison, comparisonQuantity));
+        conditions.append(String.format(" %s %s.%s %s ",
+            cond, curTableShorthand, curComparisonColumn, comparison));
+        conditions.appendValue(conditional.getC());
         i++;
       }
+      if (candidates != null && i > 0) {
+        conditions.append(String.format(" AND %s.%s IN %s", startingTable,
+            startingTableCardNameColumn, candidates));
+      }
       completeQuery.append(conditions);
       return completeQuery;
     }
@@ -2277,11 +2717,14 @@ public class DefaultDatabaseChannel extends DatabasePort implements DatabaseChan
     /**
      * Builds the part of this {@link CardQuery} concerned with querying cards that meet the
      * mana symbol parameters entered so far.
-     * @return part of this CardQuery dealing with mana symbol parameters as a StringBuilder
-     */
-    private StringBuilder buildManaTypeQuery() {
-      StringBuilder completeQuery = new StringBuilder();
-      StringBuilder conditions = new StringBuilder();
+     * @param candidates table of the candidate cards to restrict the query to, or null if not
+     *        restricted
+     * @param bindValues if values are to be written as placeholders to bind, rather than literals
+     * @return part of this CardQuery dealing with mana symbol parameters
+     */
+    private QueryBuilder buildManaTypeQuery(String candidates, boolean bindValues) {
+      QueryBuilder completeQuery = new QueryBuilder(bindValues);
+      QueryBuilder conditions = completeQuery.newPart();
       String table = "Mana";
       String categoryColumn = "mana_type";
       String cardNameColumn = "card_name";
@@ -2305,13 +2748,16 @@ public class DefaultDatabaseChannel extends DatabasePort implements DatabaseChan
 
         String categoryType = conditional.getA();
         String comparison = conditional.getB().getValue();
-        String comparisonQuantity = conditional.getC().toString();
-        conditions.append(String.format(" %s %s.%s = '%s'",
-            cond, curTable, categoryColumn, categoryType));
-        conditions.append(String.format(" AND %s.%s %s %s",
-            curTable, comparisonColumn, comparison, comparisonQuantity));
+        conditions.append(String.format(" %s %s.%s = ", cond, curTable, categoryColumn));
+        conditions.appendValue(categoryType);
+        conditions.append(String.format(" AND %s.%s %s ", curTable, comparisonColumn, comparison));
+        conditions.appendValue(conditional.getC());
         i++;
       }
+      if (candidates != null && i > 0) {
+        conditions.append(String.format(" AND %s.%s IN %s", startingTable, cardNameColumn,
+            candidates));
+      }
       completeQuery.append(conditions);
       return completeQuery;
     }
@@ -2319,11 +2765,14 @@ public class DefaultDatabaseChannel extends DatabasePort implements DatabaseChan
     /**
      * Builds the part of this {@link CardQuery} concerned with querying cards that meet the
      * stat vs stat parameters entered so far.
-     * @return part of this CardQuery dealing with color parameters as a StringBuilder
-     */
-    private StringBuilder buildStatVersusStatQuery() {
-      StringBuilder completeQuery = new StringBuilder();
-      StringBuilder conditions = new StringBuilder();
+     * @param candidates table of the candidate cards to restrict the query to, or null if not
+     *        restricted
+     * @param bindValues if values are to be written as placeholders to bind, rather than literals
+     * @return part of this CardQuery dealing with color parameters
+     */
+    private QueryBuilder buildStatVersusStatQuery(String candidates, boolean bindValues) {
+      QueryBuilder completeQuery = new QueryBuilder(bindValues);
+      QueryBuilder conditions = completeQuery.newPart();
       int i = 0;
       String startingTable = "";
       String startingTableCardNameColumn = "";
@@ -2381,46 +2830,198 @@ public class DefaultDatabaseChannel extends DatabasePort implements DatabaseChan
             cond, firstTableShorthand, firstTableValueColumn, comparison,
             secondTableShorthand, secondTableValueColumn));
       }
+      if (candidates != null && i > 0) {
+        conditions.append(String.format(" AND %s.%s IN %s", startingTable,
+            startingTableCardNameColumn, candidates));
+      }
       return completeQuery.append(conditions);
     }
 
     /**
      * Builds the part of this {@link CardQuery} concerned with querying cards that meet parameters
      * that deal with parts specific to a card name, text, cmc, etc.
-     * @return part of this CardQuery dealing with card parameters as a StringBuilder
+     * @param bindValues if values are to be written as placeholders to bind, rather than literals
+     * @return part of this CardQuery dealing with card parameters
+     */
+    private QueryBuilder buildMergedCardQuery(boolean bindValues) {
+      if (bindValues && queryPlanningEnabled && catalog.hasValueFrequencies()) {
+        return buildPlannedCardQuery(bindValues);
+      }
+      QueryBuilder[] queries = new QueryBuilder[]{buildNameQuery(null, bindValues),
+          buildTextQuery(null, bindValues), buildTypeQuery(null, bindValues),
+          buildSubtypeQuery(null, bindValues), buildColorIdentityQuery(null, bindValues),
+          buildColorQuery(null, bindValues), buildSupertypeQuery(null, bindValues),
+          buildManaTypeQuery(null, bindValues), buildStatQuery(null, bindValues),
+          buildStatVersusStatQuery(null, bindValues)};
+      return buildGenericMergedQuery(queries, bindValues);
+    }
+
+    /**
+     * Builds the part of this {@link CardQuery} concerned with querying cards that meet parameters
+     * that deal with parts specific to a card, planned by how many cards each filter is estimated
+     * to match as per the value frequencies of the CDDB. The filter estimated to match the fewest
+     * cards is run first, as the candidates, then every other filter only looks among those
+     * candidates - e.g. looking up the types of a hundred candidate cards rather than every card
+     * of a type - with the results of each intersected.
+     * @param bindValues if values are to be written as placeholders to bind, rather than literals
+     * @return part of this CardQuery dealing with card parameters
+     */
+    private QueryBuilder buildPlannedCardQuery(boolean bindValues) {
+      // Each filter with parameters, by the estimated number of cards it matches, in the same
+      // order as unplanned where estimates are equal
+      int cardCount = catalog.getCardCount();
+      List<Pair<Integer, Function<String, QueryBuilder>>> filters = new ArrayList<>();
+      if (!nameParams.isEmpty()) {
+        filters.add(new Pair<>(cardCount, candidates -> buildNameQuery(candidates, bindValues)));
+      }
+      if (!textParams.isEmpty()) {
+        filters.add(new Pair<>(cardCount, candidates -> buildTextQuery(candidates, bindValues)));
+      }
+      if (!typeParams.isEmpty()) {
+        filters.add(new Pair<>(estimateCards(typeParams, "Type"),
+            candidates -> buildTypeQuery(candidates, bindValues)));
+      }
+      if (!subtypeParams.isEmpty()) {
+        filters.add(new Pair<>(estimateCards(subtypeParams, "Subtype"),
+            candidates -> buildSubtypeQuery(candidates, bindValues)));
+      }
+      if (!colorParams.isEmpty()) {
+        filters.add(new Pair<>(estimateCards(colorParams, "Color"),
+            candidates -> buildColorIdentityQuery(candidates, bindValues)));
+      }
+      if (!colorIdentityParams.isEmpty()) {
+        filters.add(new Pair<>(estimateCards(colorIdentityParams, "ColorIdentity"),
+            candidates -> buildColorQuery(candidates, bindValues)));
+      }
+      if (!supertypeParams.isEmpty()) {
+        filters.add(new Pair<>(estimateCards(supertypeParams, "Supertype"),
+            candidates -> buildSupertypeQuery(candidates, bindValues)));
+      }
+      if (!manaTypeParams.isEmpty()) {
+        int estimate = cardCount;
+        for (Triple<String, Comparison, Integer> conditional : manaTypeParams) {
+          estimate = Math.min(estimate,
+              catalog.getValueFrequencies("Mana").getOrDefault(conditional.getA(), 0));
+        }
+        filters.add(new Pair<>(estimate,
+            candidates -> buildManaTypeQuery(candidates, bindValues)));
+      }
+      if (!statParams.isEmpty()) {
+        int estimate = cardCount;
+        for (Triple<Stat, Comparison, Integer> conditional : statParams) {
+          estimate = Math.min(estimate,
+              estimateStat(conditional.getA(), conditional.getB(), conditional.getC()));
+        }
+        filters.add(new Pair<>(estimate, candidates -> buildStatQuery(candidates, bindValues)));
+      }
+      if (!statVersusStatParams.isEmpty()) {
+        int estimate = cardCount;
+        for (Triple<Stat, Comparison, Stat> conditional : statVersusStatParams) {
+          estimate = Math.min(estimate, Math.min(estimateStat(conditional.getA(), null, 0),
+              estimateStat(conditional.getC(), null, 0)));
+        }
+        filters.add(new Pair<>(estimate,
+            candidates -> buildStatVersusStatQuery(candidates, bindValues)));
+      }
+      filters.sort(Comparator.comparingInt(filter -> filter.getA()));
+
+      QueryBuilder completeQuery = new QueryBuilder(bindValues);
+      if (filters.isEmpty()) {
+        return completeQuery;
+      }
+      else if (filters.size() == 1) {
+        return filters.get(0).getB().apply(null);
+      }
+
+      String candidates = "Candidates";
+      completeQuery.append(String.format("WITH %s AS (", candidates));
+      completeQuery.append(filters.get(0).getB().apply(null));
+      completeQuery.append(") ");
+      QueryBuilder[] queries = new QueryBuilder[filters.size() - 1];
+      for (int i = 1; i < filters.size(); i++) {
+        queries[i - 1] = filters.get(i).getB().apply(candidates);
+      }
+      return completeQuery.append(buildGenericMergedQuery(queries, bindValues));
+    }
+
+    /**
+     * Estimates the number of cards meeting the given set of parameters for the values of the given
+     * card attribute, from the number of cards with each value - at most the fewest cards with any
+     * "must include" value, else at most the cards with any "one of" value, else every card.
+     * @param params set of parameters to estimate for
+     * @param attribute card attribute the values of the parameters are of
+     * @return estimated number of cards meeting the parameters
+     */
+    private int estimateCards(Map<SearchOption, SortedSet<String>> params, String attribute) {
+      Map<String, Integer> frequencies = catalog.getValueFrequencies(attribute);
+      int estimate = catalog.getCardCount();
+      if (params.containsKey(SearchOption.MustInclude)) {
+        for (String value : params.get(SearchOption.MustInclude)) {
+          estimate = Math.min(estimate, frequencies.getOrDefault(value, 0));
+        }
+      }
+      else if (params.containsKey(SearchOption.OneOf)) {
+        int oneOf = 0;
+        for (String value : params.get(SearchOption.OneOf)) {
+          oneOf += frequencies.getOrDefault(value, 0);
+        }
+        estimate = Math.min(estimate, oneOf);
+      }
+      return estimate;
+    }
+
+    /**
+     * Estimates the number of cards with a value of the given stat meeting the given comparison to
+     * the given quantity, from the number of cards with each value of the stat.
+     * @param stat stat to estimate for
+     * @param comparison how to compare the stat to the quantity, or null to estimate the number of
+     *        cards with any value of the stat
+     * @param quantity quantity to compare to
+     * @return estimated number of cards meeting the comparison, or every card if the stat has no
+     *         value frequencies
      */
-    private StringBuilder buildMergedCardQuery() {
-      StringBuilder[] queries = new StringBuilder[]{buildNameQuery(), buildTextQuery(),
-      buildTypeQuery(), buildSubtypeQuery(), buildColorIdentityQuery(), buildColorQuery(),
-      buildSupertypeQuery(), buildManaTypeQuery(), buildStatQuery(), buildStatVersusStatQuery()};
-      return buildGenericMergedQuery(queries);
+    private int estimateStat(Stat stat, Comparison comparison, int quantity) {
+      Map<String, Integer> frequencies = catalog.getValueFrequencies(stat.getValue());
+      if (frequencies.isEmpty()) {
+        return catalog.getCardCount();
+      }
+      int estimate = 0;
+      for (Map.Entry<String, Integer> frequency : frequencies.entrySet()) {
+        if (comparison == null
+            || comparison.compare(Integer.parseInt(frequency.getKey()), quantity)) {
+          estimate += frequency.getValue();
+        }
+      }
+      return estimate;
     }
 
     /**
      * Builds the part of this {@link CardQuery} concerned with querying cards that meet parameters
      * that deal with parts specific to a card artists, expansion, etc.
-     * @return part of this CardQuery dealing with card printing parameters as a StringBuilder
+     * @param bindValues if values are to be written as placeholders to bind, rather than literals
+     * @return part of this CardQuery dealing with card printing parameters
      */
-    private StringBuilder buildMergedCardPrintingQuery() {
-      StringBuilder[] queries = new StringBuilder[]{buildArtistQuery(), buildRarityQuery(),
-          buildFlavorTextQuery(), buildExpansionQuery()};
-      return buildGenericMergedQuery(queries);
+    private QueryBuilder buildMergedCardPrintingQuery(boolean bindValues) {
+      QueryBuilder[] queries = new QueryBuilder[]{buildArtistQuery(bindValues),
+          buildRarityQuery(bindValues), buildFlavorTextQuery(bindValues),
+          buildExpansionQuery(bindValues)};
+      return buildGenericMergedQuery(queries, bindValues);
     }
 
     /**
-     * Given an array of StringBuilders, or subqueries), merges them into a single StringBuilder
-     * in the order they are given, given a StringBuilder included is not empty. Adds " INTERSECT "
-     * between each StringBuilder
+     * Given an array of subqueries, merges them into a single query in the order they are given,
+     * given a subquery included is not empty. Adds " INTERSECT " between each subquery.
      * @param queries queries to merge
-     * @return StringBuilder of merged queries
+     * @param bindValues if values are to be written as placeholders to bind, rather than literals
+     * @return merged queries
      */
-    private StringBuilder buildGenericMergedQuery(StringBuilder[] queries) {
+    private QueryBuilder buildGenericMergedQuery(QueryBuilder[] queries, boolean bindValues) {
       if (queries == null) {
         throw new IllegalArgumentException("Given array of queries can't be null!");
       }
-      StringBuilder completeQuery = new StringBuilder();
-      for (StringBuilder query : queries) {
-        if (!isStringBuilderEmpty(completeQuery) && !isStringBuilderEmpty(query)) {
+      QueryBuilder completeQuery = new QueryBuilder(bindValues);
+      for (QueryBuilder query : queries) {
+        if (!completeQuery.isEmpty() && !query.isEmpty()) {
           completeQuery.append(" INTERSECT ");
         }
         completeQuery.append(query);
@@ -2428,16 +3029,20 @@ public class DefaultDatabaseChannel extends DatabasePort implements DatabaseChan
       return completeQuery;
     }
 
-    @Override
-    public String asQuery() {
-      StringBuilder completeQuery = new StringBuilder("SELECT card_name, expansion, number "
-          + "FROM CardExpansion");
+    /**
+     * Builds this entire {@link CardQuery}, as determined by the parameters included so far.
+     * @param bindValues if values are to be written as placeholders to bind, rather than literals
+     * @return this query
+     */
+    private QueryBuilder buildQuery(boolean bindValues) {
+      QueryBuilder completeQuery = new QueryBuilder(bindValues);
+      completeQuery.append("SELECT card_name, expansion, number FROM CardExpansion");
 
       String mergeCond = "WHERE";
 
       // Get card specific queries
-      StringBuilder mergedCardQueries = buildMergedCardQuery();
-      if (!isStringBuilderEmpty(mergedCardQueries)) {
+      QueryBuilder mergedCardQueries = buildMergedCardQuery(bindValues);
+      if (!mergedCardQueries.isEmpty()) {
         completeQuery.append(String.format(" %s card_name IN (", mergeCond));
         completeQuery.append(mergedCardQueries);
         completeQuery.append(")");
@@ -2445,14 +3050,89 @@ public class DefaultDatabaseChannel extends DatabasePort implements DatabaseChan
       }
 
       //Get card printing specific queries
-      StringBuilder mergedCardPrintingQueries = buildMergedCardPrintingQuery();
-      if (!isStringBuilderEmpty(mergedCardPrintingQueries)) {
+      QueryBuilder mergedCardPrintingQueries = buildMergedCardPrintingQuery(bindValues);
+      if (!mergedCardPrintingQueries.isEmpty()) {
         completeQuery.append(String.format(" %s (card_name, expansion, number) IN (", mergeCond));
         completeQuery.append(mergedCardPrintingQueries);
         completeQuery.append(")");
       }
 
-      return completeQuery.toString();
+      return completeQuery;
+    }
+
+    /**
+     * Evaluates this {@link CardQuery} against the given in-memory index of the CDDB, rather than
+     * running it against the CDDB, for queries only made up of parameters the index holds - i.e.
+     * colors, color identities, types, expansions, rarities, artists, stats, and mana types. Name,
+     * text, and flavor text parameters, and stats the index doesn't hold, are left to the CDDB.
+     * @param cardIndex index to evaluate this query against
+     * @return bitmap of the matching printings in the index, or null if this query has parameters
+     *         the index can't evaluate
+     */
+    private BitSet evaluate(CardIndex cardIndex) {
+      if (!nameParams.isEmpty() || !textParams.isEmpty() || !flavorTextParams.isEmpty()) {
+        return null;
+      }
+      for (Triple<Stat, Comparison, Integer> conditional : statParams) {
+        if (!cardIndex.hasStat(conditional.getA())) {
+          return null;
+        }
+      }
+      for (Triple<Stat, Comparison, Stat> conditional : statVersusStatParams) {
+        if (!cardIndex.hasStat(conditional.getA()) || !cardIndex.hasStat(conditional.getC())) {
+          return null;
+        }
+      }
+
+      // Card specific parameters narrow down the cards, then printing specific parameters narrow
+      // down the printings of those cards
+      BitSet cards = cardIndex.allCards();
+      Map<String, Map<SearchOption, SortedSet<String>>> cardParams = new HashMap<>();
+      cardParams.put("Color", colorParams);
+      cardParams.put("ColorIdentity", colorIdentityParams);
+      cardParams.put("Supertype", supertypeParams);
+      cardParams.put("Type", typeParams);
+      cardParams.put("Subtype", subtypeParams);
+      for (Map.Entry<String, Map<SearchOption, SortedSet<String>>> entry : cardParams.entrySet()) {
+        if (!entry.getValue().isEmpty()) {
+          cards.and(cardIndex.matchCards(entry.getKey(), entry.getValue()));
+        }
+      }
+      for (Triple<Stat, Comparison, Integer> conditional : statParams) {
+        cards.and(cardIndex.matchStat(conditional.getA(), conditional.getB(),
+            conditional.getC()));
+      }
+      for (Triple<Stat, Comparison, Stat> conditional : statVersusStatParams) {
+        cards.and(cardIndex.matchStatVersusStat(conditional.getA(), conditional.getB(),
+            conditional.getC()));
+      }
+      for (Triple<String, Comparison, Integer> conditional : manaTypeParams) {
+        cards.and(cardIndex.matchManaType(conditional.getA(), conditional.getB(),
+            conditional.getC()));
+      }
+
+      BitSet printings = cardIndex.toPrintings(cards);
+      if (!setParams.isEmpty()) {
+        printings.and(cardIndex.matchPrintings("expansion", setParams));
+      }
+      if (!rarityParams.isEmpty()) {
+        printings.and(cardIndex.matchPrintings("rarity", rarityParams));
+      }
+      if (!artistParams.isEmpty()) {
+        printings.and(cardIndex.matchPrintings("artist", artistParams));
+      }
+      return printings;
+    }
+
+    @Override
+    public String asQuery() {
+      return buildQuery(false).toString();
+    }
+
+    @Override
+    public Pair<String, List<Object>> asParameterizedQuery() {
+      QueryBuilder completeQuery = buildQuery(true);
+      return new Pair<>(completeQuery.toString(), completeQuery.getParameters());
     }
 
     @Override
@@ -2473,15 +3153,6 @@ public class DefaultDatabaseChannel extends DatabasePort implements DatabaseChan
       manaTypeParams.clear();
     }
 
-    /**
-     * Returns if the given StringBuilder is empty.
-     * @param toCheck StringBuilder to check
-     * @return if given StringBuilder is empty
-     */
-    private boolean isStringBuilderEmpty(StringBuilder toCheck) {
-      return toCheck.length() == 0;
-    }
-
     /**
      * Checks if a given word - defined as a parameter argument that is being used to check text
      * that is "like" it, not strictly equal to it. Should be non-null, non-empty, and not contain
@@ -2572,9 +3243,11 @@ public class DefaultDatabaseChannel extends DatabasePort implements DatabaseChan
       }
 
       // Get actual card info
+      Map<String, DefaultCard> cachedCards = cachedCards(cardToExpansionToNumbers.keySet());
       cardNameToCard = new HashMap<>();
       for (String cardName : cardToExpansionToNumbers.keySet()) {
-        cardNameToCard.put(cardName, new DefaultCard(cardName, cardToExpansionToNumbers.get(cardName)));
+        cardNameToCard.put(cardName, new DefaultCard(cardName, cardToExpansionToNumbers.get(cardName),
+            cachedCards.get(cardName)));
       }
 
       // Reassociate card info with categories
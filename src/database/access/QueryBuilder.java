@@ -0,0 +1,132 @@
+package database.access;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Builds the text of a SQL query along with the values it's searching by. Values are either
+ * written into the text as quoted literals, or written as "?" placeholders and collected as
+ * parameters to bind in order, so queries of the same shape share the same text no matter the
+ * values they search by.
+ */
+class QueryBuilder {
+
+  /**
+   * Text of the query built so far.
+   */
+  private final StringBuilder sql;
+
+  /**
+   * Values to bind to each placeholder of the query, in order.
+   */
+  private final List<Object> parameters;
+
+  /**
+   * If values are written as placeholders to bind, rather than as literals.
+   */
+  private final boolean bindValues;
+
+  /**
+   * Creates an empty query.
+   * @param bindValues if values are to be written as placeholders to bind, rather than as literals
+   */
+  QueryBuilder(boolean bindValues) {
+    this.sql = new StringBuilder();
+    this.parameters = new ArrayList<>();
+    this.bindValues = bindValues;
+  }
+
+  /**
+   * Returns a new empty query writing values the same way as this query, for building a part of
+   * this query to append to it.
+   * @return new empty query
+   */
+  QueryBuilder newPart() {
+    return new QueryBuilder(bindValues);
+  }
+
+  /**
+   * Appends the given SQL text to this query as is.
+   * @param text text to append
+   * @return this query
+   */
+  QueryBuilder append(String text) {
+    sql.append(text);
+    return this;
+  }
+
+  /**
+   * Appends the given part of a query to this query, along with its parameters.
+   * @param part part to append
+   * @return this query
+   */
+  QueryBuilder append(QueryBuilder part) {
+    sql.append(part.sql);
+    parameters.addAll(part.parameters);
+    return this;
+  }
+
+  /**
+   * Appends the given String value to this query, as a placeholder or a quoted literal.
+   * @param value value to append
+   * @return this query
+   */
+  QueryBuilder appendValue(String value) {
+    if (bindValues) {
+      sql.append('?');
+      parameters.add(value);
+    }
+    else {
+      sql.append('\'').append(value.replace("'", "''")).append('\'');
+    }
+    return this;
+  }
+
+  /**
+   * Appends the given integer value to this query, as a placeholder or a literal.
+   * @param value value to append
+   * @return this query
+   */
+  QueryBuilder appendValue(int value) {
+    if (bindValues) {
+      sql.append('?');
+      parameters.add(value);
+    }
+    else {
+      sql.append(value);
+    }
+    return this;
+  }
+
+  /**
+   * Appends the given String values to this query as a list, in the form of "x, y, ..., z".
+   * @param values values to append
+   * @return this query
+   */
+  QueryBuilder appendValues(Collection<String> values) {
+    boolean first = true;
+    for (String value : values) {
+      if (!first) {
+        sql.append(", ");
+      }
+      first = false;
+      appendValue(value);
+    }
+    return this;
+  }
+
+  boolean isEmpty() {
+    return sql.length() == 0;
+  }
+
+  List<Object> getParameters() {
+    return Collections.unmodifiableList(parameters);
+  }
+
+  @Override
+  public String toString() {
+    return sql.toString();
+  }
+}
@@ -0,0 +1,231 @@
+package database.access;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Catalog of the reference values stored in the Card & Deck Database (CDDB) that cards are
+ * described and searched by - expansions, blocks, rarities, supertypes, types, subtypes, colors,
+ * mana types, artists, and multifaced types - along with if the CDDB has full-text indices to
+ * search words by, and how many cards have each value of each card attribute. Loaded all at once,
+ * as of a single version of the CDDB's card info, then shared by every channel to the CDDB until a
+ * set is added to it.
+ */
+public class ReferenceCatalog {
+
+  /**
+   * Version of the card info the catalog was loaded from.
+   */
+  private final long version;
+
+  private final SortedSet<String> expansions;
+
+  private final SortedSet<String> blocks;
+
+  private final SortedSet<String> rarities;
+
+  private final SortedSet<String> supertypes;
+
+  private final SortedSet<String> types;
+
+  private final SortedSet<String> subtypes;
+
+  private final SortedSet<String> colors;
+
+  private final SortedSet<String> manaTypes;
+
+  private final SortedSet<String> artists;
+
+  private final SortedSet<String> multifacedTypes;
+
+  /**
+   * If the CDDB has full-text indices of card names, card text, and flavor text.
+   */
+  private final boolean fullTextSearch;
+
+  /**
+   * Number of cards in the CDDB.
+   */
+  private final int cardCount;
+
+  /**
+   * Number of cards with each value, by value, by card attribute, as gathered when sets were last
+   * added to the CDDB.
+   */
+  private final Map<String, Map<String, Integer>> valueFrequencies;
+
+  /**
+   * Loads the catalog from the CDDB.
+   * @param connection connection to the CDDB to use for retrieving data
+   * @param version version of the card info being loaded
+   * @throws IllegalArgumentException if given connection is null or closed
+   * @throws SQLException if there is an error in retrieving data from the CDDB
+   */
+  ReferenceCatalog(Connection connection, long version) throws SQLException {
+    if (connection == null || connection.isClosed()) {
+      throw new IllegalArgumentException("Given connection can't be null or closed!");
+    }
+    this.version = version;
+    this.expansions = retrieveColumnInfo(connection, "Expansion", "expansion");
+    this.blocks = retrieveColumnInfo(connection, "Block", "block");
+    this.rarities = retrieveColumnInfo(connection, "CardExpansion", "rarity");
+    this.supertypes = retrieveColumnInfo(connection, "Supertype", "type");
+    this.types = retrieveColumnInfo(connection, "Type", "type");
+    this.subtypes = retrieveColumnInfo(connection, "Subtype", "type");
+    this.colors = retrieveColumnInfo(connection, "Color", "color");
+    this.manaTypes = retrieveColumnInfo(connection, "Mana", "mana_type");
+    this.artists = retrieveColumnInfo(connection, "Artist", "artist");
+
+    SortedSet<String> multifacedTypes = new TreeSet<>();
+    multifacedTypes.addAll(retrieveColumnInfo(connection, "TwoCards", "type"));
+    multifacedTypes.addAll(retrieveColumnInfo(connection, "ThreeCards", "type"));
+    this.multifacedTypes = Collections.unmodifiableSortedSet(multifacedTypes);
+
+    String fullTextQuery = "SELECT COUNT(*) FROM sqlite_master "
+        + "WHERE name IN ('CardSearch', 'FlavorSearch')";
+    try (PreparedStatement preparedStatement = connection.prepareStatement(fullTextQuery);
+        ResultSet queryResult = preparedStatement.executeQuery()) {
+      this.fullTextSearch = queryResult.next() && queryResult.getInt(1) == 2;
+    }
+    catch (SQLException e) {
+      throw new SQLException(e.getMessage() + "\nFailed to query for full-text indices!");
+    }
+
+    String cardCountQuery = "SELECT COUNT(*) FROM Card";
+    try (PreparedStatement preparedStatement = connection.prepareStatement(cardCountQuery);
+        ResultSet queryResult = preparedStatement.executeQuery()) {
+      this.cardCount = queryResult.next() ? queryResult.getInt(1) : 0;
+    }
+    catch (SQLException e) {
+      throw new SQLException(e.getMessage() + "\nFailed to count cards!");
+    }
+
+    // CDDB that predates value frequencies has no table of them until it's migrated
+    Map<String, Map<String, Integer>> valueFrequencies = new HashMap<>();
+    String valueFrequencyTableQuery = "SELECT COUNT(*) FROM sqlite_master "
+        + "WHERE type = 'table' AND name = 'ValueFrequency'";
+    String valueFrequencyQuery = "SELECT attribute, value, cards FROM ValueFrequency";
+    try (PreparedStatement tableStatement = connection.prepareStatement(valueFrequencyTableQuery);
+        ResultSet tableResult = tableStatement.executeQuery()) {
+      if (tableResult.next() && tableResult.getInt(1) > 0) {
+        try (PreparedStatement preparedStatement = connection.prepareStatement(valueFrequencyQuery);
+            ResultSet queryResult = preparedStatement.executeQuery()) {
+          while (queryResult.next()) {
+            valueFrequencies.computeIfAbsent(queryResult.getString("attribute"),
+                attribute -> new HashMap<>())
+                .put(queryResult.getString("value"), queryResult.getInt("cards"));
+          }
+        }
+      }
+    }
+    catch (SQLException e) {
+      throw new SQLException(e.getMessage() + "\nFailed to query for value frequencies!");
+    }
+    this.valueFrequencies = valueFrequencies;
+  }
+
+  /**
+   * Given the name of a table in the CDDB, and a column in that table that contains String values,
+   * retrieves a SortedSet of all the values stored in that column in the CDDB.
+   * @param connection connection to the CDDB to use for retrieving data
+   * @param tableName name of the table to retrieve info from
+   * @param columnName name of column to retrieve info from
+   * @return sorted set of all the String values stored in the given column of the given table
+   * @throws SQLException if there is an error retrieving info from the CDDB
+   */
+  private SortedSet<String> retrieveColumnInfo(Connection connection, String tableName,
+      String columnName) throws SQLException {
+    SortedSet<String> toReturn = new TreeSet<>();
+    String query = String.format("SELECT DISTINCT(%s) FROM %s", columnName, tableName);
+    try (PreparedStatement preparedStatement = connection.prepareStatement(query);
+        ResultSet queryResult = preparedStatement.executeQuery()) {
+      while (queryResult.next()) {
+        toReturn.add(queryResult.getString(columnName));
+      }
+    }
+    catch (SQLException e) {
+      throw new SQLException(e.getMessage() +
+          String.format("\nFailed to query for column %s from table %s!", columnName, tableName));
+    }
+    return Collections.unmodifiableSortedSet(toReturn);
+  }
+
+  long getVersion() {
+    return version;
+  }
+
+  public SortedSet<String> getExpansions() {
+    return expansions;
+  }
+
+  public SortedSet<String> getBlocks() {
+    return blocks;
+  }
+
+  public SortedSet<String> getRarities() {
+    return rarities;
+  }
+
+  public SortedSet<String> getSupertypes() {
+    return supertypes;
+  }
+
+  public SortedSet<String> getTypes() {
+    return types;
+  }
+
+  public SortedSet<String> getSubtypes() {
+    return subtypes;
+  }
+
+  public SortedSet<String> getColors() {
+    return colors;
+  }
+
+  public SortedSet<String> getManaTypes() {
+    return manaTypes;
+  }
+
+  public SortedSet<String> getArtists() {
+    return artists;
+  }
+
+  public SortedSet<String> getMultifacedTypes() {
+    return multifacedTypes;
+  }
+
+  public boolean hasFullTextSearch() {
+    return fullTextSearch;
+  }
+
+  public int getCardCount() {
+    return cardCount;
+  }
+
+  /**
+   * Returns if value frequencies have been gathered for the cards in the CDDB.
+   * @return if there are value frequencies
+   */
+  public boolean hasValueFrequencies() {
+    return !valueFrequencies.isEmpty();
+  }
+
+  /**
+   * Returns the number of cards with each value of the given card attribute, as gathered when sets
+   * were last added to the CDDB.
+   * @param attribute card attribute, i.e. the name of a table of values such as Color or Type, or
+   *        the name of a stat such as cmc
+   * @return mapping of values to the number of cards with each, empty if the attribute has none
+   */
+  public Map<String, Integer> getValueFrequencies(String attribute) {
+    return Collections.unmodifiableMap(
+        valueFrequencies.getOrDefault(attribute, Collections.emptyMap()));
+  }
+}
@@ -0,0 +1,19 @@
+package database.access;
+
+import java.sql.SQLException;
+
+/**
+ * A unit of work against the Card & Deck Database (CDDB), made through a {@link DatabaseChannel}
+ * and run by {@link DatabaseChannel#inTransaction(UnitOfWork)} as a single transaction.
+ */
+@FunctionalInterface
+public interface UnitOfWork {
+
+  /**
+   * Runs this unit of work through the given channel.
+   * @param channel channel to the CDDB to make the work through
+   * @throws IllegalArgumentException if the work is invalid, e.g. adds a deck that already exists
+   * @throws SQLException if there is a failure in reading from or writing to the CDDB
+   */
+  void run(DatabaseChannel channel) throws IllegalArgumentException, SQLException;
+}
@@ -14,14 +14,20 @@ import java.sql.SQLException;
 public class BuildDatabase {
 
   /**
-   * Builds a brand new Card and Deck Database with full set of Card info.
+   * Builds a brand new Card and Deck Database with full set of Card info, bulk loading it and
+   * reporting how long the build took. If a database was left behind by an earlier build that was
+   * interrupted, resumes that build instead.
    * @throws SQLException if there is a failure in initializing the database
    */
   public static void main(String[] args) throws SQLException {
+    long buildStart = System.nanoTime();
     Path pathToDatabase = Paths.get("resources\\cddb.db").toAbsolutePath();
     Path pathToInitFile = Paths.get("resources\\database_init.txt");
-    DatabaseParser parser = new DefaultDatabaseParser(pathToDatabase, pathToInitFile);
+    DefaultDatabaseParser parser = new DefaultDatabaseParser(pathToDatabase, pathToInitFile, true);
     Path pathToJSON = Paths.get("resources\\AllSets.json").toAbsolutePath();
     parser.parseAllSets(pathToJSON);
+    parser.finishBulkLoad();
+    System.out.println(String.format("Built CDDB in %.2f seconds",
+        (System.nanoTime() - buildStart) / 1e9));
   }
 }
@@ -0,0 +1,260 @@
+package database.mains;
+
+import database.parsing.DefaultDatabaseParser;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+/**
+ * Measures how fast the {@link DefaultDatabaseParser} loads MTG sets into a fresh Card & Deck
+ * Database (CDDB), so changes to the parser can be compared run over run. Loads GRN on its own,
+ * then a synthetic file of multiple sets made of renamed copies of GRN, reporting for each run
+ * cards per second, rows per second of each table, peak heap usage, and the size of the CDDB.
+ *
+ * Takes up to three optional arguments: the number of copies of GRN in the synthetic file
+ * (default 20), the number of runs of each load (default 3), and "bulk" to load the CDDB in bulk
+ * load mode, as {@link BuildDatabase} does.
+ */
+public class IngestionBenchmark {
+
+  /**
+   * Tables of the CDDB filled in by parsing sets.
+   */
+  private static final String[] cardTables = new String[]{"Expansion", "Block", "Card", "Color",
+      "ColorIdentity", "Supertype", "Type", "Subtype", "Mana", "PowerToughness", "Loyalty",
+      "TwoCards", "ThreeCards", "CardExpansion", "Artist"};
+
+  /**
+   * Default number of copies of GRN in the synthetic file of multiple sets.
+   */
+  private static final int defaultScale = 20;
+
+  /**
+   * Default number of runs of each load.
+   */
+  private static final int defaultRuns = 3;
+
+  public static void main(String[] args) throws IOException, SQLException {
+    int scale = args.length > 0 ? Integer.parseInt(args[0]) : defaultScale;
+    int runs = args.length > 1 ? Integer.parseInt(args[1]) : defaultRuns;
+    boolean bulkLoad = args.length > 2 && args[2].equalsIgnoreCase("bulk");
+
+    Path pathToInitFile = Paths.get("resources", "database_init.txt").toAbsolutePath();
+    Path pathToGRN = Paths.get("resources", "GRN.json").toAbsolutePath();
+    Path workingDirectory = Files.createTempDirectory("ingestion-benchmark");
+    try {
+      JSONObject grn;
+      try (BufferedReader reader = Files.newBufferedReader(pathToGRN, StandardCharsets.UTF_8)) {
+        grn = new JSONObject(new JSONTokener(reader));
+      }
+      int grnCards = grn.getJSONArray("cards").length();
+
+      Path pathToScaled = workingDirectory.resolve("ScaledSets.json");
+      writeScaledSets(grn, scale, pathToScaled);
+
+      System.out.println(String.format("Ingestion benchmark, %d run(s) each, %s mode", runs,
+          bulkLoad ? "bulk load" : "default"));
+      for (int run = 1; run <= runs; run++) {
+        report(String.format("GRN, run %d", run), grnCards, load(pathToInitFile, pathToGRN,
+            workingDirectory.resolve("grn.db"), false, bulkLoad));
+      }
+      for (int run = 1; run <= runs; run++) {
+        report(String.format("GRN x %d, run %d", scale, run), grnCards * scale,
+            load(pathToInitFile, pathToScaled, workingDirectory.resolve("scaled.db"), true,
+                bulkLoad));
+      }
+    }
+    finally {
+      try (Stream<Path> files = Files.walk(workingDirectory)) {
+        for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+          Files.deleteIfExists(file);
+        }
+      }
+    }
+  }
+
+  /**
+   * Writes a JSON file of multiple sets, in the shape of MTGJSON's file of all sets, made of the
+   * given number of copies of the given set. Each copy has its own set name and code, and its cards
+   * their own names, so every copy adds as many new rows as the original set would.
+   * @param set set to copy
+   * @param scale number of copies to write
+   * @param path path to write the file to
+   * @throws IOException if the file fails to be written
+   */
+  private static void writeScaledSets(JSONObject set, int scale, Path path) throws IOException {
+    String setText = set.toString();
+    try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+      writer.write('{');
+      for (int copy = 1; copy <= scale; copy++) {
+        JSONObject renamed = new JSONObject(setText);
+        String suffix = String.format(" %d", copy);
+        String code = String.format("S%02d", copy);
+        renamed.put("code", code);
+        renamed.put("name", renamed.getString("name") + suffix);
+
+        JSONArray cards = renamed.getJSONArray("cards");
+        for (int i = 0; i < cards.length(); i++) {
+          JSONObject card = cards.getJSONObject(i);
+          card.put("name", card.getString("name") + suffix);
+          JSONArray names = card.optJSONArray("names");
+          if (names != null) {
+            for (int j = 0; j < names.length(); j++) {
+              names.put(j, names.getString(j) + suffix);
+            }
+          }
+        }
+
+        if (copy > 1) {
+          writer.write(',');
+        }
+        writer.write(JSONObject.quote(code));
+        writer.write(':');
+        renamed.write(writer);
+      }
+      writer.write('}');
+    }
+  }
+
+  /**
+   * Results of loading sets into a fresh CDDB.
+   */
+  private static class LoadResult {
+
+    private final double seconds;
+
+    private final Map<String, Integer> tableRows;
+
+    private final long peakHeapBytes;
+
+    private final long databaseBytes;
+
+    private LoadResult(double seconds, Map<String, Integer> tableRows, long peakHeapBytes,
+        long databaseBytes) {
+      this.seconds = seconds;
+      this.tableRows = tableRows;
+      this.peakHeapBytes = peakHeapBytes;
+      this.databaseBytes = databaseBytes;
+    }
+  }
+
+  /**
+   * Returns the files making up the CDDB at the given path - the CDDB itself, along with its
+   * write-ahead log and shared memory index while in WAL mode.
+   * @param pathToDatabase path to the CDDB
+   * @return files of the CDDB, some of which may not exist
+   */
+  private static Path[] databaseFiles(Path pathToDatabase) {
+    String fileName = pathToDatabase.getFileName().toString();
+    return new Path[]{pathToDatabase, pathToDatabase.resolveSibling(fileName + "-wal"),
+        pathToDatabase.resolveSibling(fileName + "-shm")};
+  }
+
+  /**
+   * Loads the sets at the given path into a fresh CDDB at the given path, replacing any CDDB
+   * already there, and measures the load. The parser is closed as part of the load, so in WAL
+   * mode its write-ahead log is checkpointed into the CDDB before the CDDB is measured.
+   * @param pathToInitFile path to the CDDB initalization file
+   * @param pathToSets path to the sets to load
+   * @param pathToDatabase path to create the CDDB at
+   * @param allSets if the sets are a file of multiple sets, rather than a single set
+   * @param bulkLoad if the CDDB is to be bulk loaded
+   * @return results of the load
+   * @throws IOException if an existing CDDB fails to be deleted, or the CDDB's size fails to be
+   *         read
+   * @throws SQLException if the CDDB fails to be created, loaded, or counted
+   */
+  private static LoadResult load(Path pathToInitFile, Path pathToSets, Path pathToDatabase,
+      boolean allSets, boolean bulkLoad) throws IOException, SQLException {
+    for (Path file : databaseFiles(pathToDatabase)) {
+      Files.deleteIfExists(file);
+    }
+    System.gc();
+    List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+        pool.resetPeakUsage();
+        heapPools.add(pool);
+      }
+    }
+
+    long start = System.nanoTime();
+    try (DefaultDatabaseParser parser = new DefaultDatabaseParser(pathToDatabase, pathToInitFile,
+        bulkLoad)) {
+      if (allSets) {
+        parser.parseAllSets(pathToSets);
+      }
+      else {
+        parser.parseSet(pathToSets);
+      }
+      if (bulkLoad) {
+        parser.finishBulkLoad();
+      }
+    }
+    double seconds = (System.nanoTime() - start) / 1e9;
+
+    // Peaks of each pool may fall at different times, so their sum is an upper bound
+    long peakHeapBytes = 0;
+    for (MemoryPoolMXBean pool : heapPools) {
+      peakHeapBytes += pool.getPeakUsage().getUsed();
+    }
+
+    Map<String, Integer> tableRows = new LinkedHashMap<>();
+    try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + pathToDatabase);
+        Statement statement = connection.createStatement()) {
+      for (String table : cardTables) {
+        try (ResultSet count = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+          tableRows.put(table, count.getInt(1));
+        }
+      }
+    }
+
+    // Any write-ahead log left behind still holds part of the CDDB
+    long databaseBytes = 0;
+    for (Path file : databaseFiles(pathToDatabase)) {
+      if (Files.exists(file)) {
+        databaseBytes += Files.size(file);
+      }
+    }
+    return new LoadResult(seconds, tableRows, peakHeapBytes, databaseBytes);
+  }
+
+  /**
+   * Prints the results of a load.
+   * @param label label of the load
+   * @param cards number of cards in the sets loaded
+   * @param result results of the load
+   */
+  private static void report(String label, int cards, LoadResult result) {
+    int totalRows = result.tableRows.values().stream().mapToInt(Integer::intValue).sum();
+    System.out.println(String.format("%n%s: %.2f s, %.0f cards/s, %.0f rows/s, peak heap %.1f MiB,"
+            + " CDDB %.1f MiB", label, result.seconds, cards / result.seconds,
+        totalRows / result.seconds, result.peakHeapBytes / 1048576.0,
+        result.databaseBytes / 1048576.0));
+    for (Map.Entry<String, Integer> table : result.tableRows.entrySet()) {
+      System.out.println(String.format("  %-15s %8d rows %10.0f rows/s", table.getKey(),
+          table.getValue(), table.getValue() / result.seconds));
+    }
+  }
+}
@@ -0,0 +1,161 @@
+package database.mains;
+
+import database.access.DefaultDatabaseChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import value_objects.card.query.CardQuery;
+import value_objects.card.query.Comparison;
+import value_objects.card.query.SearchOption;
+import value_objects.card.query.Stat;
+import value_objects.utility.Pair;
+
+/**
+ * Measures how fast a suite of realistic {@link CardQuery}s runs against a Card & Deck Database
+ * (CDDB), with and without planning queries by how many cards each of their filters is estimated
+ * to match, so changes to how queries are built can be compared run over run. Each query is run
+ * as is on a plain connection to the CDDB, reading the printings it matches without retrieving
+ * their cards, so the time is spent running the query itself. Reports the median time of each
+ * query either way, and the speedup of planning it, and exits with a failure if any query matches
+ * different printings when planned.
+ *
+ * Takes up to two optional arguments: the path to the CDDB to query (default resources/cddb.db),
+ * and the number of runs of each query (default 15).
+ */
+public class QueryBenchmark {
+
+  /**
+   * Default number of runs of each query.
+   */
+  private static final int defaultRuns = 15;
+
+  public static void main(String[] args) throws SQLException {
+    Path pathToDatabase = (args.length > 0 ? Paths.get(args[0]) : Paths.get("resources", "cddb.db"))
+        .toAbsolutePath();
+    int runs = args.length > 1 ? Integer.parseInt(args[1]) : defaultRuns;
+    DefaultDatabaseChannel channel = new DefaultDatabaseChannel(pathToDatabase);
+
+    // Queries a player might make while building a deck, by name
+    Map<String, Consumer<CardQuery>> queries = new LinkedHashMap<>();
+    queries.put("green creatures with 4+ power", query -> {
+      query.byColor("G", SearchOption.MustInclude);
+      query.byType("Creature", SearchOption.MustInclude);
+      query.byStat(Stat.POWER, Comparison.GREATER_EQUAL, 4);
+    });
+    queries.put("legendary creatures costing 3 or less", query -> {
+      query.bySupertype("Legendary", SearchOption.MustInclude);
+      query.byType("Creature", SearchOption.MustInclude);
+      query.byStat(Stat.CMC, Comparison.LESS_EQUAL, 3);
+    });
+    queries.put("instants that draw cards", query -> {
+      query.byType("Instant", SearchOption.MustInclude);
+      query.byText("draw", SearchOption.MustInclude);
+    });
+    queries.put("blue or black wizards", query -> {
+      query.byColor("U", SearchOption.OneOf);
+      query.byColor("B", SearchOption.OneOf);
+      query.bySubtype("Wizard", SearchOption.MustInclude);
+    });
+    queries.put("red creatures with more power than toughness", query -> {
+      query.byColor("R", SearchOption.MustInclude);
+      query.byType("Creature", SearchOption.MustInclude);
+      query.byStatVersusStat(Stat.POWER, Comparison.GREATER, Stat.TOUGHNESS);
+    });
+    queries.put("planeswalkers with 4+ loyalty", query -> {
+      query.byType("Planeswalker", SearchOption.MustInclude);
+      query.byStat(Stat.LOYALTY, Comparison.GREATER_EQUAL, 4);
+    });
+    queries.put("creatures costing two or more red", query -> {
+      query.byType("Creature", SearchOption.MustInclude);
+      query.byManaType("{R}", Comparison.GREATER_EQUAL, 2);
+    });
+    queries.put("white artifact creatures costing 2", query -> {
+      query.byColor("W", SearchOption.MustInclude);
+      query.byType("Artifact", SearchOption.MustInclude);
+      query.byType("Creature", SearchOption.MustInclude);
+      query.byStat(Stat.CMC, Comparison.EQUAL, 2);
+    });
+
+    System.out.println(String.format("Query benchmark of %s, median of %d run(s) each",
+        pathToDatabase, runs));
+    boolean mismatched = false;
+    try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + pathToDatabase)) {
+      for (Map.Entry<String, Consumer<CardQuery>> entry : queries.entrySet()) {
+        CardQuery query = channel.getQuery();
+        entry.getValue().accept(query);
+
+        channel.setQueryPlanningEnabled(false);
+        Pair<String, List<Object>> unplannedQuery = query.asParameterizedQuery();
+        channel.setQueryPlanningEnabled(true);
+        Pair<String, List<Object>> plannedQuery = query.asParameterizedQuery();
+
+        int printings = run(connection, plannedQuery);
+        boolean matches = run(connection, unplannedQuery) == printings;
+        mismatched |= !matches;
+        double unplanned = time(connection, unplannedQuery, runs);
+        double planned = time(connection, plannedQuery, runs);
+        System.out.println(String.format("%-45s %6d printings  %8.2f ms -> %8.2f ms  %5.2fx%s",
+            entry.getKey(), printings, unplanned, planned, unplanned / planned,
+            matches ? "" : "  MISMATCH"));
+      }
+    }
+
+    if (mismatched) {
+      System.out.println("Planned queries matching different printings than unplanned queries");
+      System.exit(1);
+    }
+  }
+
+  /**
+   * Returns the median time to run the given query, over the given number of runs.
+   * @param connection connection to the CDDB
+   * @param query query with placeholders, paired with the values to bind to them
+   * @param runs number of runs of the query
+   * @return median time of the query, in milliseconds
+   * @throws SQLException if the query fails
+   */
+  private static double time(Connection connection, Pair<String, List<Object>> query, int runs)
+      throws SQLException {
+    double[] times = new double[runs];
+    for (int i = 0; i < runs; i++) {
+      long start = System.nanoTime();
+      run(connection, query);
+      times[i] = (System.nanoTime() - start) / 1e6;
+    }
+    Arrays.sort(times);
+    return times[runs / 2];
+  }
+
+  /**
+   * Runs the given query, reading every printing it matches.
+   * @param connection connection to the CDDB
+   * @param query query with placeholders, paired with the values to bind to them
+   * @return number of printings the query matches
+   * @throws SQLException if the query fails
+   */
+  private static int run(Connection connection, Pair<String, List<Object>> query)
+      throws SQLException {
+    try (PreparedStatement preparedStatement = connection.prepareStatement(query.getA())) {
+      List<Object> parameters = query.getB();
+      for (int i = 0; i < parameters.size(); i++) {
+        preparedStatement.setObject(i + 1, parameters.get(i));
+      }
+      int printings = 0;
+      try (ResultSet resultSet = preparedStatement.executeQuery()) {
+        while (resultSet.next()) {
+          printings++;
+        }
+      }
+      return printings;
+    }
+  }
+}
@@ -0,0 +1,187 @@
+package database.mains;
+
+import database.access.DefaultDatabaseChannel;
+import database.access.ReferenceCatalog;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.function.BiConsumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import value_objects.card.query.CardQuery;
+import value_objects.card.query.Comparison;
+import value_objects.card.query.SearchOption;
+import value_objects.utility.Pair;
+
+/**
+ * Checks that each kind of filter of a {@link CardQuery} looks up the cards it's filtering for
+ * through an index, rather than scanning the whole table it filters, as per SQLite's EXPLAIN
+ * QUERY PLAN of the query. Builds a query for each kind of filter, searching by a value from the
+ * Card & Deck Database (CDDB), with both the "must include" and "one of" search options, and
+ * prints the plan of each. Exits with a failure if any table filtered by a query is scanned.
+ *
+ * Takes an optional argument, the path to the CDDB to check (default resources/cddb.db). A CDDB
+ * built before its indices were added to the initalization file is to be migrated first, see
+ * {@link database.DatabasePort#migrate(Path)}.
+ */
+public class QueryPlanCheck {
+
+  /**
+   * Pattern of a line of a query plan reading from a table, capturing how it reads it and the
+   * table's name, or its alias if the query aliases it.
+   */
+  private static final Pattern tableAccess = Pattern.compile("^(SCAN|SEARCH)( TABLE)? (\\w+)");
+
+  /**
+   * Pattern of a table read from by a query, capturing the table's name and the word after it,
+   * which is the table's alias if the query aliases it.
+   */
+  private static final Pattern tableAlias =
+      Pattern.compile("\\b(?:FROM|JOIN)\\s+(\\w+)\\s+(?:AS\\s+)?(\\w+)");
+
+  public static void main(String[] args) throws SQLException {
+    Path pathToDatabase = (args.length > 0 ? Paths.get(args[0]) : Paths.get("resources", "cddb.db"))
+        .toAbsolutePath();
+    DefaultDatabaseChannel channel = new DefaultDatabaseChannel(pathToDatabase);
+    ReferenceCatalog catalog = channel.getCatalog();
+
+    // Kinds of filters, by the table each filters, and how to add a filter for a value to a query
+    Map<String, Pair<String, BiConsumer<CardQuery, SearchOption>>> filters =
+        new LinkedHashMap<>();
+    addFilter(filters, "color", "Color", catalog.getColors(), CardQuery::byColor);
+    addFilter(filters, "color identity", "ColorIdentity", catalog.getColors(),
+        CardQuery::byColorIdentity);
+    addFilter(filters, "supertype", "Supertype", catalog.getSupertypes(), CardQuery::bySupertype);
+    addFilter(filters, "type", "Type", catalog.getTypes(), CardQuery::byType);
+    addFilter(filters, "subtype", "Subtype", catalog.getSubtypes(), CardQuery::bySubtype);
+    addFilter(filters, "expansion", "CardExpansion", catalog.getExpansions(), CardQuery::bySet);
+    addFilter(filters, "rarity", "CardExpansion", catalog.getRarities(), CardQuery::byRarity);
+    addFilter(filters, "artist", "Artist", catalog.getArtists(), CardQuery::byArtist);
+    if (!catalog.getManaTypes().isEmpty()) {
+      String manaType = catalog.getManaTypes().first();
+      filters.put("mana type", new Pair<>("Mana",
+          (query, searchFor) -> query.byManaType(manaType, Comparison.GREATER_EQUAL, 1)));
+    }
+
+    List<String> failures = new ArrayList<>();
+    try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + pathToDatabase)) {
+      for (Map.Entry<String, Pair<String, BiConsumer<CardQuery, SearchOption>>> filter :
+          filters.entrySet()) {
+        String table = filter.getValue().getA();
+        for (SearchOption searchFor : new SearchOption[]{SearchOption.MustInclude,
+            SearchOption.OneOf}) {
+          CardQuery query = channel.getQuery();
+          filter.getValue().getB().accept(query, searchFor);
+          String name = String.format("%s (%s)", filter.getKey(), searchFor);
+
+          System.out.println(name);
+          Pair<String, List<Object>> parameterizedQuery = query.asParameterizedQuery();
+          Set<String> tableNames = tableNames(parameterizedQuery.getA(), table);
+          boolean scanned = false;
+          for (String step : explain(connection, parameterizedQuery)) {
+            System.out.println("  " + step);
+            Matcher matcher = tableAccess.matcher(step);
+            if (matcher.find() && matcher.group(1).equals("SCAN")
+                && tableNames.contains(matcher.group(3))) {
+              scanned = true;
+            }
+          }
+          if (scanned) {
+            failures.add(name);
+          }
+        }
+      }
+    }
+
+    if (failures.isEmpty()) {
+      System.out.println(String.format("All %d kinds of filters look up cards through an index",
+          filters.size()));
+    }
+    else {
+      System.out.println("Filters scanning the table they filter: " + failures);
+      System.exit(1);
+    }
+  }
+
+  /**
+   * Adds a kind of filter searching by the first of the given values, if there are any.
+   * @param filters kinds of filters to add to
+   * @param name name of the kind of filter
+   * @param table table the filter filters
+   * @param values values in the CDDB the filter can search by
+   * @param byValue method of a query adding a filter for a value
+   */
+  private static void addFilter(Map<String, Pair<String, BiConsumer<CardQuery, SearchOption>>>
+      filters, String name, String table, SortedSet<String> values,
+      TriConsumer<CardQuery, String, SearchOption> byValue) {
+    if (!values.isEmpty()) {
+      String value = values.first();
+      filters.put(name, new Pair<>(table,
+          (query, searchFor) -> byValue.accept(query, value, searchFor)));
+    }
+  }
+
+  /**
+   * Returns the names the given table goes by in the given query, i.e. its own name and every
+   * alias the query gives it, as query plans name aliased tables by their alias alone.
+   * @param query query reading from the table
+   * @param table name of the table
+   * @return names of the table in the query
+   */
+  private static Set<String> tableNames(String query, String table) {
+    Set<String> tableNames = new HashSet<>();
+    tableNames.add(table);
+    Matcher matcher = tableAlias.matcher(query);
+    while (matcher.find()) {
+      if (matcher.group(1).equals(table)) {
+        tableNames.add(matcher.group(2));
+      }
+    }
+    return tableNames;
+  }
+
+  /**
+   * Returns the steps of SQLite's plan for the given query, with the given values bound to it.
+   * @param connection connection to the CDDB
+   * @param query query with placeholders, paired with the values to bind to them
+   * @return each step of the plan
+   * @throws SQLException if the query fails to be explained
+   */
+  private static List<String> explain(Connection connection, Pair<String, List<Object>> query)
+      throws SQLException {
+    List<String> steps = new ArrayList<>();
+    try (PreparedStatement preparedStatement =
+        connection.prepareStatement("EXPLAIN QUERY PLAN " + query.getA())) {
+      List<Object> parameters = query.getB();
+      for (int i = 0; i < parameters.size(); i++) {
+        preparedStatement.setObject(i + 1, parameters.get(i));
+      }
+      try (ResultSet resultSet = preparedStatement.executeQuery()) {
+        while (resultSet.next()) {
+          steps.add(resultSet.getString("detail"));
+        }
+      }
+    }
+    return steps;
+  }
+
+  /**
+   * Method of a query adding a filter for a value, with a search option.
+   */
+  @FunctionalInterface
+  private interface TriConsumer<A, B, C> {
+
+    void accept(A a, B b, C c);
+  }
+}
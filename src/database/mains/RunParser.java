@@ -1,6 +1,5 @@
 package database.mains;
 
-import database.parsing.DatabaseParser;
 import database.parsing.DefaultDatabaseParser;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -13,7 +12,11 @@ public class RunParser {
 
   public static void main(String[] arg) throws SQLException {
     Path pathToDatabase = Paths.get("resources\\cddb.db").toAbsolutePath();
-    DatabaseParser parser = new DefaultDatabaseParser(pathToDatabase);
+    DefaultDatabaseParser parser = new DefaultDatabaseParser(pathToDatabase);
+
+    // CDDB may predate tables or indices added to the initalization file since it was built
+    Path pathToInitFile = Paths.get("resources\\database_init.txt");
+    parser.migrate(pathToInitFile);
 
     Path pathToJSON = Paths.get("resources\\AllSets.json").toAbsolutePath();
     parser.parseAllSets(pathToJSON);
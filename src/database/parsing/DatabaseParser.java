@@ -5,13 +5,16 @@ import java.sql.SQLException;
 
 /**
  * Given the JSON file of a MTG set from MTGJSON, updates the Card & Deck Database (CDDB) with the
- * cards from the set, as appropriate.
+ * cards from the set, as appropriate. JSON files may be gzip (".gz") or xz (".xz") compressed, or
+ * held in a zip archive (".zip"), and are decompressed as they're read rather than to disk.
  */
 public interface DatabaseParser {
 
   /**
-   * Given a file {@link Path} to a JSON file of a MTG set (from MTGJSON), updates the CDDB with
-   * cards from the set.
+   * Given a file {@link Path} to a JSON file of a MTG set (from MTGJSON), or a zip archive whose
+   * first JSON file is the set, updates the CDDB with cards from the set. A set whose content is
+   * unchanged since it was last parsed is skipped, and a set whose content has changed has its
+   * existing info refreshed to match, including removing printings no longer in it.
    * @param path file path to the JSON file
    * @throws IllegalArgumentException if given Path is null, given Path fails to be opened, or is
    *         otherwise invalid
@@ -22,11 +25,70 @@ public interface DatabaseParser {
 
   /**
    * Given a  {@link Path} to a JSON file of all MTG sets (from MTGJSON), updates the CDDB with
-   * cards from all sets.
-   * @param path file path to the JSON file
+   * cards from all sets. The path may instead be to a directory or zip archive of JSON files, whose
+   * files are read in order of file name, or order in the archive, respectively. Each file may be
+   * a single set or a file of all sets, as told by the shape of its JSON. Sets whose content is
+   * unchanged since they were last parsed are skipped, and sets whose content has changed have
+   * their existing info refreshed to match. If an earlier parse of the same file was interrupted,
+   * sets it completed are skipped and it's resumed from its last checkpoint.
+   * @param path file path to the JSON file, directory, or zip archive
    * @throws IllegalArgumentException if given Path is null, given Path fails to be opened, or is
    *         otherwise invalid
    * @throws SQLException if there is a failure in inserting data to the CDDB
    */
   void parseAllSets(Path path) throws IllegalArgumentException, IllegalStateException, SQLException;
+
+  /**
+   * Sets how many rows are queued before they are written to the CDDB together in a single batch.
+   * Regardless of batch size, each set is added within a single transaction, so a set that fails
+   * to be added leaves nothing of itself behind in the CDDB.
+   * @param batchSize number of rows to queue per batch
+   * @throws IllegalArgumentException if given batch size isn't positive
+   */
+  void setBatchSize(int batchSize) throws IllegalArgumentException;
+
+  /**
+   * Sets how many worker threads decode sets in parallel when parsing a file of multiple sets.
+   * Decoded sets are still written to the CDDB one at a time, in the order they appear in the
+   * file, from the thread the parse was called from. Each thread adds a set held in memory at once
+   * - with n threads, up to n sets being decoded or waiting to be written, plus the set being
+   * written and the set being read, so at most n + 2 sets. Defaults to at most 2 threads, keeping
+   * memory bounded by a few sets rather than by the number of processors.
+   * @param decodeThreads number of threads to decode sets with
+   * @throws IllegalArgumentException if given number of threads isn't positive
+   */
+  void setDecodeThreads(int decodeThreads) throws IllegalArgumentException;
+
+  /**
+   * Sets how many cards of a set are added between checkpoints when parsing a file of multiple
+   * sets. Each set is always checkpointed once it has been entirely added, and a parse of the same
+   * file interrupted partway through picks up after the last checkpoint. With an interval of 0,
+   * the default, a set is only committed once it has been entirely added, otherwise the cards
+   * added up to each checkpoint are committed along with it.
+   * @param checkpointInterval number of cards between checkpoints, or 0 for none within a set
+   * @throws IllegalArgumentException if given interval is negative
+   */
+  void setCheckpointInterval(int checkpointInterval) throws IllegalArgumentException;
+
+  /**
+   * Returns the number of SQL statements prepared over every parse made by this parser. Each
+   * distinct statement is prepared once per parse and reused for every row it's executed for.
+   * @return number of statements prepared
+   */
+  long getStatementsPrepared();
+
+  /**
+   * Returns the number of SQL statement executions over every parse made by this parser, where
+   * each row written as part of a batch counts as its own execution.
+   * @return number of statement executions
+   */
+  long getStatementsExecuted();
+
+  /**
+   * Returns the number of printings kept over every parse made by this parser, despite no longer
+   * being in the set they were refreshed from, as a deck holds them. Every other printing no
+   * longer in its refreshed set is removed from the CDDB.
+   * @return number of stale printings kept
+   */
+  long getStalePrintingsKept();
 }
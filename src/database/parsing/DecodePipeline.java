@@ -0,0 +1,166 @@
+package database.parsing;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Predicate;
+import org.json.JSONObject;
+import value_objects.utility.Pair;
+
+/**
+ * Producer side of parsing multiple MTG sets from MTGJSON. A reader thread walks the source of sets
+ * one set at a time and hands each set to a pool of worker threads to be decoded into rows,
+ * while the thread writing to the Card & Deck Database (CDDB) takes decoded sets off a bounded
+ * queue, in the order they appear in the source. The queue bounds how many sets are held in memory
+ * at once, and keeps the CDDB to a single writer.
+ */
+class DecodePipeline implements AutoCloseable {
+
+  /**
+   * Marks the end of the sets in the queue.
+   */
+  private static final CompletableFuture<DecodedSet> endOfSets =
+      CompletableFuture.completedFuture(null);
+
+  /**
+   * Source the sets are read from.
+   */
+  private final SetSource setReader;
+
+  /**
+   * Decoded sets, or sets being decoded, in the order they appear in the source.
+   */
+  private final BlockingQueue<CompletableFuture<DecodedSet>> decodedSets;
+
+  /**
+   * Worker threads decoding sets.
+   */
+  private final ExecutorService workers;
+
+  /**
+   * Thread reading sets from the source and handing them to the workers.
+   */
+  private final Thread readerThread;
+
+  /**
+   * If the end of the sets has been taken from the queue.
+   */
+  private boolean finished;
+
+  /**
+   * Takes in a {@link SetSource} of multiple sets and starts reading and decoding its sets.
+   * @param setReader source of the sets
+   * @param include if a set, by its shorthand name as it appears in the source, is to be decoded
+   * @param workerCount number of worker threads to decode sets with
+   * @param capacity number of decoded sets, or sets being decoded, to hold at once
+   * @throws IllegalArgumentException if given reader or predicate is null, or the given number of
+   *         workers or capacity isn't positive
+   */
+  DecodePipeline(SetSource setReader, Predicate<String> include, int workerCount,
+      int capacity) {
+    if (setReader == null || include == null) {
+      throw new IllegalArgumentException("Given reader and predicate can't be null!");
+    }
+    else if (workerCount < 1 || capacity < 1) {
+      throw new IllegalArgumentException("Given worker count and capacity must be positive!");
+    }
+
+    this.setReader = setReader;
+    this.decodedSets = new ArrayBlockingQueue<>(capacity);
+    this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+      Thread worker = new Thread(runnable, "set-decoder");
+      worker.setDaemon(true);
+      return worker;
+    });
+    this.finished = false;
+
+    this.readerThread = new Thread(() -> readSets(include), "set-reader");
+    this.readerThread.setDaemon(true);
+    this.readerThread.start();
+  }
+
+  /**
+   * Reads each set from the source and queues it to be decoded, until the end of the source is
+   * reached, reading fails, or the pipeline is closed.
+   * @param include if a set, by its shorthand name as it appears in the source, is to be decoded
+   */
+  private void readSets(Predicate<String> include) {
+    SetDecoder decoder = new SetDecoder();
+    try {
+      while (setReader.hasNextSet()) {
+        Pair<String, JSONObject> currentSet = setReader.nextSet();
+        if (include.test(currentSet.getA())) {
+          JSONObject set = currentSet.getB();
+          decodedSets.put(CompletableFuture.supplyAsync(() -> decoder.decode(set), workers));
+        }
+      }
+      decodedSets.put(endOfSets);
+    }
+    catch (InterruptedException e) {
+      // Pipeline was closed, stop reading
+      Thread.currentThread().interrupt();
+    }
+    catch (RuntimeException e) {
+      CompletableFuture<DecodedSet> failed = new CompletableFuture<>();
+      failed.completeExceptionally(e);
+      try {
+        decodedSets.put(failed);
+      }
+      catch (InterruptedException interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * Returns the next decoded set in the source, waiting for it to be read and decoded if it hasn't
+   * been yet.
+   * @return next decoded set, or null if there are no sets left
+   * @throws IllegalArgumentException if the source is malformed, or the set isn't a well formed set
+   * @throws IllegalStateException if the set is malformed, or waiting for it is interrupted
+   */
+  DecodedSet next() {
+    if (finished) {
+      return null;
+    }
+
+    try {
+      DecodedSet decodedSet = decodedSets.take().get();
+      finished = decodedSet == null;
+      return decodedSet;
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for the next set to be decoded!");
+    }
+    catch (ExecutionException e) {
+      finished = true;
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  /**
+   * Stops reading and decoding sets, and closes the underlying {@link SetSource}.
+   * @throws IllegalStateException if the source fails to close
+   */
+  @Override
+  public void close() {
+    readerThread.interrupt();
+    workers.shutdownNow();
+    try {
+      readerThread.join();
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    finally {
+      setReader.close();
+    }
+  }
+}
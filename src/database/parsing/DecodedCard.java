@@ -0,0 +1,73 @@
+package database.parsing;
+
+import java.util.List;
+
+/**
+ * A single MTG card from a set from MTGJSON, decoded into the rows to add to the Card & Deck
+ * Database (CDDB) for it. Rows are grouped by the check that decides if they're written - rows
+ * about the card itself are only written if the card hasn't been added yet, the row relating the
+ * card's faces only if every face has been added, and rows about the card's printing only if that
+ * printing hasn't been added yet.
+ */
+class DecodedCard {
+
+  private final String name;
+
+  private final List<Row> cardRows;
+
+  private final String[] faceNames;
+
+  private final Row faceRow;
+
+  private final String number;
+
+  private final List<Row> printingRows;
+
+  /**
+   * Constructs a {@link DecodedCard} from its name and rows.
+   * @param name name of the card
+   * @param cardRows rows about the card itself
+   * @param faceNames names of every face of the card, in order, or null if card has one face
+   * @param faceRow row relating the faces of the card, or null if card has one face
+   * @param number number of the card in its set
+   * @param printingRows rows about the printing of the card in its set, empty if the printing
+   *        isn't to be added
+   * @throws IllegalArgumentException if the name, number, card rows, or printing rows are null
+   */
+  DecodedCard(String name, List<Row> cardRows, String[] faceNames, Row faceRow, String number,
+      List<Row> printingRows) {
+    if (name == null || cardRows == null || number == null || printingRows == null) {
+      throw new IllegalArgumentException("Given name, number, and rows can't be null!");
+    }
+    this.name = name;
+    this.cardRows = cardRows;
+    this.faceNames = faceNames;
+    this.faceRow = faceRow;
+    this.number = number;
+    this.printingRows = printingRows;
+  }
+
+  String getName() {
+    return name;
+  }
+
+  List<Row> getCardRows() {
+    return cardRows;
+  }
+
+  String[] getFaceNames() {
+    return faceNames;
+  }
+
+  Row getFaceRow() {
+    return faceRow;
+  }
+
+  String getNumber() {
+    return number;
+  }
+
+  List<Row> getPrintingRows() {
+    return printingRows;
+  }
+}
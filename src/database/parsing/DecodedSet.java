@@ -0,0 +1,78 @@
+package database.parsing;
+
+import java.util.List;
+
+/**
+ * A single MTG set from MTGJSON, decoded into the rows to add to the Card & Deck Database (CDDB)
+ * for the set and each of its cards.
+ */
+class DecodedSet {
+
+  private final String name;
+
+  private final String code;
+
+  private final List<Row> setRows;
+
+  private final List<DecodedCard> cards;
+
+  private final String fingerprint;
+
+  private final String mtgjsonVersion;
+
+  private final String mtgjsonDate;
+
+  /**
+   * Constructs a {@link DecodedSet} from its names, rows, and fingerprint.
+   * @param name full name of the set
+   * @param code shorthand name of the set
+   * @param setRows rows about the set itself, only written if the set hasn't been added yet
+   * @param cards decoded cards of the set, in the order they appear in the set
+   * @param fingerprint hash of the content of the set
+   * @param mtgjsonVersion version of MTGJSON the set is from, null if not given
+   * @param mtgjsonDate date of the MTGJSON release the set is from, null if not given
+   * @throws IllegalArgumentException if any of the names, rows, cards, or fingerprint are null
+   */
+  DecodedSet(String name, String code, List<Row> setRows, List<DecodedCard> cards,
+      String fingerprint, String mtgjsonVersion, String mtgjsonDate) {
+    if (name == null || code == null || setRows == null || cards == null || fingerprint == null) {
+      throw new IllegalArgumentException(
+          "Given names, rows, cards, and fingerprint can't be null!");
+    }
+    this.name = name;
+    this.code = code;
+    this.setRows = setRows;
+    this.cards = cards;
+    this.fingerprint = fingerprint;
+    this.mtgjsonVersion = mtgjsonVersion;
+    this.mtgjsonDate = mtgjsonDate;
+  }
+
+  String getName() {
+    return name;
+  }
+
+  String getCode() {
+    return code;
+  }
+
+  List<Row> getSetRows() {
+    return setRows;
+  }
+
+  List<DecodedCard> getCards() {
+    return cards;
+  }
+
+  String getFingerprint() {
+    return fingerprint;
+  }
+
+  String getMtgjsonVersion() {
+    return mtgjsonVersion;
+  }
+
+  String getMtgjsonDate() {
+    return mtgjsonDate;
+  }
+}
@@ -1,29 +1,26 @@
 package database.parsing;
 
 import database.DatabasePort;
-import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Timestamp;
-import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Iterator;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Default implementation of the {@link DatabaseParser} interface. Parses one or more JSON files
- * from MTGJSON to add them to the Card and Deck Database.
+ * from MTGJSON to add them to the Card and Deck Database. Sets are decoded into rows by a
+ * {@link SetDecoder}, on a pool of worker threads when parsing a file of multiple sets, and the
+ * decoded rows are written to the CDDB from a single thread.
  */
 public class DefaultDatabaseParser extends DatabasePort implements DatabaseParser {
 
@@ -33,9 +30,54 @@ public class DefaultDatabaseParser extends DatabasePort implements DatabaseParse
   private static final String[] unsupportedSets = {"UNH", "UGL", "UST", "PCEL"};
 
   /**
-   * Representation to use for a card lacks any color or color identity, i.e. colorless cards.
+   * Tables holding info about a card beyond the 'Card' table, replaced when the card is refreshed.
    */
-  private static final String colorlessRepresentation = "C";
+  private static final String[] cardAttributeTables = {"Color", "ColorIdentity", "Supertype",
+      "Type", "Subtype", "Mana", "PowerToughness", "Loyalty"};
+
+  /**
+   * Number of rows to queue before writing them to the CDDB, if not otherwise set.
+   */
+  private static final int defaultBatchSize = 1000;
+
+  /**
+   * Number of rows to queue before writing them to the CDDB.
+   */
+  private int batchSize;
+
+  /**
+   * Number of worker threads to decode sets with, if not otherwise set - kept small, as each
+   * thread adds a decoded set held in memory at once, see {@link #setDecodeThreads(int)}.
+   */
+  private static final int defaultDecodeThreads =
+      Math.min(2, Runtime.getRuntime().availableProcessors());
+
+  /**
+   * Number of worker threads to decode sets with.
+   */
+  private int decodeThreads;
+
+  /**
+   * Number of cards after which a set being parsed from a file of multiple sets is checkpointed
+   * and committed, or 0 if sets are only committed once they have been entirely added.
+   */
+  private int checkpointInterval;
+
+  /**
+   * Number of statements prepared over every parse by this parser.
+   */
+  private long statementsPrepared;
+
+  /**
+   * Number of statement executions over every parse by this parser.
+   */
+  private long statementsExecuted;
+
+  /**
+   * Number of printings no longer in their refreshed set kept over every parse by this parser, as
+   * decks hold them.
+   */
+  private long stalePrintingsKept;
 
   /**
    * Takes in a {@link Path} referencing the Card and Deck Database (CDDB).
@@ -44,6 +86,12 @@ public class DefaultDatabaseParser extends DatabasePort implements DatabaseParse
    */
   public DefaultDatabaseParser(Path pathToDatabase) throws SQLException {
     super(pathToDatabase);
+    this.batchSize = defaultBatchSize;
+    this.decodeThreads = defaultDecodeThreads;
+    this.checkpointInterval = 0;
+    this.statementsPrepared = 0;
+    this.statementsExecuted = 0;
+    this.stalePrintingsKept = 0;
   }
 
   /**
@@ -57,850 +105,686 @@ public class DefaultDatabaseParser extends DatabasePort implements DatabaseParse
    */
   public DefaultDatabaseParser(Path pathToDatabase, Path initalizationPath) throws SQLException {
     super(pathToDatabase, initalizationPath);
+    this.batchSize = defaultBatchSize;
+    this.decodeThreads = defaultDecodeThreads;
+    this.checkpointInterval = 0;
+    this.statementsPrepared = 0;
+    this.statementsExecuted = 0;
+    this.stalePrintingsKept = 0;
   }
 
   /**
-   * Given a {@link Path} to a JSON file of one or more MTG sets from MTGJSON, attempts to create
-   * a {@link JSONObject} from that file.
-   * @param path path to JSON file to parse
-   * @return JSONObject created by path
-   * @throws SQLException if connection to CDDB hasn't yet been established
-   * @throws IllegalArgumentException if given path is null or doesn't reference an existing file.
-   *         or if failed to create JSON object from given path
+   * Creates a new CDDB at the path given by {@param pathToDatabase} using the information drawn
+   * from the {@param initalizationPath}, to be bulk loaded by this parser. If the CDDB already
+   * exists, resumes bulk loading it instead. {@link #finishBulkLoad()} must be called once done
+   * parsing, to build the indices and validate the foreign keys skipped while bulk loading.
+   * @param pathToDatabase path to CDDB to create or resume bulk loading
+   * @param initalizationPath info to add to the new CDDB
+   * @param bulkLoad if the CDDB is to be bulk loaded
+   * @throws IllegalArgumentException if given initalization path doesn't exist
+   * @throws SQLException if there is a failure to insert info from the given initalization path
    */
-  private JSONObject canParsePath(Path path) {
-    if (path == null) {
-      throw new IllegalArgumentException("Given path can't be null!");
-    }
-    else if (Files.notExists(path)) {
-      throw new IllegalArgumentException("Given path doesn't exist!");
+  public DefaultDatabaseParser(Path pathToDatabase, Path initalizationPath, boolean bulkLoad)
+      throws SQLException {
+    super(pathToDatabase, initalizationPath, bulkLoad);
+    this.batchSize = defaultBatchSize;
+    this.decodeThreads = defaultDecodeThreads;
+    this.checkpointInterval = 0;
+    this.statementsPrepared = 0;
+    this.statementsExecuted = 0;
+    this.stalePrintingsKept = 0;
+  }
+
+  @Override
+  public void setBatchSize(int batchSize) throws IllegalArgumentException {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("Given batch size must be positive!");
     }
+    this.batchSize = batchSize;
+  }
 
-    JSONObject JSONatPath;
-    try {
-      String fileAsString = pathToString(path);
-      JSONatPath = new JSONObject(fileAsString);
-      return JSONatPath;
+  @Override
+  public void setDecodeThreads(int decodeThreads) throws IllegalArgumentException {
+    if (decodeThreads < 1) {
+      throw new IllegalArgumentException("Given number of decode threads must be positive!");
     }
-    catch (IOException e) { ;
-      throw new IllegalArgumentException(e.getMessage() +
-          "\n Failed to create JSON object from given path!");
+    this.decodeThreads = decodeThreads;
+  }
+
+  @Override
+  public void setCheckpointInterval(int checkpointInterval) throws IllegalArgumentException {
+    if (checkpointInterval < 0) {
+      throw new IllegalArgumentException("Given checkpoint interval can't be negative!");
     }
+    this.checkpointInterval = checkpointInterval;
   }
 
   @Override
-  public void parseSet(Path path)
-      throws IllegalArgumentException, IllegalStateException, SQLException {
-    JSONObject setBeingRead = canParsePath(path);
-    Connection cddbConnection = connect();
-    addSet(setBeingRead, cddbConnection);
-    disconnect(cddbConnection);
+  public long getStatementsPrepared() {
+    return statementsPrepared;
   }
 
   @Override
-  public void parseAllSets(Path path)
-      throws IllegalArgumentException, IllegalStateException, SQLException {
-    JSONObject allSets = canParsePath(path);
-    Iterator<String> iterator = allSets.keys();
-
-    Connection cddbConnection = connect();
-    while (iterator.hasNext()) {
-      String currentSetName = iterator.next();
-      if (!Arrays.asList(unsupportedSets).contains(currentSetName)) {
-        addSet(allSets.getJSONObject(currentSetName), cddbConnection);
-      }
-    }
-    disconnect(cddbConnection);
+  public long getStatementsExecuted() {
+    return statementsExecuted;
+  }
+
+  @Override
+  public long getStalePrintingsKept() {
+    return stalePrintingsKept;
   }
 
   /**
-   * Given a JSONObject of a MTG set from MTGJSON, adds its info to the CDB. If set has already been
-   * added, does nothing.
-   * @param set JSON object of a MTG set to add to
-   * @param connection connection to the CDDB to use
-   * @throws IllegalArgumentException if given set is null, doesn't have one of the required /
-   *         documented fields
-   * @throws SQLException if JSONObject fails to be queried from or added to the CDDB
+   * Adds the number of statements the given session prepared and executed to the running totals
+   * of this parser.
+   * @param session session to record the counts of
    */
-  private void addSet(JSONObject set, Connection connection) throws IllegalArgumentException, SQLException {
-    if (set == null) {
-      throw new IllegalArgumentException("Given set can't be null!");
-    }
+  private void recordStatementCounts(ParseSession session) {
+    statementsPrepared += session.getPrepareCount();
+    statementsExecuted += session.getExecutionCount();
+  }
 
-    // Check for required keys
-    String[] requiredKeys = new String[]{"code", "totalSetSize", "name", "cards", "releaseDate"};
-    for (String key : requiredKeys) {
-      if (!set.has(key)) {
-        throw new IllegalArgumentException(String.format("Given JSONObject isn't a set, "
-            + "doesn't have required field \"%s\"!", key));
-      }
+  @Override
+  public void parseSet(Path path)
+      throws IllegalArgumentException, IllegalStateException, SQLException {
+    DecodedSet setBeingRead;
+    try (StreamingSetReader setReader = SetInputs.openSet(path)) {
+      setBeingRead = new SetDecoder().decode(setReader.readSet());
     }
 
-    String setName = set.getString("name");
-    String shorthandSetName = set.getString("code").toUpperCase();
-    PreparedStatement preparedStatement;
-
-    // Check if set has been added
-    boolean setAdded = true;
-    try {
-      String checkForSet = "SELECT abbrv FROM Expansion WHERE abbrv = ?";
-      preparedStatement = connection.prepareStatement(checkForSet);
-      preparedStatement.setString(1, shorthandSetName);
-      ResultSet resultSet = preparedStatement.executeQuery();
+    // Value frequencies are adjusted by the values of the set's cards alone, rather than
+    // gathered again over every card in the CDDB
+    Set<String> cardNames = new HashSet<>();
+    for (DecodedCard card : setBeingRead.getCards()) {
+      cardNames.add(card.getName());
+    }
+    Map<String, Map<String, Integer>> valuesBefore = countValues(cardNames);
 
-      if (!resultSet.next()) {
-        setAdded = false;
+    Connection cddbConnection = connectWriter();
+    try (ParseSession session = new ParseSession(cddbConnection, batchSize)) {
+      try {
+        addSet(setBeingRead, session, null);
+      }
+      finally {
+        recordStatementCounts(session);
       }
     }
-    catch (SQLException e) {
-      throw new SQLException(e.getMessage() +
-          String.format("\n Failed to query for set %s!", shorthandSetName));
+    finally {
+      disconnect(cddbConnection);
     }
+    adjustValueFrequencies(valuesBefore, countValues(cardNames));
+  }
 
-    if (!setAdded) {
-      int size = set.getInt("totalSetSize");
-
-      String releaseDateString = set.getString("releaseDate");
-      LocalDate releaseDate = LocalDate.parse(releaseDateString);
-      Timestamp releaseDateTimestamp = Timestamp.valueOf(releaseDate.atStartOfDay());
-
+  @Override
+  public void parseAllSets(Path path)
+      throws IllegalArgumentException, IllegalStateException, SQLException {
+    String checkpointSource = checkpointSource(path);
+    Connection cddbConnection = connectWriter();
+    try (ParseSession session = new ParseSession(cddbConnection, batchSize)) {
       try {
-        String insertStatement = "INSERT INTO Expansion(expansion,abbrv,size,release_date) VALUES (?,?,?,?)";
-        preparedStatement = connection.prepareStatement(insertStatement);
-        preparedStatement.setString(1, setName);
-        preparedStatement.setString(2, shorthandSetName);
-        preparedStatement.setInt(3, size);
-        preparedStatement.setTimestamp(4, releaseDateTimestamp);
-        preparedStatement.executeUpdate();
-      }
-      catch (SQLException e) {
-        throw new SQLException(e.getMessage() +
-            String.format("\n Failed to add info for given set %s!", setName));
+        // Sets completed by an earlier, interrupted parse of the same file aren't read again
+        Set<String> completedSets = completedSets(checkpointSource, session);
+
+        // Sets are read and decoded ahead on other threads, a bounded number at a time, and
+        // written in the order they're read from this thread only
+        try (DecodePipeline pipeline = new DecodePipeline(SetInputs.openSets(path),
+            setCode -> !Arrays.asList(unsupportedSets).contains(setCode)
+                && !completedSets.contains(setCode.toUpperCase()), decodeThreads,
+            decodeThreads)) {
+          DecodedSet currentSet;
+          while ((currentSet = pipeline.next()) != null) {
+            addSet(currentSet, session, checkpointSource);
+          }
+        }
+
+        // Every set has been added, nothing left to resume
+        clearCheckpoints(session);
       }
       finally {
-        closePreparedStatement(preparedStatement);
+        recordStatementCounts(session);
       }
+    }
+    finally {
+      disconnect(cddbConnection);
+    }
+    gatherValueFrequencies();
+  }
 
-      // Add expansion's associated block if associated with one
-      if (set.has("block")) {
-        String block = set.getString("block");
-        try {
-          String insertStatement = "INSERT INTO Block(expansion,block) VALUES (?,?)";
-          preparedStatement = connection.prepareStatement(insertStatement);
-          preparedStatement.setString(1, setName);
-          preparedStatement.setString(2, block);
-          preparedStatement.executeUpdate();
-        }
-        catch (SQLException e) {
-          throw new SQLException(String.format(e.getMessage() +
-              "\n Failed to insert block %s for associated expansion"
-              + " %s!", block, setName));
+  /**
+   * Given a {@link Path} to a file or directory of multiple MTG sets, returns a string identifying
+   * that version of the sets, so checkpoints left by an interrupted parse are only resumed from
+   * when parsing the same sets again.
+   * @param path path to file or directory being parsed
+   * @return identity of the sets, made of the absolute path, total size, and latest last modified
+   *         time of the file or the set files of the directory
+   * @throws IllegalArgumentException if given path is null, doesn't exist, or attributes of its
+   *         files fail to be read
+   */
+  private String checkpointSource(Path path) {
+    SetInputs.checkPath(path);
+    try {
+      long size = 0;
+      long lastModified = 0;
+      if (Files.isDirectory(path)) {
+        try (Stream<Path> files = Files.list(path)) {
+          for (Path file : (Iterable<Path>) files::iterator) {
+            if (Files.isRegularFile(file) && SetInputs.isSetFile(file.getFileName().toString())) {
+              size += Files.size(file);
+              lastModified = Math.max(lastModified, Files.getLastModifiedTime(file).toMillis());
+            }
+          }
         }
       }
+      else {
+        size = Files.size(path);
+        lastModified = Files.getLastModifiedTime(path).toMillis();
+      }
+      return String.format("%s|%d|%d", path.toAbsolutePath(), size, lastModified);
     }
-
-    JSONArray cards = set.getJSONArray("cards");
-    int length = cards.length();
-    for (int i = 0; i < length; i += 1) {
-      JSONObject card = cards.getJSONObject(i);
-      addCard(card, setName, connection);
+    catch (IOException e) {
+      throw new IllegalArgumentException(e.getMessage() +
+          "\n Failed to read attributes of sets from given path!");
     }
   }
 
   /**
-   * Given the JSON object of a MTG card, from JSON file from MTGJSON, adds it to the CDDB as
-   * appropriate.
-   * @param card card to add
-   * @param setName shorthand name of the expansion the given card is associated with
-   * @param connection connection to the CDDB to use for adding info
-   * @throws IllegalArgumentException if given JSON object is null or doesn't have a required key
-   *         as per MTGJSON's documentation
-   * @throws SQLException if some part of card fails to be queried from or added to CDDB
-   */
-  private void addCard(JSONObject card, String setName, Connection connection) throws IllegalArgumentException,
-      SQLException {
-    if (card == null) {
-      throw new IllegalArgumentException("Give card can't be null!");
-    }
-
-    // Check for required keys
-    String[] requiredKeys = new String[]{"name", "convertedManaCost", "number", "rarity"};
-    for (String key : requiredKeys) {
-      if (!card.has(key)) {
-        throw new IllegalArgumentException(String.format("Given JSONObject isn't a card, "
-            + "doesn't have required field \"%s\"!", key));
+   * Drops any checkpoints left by an interrupted parse of a file other than the one identified by
+   * the given source, then returns the shorthand names of the sets completed by an interrupted
+   * parse of that file.
+   * @param checkpointSource identity of the sets being parsed
+   * @param session parse session over the CDDB to use
+   * @return shorthand names of the sets already completed
+   * @throws SQLException if checkpoints fail to be queried or dropped
+   */
+  private Set<String> completedSets(String checkpointSource, ParseSession session)
+      throws SQLException {
+    Set<String> completedSets = new HashSet<>();
+    try {
+      session.executeUpdate("DELETE FROM IngestCheckpoint WHERE source != ?", checkpointSource);
+      session.commit();
+      try (ResultSet resultSet = session.executeQuery("SELECT abbrv FROM IngestCheckpoint "
+          + "WHERE completed = 1")) {
+        while (resultSet.next()) {
+          completedSets.add(resultSet.getString(1));
+        }
       }
     }
-
-    String cardName = card.getString("name");
-
-    // Card hasn't been added, add card, super types, types, and subtypes, mana types, color, and
-    // color identity info
-    if (!cardAdded(cardName, connection)) {
-      // Add basic info about card
-      addBaseCardInfo(card, connection);
-
-      // Add colors of the card
-      addCardColors(card, connection);
-
-      // Add colors making up the card's color identity
-      addCardColorIdentity(card, connection);
-
-      // If card has types, add them
-      addSupertypes(card, connection);
-
-      addTypes(card, connection);
-
-      addSubtypes(card, connection);
-
-      // If card has mana cost, add them
-      addCardManaCosts(card, connection);
-
-      // If card has cmc, power & toughness, and / or planeswalker loyalty, add those extra stats
-      addStats(card, connection);
+    catch (SQLException e) {
+      throw new SQLException(e.getMessage() + "\n Failed to load ingest checkpoints!");
     }
-
-    // If card is multifaced, and all its components have been added, add multifaced relation to set
-    addMultifacedStats(card, connection);
-
-    // Card is for sure in database, add relevant set info
-    addSetCardInfo(card, connection, setName);
+    return completedSets;
   }
 
   /**
-   * Given {@link JSONObject} of a MTG card from a MTGJSON JSON file, adds it base stats like its
-   * name and card text to the CDDB given info for that card hasn't been added
-   * before.
-   * @param card JSONObject of card to add
-   * @param connection connection to the CDDB to use for adding info
-   * @throws SQLException there is a failure to query data from or add data to the CDDB about
-   *         given card
-   */
-  private void addBaseCardInfo(JSONObject card, Connection connection) throws SQLException {
-    String cardName = card.getString("name");
-    String insertCard = "INSERT INTO Card(name,text,cmc) VALUES (?,?,?)";
-    try (PreparedStatement preparedStatement = connection.prepareStatement(insertCard);) {
-      
-      String cardText = "";
-      if (card.has("text")) {
-        cardText = card.getString("text");
-      }
-
-      String cardCMCQuery;
-      if (card.has("faceConvertedManaCost")) {
-        cardCMCQuery = "faceConvertedManaCost";
-      }
-      else {
-        cardCMCQuery = "convertedManaCost";
-      }
-      int cardCMC = (int) card.getFloat(cardCMCQuery);
-
-      preparedStatement.setString(1, cardName);
-      preparedStatement.setString(2, cardText);
-      preparedStatement.setInt(3, cardCMC);
-      preparedStatement.executeUpdate();
+   * Returns the number of cards of the given set committed by an interrupted parse.
+   * @param set decoded MTG set to get the checkpoint of
+   * @param session parse session over the CDDB to use
+   * @return number of cards of the set already committed, 0 if none
+   * @throws SQLException if the checkpoint fails to be queried
+   */
+  private int checkpointOffset(DecodedSet set, ParseSession session) throws SQLException {
+    String checkpointQuery = "SELECT card_offset FROM IngestCheckpoint WHERE abbrv = ? "
+        + "AND completed = 0";
+    try (ResultSet resultSet = session.executeQuery(checkpointQuery, set.getCode())) {
+      return resultSet.next() ? resultSet.getInt(1) : 0;
     }
     catch (SQLException e) {
       throw new SQLException(e.getMessage() +
-          String.format("\n Failed to add base info for card %s!", cardName));
+          String.format("\n Failed to query checkpoint of set %s!", set.getCode()));
     }
-
   }
 
   /**
-   * Given {@link JSONObject} of a MTG card from a MTGJSON JSON file, adds it colors to the
-   * CDDB, if it has any. Else adds an association to being colorless.
-   * @param card JSONObject of card to add
-   * @param connection connection to the CDDB to use for adding info
-   * @throws SQLException there is a failure to add data to the CDDB about given card
+   * Records how many cards of the given set have been added, and if the set has been entirely
+   * added, to be committed along with those cards.
+   * @param set decoded MTG set to checkpoint
+   * @param checkpointSource identity of the sets being parsed
+   * @param cardOffset number of cards of the set added
+   * @param completed if the set has been entirely added
+   * @param session parse session over the CDDB to use
+   * @throws SQLException if the checkpoint fails to be recorded
    */
-  private void addCardColors(JSONObject card, Connection connection) throws SQLException {
-    addCardColorInfo(card, connection, "colors", "Color");
+  private void recordCheckpoint(DecodedSet set, String checkpointSource, int cardOffset,
+      boolean completed, ParseSession session) throws SQLException {
+    String checkpointUpdate = "INSERT OR REPLACE INTO IngestCheckpoint(abbrv,source,card_offset,"
+        + "completed) VALUES (?,?,?,?)";
+    try {
+      session.executeUpdate(checkpointUpdate, set.getCode(), checkpointSource, cardOffset,
+          completed ? 1 : 0);
+    }
+    catch (SQLException e) {
+      throw new SQLException(e.getMessage() +
+          String.format("\n Failed to record checkpoint of set %s!", set.getCode()));
+    }
   }
 
   /**
-   * Given {@link JSONObject} of a MTG card from a MTGJSON JSON file, adds the colors making up
-   * its color identity to the CDDB, if it has any. Else adds an association to being colorless.
-   * @param card JSONObject of card to add
-   * @param connection connection to the CDDB to use for adding info
-   * @throws SQLException there is a failure to add data to the CDDB about given card
+   * Drops every checkpoint, once a parse of a file has entirely completed.
+   * @param session parse session over the CDDB to use
+   * @throws SQLException if the checkpoints fail to be dropped
    */
-  private void addCardColorIdentity(JSONObject card, Connection connection) throws SQLException {
-    addCardColorInfo(card, connection, "colorIdentity", "ColorIdentity");
+  private void clearCheckpoints(ParseSession session) throws SQLException {
+    try {
+      session.executeUpdate("DELETE FROM IngestCheckpoint");
+      session.commit();
+    }
+    catch (SQLException e) {
+      throw new SQLException(e.getMessage() + "\n Failed to clear ingest checkpoints!");
+    }
   }
 
   /**
-   * Given {@link JSONObject} of a MTG card from a MTGJSON JSON file, adds the colors making up
-   * the card's color to the CDDB, if it has any. Else adds an association to being colorless.
-   * @param card JSONObject of card to add
-   * @param connection connection to the CDDB to use for adding info
-   * @throws SQLException there is a failure to add data to the CDDB about given card
+   * Given a decoded MTG set, adds its info to the CDB. If the set has already been added with the
+   * same content, as per its recorded fingerprint, does nothing. If it has been added with
+   * different content, refreshes the info of the set and its cards to match the given set, and
+   * adds any cards and printings of it that haven't been. The set is added within a single
+   * transaction, if any part of it fails to be added none of it is.
+   *
+   * If parsing from a file of multiple sets, the set is checkpointed along with the commit. If a
+   * checkpoint interval has been set the set is also checkpointed and committed every interval's
+   * worth of cards, and if an earlier parse of the same file was interrupted partway through the
+   * set, picks up from the last card it committed.
+   * @param set decoded MTG set to add
+   * @param session parse session over the CDDB to use
+   * @param checkpointSource identity of the multiple sets being parsed, or null if not
+   *        parsing from such a file
+   * @throws SQLException if the set fails to be added to the CDDB
    */
-  private void addCardColorInfo(JSONObject card, Connection connection, String attributeName, String tableName) throws SQLException {
-    String cardName = card.getString("name");
-    String[] colors;
-    if (card.has(attributeName)) {
-      colors = JSONArrayToStringArray(card.getJSONArray(attributeName));
-      if (colors.length == 0) {
-        colors = new String[]{colorlessRepresentation};
-      }
-    }
-    else {
-      colors = new String[]{colorlessRepresentation};
+  private void addSet(DecodedSet set, ParseSession session, String checkpointSource)
+      throws SQLException {
+    String recordedFingerprint = recordedFingerprint(set, session);
+    if (set.getFingerprint().equals(recordedFingerprint)) {
+      return;
     }
 
-    PreparedStatement preparedStatement = null;
+    int cardOffset = checkpointSource == null ? 0 : checkpointOffset(set, session);
+    session.loadSet(set.getName(), cardNames(set));
+
+    // Set added before, but either its content changed or it was added before fingerprints were
+    // recorded - rather than partway through by an interrupted parse
+    boolean refresh = recordedFingerprint != null
+        || (cardOffset == 0 && session.exists("Expansion", set.getCode()));
     try {
-      for (String color : colors) {
-        String insertColor = "INSERT INTO %s(card_name,color) VALUES (?,?)";
-        insertColor = String.format(insertColor, tableName);
-        preparedStatement = connection.prepareStatement(insertColor);
-        preparedStatement.setString(1, cardName);
-        preparedStatement.setString(2, color);
-        preparedStatement.executeUpdate();
+      addSetInfo(set, session, refresh, checkpointSource, cardOffset);
+      if (checkpointSource != null) {
+        recordCheckpoint(set, checkpointSource, set.getCards().size(), true, session);
       }
+      recordFingerprint(set, session);
+      session.commit();
+      cardsChanged();
     }
-    catch (SQLException e) {
-      throw new SQLException(e.getMessage() +
-          String.format("\n Failed to add colors for card %s into table %s from"
-          + " JSON attribute %s!", cardName, tableName, attributeName));
-    }
-    finally {
-      closePreparedStatement(preparedStatement);
+    catch (SQLException | RuntimeException e) {
+      session.rollback();
+      throw e;
     }
   }
 
   /**
-   * Given {@link JSONObject} of a MTG card from a MTGJSON JSON file, adds the supertypes making up
-   * for the card to the CDDB, if it has any.
-   * @param card JSONObject of card to add
-   * @param connection connection to CDDB to use for adding info
-   * @throws SQLException there is a failure to add data to the CDDB about given card
+   * Returns the fingerprint recorded for the given set when it was last added to the CDDB.
+   * @param set decoded MTG set to get the recorded fingerprint of
+   * @param session parse session over the CDDB to use
+   * @return recorded fingerprint, or null if none has been recorded
+   * @throws SQLException if the fingerprint fails to be queried
    */
-  private void addSupertypes(JSONObject card, Connection connection) throws SQLException {
-    addCardTypes(card, "Supertype", "supertypes", connection);
+  private String recordedFingerprint(DecodedSet set, ParseSession session) throws SQLException {
+    String fingerprintQuery = "SELECT hash FROM SetFingerprint WHERE abbrv = ?";
+    try (ResultSet resultSet = session.executeQuery(fingerprintQuery, set.getCode())) {
+      return resultSet.next() ? resultSet.getString(1) : null;
+    }
+    catch (SQLException e) {
+      throw new SQLException(e.getMessage() +
+          String.format("\n Failed to query fingerprint of set %s!", set.getCode()));
+    }
   }
 
   /**
-   * Given {@link JSONObject} of a MTG card from a MTGJSON JSON file, adds the types
-   * making up for the card to the CDDB.
-   * @param card JSONObject of card to add
-   * @param connection connection to CDDB to use for adding info
-   * @throws SQLException there is a failure to add data to the CDDB about given card
+   * Records the fingerprint of the given set, along with the MTGJSON release it's from, replacing
+   * any fingerprint recorded for it before.
+   * @param set decoded MTG set to record the fingerprint of
+   * @param session parse session over the CDDB to use
+   * @throws SQLException if the fingerprint fails to be recorded
    */
-  private void addTypes(JSONObject card, Connection connection) throws SQLException {
-    addCardTypes(card, "Type", "types", connection);
+  private void recordFingerprint(DecodedSet set, ParseSession session) throws SQLException {
+    String fingerprintUpdate = "INSERT OR REPLACE INTO SetFingerprint(abbrv,hash,mtgjson_version,"
+        + "mtgjson_date) VALUES (?,?,?,?)";
+    try {
+      session.executeUpdate(fingerprintUpdate, set.getCode(), set.getFingerprint(),
+          set.getMtgjsonVersion(), set.getMtgjsonDate());
+    }
+    catch (SQLException e) {
+      throw new SQLException(e.getMessage() +
+          String.format("\n Failed to record fingerprint of set %s!", set.getCode()));
+    }
   }
 
   /**
-   * Given {@link JSONObject} of a MTG card from a MTGJSON JSON file, adds the subtypes making up
-   * for the card to the CDDB, if it has any.
-   * @param card JSONObject of card to add
-   * @param connection connection to CDDB to use for adding info
-   * @throws SQLException there is a failure to add data to the CDDB about given card
+   * Given a decoded MTG set, queues its info and that of its cards to be added to the CDDB,
+   * without committing it, except for commits made at checkpoints.
+   * @param set decoded MTG set to add
+   * @param session parse session over the CDDB to use
+   * @param refresh if info already in the CDDB about the set and its cards is to be refreshed
+   * @param checkpointSource identity of the multiple sets being parsed, or null if not
+   *        parsing from such a file
+   * @param cardOffset number of cards of the set to skip, as they have already been committed
+   * @throws SQLException if the set fails to be added to the CDDB
    */
-  private void addSubtypes(JSONObject card, Connection connection) throws SQLException {
-    addCardTypes(card, "Subtype", "subtypes", connection);
-  }
+  private void addSetInfo(DecodedSet set, ParseSession session, boolean refresh,
+      String checkpointSource, int cardOffset) throws SQLException {
+    // Check if set has been added
+    try {
+      if (!session.exists("Expansion", set.getCode())) {
+        addRows(set.getSetRows(), session);
+        session.markAdded("Expansion", set.getCode());
+      }
+      else if (refresh) {
+        refreshSetInfo(set, session);
+      }
+    }
+    catch (SQLException e) {
+      throw new SQLException(e.getMessage() +
+          String.format("\n Failed to add info for given set %s!", set.getName()));
+    }
 
-  /**
-   * Given {@link JSONObject} of a MTG card from a MTGJSON JSON file, adds it types to the for
-   * the given category of type to the given table in the CDDB. CDDB, if it has any. Types include
-   * supertypes, types, and subtypes. before.
-   * @param card JSONObject of card to add
-   * @param table table to add info to
-   * @param category category of type to add
-   * @param connection connection to the CDDB to use for adding info
-   * @throws SQLException there is a failure to query data from or add data to the CDDB about
-   *         given types
-   */
-  private void addCardTypes(JSONObject card, String table, String category, Connection connection) throws SQLException {
-    String cardName = card.getString("name");
-
-    if (card.has(category)) {
-      String insertType = String.format("INSERT INTO %s(card_name,type) VALUES (?,?)", table);
-      String[] types = JSONArrayToStringArray(card.getJSONArray(category));
-      for (String type : types) {
-        try (PreparedStatement preparedStatement = connection.prepareStatement(insertType)) {
-
-          preparedStatement.setString(1, cardName);
-          preparedStatement.setString(2, type);
-          preparedStatement.executeUpdate();
-        }
-        catch (SQLException e) {
-          throw new SQLException(e.getMessage() +
-              String.format("\n Failed to add %s %s for card %s!", category, type, cardName));
-        }
+    List<DecodedCard> cards = set.getCards();
+    for (int i = cardOffset; i < cards.size(); i++) {
+      addCard(cards.get(i), set.getName(), session, refresh);
+
+      int cardsAdded = i + 1;
+      if (checkpointSource != null && checkpointInterval > 0 && cardsAdded < cards.size()
+          && cardsAdded % checkpointInterval == 0) {
+        recordCheckpoint(set, checkpointSource, cardsAdded, false, session);
+        session.commit();
+        cardsChanged();
       }
     }
+
+    if (refresh) {
+      removeStalePrintings(set, session);
+    }
   }
 
   /**
-   * Given {@link JSONObject} of a MTG card from a MTGJSON JSON file, adds it mana costs to the
-   * CDDB, if it has any.
-   * before.
-   * @param card JSONObject of card to add
-   * @param connection connection to the CDDB to use for adding info
-   * @throws SQLException there is a failure to query data from or add data to the CDDB about
-   *         given card
+   * Given a decoded MTG set that has already been added to the CDDB, removes the printings the
+   * CDDB holds for it that are no longer in the set, along with their artists. Printings that a
+   * deck holds are kept, and counted by {@link #getStalePrintingsKept()}, as removing them would
+   * change the deck. The cards of removed printings are kept too, even if they no longer have any
+   * printing, as decks and other sets refer to cards by name.
+   * @param set decoded MTG set to remove the stale printings of
+   * @param session parse session over the CDDB to use
+   * @throws SQLException if the printings fail to be removed
    */
-  private void addCardManaCosts(JSONObject card, Connection connection) throws SQLException {
-    if (card.has("manaCost")) {
-      String cardName = card.getString("name");
-      String[] manaCosts = card.getString("manaCost").split("(?=\\{)");
-      PreparedStatement preparedStatement = null;
-      try {
-        HashMap<String, Integer> uniqueManaCosts = new HashMap<>();
-        for (String manaCost : manaCosts) {
-          if (uniqueManaCosts.containsKey(manaCost)) {
-            uniqueManaCosts.replace(manaCost, uniqueManaCosts.get(manaCost) + 1);
-          } else {
-            String withOutBrackets = manaCost.substring(1, manaCost.length() - 1);
-            if (withOutBrackets.matches("\\d+")) {
-              uniqueManaCosts.put("{1}", Integer.parseInt(withOutBrackets));
-            }
-            else {
-              uniqueManaCosts.put(manaCost, 1);
-            }
-          }
+  private void removeStalePrintings(DecodedSet set, ParseSession session) throws SQLException {
+    Set<List<String>> printings = new HashSet<>();
+    for (DecodedCard card : set.getCards()) {
+      if (!card.getPrintingRows().isEmpty()) {
+        printings.add(Arrays.asList(card.getName(), card.getNumber()));
+      }
+    }
+
+    List<List<String>> stalePrintings = new ArrayList<>();
+    String printingsQuery = "SELECT card_name, number, EXISTS (SELECT 1 FROM "
+        + "DeckInstCardExpansion d WHERE d.card_name = c.card_name AND d.expansion = c.expansion "
+        + "AND d.card_number = c.number) FROM CardExpansion c WHERE c.expansion = ?";
+    try (ResultSet resultSet = session.executeQuery(printingsQuery, set.getName())) {
+      while (resultSet.next()) {
+        List<String> printing = Arrays.asList(resultSet.getString(1), resultSet.getString(2));
+        if (printings.contains(printing)) {
+          continue;
         }
-        for (String manaCost : uniqueManaCosts.keySet()) {
-          String manaCostInsert = "INSERT INTO Mana(card_name,mana_type,quantity) VALUES (?,?,?)";
-
-          int quantity =  uniqueManaCosts.get(manaCost);
-          preparedStatement = connection.prepareStatement(manaCostInsert);
-          preparedStatement.setString(1, cardName);
-          preparedStatement.setString(2, manaCost);
-          preparedStatement.setInt(3, quantity);
-          preparedStatement.executeUpdate();
+        if (resultSet.getBoolean(3)) {
+          stalePrintingsKept++;
+        }
+        else {
+          stalePrintings.add(printing);
         }
       }
-      catch (SQLException e) {
-        throw new SQLException(e.getMessage() +
-            String.format("\n Failed to add subtypes for %s!", cardName));
-      }
-      finally {
-        closePreparedStatement(preparedStatement);
+    }
+    catch (SQLException e) {
+      throw new SQLException(e.getMessage() +
+          String.format("\n Failed to query printings of set %s!", set.getName()));
+    }
+
+    try {
+      for (List<String> printing : stalePrintings) {
+        session.executeUpdate("DELETE FROM Artist WHERE card_name = ? AND expansion = ? "
+            + "AND number = ?", printing.get(0), set.getName(), printing.get(1));
+        session.executeUpdate("DELETE FROM CardExpansion WHERE card_name = ? AND expansion = ? "
+            + "AND number = ?", printing.get(0), set.getName(), printing.get(1));
       }
     }
+    catch (SQLException e) {
+      throw new SQLException(e.getMessage() +
+          String.format("\n Failed to remove stale printings of set %s!", set.getName()));
+    }
   }
 
   /**
-   * Given {@link JSONObject} of a MTG card from a MTGJSON JSON file, adds any extra info it may
-   * have, if any, either power & toughness or loyalty.
-   * @param card JSONObject of card to add
-   * @param connection connection to the CDDB to use for adding info
-   * @throws SQLException there is a failure to query data from or add data to the CDDB about
-   *         given card
-   */
-  private void addStats(JSONObject card, Connection connection) throws SQLException {
-    String cardName = card.getString("name");
-
-    if (card.has("power") && card.has("toughness")) {
-      String power = card.getString("power");
-      String toughness = card.getString("toughness");
-      String ptInsert = "INSERT INTO PowerToughness(card_name,power,power_value,"
-          + "toughness,toughness_value) VALUES (?,?,?,?,?)";
-      try (PreparedStatement preparedStatement = connection.prepareStatement(ptInsert)) {
-        preparedStatement.setString(1, cardName);
-        preparedStatement.setString(2, power);
-        preparedStatement.setInt(3, stringToInteger(power));
-        preparedStatement.setString(4, toughness);
-        preparedStatement.setInt(5, stringToInteger(toughness));
-        preparedStatement.executeUpdate();
+   * Given a decoded MTG set that has already been added to the CDDB, updates its size, release
+   * date, and block to match the given set.
+   * @param set decoded MTG set to refresh
+   * @param session parse session over the CDDB to use
+   * @throws SQLException if the set's info fails to be updated
+   */
+  private void refreshSetInfo(DecodedSet set, ParseSession session) throws SQLException {
+    boolean hasBlock = false;
+    for (Row row : set.getSetRows()) {
+      Object[] values = row.getValues();
+      if (row.getTable().equals("Expansion")) {
+        session.executeUpdate("UPDATE Expansion SET size = ?, release_date = ? WHERE expansion = ?",
+            values[2], values[3], values[0]);
       }
-      catch (SQLException e) {
-        throw new SQLException(e.getMessage() +
-            String.format("\n Failed to add power and toughness for card %s!", cardName));
+      else if (row.getTable().equals("Block")) {
+        session.executeUpdate("INSERT OR REPLACE INTO Block(expansion,block) VALUES (?,?)",
+            values[0], values[1]);
+        hasBlock = true;
       }
     }
-    else if (card.has("loyalty")) {
-      String loyalty = card.getString("loyalty");
-      String ptInsert = "INSERT INTO Loyalty(card_name,loyalty,loyalty_value) VALUES (?,?,?)";
-      try (PreparedStatement preparedStatement = connection.prepareStatement(ptInsert)) {
-        preparedStatement.setString(1, cardName);
-        preparedStatement.setString(2, loyalty);
-        preparedStatement.setInt(3, stringToInteger(loyalty));
-        preparedStatement.executeUpdate();
-      }
-      catch (SQLException e) {
-        throw new SQLException(e.getMessage() +
-            String.format("\n Failed to add loyalty for card %s!", cardName));
-      }
+
+    if (!hasBlock) {
+      session.executeUpdate("DELETE FROM Block WHERE expansion = ?", set.getName());
     }
   }
 
   /**
-   * Given a string, converts it to an integer based on the first k numbers (0 to 9) present in the
-   * string(or hyphen "-" in the first position of the given string to indicate a negative value).
-   * If no number or starting "-" are present, returns 0.
-   * @param value string value to convert
-   * @return integer version of given string value
-   * @throws IllegalArgumentException if given string is null
+   * Given a decoded MTG card, adds it to the CDDB as appropriate.
+   * @param card card to add
+   * @param setName name of the expansion the given card is associated with
+   * @param session parse session over the CDDB to use for adding info
+   * @param refresh if info already in the CDDB about the card is to be refreshed
+   * @throws SQLException if some part of card fails to be added to CDDB
    */
-  private int stringToInteger(String value) {
-    if (value == null) {
-      throw new IllegalArgumentException(String.format("Given value %s can't be null!", value));
-    }
+  private void addCard(DecodedCard card, String setName, ParseSession session, boolean refresh)
+      throws SQLException {
+    String cardName = card.getName();
 
-    StringBuilder toReturn = new StringBuilder();
-    char[] chars = value.toCharArray();
-    for (int i = 0; i < chars.length; i++) {
-      char curChar = chars[i];
-      if ((i == 0 && curChar == '-') || ('0' <= curChar && curChar <= '9')) {
-        toReturn.append(curChar);
+    // Card hasn't been added, add card, super types, types, and subtypes, mana types, color,
+    // color identity, and extra stats
+    try {
+      if (!cardAdded(cardName, session)) {
+        addRows(card.getCardRows(), session);
+        session.markAdded("Card", cardName);
+        session.markRefreshed("Card", cardName);
       }
-      else {
-        break;
+      else if (refresh && session.markRefreshed("Card", cardName)) {
+        refreshCardInfo(card, session);
       }
     }
-
-    String toReturnString = toReturn.toString();
-    // Empty or only a hyphen
-    if (toReturnString.isEmpty() || (toReturnString.length() == 1 && toReturnString.equals("-"))) {
-      return 0;
+    catch (SQLException e) {
+      throw new SQLException(e.getMessage() +
+          String.format("\n Failed to add base info for card %s!", cardName));
     }
-    return Integer.parseInt(toReturnString);
+
+    // If card is multifaced, and all its components have been added, add multifaced relation
+    addMultifacedStats(card, session);
+
+    // Card is for sure in database, add relevant set info
+    addSetCardInfo(card, session, setName, refresh);
   }
 
   /**
-   * Given {@link JSONObject} of a MTG card from a MTGJSON JSON file, if it has relationship with
-   * any other other cards, adds that relationship to the CDDB.
-   * before.
-   * @param card JSONObject of card to add
-   * @param connection connection to the CDDB to use for adding info
-   * @throws SQLException there is a failure to query data from or add data to the CDDB about
-   *         given card
+   * Given a decoded MTG card that has already been added to the CDDB, updates its text and
+   * converted mana cost, and replaces the rest of its info, to match the given card.
+   * @param card card to refresh
+   * @param session parse session over the CDDB to use for adding info
+   * @throws SQLException if the card's info fails to be updated
    */
-  private void addTwoFacedStats(JSONObject card, Connection connection) throws SQLException {
-    String layout = card.getString("layout");
-    String[] names = JSONArrayToStringArray(card.getJSONArray("names"));
-    String cardA = names[0];
-    String cardB = names[1];
-
-    // Check that each card has been added
-    boolean cardsAdded = true;
-    for (String name : names) {
-      if (!cardAdded(name, connection)) {
-        cardsAdded = false;
-      }
+  private void refreshCardInfo(DecodedCard card, ParseSession session) throws SQLException {
+    for (String table : cardAttributeTables) {
+      session.executeUpdate(String.format("DELETE FROM %s WHERE card_name = ?", table),
+          card.getName());
     }
 
-    // Cards have been added, add relationship
-    if (cardsAdded) {
-      // Check that the query hasn't been added
-      boolean relationshipAdded;
-      PreparedStatement preparedStatement = null;
-      ResultSet resultSet = null;
-      try {
-        String multifaceQuery = "SELECT * FROM TwoCards WHERE card_a=? AND card_b=?";
-        preparedStatement = connection.prepareStatement(multifaceQuery);
-        preparedStatement.setString(1, cardA);
-        preparedStatement.setString(2, cardB);
-        resultSet = preparedStatement.executeQuery();
-        relationshipAdded = resultSet.next();
-      }
-      catch (SQLException e) {
-        throw new SQLException(e.getMessage() +
-            String.format("\n Failed to query relationship between"
-            + " cards %s and %s!", cardA, cardB));
+    for (Row row : card.getCardRows()) {
+      if (row.getTable().equals("Card")) {
+        Object[] values = row.getValues();
+        session.executeUpdate("UPDATE Card SET text = ?, cmc = ? WHERE name = ?", values[1],
+            values[2], values[0]);
       }
-      finally {
-        close(resultSet, preparedStatement);
-      }
-
-      if (!relationshipAdded) {
-        try {
-          String multifaceUpdate = "INSERT INTO TwoCards(card_a,card_b,type,total_cmc) "
-              + "VALUES (?,?,?,?)";
-          preparedStatement = connection.prepareStatement(multifaceUpdate);
-          preparedStatement.setString(1, cardA);
-          preparedStatement.setString(2, cardB);
-          preparedStatement.setString(3, layout);
-          preparedStatement.setInt(4, (int) card.getFloat("convertedManaCost"));
-          preparedStatement.executeUpdate();
-        }
-        catch (SQLException e) {
-          throw new SQLException(e.getMessage() + String.format("\n Failed to add relationship between"
-              + " cards %s and %s!", cardA, cardB));
-        }
-        finally {
-          closePreparedStatement(preparedStatement);
-        }
+      else {
+        session.addBatch(row.getTable(), row.getInsertStatement(), row.getValues());
       }
     }
   }
 
   /**
-   * Given {@link JSONObject} of a MTG card from a MTGJSON JSON file, if it has relationship with
-   * any two other cards, adds that relationship to the CDDB.
-   * before.
-   * @param card JSONObject of card to add
-   * @param connection connection to the CDDB to use for adding info
-   * @throws SQLException there is a failure to query data from or add data to the CDDB about
-   *         given card
+   * Given a decoded MTG card, if it has relationship with any other cards (two or three sided
+   * cards) and each of those cards has been added, adds that relationship to the CDDB if it
+   * hasn't been already.
+   * @param card card to add
+   * @param session parse session over the CDDB to use for adding info
+   * @throws SQLException there is a failure to add the relationship to the CDDB
    */
-  private void addThreeFacedStats(JSONObject card, Connection connection) throws SQLException {
-    String layout = card.getString("layout");
-    String[] names = JSONArrayToStringArray(card.getJSONArray("names"));
-    String cardA = names[0];
-    String cardB = names[1];
-    String cardC = names[2];
+  private void addMultifacedStats(DecodedCard card, ParseSession session) throws SQLException {
+    String[] names = card.getFaceNames();
+    if (names == null) {
+      return;
+    }
 
     // Check that each card has been added
-    boolean cardsAdded = true;
     for (String name : names) {
-      if (!cardAdded(name, connection)) {
-        cardsAdded = false;
+      if (!cardAdded(name, session)) {
+        return;
       }
     }
 
-    // All cards added, try to add relationship
-    if (cardsAdded) {
-      // Check that the query hasn't been added
-      boolean relationshipAdded = true;
-      PreparedStatement preparedStatement = null;
-      ResultSet resultSet = null;
+    // Check that the relationship hasn't been added
+    Row faceRow = card.getFaceRow();
+    if (!session.exists(faceRow.getTable(), names)) {
       try {
-        String multifaceQuery = "SELECT * FROM ThreeCards WHERE card_a=? AND card_b=? AND card_c=?";
-        preparedStatement = connection.prepareStatement(multifaceQuery);
-        preparedStatement.setString(1, cardA);
-        preparedStatement.setString(2, cardB);
-        preparedStatement.setString(3, cardC);
-        resultSet = preparedStatement.executeQuery();
-
-        if (!resultSet.next()) {
-          relationshipAdded = false;
-        }
+        addRows(Collections.singletonList(faceRow), session);
+        session.markAdded(faceRow.getTable(), names);
       }
       catch (SQLException e) {
-        throw new SQLException(e.getMessage() + String.format("\n Failed to add relationship between cards "
-            + "%s, %s, and %s!", cardA, cardB, cardC));
-      }
-      finally {
-        close(resultSet, preparedStatement);
-      }
-
-
-      if (!relationshipAdded) {
-        try {
-          String multifaceUpdate = "INSERT INTO ThreeCards(card_a,card_b,card_c,type,total_cmc) "
-              + "VALUES (?,?,?,?,?)";
-          preparedStatement = connection.prepareStatement(multifaceUpdate);
-          preparedStatement.setString(1, cardA);
-          preparedStatement.setString(2, cardB);
-          preparedStatement.setString(3, cardC);
-          preparedStatement.setString(4, layout);
-          preparedStatement.setInt(5, (int) card.getFloat("convertedManaCost"));
-          preparedStatement.executeUpdate();
-        }
-        catch (SQLException e) {
-          throw new SQLException(e.getMessage() + String.format("\n Failed to query relationship between cards "
-              + "%s, %s, and %s!", cardA, cardB, cardC));
-        }
-        finally {
-          closePreparedStatement(preparedStatement);
-        }
+        throw new SQLException(e.getMessage() + String.format("\n Failed to add relationship "
+            + "between cards %s!", String.join(", ", names)));
       }
     }
   }
 
   /**
-   * Given {@link JSONObject} of a MTG card from a MTGJSON JSON file, if it has relationship with
-   * any other cards (two or three sided cards), adds that relationship to the CDDB.
-   * before.
-   * @param card JSONObject of card to add
-   * @param connection connection to the CDDB to use for adding info
-   * @throws SQLException there is a failure to query data from or add data to the CDDB about
-   *         given card
-   */
-  private void addMultifacedStats(JSONObject card, Connection connection) throws SQLException {
-    if (card.has("names")) {
-      String cardName = card.getString("name");
-      String[] cardNames = JSONArrayToStringArray(card.getJSONArray("names"));
-      if (cardNames.length > 1) {
-        if (!card.has("layout")) {
-          throw new IllegalStateException(String.format("Given card %s is malformed, has multiple"
-              + " card names associated with it, but no stated layout!", cardName));
-        }
+   * Given a decoded MTG card, adds info about the relationship between card and set currently
+   * being parsed (which card is apart of) and the artists of that printing, if that printing
+   * hasn't been added already.
+   * @param card card to add
+   * @param session parse session over the CDDB to use for adding info
+   * @param setName name of the set the given card is associated with
+   * @param refresh if info already in the CDDB about the printing is to be refreshed
+   * @throws SQLException there is a failure to add data to the CDDB about given card
+   */
+  private void addSetCardInfo(DecodedCard card, ParseSession session, String setName,
+      boolean refresh) throws SQLException {
+    List<Row> printingRows = card.getPrintingRows();
+    if (printingRows.isEmpty()) {
+      return;
+    }
 
-        if (cardNames.length == 2) {
-          addTwoFacedStats(card, connection);
-        }
-        else if (cardNames.length == 3) {
-          addThreeFacedStats(card, connection);
-        }
-        else {
-          // Should never reach
-          throw new IllegalStateException(String.format("Given card %s has an unsupported number "
-              + "of faces, %d!", cardName, cardNames.length));
-        }
+    String cardName = card.getName();
+    String number = card.getNumber();
+    try {
+      // See if card has already been added to the CDDB
+      if (!session.exists("CardExpansion", cardName, setName, number)) {
+        addRows(printingRows, session);
+        session.markAdded("CardExpansion", cardName, setName, number);
+        session.markRefreshed("CardExpansion", cardName, setName, number);
+      }
+      else if (refresh && session.markRefreshed("CardExpansion", cardName, setName, number)) {
+        refreshSetCardInfo(card, session, setName);
       }
     }
+    catch (SQLException e) {
+      throw new SQLException(e.getMessage() +
+          String.format("\n Failed to add set info for card %s for set %s!", cardName, setName));
+    }
   }
 
   /**
-   * Given {@link JSONObject} of a MTG card from a MTGJSON JSON file, adds info about the
-   * relationship between card and set currently being parsed (which card is apart of).
-   * @param card JSONObject of card to add
-   * @param connection connection to the CDDB to use for adding info
+   * Given a decoded MTG card whose printing in the given set has already been added to the CDDB,
+   * updates the rarity, flavor text, and Scryfall id of that printing, and replaces its artists, to
+   * match the given card.
+   * @param card card to refresh the printing of
+   * @param session parse session over the CDDB to use for adding info
    * @param setName name of the set the given card is associated with
-   * @throws SQLException there is a failure to query data from or add data to the CDDB about
-   *         given card
-   */
-  private void addSetCardInfo(JSONObject card, Connection connection, String setName) throws SQLException {
-    if (card.has("artist") && card.has("rarity") && card.has("scryfallId")) {
-      String cardName = card.getString("name");
-      boolean cardSetAdded;
-      String checkStatement = "SELECT card_name, expansion, number FROM CardExpansion "
-          + "WHERE card_name = ?"
-          + "AND expansion = ?"
-          + "AND number = ?";
-      try (PreparedStatement preparedStatement = connection.prepareStatement(checkStatement)) {
-        // See if card has already been added to the CDDB
-
-        preparedStatement.setString(1, cardName);
-        preparedStatement.setString(2, setName);
-        preparedStatement.setString(3, card.getString("number"));
-        ResultSet resultSet = preparedStatement.executeQuery();
-        cardSetAdded = resultSet.next();
-        resultSet.close();
-      }
-      catch (SQLException e) {
-        throw new SQLException(e.getMessage() +
-            String.format("\n Failed to query for card %s and set %s!", cardName, setName));
+   * @throws SQLException if the printing's info fails to be updated
+   */
+  private void refreshSetCardInfo(DecodedCard card, ParseSession session, String setName)
+      throws SQLException {
+    session.executeUpdate("DELETE FROM Artist WHERE card_name = ? AND expansion = ? "
+        + "AND number = ?", card.getName(), setName, card.getNumber());
+
+    for (Row row : card.getPrintingRows()) {
+      if (row.getTable().equals("CardExpansion")) {
+        Object[] values = row.getValues();
+        session.executeUpdate("UPDATE CardExpansion SET rarity = ?, flavor_text = ?, "
+            + "scryfall_id = ? WHERE card_name = ? AND expansion = ? AND number = ?", values[3],
+            values[4], values[5], values[0], values[1], values[2]);
       }
-
-      if (!cardSetAdded) {
-        String number = card.getString("number");
-        String cardExpansionInsertStatement
-            = "INSERT INTO CardExpansion(card_name,expansion,number,rarity,flavor_text,scryfall_id) "
-            + "VALUES (?,?,?,?,?,?)";
-        try (PreparedStatement preparedStatement = connection.prepareStatement(cardExpansionInsertStatement)){
-          preparedStatement.setString(1, cardName);
-          preparedStatement.setString(2, setName);
-          preparedStatement.setString(3, number);
-
-          String rarity = card.getString("rarity");
-          preparedStatement.setString(4, rarity);
-
-          String flavorText = card.has("flavorText") ? card.getString("flavorText") : "";
-          preparedStatement.setString(5, flavorText);
-
-          preparedStatement.setString(6, card.getString("scryfallId"));
-
-          preparedStatement.executeUpdate();
-        }
-        catch (SQLException e) {
-          throw new SQLException(e.getMessage() +
-              String.format("\n Failed to add set info for card %s for set %s!", cardName, setName));
-        }
-
-        // Add artists
-        String artistString = card.getString("artist");
-        String[] artists = artistString.split(" & ");
-        for (String artist : artists) {
-          String artistInsertStatement
-              = "INSERT INTO Artist(card_name,expansion,number,artist) "
-              + "VALUES (?,?,?,?)";
-          try (PreparedStatement preparedStatement = connection.prepareStatement(artistInsertStatement)){
-            preparedStatement.setString(1, cardName);
-            preparedStatement.setString(2, setName);
-            preparedStatement.setString(3, number);
-            preparedStatement.setString(4, artist);
-            preparedStatement.executeUpdate();
-          }
-          catch (SQLException e) {
-            throw new SQLException(e.getMessage() +
-                String.format("\n Failed to add artist %s for card %s for set %s!",
-                    artist, cardName, setName));
-          }
-        }
-
+      else {
+        session.addBatch(row.getTable(), row.getInsertStatement(), row.getValues());
       }
     }
   }
 
   /**
-   * Given a JSONArray of Strings, converts it to an array of Strings.
-   * @param toConvert JSONArray of Strings to convert
-   * @return resulting String array
-   * @throws SQLException if given JSONArray is null, or isn't entirely made of Strings
+   * Queues each of the given rows to be added to the CDDB.
+   * @param rows rows to add
+   * @param session parse session over the CDDB to use for adding info
+   * @throws SQLException if a row fails to be queued, or queued rows fail to be written
    */
-  private String[] JSONArrayToStringArray(JSONArray toConvert) throws SQLException {
-    if (toConvert == null) {
-      throw new IllegalArgumentException("Give JSONArray can't be null!");
-    }
-
-    try {
-      int length = toConvert.length();
-      String[] toReturn = new String[length];
-      for (int i = 0; i < length; i += 1) {
-        toReturn[i] = toConvert.getString(i);
-      }
-      return toReturn;
-    }
-    catch (JSONException e) {
-      throw new SQLException(e.getMessage() + "\n Given JSON array isn't entirely made of Strings!");
+  private void addRows(List<Row> rows, ParseSession session) throws SQLException {
+    for (Row row : rows) {
+      session.addBatch(row.getTable(), row.getInsertStatement(), row.getValues());
     }
   }
 
   /**
    * Given the name of a card, checks if it has been added to the CDDB under the 'Card' table.
    * @param toCheck name of card to check
-   * @param connection connection to the CDDB to use for adding info
+   * @param session parse session over the CDDB to use for adding info
    * @return if card is in CDDB
    * @throws IllegalArgumentException if given string is null
-   * @throws SQLException failure to query CDDB
+   * @throws SQLException if the CDDB fails to be checked for the card
    */
-  private boolean cardAdded(String toCheck, Connection connection) throws SQLException {
+  private boolean cardAdded(String toCheck, ParseSession session) throws SQLException {
     if (toCheck == null) {
       throw new IllegalArgumentException("Given string can't be null!");
     }
-
-    boolean returned;
-    PreparedStatement preparedStatement = null;
-    ResultSet resultSet = null;
-    try {
-      String cardAddedQuery = "SELECT name FROM Card WHERE name=?";
-      preparedStatement = connection.prepareStatement(cardAddedQuery);
-      preparedStatement.setString(1, toCheck);
-      resultSet = preparedStatement.executeQuery();
-      returned = resultSet.next();
-      return returned;
-    }
-    catch (SQLException e) {
-      throw new SQLException(e.getMessage() +
-          String.format("\n Failed to is see if card %s is in CDDB!", toCheck));
-    }
-    finally {
-      close(resultSet, preparedStatement);
-    }
-    //return returned;
+    return session.exists("Card", toCheck);
   }
 
   /**
-   * Given a file {@link Path} to a JSON file of a MTG set from MTGJSON, attempts to convert that object
-   * into a String.
-   * @param toConvert path to convert
-   * @return String of the contents of the given path
+   * Returns the names of the cards of the given set, along with the names of the other faces of
+   * its multifaced cards.
+   * @param set decoded MTG set to get the card names of
+   * @return names of the cards of the set
    */
-  private String pathToString(Path toConvert) throws IOException {
-    File converedFile = toConvert.toFile();
-    BufferedReader reader = new BufferedReader(new FileReader(converedFile));
-
-    try {
-      StringBuilder toReturn = new StringBuilder();
-      String currentLine = reader.readLine();
-
-      while (currentLine != null) {
-        toReturn.append(currentLine);
-        currentLine = reader.readLine();
+  private static Set<String> cardNames(DecodedSet set) {
+    Set<String> cardNames = new HashSet<>();
+    for (DecodedCard card : set.getCards()) {
+      cardNames.add(card.getName());
+      if (card.getFaceNames() != null) {
+        cardNames.addAll(Arrays.asList(card.getFaceNames()));
       }
-      return toReturn.toString();
-    }
-    finally {
-      reader.close();
     }
+    return cardNames;
   }
 }
@@ -0,0 +1,270 @@
+package database.parsing;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In memory index of the keys of rows in the Card & Deck Database (CDDB) the parser checks for
+ * before adding a row - the shorthand names of sets, names of cards, printings of cards, and
+ * relationships between the faces of multifaced cards. Keys are loaded per set, only for the set
+ * about to be parsed and its cards, then kept up to date as rows are added. Any key the index
+ * hasn't loaded is checked against the CDDB itself, and the answer kept until the next set is
+ * loaded, so the index never answers from a guess and never holds more than one set's keys.
+ */
+class ExistenceIndex {
+
+  /**
+   * Queries for checking if a single row exists, by table.
+   */
+  private static final Map<String, String> probeQueries = new HashMap<>();
+
+  static {
+    probeQueries.put("Expansion", "SELECT 1 FROM Expansion WHERE abbrv = ?");
+    probeQueries.put("Card", "SELECT 1 FROM Card WHERE name = ?");
+    probeQueries.put("CardExpansion", "SELECT 1 FROM CardExpansion WHERE card_name = ? "
+        + "AND expansion = ? AND number = ?");
+    probeQueries.put("TwoCards", "SELECT 1 FROM TwoCards WHERE card_a = ? AND card_b = ?");
+    probeQueries.put("ThreeCards", "SELECT 1 FROM ThreeCards WHERE card_a = ? AND card_b = ? "
+        + "AND card_c = ?");
+  }
+
+  /**
+   * Query for loading the printings of a single set.
+   */
+  private static final String setPrintingsQuery = "SELECT card_name, expansion, number "
+      + "FROM CardExpansion WHERE expansion = ?";
+
+  /**
+   * Number of card names looked up per query when loading the cards of a set.
+   */
+  private static final int cardChunkSize = 100;
+
+  /**
+   * Query for loading which of a chunk of card names have been added.
+   */
+  private static final String cardChunkQuery;
+
+  static {
+    StringBuilder query = new StringBuilder("SELECT name FROM Card WHERE name IN (?");
+    for (int i = 1; i < cardChunkSize; i++) {
+      query.append(",?");
+    }
+    cardChunkQuery = query.append(')').toString();
+  }
+
+  /**
+   * Separates the parts of a key made of multiple columns, can't appear in any MTGJSON value.
+   */
+  private static final char keySeparator = '\u0000';
+
+  /**
+   * Statements used to check the CDDB for keys.
+   */
+  private final StatementRegistry statements;
+
+  /**
+   * Keys known to be in each indexed table, by table.
+   */
+  private final Map<String, Set<String>> keys;
+
+  /**
+   * Keys known not to be in each indexed table, by table.
+   */
+  private final Map<String, Set<String>> missingKeys;
+
+  /**
+   * Full name of the set whose printings have all been loaded, null if none.
+   */
+  private String loadedSet;
+
+  /**
+   * Keys added to each table since the last commit, by table, so they can be dropped if the
+   * transaction they were added in is rolled back.
+   */
+  private final Map<String, List<String>> uncommittedKeys;
+
+  /**
+   * Takes in the {@link StatementRegistry} of a parse session, to check the CDDB for keys the
+   * index hasn't loaded. No keys are loaded until {@link #loadSet(String, Collection)} is called.
+   * @param statements statements over a connection to the CDDB
+   * @throws IllegalArgumentException if given statement registry is null
+   */
+  ExistenceIndex(StatementRegistry statements) {
+    if (statements == null) {
+      throw new IllegalArgumentException("Given statement registry can't be null!");
+    }
+
+    this.statements = statements;
+    this.keys = new HashMap<>();
+    this.missingKeys = new HashMap<>();
+    this.loadedSet = null;
+    this.uncommittedKeys = new HashMap<>();
+    for (String table : probeQueries.keySet()) {
+      keys.put(table, new HashSet<>());
+      missingKeys.put(table, new HashSet<>());
+    }
+  }
+
+  /**
+   * Drops every key loaded for the set before, then loads the printings of the given set and which
+   * of the given cards have been added, so checks for them don't each have to query the CDDB.
+   * Should only be called with nothing left uncommitted.
+   * @param setName full name of the set about to be parsed
+   * @param cardNames names of the cards of the set
+   * @throws IllegalArgumentException if given set name or card names are null
+   * @throws SQLException if keys fail to be loaded from the CDDB
+   */
+  void loadSet(String setName, Collection<String> cardNames) throws SQLException {
+    if (setName == null || cardNames == null) {
+      throw new IllegalArgumentException("Given set name and card names can't be null!");
+    }
+
+    for (String table : probeQueries.keySet()) {
+      keys.get(table).clear();
+      missingKeys.get(table).clear();
+    }
+    uncommittedKeys.clear();
+    loadedSet = null;
+
+    Set<String> printings = keys.get("CardExpansion");
+    try (ResultSet resultSet = statements.executeQuery(setPrintingsQuery, setName)) {
+      while (resultSet.next()) {
+        printings.add(toKey(resultSet.getString(1), resultSet.getString(2),
+            resultSet.getString(3)));
+      }
+    }
+    catch (SQLException e) {
+      throw new SQLException(e.getMessage() +
+          String.format("\n Failed to load existing printings of set %s!", setName));
+    }
+    loadedSet = setName;
+
+    List<String> names = new ArrayList<>(new HashSet<>(cardNames));
+    Set<String> cards = keys.get("Card");
+    Set<String> missingCards = missingKeys.get("Card");
+    Object[] chunk = new Object[cardChunkSize];
+    for (int start = 0; start < names.size(); start += cardChunkSize) {
+      int end = Math.min(start + cardChunkSize, names.size());
+      for (int i = 0; i < cardChunkSize; i++) {
+        // Pad the last chunk with a repeat of its first name, so one statement serves every chunk
+        chunk[i] = names.get(start + i < end ? start + i : start);
+      }
+      try (ResultSet resultSet = statements.executeQuery(cardChunkQuery, chunk)) {
+        while (resultSet.next()) {
+          cards.add(resultSet.getString(1));
+        }
+      }
+      catch (SQLException e) {
+        throw new SQLException(e.getMessage() +
+            String.format("\n Failed to load existing cards of set %s!", setName));
+      }
+      for (int i = start; i < end; i++) {
+        if (!cards.contains(names.get(i))) {
+          missingCards.add(names.get(i));
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns if a row with the given key has been added to the given table, checking the CDDB if
+   * the index hasn't loaded the key.
+   * @param table table the row is for
+   * @param key key of the row
+   * @return if the row has been added
+   * @throws IllegalArgumentException if given table isn't indexed
+   * @throws SQLException if the CDDB fails to be checked for the key
+   */
+  boolean contains(String table, String... key) throws SQLException {
+    String joinedKey = toKey(key);
+    Set<String> tableKeys = tableKeys(table);
+    if (tableKeys.contains(joinedKey)) {
+      return true;
+    }
+    else if (missingKeys.get(table).contains(joinedKey)
+        || (table.equals("CardExpansion") && key[1].equals(loadedSet))) {
+      return false;
+    }
+
+    boolean exists;
+    try (ResultSet resultSet = statements.executeQuery(probeQueries.get(table),
+        (Object[]) key)) {
+      exists = resultSet.next();
+    }
+    catch (SQLException e) {
+      throw new SQLException(e.getMessage() +
+          String.format("\n Failed to check table %s for an existing row!", table));
+    }
+    (exists ? tableKeys : missingKeys.get(table)).add(joinedKey);
+    return exists;
+  }
+
+  /**
+   * Records that a row with the given key has been added to the given table.
+   * @param table table the row is for
+   * @param key key of the row
+   * @throws IllegalArgumentException if given table isn't indexed
+   */
+  void add(String table, String... key) {
+    String joinedKey = toKey(key);
+    if (tableKeys(table).add(joinedKey)) {
+      missingKeys.get(table).remove(joinedKey);
+      uncommittedKeys.computeIfAbsent(table, k -> new ArrayList<>()).add(joinedKey);
+    }
+  }
+
+  /**
+   * Keeps every key added since the last commit, as the rows they are for have been committed.
+   */
+  void commit() {
+    uncommittedKeys.clear();
+  }
+
+  /**
+   * Drops every key added since the last commit, as the rows they are for have been rolled back.
+   */
+  void rollback() {
+    for (Map.Entry<String, List<String>> tableKeys : uncommittedKeys.entrySet()) {
+      Set<String> addedKeys = keys.get(tableKeys.getKey());
+      Set<String> droppedKeys = missingKeys.get(tableKeys.getKey());
+      for (String key : tableKeys.getValue()) {
+        addedKeys.remove(key);
+        droppedKeys.add(key);
+      }
+    }
+    uncommittedKeys.clear();
+  }
+
+  /**
+   * Returns the keys known to be in the given table.
+   * @param table table to get the keys of
+   * @return keys of the table
+   * @throws IllegalArgumentException if given table isn't indexed
+   */
+  private Set<String> tableKeys(String table) {
+    Set<String> tableKeys = keys.get(table);
+    if (tableKeys == null) {
+      throw new IllegalArgumentException(String.format("Table %s isn't indexed!", table));
+    }
+    return tableKeys;
+  }
+
+  /**
+   * Joins the given parts of a key into a single key.
+   * @param key parts of the key
+   * @return joined key
+   */
+  private static String toKey(String... key) {
+    if (key.length == 1) {
+      return key[0];
+    }
+    return String.join(String.valueOf(keySeparator), key);
+  }
+}
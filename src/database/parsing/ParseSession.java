@@ -0,0 +1,266 @@
+package database.parsing;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * State of a single run of the {@link DefaultDatabaseParser} over a connection to the Card & Deck
+ * Database (CDDB). Inserts are queued per table with JDBC batches and written once enough rows
+ * have been queued, and everything is added within a transaction that is committed or rolled back
+ * as a whole - i.e. once per set. All statements are prepared once for the whole run through a
+ * {@link StatementRegistry}, and checks for existing rows are answered by an
+ * {@link ExistenceIndex} loaded as each set is started.
+ */
+class ParseSession implements AutoCloseable {
+
+  /**
+   * Order tables are written to when queued rows are flushed, so rows are always written after the
+   * rows they hold foreign keys to.
+   */
+  private static final List<String> tableOrder = Arrays.asList("Expansion", "Block", "Card",
+      "Color", "ColorIdentity", "Supertype", "Type", "Subtype", "Mana", "PowerToughness",
+      "Loyalty", "TwoCards", "ThreeCards", "CardExpansion", "Artist");
+
+  /**
+   * Connection to the CDDB this session writes to.
+   */
+  private final Connection connection;
+
+  /**
+   * Number of queued rows at which all queued rows are written to the CDDB.
+   */
+  private final int batchSize;
+
+  /**
+   * Statements prepared over the connection for this session.
+   */
+  private final StatementRegistry statements;
+
+  /**
+   * SQL of the insert statements with queued rows, by the table they insert into.
+   */
+  private final Map<String, String> batches;
+
+  /**
+   * Keys of the rows in the CDDB the parser checks for before adding a row, including rows that
+   * are queued but not yet written.
+   */
+  private final ExistenceIndex existenceIndex;
+
+  /**
+   * Keys of the rows refreshed in the current transaction, by the table they are for.
+   */
+  private final Map<String, Set<List<String>>> refreshedKeys;
+
+  /**
+   * Number of rows queued but not yet written.
+   */
+  private int pendingRows;
+
+  /**
+   * Takes in an open {@link Connection} to the CDDB, and turns off its auto commit, so nothing is
+   * written until {@link #commit()} is called.
+   * @param connection connection to the CDDB to write to
+   * @param batchSize number of rows to queue before writing them to the CDDB
+   * @throws IllegalArgumentException if given connection is null or batch size is non-positive
+   * @throws SQLException if auto commit fails to be turned off
+   */
+  ParseSession(Connection connection, int batchSize) throws SQLException {
+    if (connection == null) {
+      throw new IllegalArgumentException("Given connection can't be null!");
+    }
+    else if (batchSize < 1) {
+      throw new IllegalArgumentException("Given batch size must be positive!");
+    }
+    this.connection = connection;
+    this.batchSize = batchSize;
+    this.statements = new StatementRegistry(connection);
+    this.batches = new HashMap<>();
+    this.existenceIndex = new ExistenceIndex(statements);
+    this.refreshedKeys = new HashMap<>();
+    this.pendingRows = 0;
+    connection.setAutoCommit(false);
+  }
+
+  /**
+   * Executes the query for the given SQL with the given values bound to it, in order, reusing the
+   * statement prepared for that SQL earlier in this session if any.
+   * @param sql SQL of the query
+   * @param values values to bind
+   * @return results of the query, to be closed by the caller
+   * @throws SQLException if the query fails to be executed
+   */
+  ResultSet executeQuery(String sql, Object... values) throws SQLException {
+    return statements.executeQuery(sql, values);
+  }
+
+  /**
+   * Executes the update for the given SQL with the given values bound to it, in order, reusing the
+   * statement prepared for that SQL earlier in this session if any. Update is written immediately
+   * rather than queued, but is still only committed with the rest of the transaction.
+   * @param sql SQL of the update
+   * @param values values to bind
+   * @throws SQLException if the update fails to be executed
+   */
+  void executeUpdate(String sql, Object... values) throws SQLException {
+    statements.executeUpdate(sql, values);
+  }
+
+  /**
+   * Returns the number of statements prepared in this session.
+   * @return number of statements prepared
+   */
+  int getPrepareCount() {
+    return statements.getPrepareCount();
+  }
+
+  /**
+   * Returns the number of statement executions made in this session, each row of a batch
+   * counting as its own execution.
+   * @return number of executions
+   */
+  long getExecutionCount() {
+    return statements.getExecutionCount();
+  }
+
+  /**
+   * Queues a row to be inserted into the given table, writing all queued rows if enough rows have
+   * been queued.
+   * @param table table the row is for
+   * @param insertStatement parameterized insert statement for the table
+   * @param values values to bind to the insert statement, in order
+   * @throws IllegalArgumentException if given table isn't a table written to by the parser
+   * @throws SQLException if the row fails to be queued, or queued rows fail to be written
+   */
+  void addBatch(String table, String insertStatement, Object... values) throws SQLException {
+    if (!tableOrder.contains(table)) {
+      throw new IllegalArgumentException(String.format("Table %s isn't written to by the parser!",
+          table));
+    }
+
+    batches.put(table, insertStatement);
+    statements.addBatch(insertStatement, values);
+    pendingRows++;
+
+    if (pendingRows >= batchSize) {
+      flush();
+    }
+  }
+
+  /**
+   * Loads the keys of the rows already in the CDDB for the given set and its cards, in place of
+   * those loaded for the set before. Should only be called with nothing left uncommitted.
+   * @param setName full name of the set about to be added
+   * @param cardNames names of the cards of the set
+   * @throws IllegalArgumentException if given set name or card names are null
+   * @throws SQLException if the keys fail to be loaded
+   */
+  void loadSet(String setName, Collection<String> cardNames) throws SQLException {
+    existenceIndex.loadSet(setName, cardNames);
+  }
+
+  /**
+   * Records that a row with the given key has been written or queued for the given table, so it
+   * will be found by {@link #exists(String, String...)}. Key is dropped again if the transaction
+   * it was added in is rolled back.
+   * @param table table the row is for
+   * @param key key of the row
+   * @throws IllegalArgumentException if given table isn't one whose keys are indexed
+   */
+  void markAdded(String table, String... key) {
+    existenceIndex.add(table, key);
+  }
+
+  /**
+   * Returns if a row with the given key is in the given table, or has been queued to be added to
+   * it, only querying the CDDB if the key wasn't loaded with the current set.
+   * @param table table the row is for
+   * @param key key of the row
+   * @return if the row exists
+   * @throws IllegalArgumentException if given table isn't one whose keys are indexed
+   * @throws SQLException if the CDDB fails to be checked for the row
+   */
+  boolean exists(String table, String... key) throws SQLException {
+    return existenceIndex.contains(table, key);
+  }
+
+  /**
+   * Records that the row with the given key in the given table is being refreshed in the current
+   * transaction, so a row appearing more than once in a set is only refreshed once.
+   * @param table table the row is for
+   * @param key key of the row
+   * @return if the row hasn't already been refreshed in the current transaction
+   */
+  boolean markRefreshed(String table, String... key) {
+    return refreshedKeys.computeIfAbsent(table, k -> new HashSet<>()).add(Arrays.asList(key));
+  }
+
+  /**
+   * Writes all queued rows to the CDDB, table by table, without committing them.
+   * @throws SQLException if any queued rows fail to be written
+   */
+  void flush() throws SQLException {
+    for (String table : tableOrder) {
+      String insertStatement = batches.get(table);
+      if (insertStatement != null) {
+        try {
+          statements.executeBatch(insertStatement);
+        }
+        catch (BatchUpdateException e) {
+          throw new SQLException(e.getMessage() +
+              String.format("\n Failed to add batch of rows to table %s!", table));
+        }
+      }
+    }
+    pendingRows = 0;
+  }
+
+  /**
+   * Writes all queued rows to the CDDB and commits everything written since the last commit.
+   * @throws SQLException if queued rows fail to be written, or the transaction fails to commit
+   */
+  void commit() throws SQLException {
+    flush();
+    connection.commit();
+    existenceIndex.commit();
+    refreshedKeys.clear();
+  }
+
+  /**
+   * Drops all queued rows and rolls back everything written since the last commit.
+   * @throws SQLException if the transaction fails to be rolled back
+   */
+  void rollback() throws SQLException {
+    statements.clearBatches();
+    pendingRows = 0;
+    existenceIndex.rollback();
+    refreshedKeys.clear();
+    connection.rollback();
+  }
+
+  /**
+   * Rolls back anything left uncommitted, closes every statement prepared in this session, and
+   * turns auto commit back on. Doesn't close the connection itself.
+   * @throws SQLException if the session fails to be closed
+   */
+  @Override
+  public void close() throws SQLException {
+    try {
+      rollback();
+      statements.close();
+      batches.clear();
+    }
+    finally {
+      connection.setAutoCommit(true);
+    }
+  }
+}
@@ -0,0 +1,43 @@
+package database.parsing;
+
+/**
+ * A single row to insert into a table of the Card & Deck Database (CDDB), decoded from MTGJSON and
+ * ready to be written as is.
+ */
+class Row {
+
+  private final String table;
+
+  private final String insertStatement;
+
+  private final Object[] values;
+
+  /**
+   * Constructs a {@link Row} from the table it's for, the parameterized insert statement for that
+   * table, and the values to bind to the statement.
+   * @param table table the row is for
+   * @param insertStatement parameterized insert statement for the table
+   * @param values values to bind to the insert statement, in order
+   * @throws IllegalArgumentException if the given table or insert statement is null
+   */
+  Row(String table, String insertStatement, Object... values) {
+    if (table == null || insertStatement == null) {
+      throw new IllegalArgumentException("Given table and insert statement can't be null!");
+    }
+    this.table = table;
+    this.insertStatement = insertStatement;
+    this.values = values;
+  }
+
+  String getTable() {
+    return table;
+  }
+
+  String getInsertStatement() {
+    return insertStatement;
+  }
+
+  Object[] getValues() {
+    return values;
+  }
+}
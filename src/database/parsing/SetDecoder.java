@@ -0,0 +1,453 @@
+package database.parsing;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.TreeSet;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Decodes MTG sets from MTGJSON into the rows to add to the Card & Deck Database (CDDB) for them.
+ * Decoding only reads the given JSON and never touches the CDDB, so sets can be decoded on any
+ * thread, independent of whatever is writing to the CDDB.
+ */
+class SetDecoder {
+
+  /**
+   * Representation to use for a card lacks any color or color identity, i.e. colorless cards.
+   */
+  private static final String colorlessRepresentation = "C";
+
+  /**
+   * Key of the metadata of a set, about the MTGJSON release rather than the set itself.
+   */
+  private static final String metaKey = "meta";
+
+  /**
+   * Given a JSONObject of a MTG set from MTGJSON, decodes it and each of its cards into the rows
+   * to add to the CDDB for them.
+   * @param set JSON object of a MTG set to decode
+   * @return the decoded set
+   * @throws IllegalArgumentException if given set is null, or the set or one of its cards doesn't
+   *         have one of the required / documented fields
+   * @throws IllegalStateException if one of the set's cards is malformed
+   */
+  DecodedSet decode(JSONObject set) {
+    if (set == null) {
+      throw new IllegalArgumentException("Given set can't be null!");
+    }
+
+    // Check for required keys
+    String[] requiredKeys = new String[]{"code", "totalSetSize", "name", "cards", "releaseDate"};
+    for (String key : requiredKeys) {
+      if (!set.has(key)) {
+        throw new IllegalArgumentException(String.format("Given JSONObject isn't a set, "
+            + "doesn't have required field \"%s\"!", key));
+      }
+    }
+
+    String setName = set.getString("name");
+    String shorthandSetName = set.getString("code").toUpperCase();
+
+    List<Row> setRows = new ArrayList<>();
+    LocalDate releaseDate = LocalDate.parse(set.getString("releaseDate"));
+    setRows.add(new Row("Expansion",
+        "INSERT INTO Expansion(expansion,abbrv,size,release_date) VALUES (?,?,?,?)",
+        setName, shorthandSetName, set.getInt("totalSetSize"),
+        Timestamp.valueOf(releaseDate.atStartOfDay())));
+
+    // Add expansion's associated block if associated with one
+    if (set.has("block")) {
+      setRows.add(new Row("Block", "INSERT INTO Block(expansion,block) VALUES (?,?)", setName,
+          set.getString("block")));
+    }
+
+    JSONArray cards = set.getJSONArray("cards");
+    int length = cards.length();
+    List<DecodedCard> decodedCards = new ArrayList<>(length);
+    for (int i = 0; i < length; i += 1) {
+      decodedCards.add(decodeCard(cards.getJSONObject(i), setName));
+    }
+
+    String mtgjsonVersion = null;
+    String mtgjsonDate = null;
+    JSONObject meta = set.optJSONObject(metaKey);
+    if (meta != null) {
+      mtgjsonVersion = meta.optString("version", null);
+      mtgjsonDate = meta.optString("date", null);
+    }
+    return new DecodedSet(setName, shorthandSetName, setRows, decodedCards, fingerprint(set),
+        mtgjsonVersion, mtgjsonDate);
+  }
+
+  /**
+   * Given a JSONObject of a MTG set from MTGJSON, returns a SHA-256 hash of its content. Keys of
+   * every object are hashed in sorted order, so the hash doesn't depend on the order keys appear
+   * in, and the set's metadata is left out, so a set that is unchanged between MTGJSON releases
+   * keeps the same hash.
+   * @param set JSON object of a MTG set
+   * @return hash of the set as a hex string
+   * @throws IllegalStateException if SHA-256 isn't supported
+   */
+  private String fingerprint(JSONObject set) {
+    StringBuilder canonical = new StringBuilder();
+    appendCanonical(set, canonical, true);
+    try {
+      byte[] hash = MessageDigest.getInstance("SHA-256")
+          .digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+      return String.format("%064x", new BigInteger(1, hash));
+    }
+    catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e.getMessage() + "\n SHA-256 isn't supported!");
+    }
+  }
+
+  /**
+   * Appends the canonical JSON text of the given value, with the keys of every object in sorted
+   * order, to the given builder.
+   * @param value JSON value to append
+   * @param canonical builder to append to
+   * @param isSet if the value is the top level object of a set, whose metadata is left out
+   */
+  private void appendCanonical(Object value, StringBuilder canonical, boolean isSet) {
+    if (value instanceof JSONObject) {
+      JSONObject object = (JSONObject) value;
+      canonical.append('{');
+      boolean first = true;
+      for (String key : new TreeSet<>(object.keySet())) {
+        if (isSet && key.equals(metaKey)) {
+          continue;
+        }
+        if (!first) {
+          canonical.append(',');
+        }
+        first = false;
+        canonical.append(JSONObject.quote(key)).append(':');
+        appendCanonical(object.get(key), canonical, false);
+      }
+      canonical.append('}');
+    }
+    else if (value instanceof JSONArray) {
+      JSONArray array = (JSONArray) value;
+      canonical.append('[');
+      for (int i = 0; i < array.length(); i++) {
+        if (i > 0) {
+          canonical.append(',');
+        }
+        appendCanonical(array.get(i), canonical, false);
+      }
+      canonical.append(']');
+    }
+    else {
+      canonical.append(JSONObject.valueToString(value));
+    }
+  }
+
+  /**
+   * Given the JSON object of a MTG card, from JSON file from MTGJSON, decodes it into the rows to
+   * add to the CDDB for it.
+   * @param card card to decode
+   * @param setName name of the expansion the given card is associated with
+   * @return the decoded card
+   * @throws IllegalArgumentException if given JSON object is null or doesn't have a required key
+   *         as per MTGJSON's documentation
+   * @throws IllegalStateException if the given card is malformed
+   */
+  private DecodedCard decodeCard(JSONObject card, String setName) {
+    if (card == null) {
+      throw new IllegalArgumentException("Give card can't be null!");
+    }
+
+    // Check for required keys
+    String[] requiredKeys = new String[]{"name", "convertedManaCost", "number", "rarity"};
+    for (String key : requiredKeys) {
+      if (!card.has(key)) {
+        throw new IllegalArgumentException(String.format("Given JSONObject isn't a card, "
+            + "doesn't have required field \"%s\"!", key));
+      }
+    }
+
+    String cardName = card.getString("name");
+
+    // Basic info, colors, color identity, super types, types, and subtypes, mana types, and extra
+    // stats of the card
+    List<Row> cardRows = new ArrayList<>();
+    addBaseCardInfo(card, cardRows);
+    addCardColorInfo(card, cardRows, "colors", "Color");
+    addCardColorInfo(card, cardRows, "colorIdentity", "ColorIdentity");
+    addCardTypes(card, "Supertype", "supertypes", cardRows);
+    addCardTypes(card, "Type", "types", cardRows);
+    addCardTypes(card, "Subtype", "subtypes", cardRows);
+    addCardManaCosts(card, cardRows);
+    addStats(card, cardRows);
+
+    // If card is multifaced, relationship between its faces
+    String[] faceNames = null;
+    Row faceRow = null;
+    if (card.has("names")) {
+      String[] cardNames = JSONArrayToStringArray(card.getJSONArray("names"));
+      if (cardNames.length > 1) {
+        if (!card.has("layout")) {
+          throw new IllegalStateException(String.format("Given card %s is malformed, has multiple"
+              + " card names associated with it, but no stated layout!", cardName));
+        }
+        faceNames = cardNames;
+        faceRow = multifacedRow(card, cardNames);
+      }
+    }
+
+    String number = card.getString("number");
+    return new DecodedCard(cardName, cardRows, faceNames, faceRow, number,
+        printingRows(card, setName, number));
+  }
+
+  /**
+   * Given {@link JSONObject} of a MTG card from a MTGJSON JSON file, decodes its base stats like
+   * its name and card text.
+   * @param card JSONObject of card to decode
+   * @param rows rows to add decoded rows to
+   */
+  private void addBaseCardInfo(JSONObject card, List<Row> rows) {
+    String cardText = "";
+    if (card.has("text")) {
+      cardText = card.getString("text");
+    }
+
+    String cardCMCQuery;
+    if (card.has("faceConvertedManaCost")) {
+      cardCMCQuery = "faceConvertedManaCost";
+    }
+    else {
+      cardCMCQuery = "convertedManaCost";
+    }
+    int cardCMC = (int) card.getFloat(cardCMCQuery);
+
+    rows.add(new Row("Card", "INSERT INTO Card(name,text,cmc) VALUES (?,?,?)",
+        card.getString("name"), cardText, cardCMC));
+  }
+
+  /**
+   * Given {@link JSONObject} of a MTG card from a MTGJSON JSON file, decodes the colors under the
+   * given attribute, if it has any. Else decodes an association to being colorless.
+   * @param card JSONObject of card to decode
+   * @param rows rows to add decoded rows to
+   * @param attributeName JSON attribute holding the colors
+   * @param tableName table the colors are for
+   */
+  private void addCardColorInfo(JSONObject card, List<Row> rows, String attributeName,
+      String tableName) {
+    String cardName = card.getString("name");
+    String[] colors;
+    if (card.has(attributeName)) {
+      colors = JSONArrayToStringArray(card.getJSONArray(attributeName));
+      if (colors.length == 0) {
+        colors = new String[]{colorlessRepresentation};
+      }
+    }
+    else {
+      colors = new String[]{colorlessRepresentation};
+    }
+
+    String insertColor = String.format("INSERT INTO %s(card_name,color) VALUES (?,?)", tableName);
+    for (String color : colors) {
+      rows.add(new Row(tableName, insertColor, cardName, color));
+    }
+  }
+
+  /**
+   * Given {@link JSONObject} of a MTG card from a MTGJSON JSON file, decodes its types for the
+   * given category of type, if it has any. Types include supertypes, types, and subtypes.
+   * @param card JSONObject of card to decode
+   * @param table table the types are for
+   * @param category category of type to decode
+   * @param rows rows to add decoded rows to
+   */
+  private void addCardTypes(JSONObject card, String table, String category, List<Row> rows) {
+    if (card.has(category)) {
+      String cardName = card.getString("name");
+      String insertType = String.format("INSERT INTO %s(card_name,type) VALUES (?,?)", table);
+      for (String type : JSONArrayToStringArray(card.getJSONArray(category))) {
+        rows.add(new Row(table, insertType, cardName, type));
+      }
+    }
+  }
+
+  /**
+   * Given {@link JSONObject} of a MTG card from a MTGJSON JSON file, decodes its mana costs, if it
+   * has any.
+   * @param card JSONObject of card to decode
+   * @param rows rows to add decoded rows to
+   */
+  private void addCardManaCosts(JSONObject card, List<Row> rows) {
+    if (card.has("manaCost")) {
+      String cardName = card.getString("name");
+      String[] manaCosts = card.getString("manaCost").split("(?=\\{)");
+      HashMap<String, Integer> uniqueManaCosts = new HashMap<>();
+      for (String manaCost : manaCosts) {
+        if (uniqueManaCosts.containsKey(manaCost)) {
+          uniqueManaCosts.replace(manaCost, uniqueManaCosts.get(manaCost) + 1);
+        } else {
+          String withOutBrackets = manaCost.substring(1, manaCost.length() - 1);
+          if (withOutBrackets.matches("\\d+")) {
+            uniqueManaCosts.put("{1}", Integer.parseInt(withOutBrackets));
+          }
+          else {
+            uniqueManaCosts.put(manaCost, 1);
+          }
+        }
+      }
+
+      String manaCostInsert = "INSERT INTO Mana(card_name,mana_type,quantity) VALUES (?,?,?)";
+      for (String manaCost : uniqueManaCosts.keySet()) {
+        rows.add(new Row("Mana", manaCostInsert, cardName, manaCost,
+            uniqueManaCosts.get(manaCost)));
+      }
+    }
+  }
+
+  /**
+   * Given {@link JSONObject} of a MTG card from a MTGJSON JSON file, decodes any extra info it may
+   * have, if any, either power & toughness or loyalty.
+   * @param card JSONObject of card to decode
+   * @param rows rows to add decoded rows to
+   */
+  private void addStats(JSONObject card, List<Row> rows) {
+    String cardName = card.getString("name");
+
+    if (card.has("power") && card.has("toughness")) {
+      String power = card.getString("power");
+      String toughness = card.getString("toughness");
+      String ptInsert = "INSERT INTO PowerToughness(card_name,power,power_value,"
+          + "toughness,toughness_value) VALUES (?,?,?,?,?)";
+      rows.add(new Row("PowerToughness", ptInsert, cardName, power, stringToInteger(power),
+          toughness, stringToInteger(toughness)));
+    }
+    else if (card.has("loyalty")) {
+      String loyalty = card.getString("loyalty");
+      String loyaltyInsert = "INSERT INTO Loyalty(card_name,loyalty,loyalty_value) VALUES (?,?,?)";
+      rows.add(new Row("Loyalty", loyaltyInsert, cardName, loyalty, stringToInteger(loyalty)));
+    }
+  }
+
+  /**
+   * Given {@link JSONObject} of a MTG card from a MTGJSON JSON file with two or three faces,
+   * decodes the relationship between its faces.
+   * @param card JSONObject of card to decode
+   * @param cardNames names of each face of the card
+   * @return row relating the faces of the card
+   * @throws IllegalStateException if the card has an unsupported number of faces
+   */
+  private Row multifacedRow(JSONObject card, String[] cardNames) {
+    String layout = card.getString("layout");
+    int totalCMC = (int) card.getFloat("convertedManaCost");
+    if (cardNames.length == 2) {
+      return new Row("TwoCards", "INSERT INTO TwoCards(card_a,card_b,type,total_cmc) "
+          + "VALUES (?,?,?,?)", cardNames[0], cardNames[1], layout, totalCMC);
+    }
+    else if (cardNames.length == 3) {
+      return new Row("ThreeCards", "INSERT INTO ThreeCards(card_a,card_b,card_c,type,total_cmc) "
+          + "VALUES (?,?,?,?,?)", cardNames[0], cardNames[1], cardNames[2], layout, totalCMC);
+    }
+    // Should never reach
+    throw new IllegalStateException(String.format("Given card %s has an unsupported number "
+        + "of faces, %d!", card.getString("name"), cardNames.length));
+  }
+
+  /**
+   * Given {@link JSONObject} of a MTG card from a MTGJSON JSON file, decodes info about the
+   * relationship between card and set currently being decoded (which card is apart of) and the
+   * artists of that printing.
+   * @param card JSONObject of card to decode
+   * @param setName name of the set the given card is associated with
+   * @param number number of the card in the set
+   * @return rows about the printing, empty if the card lacks an artist, rarity, or Scryfall id
+   */
+  private List<Row> printingRows(JSONObject card, String setName, String number) {
+    if (!(card.has("artist") && card.has("rarity") && card.has("scryfallId"))) {
+      return Collections.emptyList();
+    }
+
+    String cardName = card.getString("name");
+    List<Row> rows = new ArrayList<>();
+    String flavorText = card.has("flavorText") ? card.getString("flavorText") : "";
+    rows.add(new Row("CardExpansion",
+        "INSERT INTO CardExpansion(card_name,expansion,number,rarity,flavor_text,scryfall_id) "
+            + "VALUES (?,?,?,?,?,?)", cardName, setName, number, card.getString("rarity"),
+        flavorText, card.getString("scryfallId")));
+
+    // Add artists
+    String artistInsertStatement = "INSERT INTO Artist(card_name,expansion,number,artist) "
+        + "VALUES (?,?,?,?)";
+    for (String artist : card.getString("artist").split(" & ")) {
+      rows.add(new Row("Artist", artistInsertStatement, cardName, setName, number, artist));
+    }
+    return rows;
+  }
+
+  /**
+   * Given a string, converts it to an integer based on the first k numbers (0 to 9) present in the
+   * string(or hyphen "-" in the first position of the given string to indicate a negative value).
+   * If no number or starting "-" are present, returns 0.
+   * @param value string value to convert
+   * @return integer version of given string value
+   * @throws IllegalArgumentException if given string is null
+   */
+  private int stringToInteger(String value) {
+    if (value == null) {
+      throw new IllegalArgumentException(String.format("Given value %s can't be null!", value));
+    }
+
+    StringBuilder toReturn = new StringBuilder();
+    char[] chars = value.toCharArray();
+    for (int i = 0; i < chars.length; i++) {
+      char curChar = chars[i];
+      if ((i == 0 && curChar == '-') || ('0' <= curChar && curChar <= '9')) {
+        toReturn.append(curChar);
+      }
+      else {
+        break;
+      }
+    }
+
+    String toReturnString = toReturn.toString();
+    // Empty or only a hyphen
+    if (toReturnString.isEmpty() || (toReturnString.length() == 1 && toReturnString.equals("-"))) {
+      return 0;
+    }
+    return Integer.parseInt(toReturnString);
+  }
+
+  /**
+   * Given a JSONArray of Strings, converts it to an array of Strings.
+   * @param toConvert JSONArray of Strings to convert
+   * @return resulting String array
+   * @throws IllegalArgumentException if given JSONArray is null, or isn't entirely made of Strings
+   */
+  private String[] JSONArrayToStringArray(JSONArray toConvert) {
+    if (toConvert == null) {
+      throw new IllegalArgumentException("Give JSONArray can't be null!");
+    }
+
+    try {
+      int length = toConvert.length();
+      String[] toReturn = new String[length];
+      for (int i = 0; i < length; i += 1) {
+        toReturn[i] = toConvert.getString(i);
+      }
+      return toReturn;
+    }
+    catch (JSONException e) {
+      throw new IllegalArgumentException(e.getMessage() +
+          "\n Given JSON array isn't entirely made of Strings!");
+    }
+  }
+}
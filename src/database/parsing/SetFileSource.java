@@ -0,0 +1,202 @@
+package database.parsing;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import org.json.JSONObject;
+import value_objects.utility.Pair;
+
+/**
+ * Reads MTG sets from a collection of JSON files from MTGJSON, either the files of a directory or
+ * the entries of a zip archive, one file at a time. Each file may itself be gzip or xz compressed,
+ * and is decompressed as it is read. Each file may be a single set, keyed by the shorthand name
+ * given in the set, or multiple sets keyed by their shorthand names, as told by the shape of its
+ * JSON by a {@link StreamingSetReader}.
+ */
+class SetFileSource implements SetSource {
+
+  /**
+   * Files of the directory being read, in sorted order, null if reading a zip archive.
+   */
+  private final Iterator<Path> files;
+
+  /**
+   * Zip archive being read, null if reading a directory.
+   */
+  private final ZipInputStream zip;
+
+  /**
+   * Reader over the file currently being read, null if none has been opened yet, or the last one
+   * has been read through.
+   */
+  private StreamingSetReader reader;
+
+  /**
+   * Name of the file currently being read, null if none.
+   */
+  private String fileName;
+
+  /**
+   * Takes in either the files of a directory or a zip archive to read sets from.
+   * @param files files of the directory, null if reading a zip archive
+   * @param zip zip archive, null if reading a directory
+   */
+  private SetFileSource(Iterator<Path> files, ZipInputStream zip) {
+    this.files = files;
+    this.zip = zip;
+    this.reader = null;
+    this.fileName = null;
+  }
+
+  /**
+   * Creates a {@link SetFileSource} over the JSON files, plain or compressed, of the given
+   * directory, read in order of their file names. Subdirectories and other files are skipped.
+   * @param directory directory to read
+   * @return source over the directory's sets
+   * @throws IllegalArgumentException if given directory is null or fails to be listed
+   */
+  static SetFileSource ofDirectory(Path directory) {
+    if (directory == null) {
+      throw new IllegalArgumentException("Given directory can't be null!");
+    }
+
+    try (Stream<Path> listing = Files.list(directory)) {
+      List<Path> files = listing
+          .filter(file -> Files.isRegularFile(file)
+              && SetInputs.isSetFile(file.getFileName().toString()))
+          .sorted()
+          .collect(Collectors.toList());
+      return new SetFileSource(files.iterator(), null);
+    }
+    catch (IOException e) {
+      throw new IllegalArgumentException(e.getMessage() + "\n Failed to list given directory!");
+    }
+  }
+
+  /**
+   * Creates a {@link SetFileSource} over the JSON entries, plain or compressed, of the given zip
+   * archive, read in the order they appear in the archive. Other entries are skipped.
+   * @param zip opened archive to read
+   * @return source over the archive's sets
+   * @throws IllegalArgumentException if given archive is null
+   */
+  static SetFileSource ofZip(ZipInputStream zip) {
+    if (zip == null) {
+      throw new IllegalArgumentException("Given zip archive can't be null!");
+    }
+    return new SetFileSource(null, zip);
+  }
+
+  @Override
+  public boolean hasNextSet() {
+    while (true) {
+      if (reader != null) {
+        try {
+          if (reader.hasNextSet()) {
+            return true;
+          }
+        }
+        catch (IllegalArgumentException e) {
+          throw new IllegalArgumentException(e.getMessage() +
+              String.format("\n Failed to read sets of file %s!", fileName));
+        }
+        closeReader();
+      }
+      if (!openNextFile()) {
+        return false;
+      }
+    }
+  }
+
+  @Override
+  public Pair<String, JSONObject> nextSet() {
+    if (!hasNextSet()) {
+      throw new IllegalStateException("No sets left to read!");
+    }
+
+    try {
+      return reader.nextSet();
+    }
+    catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException(e.getMessage() +
+          String.format("\n Failed to read sets of file %s!", fileName));
+    }
+  }
+
+  /**
+   * Opens a reader over the next JSON file of the directory or archive, if any is left.
+   * @return if a file was opened
+   * @throws IllegalArgumentException if the file fails to be opened
+   */
+  private boolean openNextFile() {
+    if (files != null) {
+      if (!files.hasNext()) {
+        return false;
+      }
+      Path file = files.next();
+      fileName = file.getFileName().toString();
+      reader = new StreamingSetReader(SetInputs.openReader(file));
+      return true;
+    }
+
+    try {
+      ZipEntry entry;
+      while ((entry = zip.getNextEntry()) != null) {
+        if (!entry.isDirectory() && SetInputs.isSetFile(entry.getName())) {
+          fileName = entry.getName();
+          // Closing the entry's reader must leave the rest of the archive open
+          InputStream entryStream = new FilterInputStream(zip) {
+            @Override
+            public void close() {
+            }
+          };
+          reader = new StreamingSetReader(SetInputs.toReader(SetInputs.decompress(entryStream,
+              fileName)));
+          return true;
+        }
+      }
+      return false;
+    }
+    catch (IOException e) {
+      throw new IllegalArgumentException(e.getMessage() + "\n Failed to read zip archive!");
+    }
+  }
+
+  /**
+   * Closes the reader over the file currently being read, if any.
+   * @throws IllegalStateException if the reader fails to close
+   */
+  private void closeReader() {
+    if (reader != null) {
+      StreamingSetReader closing = reader;
+      reader = null;
+      fileName = null;
+      closing.close();
+    }
+  }
+
+  @Override
+  public void close() {
+    try {
+      closeReader();
+    }
+    finally {
+      if (zip != null) {
+        try {
+          zip.close();
+        }
+        catch (IOException e) {
+          throw new IllegalStateException(e.getMessage() + "\n Failed to close zip archive!");
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,215 @@
+package database.parsing;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import org.tukaani.xz.XZInputStream;
+
+/**
+ * Opens the inputs the parser accepts - JSON files from MTGJSON, either plain or compressed with
+ * gzip (".gz") or xz (".xz"), zip archives (".zip") of such files, and directories of such files.
+ * Compressed inputs are decompressed as they are read, never to disk.
+ */
+final class SetInputs {
+
+  /**
+   * Size of the buffer of each reader over an input, in chars.
+   */
+  private static final int bufferSize = 1 << 16;
+
+  private SetInputs() {
+  }
+
+  /**
+   * Returns if a file of the given name is one the parser can read sets from.
+   * @param fileName name of the file
+   * @return if the file is JSON, or gzip or xz compressed JSON
+   */
+  static boolean isSetFile(String fileName) {
+    String lowerCase = fileName.toLowerCase();
+    return lowerCase.endsWith(".json") || lowerCase.endsWith(".json.gz")
+        || lowerCase.endsWith(".json.xz");
+  }
+
+  /**
+   * Given a {@link Path} to a file of a single MTG set - JSON, gzip or xz compressed JSON, or a zip
+   * archive whose first JSON entry is the set - opens a {@link StreamingSetReader} over it.
+   * @param path path to the file
+   * @return reader over the file
+   * @throws IllegalArgumentException if given path is null, doesn't reference an existing file, or
+   *         the file fails to be opened or has no JSON in it
+   */
+  static StreamingSetReader openSet(Path path) {
+    checkPath(path);
+    if (Files.isDirectory(path)) {
+      throw new IllegalArgumentException("Given path is a directory, not a file of a set!");
+    }
+
+    if (isZip(path)) {
+      ZipInputStream zip = openZip(path);
+      boolean opened = false;
+      try {
+        ZipEntry entry;
+        while ((entry = zip.getNextEntry()) != null) {
+          if (!entry.isDirectory() && isSetFile(entry.getName())) {
+            StreamingSetReader reader = new StreamingSetReader(toReader(decompress(zip,
+                entry.getName())));
+            opened = true;
+            return reader;
+          }
+        }
+      }
+      catch (IOException e) {
+        throw new IllegalArgumentException(e.getMessage() +
+            "\n Failed to read zip archive from given path!");
+      }
+      finally {
+        if (!opened) {
+          close(zip);
+        }
+      }
+      throw new IllegalArgumentException("Given zip archive doesn't contain a JSON file!");
+    }
+    return new StreamingSetReader(openReader(path));
+  }
+
+  /**
+   * Given a {@link Path} to one or more MTG sets, opens a {@link SetSource} over them - a JSON file,
+   * plain or compressed, or a directory or zip archive of such files. Each file is read as either a
+   * single set or multiple sets keyed by their shorthand names, as told by the shape of its JSON,
+   * rather than by how many files there are.
+   * @param path path to the sets
+   * @return source over the sets
+   * @throws IllegalArgumentException if given path is null, doesn't exist, or fails to be opened
+   */
+  static SetSource openSets(Path path) {
+    checkPath(path);
+    if (Files.isDirectory(path)) {
+      return SetFileSource.ofDirectory(path);
+    }
+    else if (isZip(path)) {
+      return SetFileSource.ofZip(openZip(path));
+    }
+    return new StreamingSetReader(openReader(path));
+  }
+
+  /**
+   * Given a {@link Path} to a JSON file, plain or gzip or xz compressed, opens a buffered
+   * {@link Reader} over its decompressed text.
+   * @param path path to the file
+   * @return reader over the file's JSON text
+   * @throws IllegalArgumentException if the file fails to be opened
+   */
+  static Reader openReader(Path path) {
+    InputStream inputStream = null;
+    try {
+      inputStream = Files.newInputStream(path);
+      return toReader(decompress(inputStream, path.getFileName().toString()));
+    }
+    catch (IOException e) {
+      try {
+        if (inputStream != null) {
+          inputStream.close();
+        }
+      }
+      catch (IOException closeFailure) {
+        e.addSuppressed(closeFailure);
+      }
+      throw new IllegalArgumentException(e.getMessage() +
+          "\n Failed to open JSON file from given path!");
+    }
+  }
+
+  /**
+   * Wraps the given stream of a file of the given name in a decompressing stream, if the name
+   * marks it as gzip or xz compressed.
+   * @param inputStream stream of the file
+   * @param fileName name of the file
+   * @return stream of the file's decompressed content
+   * @throws IOException if the compressed stream is malformed
+   */
+  static InputStream decompress(InputStream inputStream, String fileName) throws IOException {
+    String lowerCase = fileName.toLowerCase();
+    InputStream buffered = new BufferedInputStream(inputStream, bufferSize);
+    if (lowerCase.endsWith(".gz")) {
+      return new GZIPInputStream(buffered, bufferSize);
+    }
+    else if (lowerCase.endsWith(".xz")) {
+      return new XZInputStream(buffered);
+    }
+    return buffered;
+  }
+
+  /**
+   * Wraps the given stream of UTF-8 JSON text in a buffered {@link Reader}.
+   * @param inputStream stream of JSON text
+   * @return reader over the text
+   */
+  static Reader toReader(InputStream inputStream) {
+    return new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8),
+        bufferSize);
+  }
+
+  /**
+   * Opens a {@link ZipInputStream} over the zip archive at the given path.
+   * @param path path to the archive
+   * @return stream over the archive's entries
+   * @throws IllegalArgumentException if the archive fails to be opened
+   */
+  static ZipInputStream openZip(Path path) {
+    try {
+      return new ZipInputStream(new BufferedInputStream(Files.newInputStream(path), bufferSize),
+          StandardCharsets.UTF_8);
+    }
+    catch (IOException e) {
+      throw new IllegalArgumentException(e.getMessage() +
+          "\n Failed to open zip archive from given path!");
+    }
+  }
+
+  /**
+   * Closes the given zip archive, for when nothing has been opened over it to close it instead.
+   * @param zip archive to close
+   * @throws IllegalArgumentException if the archive fails to close
+   */
+  private static void close(ZipInputStream zip) {
+    try {
+      zip.close();
+    }
+    catch (IOException e) {
+      throw new IllegalArgumentException(e.getMessage() + "\n Failed to close zip archive!");
+    }
+  }
+
+  /**
+   * Returns if the file at the given path is a zip archive, by its name.
+   * @param path path to the file
+   * @return if the file is a zip archive
+   */
+  private static boolean isZip(Path path) {
+    return path.getFileName().toString().toLowerCase().endsWith(".zip");
+  }
+
+  /**
+   * Checks that the given path isn't null and exists.
+   * @param path path to check
+   * @throws IllegalArgumentException if given path is null or doesn't exist
+   */
+  static void checkPath(Path path) {
+    if (path == null) {
+      throw new IllegalArgumentException("Given path can't be null!");
+    }
+    else if (Files.notExists(path)) {
+      throw new IllegalArgumentException("Given path doesn't exist!");
+    }
+  }
+}
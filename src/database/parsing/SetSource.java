@@ -0,0 +1,33 @@
+package database.parsing;
+
+import org.json.JSONObject;
+import value_objects.utility.Pair;
+
+/**
+ * Source of MTG sets from MTGJSON that are read one at a time, whether from a single JSON file of
+ * every set or from a collection of JSON files of a set each.
+ */
+interface SetSource extends AutoCloseable {
+
+  /**
+   * Returns if there is another set left to read.
+   * @return if there is another set to read
+   * @throws IllegalArgumentException if the source is malformed or fails to be read
+   */
+  boolean hasNextSet();
+
+  /**
+   * Reads the next set, only building that set in memory.
+   * @return shorthand name of the set, paired with the set itself
+   * @throws IllegalStateException if there is no set left to read
+   * @throws IllegalArgumentException if the source is malformed or fails to be read
+   */
+  Pair<String, JSONObject> nextSet();
+
+  /**
+   * Closes anything the source is reading from.
+   * @throws IllegalStateException if the source fails to be closed
+   */
+  @Override
+  void close();
+}
@@ -0,0 +1,176 @@
+package database.parsing;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Registry of the {@link PreparedStatement}s used over a single connection to the Card & Deck
+ * Database (CDDB). Each distinct SQL statement is prepared once, the first time it is asked for,
+ * and then reused for every later execution until the registry is closed. Keeps count of how many
+ * statements were prepared versus how many times statements were executed.
+ */
+class StatementRegistry implements AutoCloseable {
+
+  /**
+   * Connection to the CDDB statements are prepared on.
+   */
+  private final Connection connection;
+
+  /**
+   * Statements prepared so far, by their SQL.
+   */
+  private final Map<String, PreparedStatement> statements;
+
+  /**
+   * Number of statements prepared.
+   */
+  private int prepareCount;
+
+  /**
+   * Number of statement executions, each row of a batch counts as its own execution.
+   */
+  private long executionCount;
+
+  /**
+   * Takes in an open {@link Connection} to the CDDB to prepare statements on.
+   * @param connection connection to the CDDB
+   * @throws IllegalArgumentException if given connection is null
+   */
+  StatementRegistry(Connection connection) {
+    if (connection == null) {
+      throw new IllegalArgumentException("Given connection can't be null!");
+    }
+    this.connection = connection;
+    this.statements = new HashMap<>();
+    this.prepareCount = 0;
+    this.executionCount = 0;
+  }
+
+  /**
+   * Returns the statement for the given SQL, preparing it if this is the first time it has been
+   * asked for. Returned statement is owned by this registry and shouldn't be closed by the caller.
+   * @param sql SQL of the statement
+   * @return prepared statement for the given SQL
+   * @throws IllegalArgumentException if given SQL is null
+   * @throws SQLException if the statement fails to be prepared
+   */
+  PreparedStatement prepare(String sql) throws SQLException {
+    if (sql == null) {
+      throw new IllegalArgumentException("Given SQL can't be null!");
+    }
+
+    PreparedStatement preparedStatement = statements.get(sql);
+    if (preparedStatement == null) {
+      preparedStatement = connection.prepareStatement(sql);
+      statements.put(sql, preparedStatement);
+      prepareCount++;
+    }
+    return preparedStatement;
+  }
+
+  /**
+   * Executes the query for the given SQL with the given values bound to it, in order.
+   * @param sql SQL of the query
+   * @param values values to bind
+   * @return results of the query, to be closed by the caller
+   * @throws SQLException if the query fails to be executed
+   */
+  ResultSet executeQuery(String sql, Object... values) throws SQLException {
+    PreparedStatement preparedStatement = bind(sql, values);
+    executionCount++;
+    return preparedStatement.executeQuery();
+  }
+
+  /**
+   * Executes the update for the given SQL with the given values bound to it, in order.
+   * @param sql SQL of the update
+   * @param values values to bind
+   * @return number of rows changed
+   * @throws SQLException if the update fails to be executed
+   */
+  int executeUpdate(String sql, Object... values) throws SQLException {
+    PreparedStatement preparedStatement = bind(sql, values);
+    executionCount++;
+    return preparedStatement.executeUpdate();
+  }
+
+  /**
+   * Adds a row with the given values to the batch of the statement for the given SQL.
+   * @param sql SQL of the statement
+   * @param values values to bind
+   * @throws SQLException if the row fails to be added
+   */
+  void addBatch(String sql, Object... values) throws SQLException {
+    bind(sql, values).addBatch();
+  }
+
+  /**
+   * Executes the batch of the statement for the given SQL, if it has been prepared.
+   * @param sql SQL of the statement
+   * @throws SQLException if the batch fails to be executed
+   */
+  void executeBatch(String sql) throws SQLException {
+    PreparedStatement preparedStatement = statements.get(sql);
+    if (preparedStatement != null) {
+      executionCount += preparedStatement.executeBatch().length;
+    }
+  }
+
+  /**
+   * Drops any rows added to the batches of every prepared statement.
+   * @throws SQLException if a batch fails to be cleared
+   */
+  void clearBatches() throws SQLException {
+    for (PreparedStatement preparedStatement : statements.values()) {
+      preparedStatement.clearBatch();
+    }
+  }
+
+  /**
+   * Returns the number of statements prepared by this registry.
+   * @return number of statements prepared
+   */
+  int getPrepareCount() {
+    return prepareCount;
+  }
+
+  /**
+   * Returns the number of statement executions made through this registry, where each row of a
+   * batch counts as its own execution.
+   * @return number of executions
+   */
+  long getExecutionCount() {
+    return executionCount;
+  }
+
+  /**
+   * Binds the given values to the statement for the given SQL, in order.
+   * @param sql SQL of the statement
+   * @param values values to bind
+   * @return the statement with the values bound
+   * @throws SQLException if the values fail to be bound
+   */
+  private PreparedStatement bind(String sql, Object... values) throws SQLException {
+    PreparedStatement preparedStatement = prepare(sql);
+    for (int i = 0; i < values.length; i++) {
+      preparedStatement.setObject(i + 1, values[i]);
+    }
+    return preparedStatement;
+  }
+
+  /**
+   * Closes every statement prepared by this registry.
+   * @throws SQLException if a statement fails to be closed
+   */
+  @Override
+  public void close() throws SQLException {
+    for (PreparedStatement preparedStatement : statements.values()) {
+      preparedStatement.close();
+    }
+    statements.clear();
+  }
+}
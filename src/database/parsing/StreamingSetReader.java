@@ -0,0 +1,236 @@
+package database.parsing;
+
+import java.io.IOException;
+import java.io.Reader;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+import value_objects.utility.Pair;
+
+/**
+ * Reads MTG sets from a JSON file from MTGJSON one set at a time, walking the file token by token
+ * rather than building the whole file as a single {@link JSONObject}. At most one set is held in
+ * memory at a time, regardless of how many sets the file contains. Whether the file is a single set
+ * or multiple sets keyed by their shorthand names is told by the shape of its JSON - in a file of
+ * multiple sets, the value of the first key is itself a set, with a "code" of its own.
+ */
+class StreamingSetReader implements SetSource {
+
+  /**
+   * Reader supplying the JSON text being walked.
+   */
+  private final Reader reader;
+
+  /**
+   * Tokener walking the JSON text of the reader.
+   */
+  private final JSONTokener tokener;
+
+  /**
+   * If the opening brace of a file of multiple sets has been read.
+   */
+  private boolean started;
+
+  /**
+   * If the closing brace of a file of multiple sets has been read.
+   */
+  private boolean finished;
+
+  /**
+   * If a set has been read from a file of multiple sets, but not yet the separator following it.
+   */
+  private boolean separatorPending;
+
+  /**
+   * Set read ahead while telling what shape the file is, but not yet returned, null if none.
+   */
+  private Pair<String, JSONObject> pendingSet;
+
+  /**
+   * Takes in a {@link Reader} supplying the JSON text of one or more MTG sets from MTGJSON.
+   * @param reader reader to walk
+   * @throws IllegalArgumentException if given reader is null
+   */
+  StreamingSetReader(Reader reader) {
+    if (reader == null) {
+      throw new IllegalArgumentException("Given reader can't be null!");
+    }
+    this.reader = reader;
+    this.tokener = new JSONTokener(reader);
+    this.started = false;
+    this.finished = false;
+    this.separatorPending = false;
+    this.pendingSet = null;
+  }
+
+  /**
+   * Reads the entire JSON text as a single MTG set, for files that hold just one set.
+   * @return JSON object of the set
+   * @throws IllegalArgumentException if the JSON text isn't a single well formed JSON object
+   */
+  JSONObject readSet() {
+    try {
+      Object value = tokener.nextValue();
+      if (!(value instanceof JSONObject)) {
+        throw new IllegalArgumentException("Given JSON isn't a JSON object of a set!");
+      }
+      return (JSONObject) value;
+    }
+    catch (JSONException e) {
+      throw new IllegalArgumentException(e.getMessage() + "\n Failed to read set from JSON!");
+    }
+  }
+
+  /**
+   * Returns if there is another set left to read from the JSON file, either a file of a single set
+   * or of multiple sets, where the top level object maps each set's shorthand name to the set.
+   * @return if there is another set to read
+   * @throws IllegalArgumentException if the JSON text is malformed, including sets not separated by
+   *         exactly one comma, or a comma after the last set, or is a single set without a "code"
+   */
+  @Override
+  public boolean hasNextSet() {
+    if (pendingSet != null) {
+      return true;
+    }
+    else if (finished) {
+      return false;
+    }
+
+    try {
+      char next = tokener.nextClean();
+      if (!started) {
+        if (next != '{') {
+          throw tokener.syntaxError("A JSON file of sets must begin with '{'");
+        }
+        started = true;
+        next = tokener.nextClean();
+        if (next == '}') {
+          finished = true;
+          return false;
+        }
+        tokener.back();
+        readFirstMember();
+        return true;
+      }
+      else if (separatorPending) {
+        // Sets are separated by exactly one comma, and the last set is followed by the closing
+        // brace alone
+        if (next == '}') {
+          finished = true;
+          return false;
+        }
+        else if (next != ',') {
+          throw tokener.syntaxError("Expected ',' or '}' after a set");
+        }
+        separatorPending = false;
+        next = tokener.nextClean();
+      }
+
+      if (next != '"') {
+        throw tokener.syntaxError("Expected the shorthand name of a set");
+      }
+      tokener.back();
+      return true;
+    }
+    catch (JSONException e) {
+      throw new IllegalArgumentException(e.getMessage() + "\n Malformed JSON file of sets!");
+    }
+  }
+
+  /**
+   * Reads the next set from the JSON file, only building that set in memory.
+   * @return shorthand name of the set, as it appears in a file of multiple sets or as the "code" of
+   *         a single set, paired with the set itself
+   * @throws IllegalStateException if there is no set left to read
+   * @throws IllegalArgumentException if the JSON text is malformed
+   */
+  @Override
+  public Pair<String, JSONObject> nextSet() {
+    if (!hasNextSet()) {
+      throw new IllegalStateException("No sets left to read!");
+    }
+    else if (pendingSet != null) {
+      Pair<String, JSONObject> set = pendingSet;
+      pendingSet = null;
+      return set;
+    }
+
+    try {
+      Pair<String, Object> member = readMember();
+      if (!(member.getB() instanceof JSONObject)) {
+        throw tokener.syntaxError(String.format("Set %s isn't a JSON object", member.getA()));
+      }
+      separatorPending = true;
+      return new Pair<>(member.getA(), (JSONObject) member.getB());
+    }
+    catch (JSONException e) {
+      throw new IllegalArgumentException(e.getMessage() + "\n Malformed JSON file of sets!");
+    }
+  }
+
+  /**
+   * Reads the first key and value of the top level object, and tells from them whether the file is
+   * a single set or multiple sets. For multiple sets, the value is the first set. For a single set,
+   * the rest of the set is read as well, leaving nothing else to read.
+   * @throws JSONException if the JSON text is malformed
+   * @throws IllegalArgumentException if the file is a single set without a "code"
+   */
+  private void readFirstMember() {
+    Pair<String, Object> member = readMember();
+    if (member.getB() instanceof JSONObject && ((JSONObject) member.getB()).has("code")) {
+      pendingSet = new Pair<>(member.getA(), (JSONObject) member.getB());
+      separatorPending = true;
+      return;
+    }
+
+    JSONObject set = new JSONObject();
+    set.put(member.getA(), member.getB());
+    char next;
+    while ((next = tokener.nextClean()) != '}') {
+      if (next != ',') {
+        throw tokener.syntaxError("Expected ',' or '}' after a value of a set");
+      }
+      member = readMember();
+      set.put(member.getA(), member.getB());
+    }
+    finished = true;
+
+    if (!set.has("code")) {
+      throw new IllegalArgumentException("Given JSON is neither a set, having required field "
+          + "\"code\", nor a file of sets!");
+    }
+    pendingSet = new Pair<>(set.getString("code"), set);
+  }
+
+  /**
+   * Reads a single key and its value from the top level object.
+   * @return key paired with its value
+   * @throws JSONException if the JSON text is malformed
+   */
+  private Pair<String, Object> readMember() {
+    if (tokener.nextClean() != '"') {
+      throw tokener.syntaxError("Expected a key");
+    }
+    tokener.back();
+    String key = tokener.nextValue().toString();
+    if (tokener.nextClean() != ':') {
+      throw tokener.syntaxError(String.format("Expected ':' after key %s", key));
+    }
+    return new Pair<>(key, tokener.nextValue());
+  }
+
+  /**
+   * Closes the underlying {@link Reader}.
+   * @throws IllegalStateException if the reader fails to close
+   */
+  @Override
+  public void close() {
+    try {
+      reader.close();
+    }
+    catch (IOException e) {
+      throw new IllegalStateException(e.getMessage() + "\n Failed to close JSON file!");
+    }
+  }
+}
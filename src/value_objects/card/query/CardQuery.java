@@ -1,8 +1,10 @@
 package value_objects.card.query;
 
 import java.sql.SQLException;
+import java.util.List;
 import java.util.SortedSet;
 import value_objects.card.Card;
+import value_objects.utility.Pair;
 
 /**
  * Represents a query for {@link Card}s in the Card and Deck Database (CDDB) based off a selected
@@ -254,11 +256,24 @@ public interface CardQuery {
   /**
    * Returns this {@link CardQuery} as a string for for actual querying in the CDDB, as
    * determined by the parameters included so far. If no parameters have been entered, searches
-   * for all Cards ever printed.
+   * for all Cards ever printed. Words of names, text, and flavor text are searched for anywhere
+   * they appear, with "LIKE".
    * @return this query as a string query
    */
   String asQuery();
 
+  /**
+   * Returns this {@link CardQuery} as a parameterized query for actual querying in the CDDB, as
+   * determined by the parameters included so far - a query where every value searched by is a "?"
+   * placeholder, along with the values to bind to those placeholders in order. Queries with the
+   * same kinds and numbers of parameters share the same query text, no matter the values entered.
+   * Words of names, text, and flavor text are searched for through the full-text indices of the
+   * CDDB if it has them, matching words that start with each word searched by, falling back to
+   * "LIKE" as in {@link #asQuery()} for words that aren't made up of only letters and digits.
+   * @return this query as a query with placeholders, paired with the values to bind to them
+   */
+  Pair<String, List<Object>> asParameterizedQuery();
+
   /**
    * Resets this {@link CardQuery} of all entered parameters.
    */
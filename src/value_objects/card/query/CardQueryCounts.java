@@ -0,0 +1,93 @@
+package value_objects.card.query;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import value_objects.card.Card;
+
+/**
+ * Counts of the {@link Card}s matching a {@link CardQuery}, without the cards themselves - the
+ * number of matching cards and printings, and for each {@link Facet} the number of matching cards
+ * with each of its values. Values no matching card has are left out of a facet's counts.
+ */
+public class CardQueryCounts {
+
+  /**
+   * Number of matching cards.
+   */
+  private final int cardCount;
+
+  /**
+   * Number of matching printings of the matching cards.
+   */
+  private final int printingCount;
+
+  /**
+   * Number of matching cards with each value, by value, by facet.
+   */
+  private final Map<Facet, SortedMap<String, Integer>> facetCounts;
+
+  /**
+   * Creates counts of the cards matching a query, with every facet's counts empty.
+   * @param cardCount number of matching cards
+   * @param printingCount number of matching printings
+   * @throws IllegalArgumentException if either count is negative
+   */
+  public CardQueryCounts(int cardCount, int printingCount) {
+    if (cardCount < 0 || printingCount < 0) {
+      throw new IllegalArgumentException("Given counts can't be negative!");
+    }
+    this.cardCount = cardCount;
+    this.printingCount = printingCount;
+    this.facetCounts = new EnumMap<>(Facet.class);
+    for (Facet facet : Facet.values()) {
+      facetCounts.put(facet, new TreeMap<>());
+    }
+  }
+
+  /**
+   * Sets the number of matching cards with the given value of the given facet.
+   * @param facet facet of the value
+   * @param value value being counted
+   * @param count number of matching cards with the value
+   * @throws IllegalArgumentException if the facet or value is null, or the count is negative
+   */
+  public void putFacetCount(Facet facet, String value, int count) {
+    if (facet == null || value == null) {
+      throw new IllegalArgumentException("Given facet and value can't be null!");
+    }
+    else if (count < 0) {
+      throw new IllegalArgumentException("Given count can't be negative!");
+    }
+    facetCounts.get(facet).put(value, count);
+  }
+
+  public int getCardCount() {
+    return cardCount;
+  }
+
+  public int getPrintingCount() {
+    return printingCount;
+  }
+
+  /**
+   * Returns the number of matching cards with each value of the given facet.
+   * @param facet facet to get the counts of
+   * @return mapping of the values of the facet to the number of matching cards with each
+   * @throws IllegalArgumentException if given facet is null
+   */
+  public SortedMap<String, Integer> getFacetCounts(Facet facet) {
+    if (facet == null) {
+      throw new IllegalArgumentException("Given facet can't be null!");
+    }
+    return Collections.unmodifiableSortedMap(facetCounts.get(facet));
+  }
+
+  @Override
+  public String toString() {
+    return String.format("CardQueryCounts[cards=%d, printings=%d, facets=%s]", cardCount,
+        printingCount, facetCounts);
+  }
+}
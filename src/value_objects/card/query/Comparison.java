@@ -26,6 +26,29 @@ public enum Comparison {
     return value;
   }
 
+  /**
+   * Returns if the given value meets this comparison to the given quantity.
+   * @param value value to compare
+   * @param quantity quantity to compare the value to
+   * @return if this comparison holds between the value and quantity
+   */
+  public boolean compare(int value, int quantity) {
+    switch (this) {
+      case UNEQUAL:
+        return value != quantity;
+      case EQUAL:
+        return value == quantity;
+      case LESS:
+        return value < quantity;
+      case LESS_EQUAL:
+        return value <= quantity;
+      case GREATER:
+        return value > quantity;
+      default:
+        return value >= quantity;
+    }
+  }
+
   @Override
   public String toString() {
     return value;
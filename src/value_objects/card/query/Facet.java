@@ -0,0 +1,50 @@
+package value_objects.card.query;
+
+import value_objects.card.Card;
+
+/**
+ * Qualities of MTG {@link Card}s that the cards matching a {@link CardQuery} can be counted by,
+ * for how many of those cards have each value of the quality.
+ */
+public enum Facet {
+
+  /**
+   * Colors of a card.
+   */
+  COLOR,
+
+  /**
+   * Colors of a card's color identity.
+   */
+  COLOR_IDENTITY,
+
+  /**
+   * Supertypes of a card.
+   */
+  SUPERTYPE,
+
+  /**
+   * Types of a card.
+   */
+  TYPE,
+
+  /**
+   * Subtypes of a card.
+   */
+  SUBTYPE,
+
+  /**
+   * Expansions of a card's matching printings.
+   */
+  EXPANSION,
+
+  /**
+   * Rarities of a card's matching printings.
+   */
+  RARITY,
+
+  /**
+   * Artists of a card's matching printings.
+   */
+  ARTIST
+}
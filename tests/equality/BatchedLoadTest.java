@@ -0,0 +1,58 @@
+package equality;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import database.parsing.DefaultDatabaseParser;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests to verify that sets are added to the Card & Deck Database (CDDB) in batches within a
+ * single transaction per set, so the batch size doesn't change the content added, and a set that
+ * fails partway through leaves nothing of itself behind, over the Guilds of Ravnica set kept in
+ * resources.
+ */
+class BatchedLoadTest {
+
+  @DisplayName("Throws if batch size isn't positive")
+  @Test
+  public void nonPositiveBatchSize() throws IOException, SQLException {
+    DefaultDatabaseParser parser = FixtureDatabase.newParser(FixtureDatabase.newDatabasePath());
+    assertThrows(IllegalArgumentException.class, () -> parser.setBatchSize(0));
+    assertThrows(IllegalArgumentException.class, () -> parser.setBatchSize(-1));
+  }
+
+  @DisplayName("Any batch size gives the same content")
+  @Test
+  public void batchSizes() throws IOException, SQLException {
+    Path expectedDatabase = FixtureDatabase.newDatabasePath();
+    FixtureDatabase.newParser(expectedDatabase).parseSet(FixtureDatabase.setPath);
+    for (int batchSize : new int[]{1, 7, 100000}) {
+      Path pathToDatabase = FixtureDatabase.newDatabasePath();
+      DefaultDatabaseParser parser = FixtureDatabase.newParser(pathToDatabase);
+      parser.setBatchSize(batchSize);
+      parser.parseSet(FixtureDatabase.setPath);
+      assertEquals(FixtureDatabase.content(expectedDatabase),
+          FixtureDatabase.content(pathToDatabase), String.format("Batch size %d", batchSize));
+    }
+  }
+
+  @DisplayName("A set failing partway through leaves nothing of itself behind")
+  @Test
+  public void failedSet() throws IOException, SQLException {
+    Path pathToDatabase = FixtureDatabase.newDatabasePath();
+    DefaultDatabaseParser parser = FixtureDatabase.newParser(pathToDatabase);
+    parser.setBatchSize(10);
+    FixtureDatabase.execute(pathToDatabase, "CREATE TRIGGER Interrupt BEFORE INSERT ON "
+        + "CardExpansion WHEN new.number = '150' BEGIN SELECT RAISE(ABORT, 'Interrupted'); END");
+    assertThrows(SQLException.class, () -> parser.parseSet(FixtureDatabase.setPath));
+
+    for (String table : new String[]{"Expansion", "Card", "CardExpansion", "Artist",
+        "SetFingerprint"}) {
+      assertEquals(0, FixtureDatabase.rowCount(pathToDatabase, table), table);
+    }
+  }
+}
@@ -0,0 +1,212 @@
+package equality;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import database.access.DefaultDatabaseChannel;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import value_objects.card.Card;
+import value_objects.card.printing.InformativeCardPrinting;
+import value_objects.card.query.CardQuery;
+import value_objects.card.query.CardQueryCounts;
+import value_objects.card.query.Comparison;
+import value_objects.card.query.Facet;
+import value_objects.card.query.SearchOption;
+import value_objects.card.query.Stat;
+
+/**
+ * Tests to verify that the counts of the cards matching a card query, and of their printings and
+ * facet values, match the cards the full query returns and the values known for its cards, both
+ * when counted against the CDDB and against the in-memory card index, over a small CDDB of Guilds
+ * of Ravnica and a set reprinting some of its cards.
+ */
+class CardCountsTest {
+
+  public static DefaultDatabaseChannel sqlChannel;
+  public static DefaultDatabaseChannel indexChannel;
+
+  @BeforeAll
+  public static void init() throws IOException, SQLException {
+    Path pathToDatabase = FixtureDatabase.create();
+    sqlChannel = new DefaultDatabaseChannel(pathToDatabase);
+    indexChannel = new DefaultDatabaseChannel(pathToDatabase);
+    indexChannel.setCardIndexEnabled(true);
+  }
+
+  /**
+   * Adds one to the count of each of the given values.
+   * @param counts counts of each value
+   * @param values values to count
+   */
+  private static void count(Map<String, Integer> counts, Collection<String> values) {
+    for (String value : values) {
+      counts.merge(value, 1, Integer::sum);
+    }
+  }
+
+  /**
+   * Counts the number of cards with each value of each facet, from the cards the full query
+   * returns and their matching printings.
+   * @param cards cards returned by a query
+   * @return number of cards with each value, by facet
+   */
+  private static Map<Facet, SortedMap<String, Integer>> facetCounts(Collection<Card> cards) {
+    Map<Facet, SortedMap<String, Integer>> facetCounts = new EnumMap<>(Facet.class);
+    for (Facet facet : Facet.values()) {
+      facetCounts.put(facet, new TreeMap<>());
+    }
+    for (Card card : cards) {
+      count(facetCounts.get(Facet.COLOR), card.getColors());
+      count(facetCounts.get(Facet.COLOR_IDENTITY), card.getColorIdentity());
+      count(facetCounts.get(Facet.SUPERTYPE), card.getSupertypes());
+      count(facetCounts.get(Facet.TYPE), card.getTypes());
+      count(facetCounts.get(Facet.SUBTYPE), card.getSubtypes());
+
+      SortedSet<String> expansions = new TreeSet<>();
+      SortedSet<String> rarities = new TreeSet<>();
+      SortedSet<String> artists = new TreeSet<>();
+      for (InformativeCardPrinting printing : card.getCardPrintings()) {
+        expansions.add(printing.getCardExpansion());
+        rarities.add(printing.getRarity());
+        artists.addAll(printing.getArtists());
+      }
+      count(facetCounts.get(Facet.EXPANSION), expansions);
+      count(facetCounts.get(Facet.RARITY), rarities);
+      count(facetCounts.get(Facet.ARTIST), artists);
+    }
+    return facetCounts;
+  }
+
+  /**
+   * Applies the given filters to a query, and asserts the counts of the query through each channel
+   * match the cards, printings, and facet values of the full query.
+   * @param filters filters to apply to the queries
+   * @return number of matching cards
+   * @throws SQLException if a query fails
+   */
+  private static int assertCountsMatch(Consumer<CardQuery> filters) throws SQLException {
+    CardQuery cardQuery = sqlChannel.getQuery();
+    filters.accept(cardQuery);
+    SortedSet<Card> cards = sqlChannel.queryCards(cardQuery);
+    int printingCount = 0;
+    for (Card card : cards) {
+      printingCount += card.getCardPrintings().size();
+    }
+    Map<Facet, SortedMap<String, Integer>> expectedFacetCounts = facetCounts(cards);
+
+    for (DefaultDatabaseChannel channel : new DefaultDatabaseChannel[]{sqlChannel,
+        indexChannel}) {
+      CardQuery countQuery = channel.getQuery();
+      filters.accept(countQuery);
+      CardQueryCounts counts = channel.countCards(countQuery);
+      assertEquals(cards.size(), counts.getCardCount(), countQuery.asQuery());
+      assertEquals(printingCount, counts.getPrintingCount(), countQuery.asQuery());
+      for (Facet facet : Facet.values()) {
+        assertEquals(expectedFacetCounts.get(facet), counts.getFacetCounts(facet),
+            String.format("%s of %s", facet, countQuery.asQuery()));
+      }
+    }
+    return cards.size();
+  }
+
+  @DisplayName("Throws if null query")
+  @Test
+  public void nullQuery() {
+    assertThrows(IllegalArgumentException.class, () -> {
+      sqlChannel.countCards(null);
+    });
+  }
+
+  @DisplayName("No parameters")
+  @Test
+  public void noParameters() throws SQLException {
+    assertEquals(sqlChannel.getCatalog().getCardCount(), assertCountsMatch(query -> { }));
+  }
+
+  @DisplayName("Counts known cards of Guilds of Ravnica")
+  @Test
+  public void knownCounts() throws SQLException {
+    for (DefaultDatabaseChannel channel : new DefaultDatabaseChannel[]{sqlChannel,
+        indexChannel}) {
+      CardQueryCounts counts = channel.countCards(channel.getQuery());
+      assertEquals(278, counts.getCardCount());
+      assertEquals(323, counts.getPrintingCount());
+      assertEquals(66, counts.getFacetCounts(Facet.COLOR).get("W"));
+      assertEquals(Map.of("Basic", 5, "Legendary", 12), counts.getFacetCounts(Facet.SUPERTYPE));
+      assertEquals(143, counts.getFacetCounts(Facet.TYPE).get("Creature"));
+      assertEquals(17, counts.getFacetCounts(Facet.TYPE).get("Land"));
+      assertEquals(Map.of("Guilds of Ravnica", 278, FixtureDatabase.reprintSetName, 40),
+          counts.getFacetCounts(Facet.EXPANSION));
+      assertEquals(56, counts.getFacetCounts(Facet.RARITY).get("mythic"));
+
+      CardQuery landQuery = channel.getQuery();
+      landQuery.byType("Land", SearchOption.MustInclude);
+      CardQueryCounts landCounts = channel.countCards(landQuery);
+      assertEquals(17, landCounts.getCardCount());
+      assertEquals(Map.of("Basic", 5), landCounts.getFacetCounts(Facet.SUPERTYPE));
+    }
+  }
+
+  @Nested
+  @DisplayName("Filtered query tests")
+  class FilteredQueryTests {
+
+    @DisplayName("Card filters")
+    @Test
+    public void cardFilters() throws SQLException {
+      assertTrue(assertCountsMatch(query -> {
+        query.byType("Creature", SearchOption.MustInclude);
+        query.byColor("B", SearchOption.OneOf);
+        query.byColor("G", SearchOption.OneOf);
+      }) > 0);
+      assertCountsMatch(query -> {
+        query.bySubtype("Human", SearchOption.Disallow);
+        query.byStat(Stat.POWER, Comparison.GREATER_EQUAL, 3);
+      });
+    }
+
+    @DisplayName("Printing filters")
+    @Test
+    public void printingFilters() throws SQLException {
+      assertEquals(FixtureDatabase.reprintedCards, assertCountsMatch(query ->
+          query.bySet(FixtureDatabase.reprintSetName, SearchOption.MustInclude)));
+      assertCountsMatch(query -> {
+        query.byRarity("mythic", SearchOption.OneOf);
+        query.byRarity("uncommon", SearchOption.OneOf);
+        query.byColorIdentity("W", SearchOption.MustInclude);
+      });
+      assertCountsMatch(query -> query.byArtist("Svetlin Velinov", SearchOption.Disallow));
+    }
+
+    @DisplayName("Filters the index can't evaluate")
+    @Test
+    public void unsupportedFilters() throws SQLException {
+      assertCountsMatch(query -> {
+        query.byText("flying", SearchOption.MustInclude);
+        query.byFlavorText("guild", SearchOption.Disallow);
+      });
+    }
+
+    @DisplayName("No matching cards")
+    @Test
+    public void noMatches() throws SQLException {
+      assertEquals(0, assertCountsMatch(query -> {
+        query.bySupertype("Basic", SearchOption.MustInclude);
+        query.byType("Creature", SearchOption.MustInclude);
+      }));
+    }
+  }
+}
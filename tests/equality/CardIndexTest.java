@@ -0,0 +1,262 @@
+package equality;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import database.access.CardIndex;
+import database.access.DefaultDatabaseChannel;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import value_objects.card.Card;
+import value_objects.card.query.CardQuery;
+import value_objects.card.query.Comparison;
+import value_objects.card.query.SearchOption;
+import value_objects.card.query.Stat;
+
+/**
+ * Tests to verify that card queries evaluated against the in-memory {@link CardIndex} return the
+ * same cards and printings as the same queries run against the CDDB, over a small CDDB of Guilds
+ * of Ravnica and a set reprinting some of its cards.
+ */
+class CardIndexTest {
+
+  public static DefaultDatabaseChannel indexChannel;
+  public static DefaultDatabaseChannel sqlChannel;
+
+  @BeforeAll
+  public static void init() throws IOException, SQLException {
+    Path pathToDatabase = FixtureDatabase.create();
+    indexChannel = new DefaultDatabaseChannel(pathToDatabase);
+    indexChannel.setCardIndexEnabled(true);
+    sqlChannel = new DefaultDatabaseChannel(pathToDatabase);
+  }
+
+  /**
+   * Applies the given filters to a query through each channel, and asserts the index answered the
+   * query with the same printings as the CDDB did.
+   * @param filters filters to apply to the queries
+   * @return number of printings returned
+   * @throws SQLException if either query fails
+   */
+  private static int assertSamePrintings(Consumer<CardQuery> filters) throws SQLException {
+    CardQuery indexQuery = indexChannel.getQuery();
+    CardQuery sqlQuery = sqlChannel.getQuery();
+    filters.accept(indexQuery);
+    filters.accept(sqlQuery);
+
+    long answered = indexChannel.getCardIndex().getQueriesAnswered();
+    List<String> expected = FixtureDatabase.printings(sqlChannel.queryCards(sqlQuery));
+    List<String> actual = FixtureDatabase.printings(indexChannel.queryCards(indexQuery));
+    assertEquals(answered + 1, indexChannel.getCardIndex().getQueriesAnswered(),
+        indexQuery.asQuery());
+    assertEquals(expected, actual, indexQuery.asQuery());
+    return expected.size();
+  }
+
+  @DisplayName("No parameters")
+  @Test
+  public void noParameters() throws SQLException {
+    assertEquals(283 + FixtureDatabase.reprintedCards, assertSamePrintings(query -> { }));
+  }
+
+  @DisplayName("Holds every card and printing of the CDDB")
+  @Test
+  public void contents() throws SQLException {
+    CardIndex cardIndex = indexChannel.getCardIndex();
+    assertEquals(278, cardIndex.getCardCount());
+    assertEquals(283 + FixtureDatabase.reprintedCards, cardIndex.getPrintingCount());
+  }
+
+  @DisplayName("Answers with known cards of Guilds of Ravnica")
+  @Test
+  public void knownCards() throws SQLException {
+    CardQuery basicQuery = indexChannel.getQuery();
+    basicQuery.bySupertype("Basic", SearchOption.MustInclude);
+    List<String> basics = new ArrayList<>();
+    for (Card card : indexChannel.queryCards(basicQuery)) {
+      basics.add(card.getName());
+    }
+    assertEquals(Arrays.asList("Forest", "Island", "Mountain", "Plains", "Swamp"), basics);
+
+    CardQuery legendaryQuery = indexChannel.getQuery();
+    legendaryQuery.bySupertype("Legendary", SearchOption.MustInclude);
+    assertEquals(12, indexChannel.queryCards(legendaryQuery).size());
+
+    CardQuery creatureQuery = indexChannel.getQuery();
+    creatureQuery.byType("Creature", SearchOption.MustInclude);
+    assertEquals(143, indexChannel.queryCards(creatureQuery).size());
+  }
+
+  @DisplayName("Queries the index can't evaluate go to the CDDB")
+  @Test
+  public void unsupported() throws SQLException {
+    CardQuery indexQuery = indexChannel.getQuery();
+    CardQuery sqlQuery = sqlChannel.getQuery();
+    indexQuery.byName("guild", SearchOption.MustInclude);
+    sqlQuery.byName("guild", SearchOption.MustInclude);
+
+    long unsupported = indexChannel.getCardIndex().getQueriesUnsupported();
+    assertEquals(FixtureDatabase.printings(sqlChannel.queryCards(sqlQuery)),
+        FixtureDatabase.printings(indexChannel.queryCards(indexQuery)));
+    assertEquals(unsupported + 1, indexChannel.getCardIndex().getQueriesUnsupported());
+  }
+
+  @Nested
+  @DisplayName("Color Parameter tests")
+  class ColorParameterTests {
+
+    @DisplayName("Each search option on a single color")
+    @Test
+    public void singleColor() throws SQLException {
+      for (SearchOption searchFor : SearchOption.values()) {
+        assertSamePrintings(query -> query.byColor("W", searchFor));
+        assertSamePrintings(query -> query.byColorIdentity("W", searchFor));
+      }
+    }
+
+    @DisplayName("Must include multiple colors")
+    @Test
+    public void includeMultipleColor() throws SQLException {
+      assertTrue(assertSamePrintings(query -> {
+        query.byColor("W", SearchOption.MustInclude);
+        query.byColor("G", SearchOption.MustInclude);
+      }) > 0);
+    }
+
+    @DisplayName("One of multiple colors, disallowing others")
+    @Test
+    public void oneOfMultipleColor() throws SQLException {
+      assertSamePrintings(query -> {
+        query.byColor("U", SearchOption.OneOf);
+        query.byColor("R", SearchOption.OneOf);
+        query.byColor("B", SearchOption.Disallow);
+      });
+      assertSamePrintings(query -> {
+        query.byColorIdentity("U", SearchOption.MustInclude);
+        query.byColorIdentity("B", SearchOption.OneOf);
+        query.byColorIdentity("G", SearchOption.OneOf);
+      });
+    }
+  }
+
+  @Nested
+  @DisplayName("Type Parameter tests")
+  class TypeParameterTests {
+
+    @DisplayName("Each search option on types, supertypes, and subtypes")
+    @Test
+    public void singleType() throws SQLException {
+      for (SearchOption searchFor : SearchOption.values()) {
+        assertSamePrintings(query -> query.byType("Creature", searchFor));
+        assertSamePrintings(query -> query.bySupertype("Legendary", searchFor));
+        assertSamePrintings(query -> query.bySubtype("Human", searchFor));
+      }
+    }
+
+    @DisplayName("Multiple types, supertypes, and subtypes")
+    @Test
+    public void multipleTypes() throws SQLException {
+      assertTrue(assertSamePrintings(query -> {
+        query.byType("Instant", SearchOption.OneOf);
+        query.byType("Sorcery", SearchOption.OneOf);
+      }) > 0);
+      assertSamePrintings(query -> {
+        query.byType("Creature", SearchOption.MustInclude);
+        query.bySupertype("Legendary", SearchOption.MustInclude);
+        query.bySubtype("Elf", SearchOption.Disallow);
+      });
+      assertSamePrintings(query -> {
+        query.bySubtype("Human", SearchOption.MustInclude);
+        query.bySubtype("Soldier", SearchOption.MustInclude);
+      });
+    }
+  }
+
+  @Nested
+  @DisplayName("Stat Parameter tests")
+  class StatParameterTests {
+
+    @DisplayName("Each comparison on each stat")
+    @Test
+    public void statComparisons() throws SQLException {
+      for (Stat stat : new Stat[]{Stat.CMC, Stat.POWER, Stat.TOUGHNESS, Stat.LOYALTY}) {
+        for (Comparison comparison : Comparison.values()) {
+          assertSamePrintings(query -> query.byStat(stat, comparison, 3));
+        }
+      }
+    }
+
+    @DisplayName("Stat versus stat")
+    @Test
+    public void statVersusStat() throws SQLException {
+      for (Comparison comparison : Comparison.values()) {
+        assertSamePrintings(query -> query.byStatVersusStat(Stat.POWER, comparison,
+            Stat.TOUGHNESS));
+        assertSamePrintings(query -> query.byStatVersusStat(Stat.CMC, comparison, Stat.POWER));
+      }
+    }
+
+    @DisplayName("Mana types")
+    @Test
+    public void manaTypes() throws SQLException {
+      assertTrue(assertSamePrintings(query -> query.byManaType("{R}", Comparison.GREATER_EQUAL,
+          2)) > 0);
+      assertSamePrintings(query -> query.byManaType("{1}", Comparison.LESS, 2));
+      assertSamePrintings(query -> {
+        query.byManaType("{G}", Comparison.EQUAL, 1);
+        query.byManaType("{W}", Comparison.EQUAL, 1);
+      });
+    }
+  }
+
+  @Nested
+  @DisplayName("Printing Parameter tests")
+  class PrintingParameterTests {
+
+    @DisplayName("Each search option on sets, rarities, and artists")
+    @Test
+    public void singlePrintingValue() throws SQLException {
+      for (SearchOption searchFor : SearchOption.values()) {
+        assertSamePrintings(query -> query.bySet(FixtureDatabase.reprintSetName, searchFor));
+        assertSamePrintings(query -> query.byRarity("mythic", searchFor));
+        assertSamePrintings(query -> query.byArtist("Svetlin Velinov", searchFor));
+      }
+    }
+
+    @DisplayName("Only the matching printings of reprinted cards")
+    @Test
+    public void reprintedPrintings() throws SQLException {
+      assertEquals(FixtureDatabase.reprintedCards, assertSamePrintings(query ->
+          query.bySet(FixtureDatabase.reprintSetName, SearchOption.MustInclude)));
+      assertSamePrintings(query -> {
+        query.bySet("Guilds of Ravnica", SearchOption.OneOf);
+        query.bySet(FixtureDatabase.reprintSetName, SearchOption.OneOf);
+        query.byRarity("common", SearchOption.Disallow);
+      });
+    }
+
+    @DisplayName("Printing values combined with card values")
+    @Test
+    public void combined() throws SQLException {
+      assertSamePrintings(query -> {
+        query.bySet(FixtureDatabase.reprintSetName, SearchOption.MustInclude);
+        query.byType("Creature", SearchOption.MustInclude);
+        query.byColor("W", SearchOption.MustInclude);
+        query.byStat(Stat.CMC, Comparison.LESS_EQUAL, 3);
+      });
+      assertSamePrintings(query -> {
+        query.byRarity("mythic", SearchOption.Disallow);
+        query.byArtist("Titus Lunter", SearchOption.OneOf);
+        query.byColorIdentity("G", SearchOption.Disallow);
+      });
+    }
+  }
+}
@@ -0,0 +1,236 @@
+package equality;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import database.access.DefaultDatabaseChannel;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import value_objects.card.Card;
+import value_objects.card.printing.CardPrinting;
+import value_objects.card.query.CardQuery;
+import value_objects.card.query.Comparison;
+import value_objects.card.query.SearchOption;
+import value_objects.card.query.Stat;
+
+/**
+ * Tests to verify that walking through the pages of a card query, each page continuing after the
+ * last card of the one before, returns every card of the full query once and in order, with pages
+ * ending at the cards expected by name, both against the CDDB and against the in-memory card index,
+ * over a small CDDB of Guilds of Ravnica and a set reprinting some of its cards.
+ */
+class CardPagingTest {
+
+  public static DefaultDatabaseChannel sqlChannel;
+  public static DefaultDatabaseChannel indexChannel;
+
+  @BeforeAll
+  public static void init() throws IOException, SQLException {
+    Path pathToDatabase = FixtureDatabase.create();
+    sqlChannel = new DefaultDatabaseChannel(pathToDatabase);
+    indexChannel = new DefaultDatabaseChannel(pathToDatabase);
+    indexChannel.setCardIndexEnabled(true);
+  }
+
+  /**
+   * Returns each of the given cards, as its name followed by its printings, in order.
+   * @param cards cards returned by a query
+   * @return the cards and their printings
+   */
+  private static List<String> cardsAndPrintings(Iterable<Card> cards) {
+    List<String> cardsAndPrintings = new ArrayList<>();
+    for (Card card : cards) {
+      StringBuilder printings = new StringBuilder(card.getName());
+      for (CardPrinting printing : card.getCardPrintings()) {
+        printings.append(String.format("|%s %s", printing.getCardExpansion(),
+            printing.getIdentifyingNumber()));
+      }
+      cardsAndPrintings.add(printings.toString());
+    }
+    return cardsAndPrintings;
+  }
+
+  /**
+   * Returns the names of the given cards, in order.
+   * @param cards cards returned by a query
+   * @return names of the cards
+   */
+  private static List<String> names(Iterable<Card> cards) {
+    List<String> names = new ArrayList<>();
+    for (Card card : cards) {
+      names.add(card.getName());
+    }
+    return names;
+  }
+
+  /**
+   * Walks through every page of a query with the given filters through the given channel, and
+   * asserts each page but the last is full, the last isn't, and the pages together hold every card
+   * of the full query once, in order.
+   * @param channel channel to query through
+   * @param filters filters to apply to the query
+   * @param pageSize number of cards per page
+   * @return number of pages walked through, including the last
+   * @throws SQLException if a query fails
+   */
+  private static int assertPagesMatch(DefaultDatabaseChannel channel, Consumer<CardQuery> filters,
+      int pageSize) throws SQLException {
+    CardQuery cardQuery = channel.getQuery();
+    filters.accept(cardQuery);
+    List<String> expected = cardsAndPrintings(channel.queryCards(cardQuery));
+
+    List<String> actual = new ArrayList<>();
+    String afterCardName = null;
+    int pages = 0;
+    SortedSet<Card> page;
+    do {
+      page = channel.queryCards(cardQuery, afterCardName, pageSize);
+      pages++;
+      assertTrue(page.size() <= pageSize);
+      actual.addAll(cardsAndPrintings(page));
+      if (!page.isEmpty()) {
+        afterCardName = page.last().getName();
+      }
+    } while (page.size() == pageSize);
+
+    assertEquals(expected, actual);
+    assertEquals(expected.size() / pageSize + 1, pages);
+    return pages;
+  }
+
+  /**
+   * Asserts walking through the pages of a query with the given filters matches the full query,
+   * through each channel, for pages of a single card, of several cards, and of every card.
+   * @param filters filters to apply to the queries
+   * @throws SQLException if a query fails
+   */
+  private static void assertPagesMatch(Consumer<CardQuery> filters) throws SQLException {
+    for (DefaultDatabaseChannel channel : new DefaultDatabaseChannel[]{sqlChannel,
+        indexChannel}) {
+      CardQuery cardQuery = channel.getQuery();
+      filters.accept(cardQuery);
+      int cardCount = channel.queryCards(cardQuery).size();
+
+      assertPagesMatch(channel, filters, 1);
+      assertPagesMatch(channel, filters, 7);
+      assertPagesMatch(channel, filters, cardCount + 1);
+      if (cardCount > 0) {
+        // Last page is empty when the cards exactly fill the pages before it
+        assertEquals(2, assertPagesMatch(channel, filters, cardCount));
+      }
+    }
+  }
+
+  @DisplayName("Throws if page size isn't positive")
+  @Test
+  public void nonPositivePageSize() {
+    assertThrows(IllegalArgumentException.class, () -> {
+      sqlChannel.queryCards(sqlChannel.getQuery(), null, 0);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      indexChannel.queryCards(indexChannel.getQuery(), null, -1);
+    });
+  }
+
+  @DisplayName("No parameters")
+  @Test
+  public void noParameters() throws SQLException {
+    assertPagesMatch(query -> { });
+  }
+
+  @DisplayName("Pages end at known cards of Guilds of Ravnica")
+  @Test
+  public void knownBoundaries() throws SQLException {
+    for (DefaultDatabaseChannel channel : new DefaultDatabaseChannel[]{sqlChannel,
+        indexChannel}) {
+      CardQuery cardQuery = channel.getQuery();
+      assertEquals(Arrays.asList("Affectionate Indrik", "Arboretum Elemental", "Arclight Phoenix",
+          "Artful Takedown", "Assassin's Trophy", "Assemble", "Assure"),
+          names(channel.queryCards(cardQuery, null, 7)));
+      assertEquals(Arrays.asList("Attendant of Vraska", "Aurelia, Exemplar of Justice",
+          "Barging Sergeant", "Barrier of Bones", "Bartizan Bats", "Beacon Bolt",
+          "Beamsplitter Mage"), names(channel.queryCards(cardQuery, "Assure", 7)));
+
+      CardQuery landQuery = channel.getQuery();
+      landQuery.byType("Land", SearchOption.MustInclude);
+      assertEquals(Arrays.asList("Boros Guildgate", "Dimir Guildgate", "Forest",
+          "Gateway Plaza", "Golgari Guildgate"), names(channel.queryCards(landQuery, null, 5)));
+      assertEquals(Arrays.asList("Guildmages' Forum", "Island", "Izzet Guildgate", "Mountain",
+          "Overgrown Tomb"), names(channel.queryCards(landQuery, "Golgari Guildgate", 5)));
+      assertEquals(Arrays.asList("Plains", "Sacred Foundry", "Selesnya Guildgate", "Steam Vents",
+          "Swamp"), names(channel.queryCards(landQuery, "Overgrown Tomb", 5)));
+      assertEquals(Arrays.asList("Temple Garden", "Watery Grave"),
+          names(channel.queryCards(landQuery, "Swamp", 5)));
+    }
+  }
+
+  @DisplayName("Continues after a card that doesn't match")
+  @Test
+  public void afterUnmatchedCard() throws SQLException {
+    for (DefaultDatabaseChannel channel : new DefaultDatabaseChannel[]{sqlChannel,
+        indexChannel}) {
+      CardQuery cardQuery = channel.getQuery();
+      cardQuery.byType("Land", SearchOption.MustInclude);
+      List<String> expected = new ArrayList<>();
+      for (String card : cardsAndPrintings(channel.queryCards(cardQuery))) {
+        if (card.compareTo("M") > 0) {
+          expected.add(card);
+        }
+      }
+      SortedSet<Card> page = channel.queryCards(cardQuery, "M", 1000);
+      assertEquals("Mountain", page.first().getName());
+      assertEquals(expected, cardsAndPrintings(page));
+    }
+  }
+
+  @Nested
+  @DisplayName("Filtered query tests")
+  class FilteredQueryTests {
+
+    @DisplayName("Card filters")
+    @Test
+    public void cardFilters() throws SQLException {
+      assertPagesMatch(query -> {
+        query.byType("Creature", SearchOption.MustInclude);
+        query.byColor("G", SearchOption.OneOf);
+        query.byColor("W", SearchOption.OneOf);
+      });
+      assertPagesMatch(query -> query.byStat(Stat.CMC, Comparison.LESS_EQUAL, 2));
+    }
+
+    @DisplayName("Printing filters")
+    @Test
+    public void printingFilters() throws SQLException {
+      assertPagesMatch(query -> query.bySet(FixtureDatabase.reprintSetName,
+          SearchOption.MustInclude));
+      assertPagesMatch(query -> {
+        query.byRarity("mythic", SearchOption.OneOf);
+        query.byRarity("rare", SearchOption.OneOf);
+      });
+    }
+
+    @DisplayName("Filters the index can't evaluate")
+    @Test
+    public void unsupportedFilters() throws SQLException {
+      assertPagesMatch(query -> query.byText("flying", SearchOption.MustInclude));
+    }
+
+    @DisplayName("No matching cards")
+    @Test
+    public void noMatches() throws SQLException {
+      assertPagesMatch(query -> {
+        query.bySupertype("Basic", SearchOption.MustInclude);
+        query.byType("Creature", SearchOption.MustInclude);
+      });
+    }
+  }
+}
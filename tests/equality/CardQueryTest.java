@@ -7,6 +7,10 @@ import database.access.DefaultDatabaseChannel;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Random;
 import java.util.SortedSet;
 import org.junit.jupiter.api.AfterEach;
@@ -18,6 +22,7 @@ import value_objects.card.query.CardQuery;
 import value_objects.card.query.Comparison;
 import value_objects.card.query.SearchOption;
 import value_objects.card.query.Stat;
+import value_objects.utility.Pair;
 
 /**
  * Tests to verify that the queries produced by {@link CardQuery} and its main implementation
@@ -1266,4 +1271,127 @@ class CardQueryTest {
 
     }
   }
-}
\ No newline at end of file
+
+  @DisplayName("Parameterized query tests")
+  @Nested
+  class ParameterizedQueryTests {
+
+    @DisplayName("No parameters")
+    @Test
+    public void noParameters() {
+      Pair<String, List<Object>> query = cardQuery.asParameterizedQuery();
+      assertEquals("SELECT card_name, expansion, number FROM CardExpansion", query.getA());
+      assertEquals(Collections.emptyList(), query.getB());
+    }
+
+    @DisplayName("Name parameter with quote is bound as is")
+    @Test
+    public void nameWithQuote() {
+      String result = "SELECT card_name, expansion, number FROM CardExpansion "
+          + "WHERE card_name IN (SELECT name FROM Card WHERE (name LIKE ?))";
+      cardQuery.byName("nature's", SearchOption.MustInclude);
+      Pair<String, List<Object>> query = cardQuery.asParameterizedQuery();
+      assertEquals(result, query.getA());
+      assertEquals(Collections.singletonList("%nature's%"), query.getB());
+    }
+
+    @DisplayName("Disallowed text parameter with quote is bound as is")
+    @Test
+    public void disallowTextWithQuote() {
+      String result = "SELECT card_name, expansion, number FROM CardExpansion "
+          + "WHERE card_name IN (SELECT name FROM Card WHERE (text NOT LIKE ?))";
+      cardQuery.byText("opponent's", SearchOption.Disallow);
+      Pair<String, List<Object>> query = cardQuery.asParameterizedQuery();
+      assertEquals(result, query.getA());
+      assertEquals(Collections.singletonList("%opponent's%"), query.getB());
+    }
+
+    @DisplayName("Same kinds of parameters share query text whatever their values")
+    @Test
+    public void sameTemplate() {
+      cardQuery.byName("nature's", SearchOption.MustInclude);
+      Pair<String, List<Object>> firstQuery = cardQuery.asParameterizedQuery();
+      cardQuery.clear();
+      cardQuery.byName("o'clock", SearchOption.MustInclude);
+      Pair<String, List<Object>> secondQuery = cardQuery.asParameterizedQuery();
+      assertEquals(firstQuery.getA(), secondQuery.getA());
+      assertNotEquals(firstQuery.getB(), secondQuery.getB());
+    }
+
+    @DisplayName("Include multiple color parameters")
+    @Test
+    public void includeMultipleColor() {
+      String result = "SELECT card_name, expansion, number FROM CardExpansion "
+          + "WHERE card_name IN (SELECT card_name FROM Color "
+          + "WHERE color IN (?, ?) AND card_name IN (SELECT card_name FROM Color "
+          + "WHERE color IN (?, ?) GROUP BY card_name HAVING COUNT(DISTINCT(color)) = 2))";
+      cardQuery.byColor("U", SearchOption.MustInclude);
+      cardQuery.byColor("B", SearchOption.MustInclude);
+      Pair<String, List<Object>> query = cardQuery.asParameterizedQuery();
+      assertEquals(result, query.getA());
+      assertEquals(Arrays.asList("B", "U", "B", "U"), query.getB());
+    }
+
+    @DisplayName("Include block parameter with quoted expansions")
+    @Test
+    public void includeBlockWithQuotes() {
+      String result = "SELECT card_name, expansion, number FROM CardExpansion "
+          + "WHERE (card_name, expansion, number) IN ("
+          + "SELECT card_name, expansion, number FROM CardExpansion "
+          + "WHERE expansion IN (?, ?, ?, ?, ?, ?) "
+          + "AND card_name IN (SELECT card_name FROM CardExpansion "
+          + "WHERE expansion IN (?, ?, ?, ?, ?, ?) "
+          + "GROUP BY card_name HAVING COUNT(DISTINCT(expansion)) = 6))";
+      List<Object> expansions = Arrays.asList("Dragon's Maze", "Dragon's Maze Promos",
+          "Gatecrash", "Gatecrash Promos", "Return to Ravnica", "Return to Ravnica Promos");
+      List<Object> parameters = new ArrayList<>(expansions);
+      parameters.addAll(expansions);
+      cardQuery.byBlock("Return to Ravnica", SearchOption.MustInclude);
+      Pair<String, List<Object>> query = cardQuery.asParameterizedQuery();
+      assertEquals(result, query.getA());
+      assertEquals(parameters, query.getB());
+    }
+
+    @DisplayName("Disallow block parameter with quoted expansions")
+    @Test
+    public void disallowBlockWithQuotes() {
+      String result = "SELECT card_name, expansion, number FROM CardExpansion "
+          + "WHERE (card_name, expansion, number) IN (SELECT card_name, expansion, number "
+          + "FROM CardExpansion WHERE expansion NOT IN (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?))";
+      cardQuery.byBlock("Theros", SearchOption.Disallow);
+      Pair<String, List<Object>> query = cardQuery.asParameterizedQuery();
+      assertEquals(result, query.getA());
+      assertEquals(Arrays.asList("Battle the Horde", "Born of the Gods",
+          "Born of the Gods Hero's Path", "Born of the Gods Promos", "Defeat a God",
+          "Face the Hydra", "Journey into Nyx", "Journey into Nyx Hero's Path",
+          "Journey into Nyx Promos", "Theros", "Theros Hero's Path", "Theros Promos"),
+          query.getB());
+    }
+
+    @DisplayName("Stat parameter is bound as a number")
+    @Test
+    public void statParameter() {
+      String result = "SELECT card_name, expansion, number FROM CardExpansion "
+          + "WHERE card_name IN (SELECT t0.name FROM Card t0 WHERE t0.cmc > ?)";
+      cardQuery.byStat(Stat.CMC, Comparison.GREATER, 3);
+      Pair<String, List<Object>> query = cardQuery.asParameterizedQuery();
+      assertEquals(result, query.getA());
+      assertEquals(Collections.singletonList(3), query.getB());
+    }
+
+    @DisplayName("Mana type parameters are bound in order")
+    @Test
+    public void mixedMultipleManaType() {
+      String result = "SELECT card_name, expansion, number FROM CardExpansion "
+          + "WHERE card_name IN (SELECT t0.card_name FROM Mana t0 "
+          + "JOIN Mana t1 ON t0.card_name = t1.card_name "
+          + "WHERE t0.mana_type = ? AND t0.quantity = ?"
+          + " AND t1.mana_type = ? AND t1.quantity > ?)";
+      cardQuery.byManaType("{R}", Comparison.EQUAL, 2);
+      cardQuery.byManaType("{1}", Comparison.GREATER, 1);
+      Pair<String, List<Object>> query = cardQuery.asParameterizedQuery();
+      assertEquals(result, query.getA());
+      assertEquals(Arrays.asList("{R}", 2, "{1}", 1), query.getB());
+    }
+  }
+}
@@ -0,0 +1,66 @@
+package equality;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import database.parsing.DefaultDatabaseParser;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests to verify that a parse of a file of multiple sets interrupted partway through a set, the
+ * Guilds of Ravnica set kept in resources, picks up from its last checkpoint when run again, and
+ * ends with the same Card & Deck Database (CDDB) content as an uninterrupted parse.
+ */
+class CheckpointTest {
+
+  public static Path allSetsPath;
+
+  @BeforeAll
+  public static void init() throws IOException {
+    allSetsPath = FixtureDatabase.writeAllSets(Files.createTempDirectory("checkpoint"));
+  }
+
+  @DisplayName("Resumes an interrupted parse from its last checkpoint")
+  @Test
+  public void resume() throws IOException, SQLException {
+    DefaultDatabaseParser cleanParser =
+        FixtureDatabase.newParser(FixtureDatabase.newDatabasePath());
+    cleanParser.parseAllSets(allSetsPath);
+
+    // Interrupts the parse partway through the cards of Guilds of Ravnica
+    Path pathToDatabase = FixtureDatabase.newDatabasePath();
+    DefaultDatabaseParser parser = FixtureDatabase.newParser(pathToDatabase);
+    parser.setCheckpointInterval(50);
+    FixtureDatabase.execute(pathToDatabase, "CREATE TRIGGER Interrupt BEFORE INSERT ON "
+        + "CardExpansion WHEN new.expansion = 'Guilds of Ravnica' AND new.number = '150' "
+        + "BEGIN SELECT RAISE(ABORT, 'Interrupted'); END");
+    assertThrows(SQLException.class, () -> parser.parseAllSets(allSetsPath));
+
+    int cardOffset;
+    try (Connection connection = FixtureDatabase.connect(pathToDatabase); Statement statement =
+        connection.createStatement();
+        ResultSet resultSet = statement.executeQuery("SELECT card_offset, completed "
+            + "FROM IngestCheckpoint WHERE abbrv = 'GRN'")) {
+      assertTrue(resultSet.next());
+      cardOffset = resultSet.getInt("card_offset");
+      assertEquals(0, resultSet.getInt("completed"));
+    }
+    assertTrue(cardOffset > 0 && cardOffset < 283);
+    assertEquals(0, FixtureDatabase.rowCount(pathToDatabase, "SetFingerprint"));
+
+    FixtureDatabase.execute(pathToDatabase, "DROP TRIGGER Interrupt");
+    long executed = parser.getStatementsExecuted();
+    parser.parseAllSets(allSetsPath);
+    assertTrue(parser.getStatementsExecuted() - executed < cleanParser.getStatementsExecuted());
+    assertEquals(FixtureDatabase.setContent(), FixtureDatabase.content(pathToDatabase));
+    assertEquals(0, FixtureDatabase.rowCount(pathToDatabase, "IngestCheckpoint"));
+  }
+}
@@ -0,0 +1,128 @@
+package equality;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import database.parsing.DefaultDatabaseParser;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tukaani.xz.LZMA2Options;
+import org.tukaani.xz.XZOutputStream;
+
+/**
+ * Tests to verify that the Guilds of Ravnica set kept in resources, and a set reprinting some of
+ * its cards, give the same Card & Deck Database (CDDB) content when read compressed, from zip
+ * archives, or from directories, as when each set is read alone from plain JSON.
+ */
+class CompressedInputTest {
+
+  public static Path directory;
+  public static Path reprintPath;
+  public static Path allSetsPath;
+  public static List<String> setContent;
+
+  @BeforeAll
+  public static void init() throws IOException, SQLException {
+    directory = Files.createTempDirectory("inputs");
+    reprintPath = FixtureDatabase.writeReprintSet(directory);
+    allSetsPath = FixtureDatabase.writeAllSets(directory);
+    setContent = FixtureDatabase.setContent();
+  }
+
+  @DisplayName("Reads gzip compressed sets")
+  @Test
+  public void gzip() throws IOException, SQLException {
+    Path setPath = directory.resolve("GRN.json.gz");
+    Path allSetsPath = directory.resolve("AllSets.json.gz");
+    try (OutputStream output = new GZIPOutputStream(Files.newOutputStream(setPath))) {
+      output.write(Files.readAllBytes(FixtureDatabase.setPath));
+    }
+    try (OutputStream output = new GZIPOutputStream(Files.newOutputStream(allSetsPath))) {
+      output.write(FixtureDatabase.allSets(",").getBytes(StandardCharsets.UTF_8));
+    }
+
+    Path pathToDatabase = FixtureDatabase.newDatabasePath();
+    DefaultDatabaseParser parser = FixtureDatabase.newParser(pathToDatabase);
+    parser.parseSet(setPath);
+    parser.parseSet(reprintPath);
+    assertEquals(setContent, FixtureDatabase.content(pathToDatabase));
+
+    Path allSetsDatabase = FixtureDatabase.newDatabasePath();
+    FixtureDatabase.newParser(allSetsDatabase).parseAllSets(allSetsPath);
+    assertEquals(setContent, FixtureDatabase.content(allSetsDatabase));
+  }
+
+  @DisplayName("Reads xz compressed sets")
+  @Test
+  public void xz() throws IOException, SQLException {
+    Path setPath = directory.resolve("GRN.json.xz");
+    Path allSetsPath = directory.resolve("AllSets.json.xz");
+    try (OutputStream output = new XZOutputStream(Files.newOutputStream(setPath),
+        new LZMA2Options())) {
+      output.write(Files.readAllBytes(FixtureDatabase.setPath));
+    }
+    try (OutputStream output = new XZOutputStream(Files.newOutputStream(allSetsPath),
+        new LZMA2Options())) {
+      output.write(FixtureDatabase.allSets(",").getBytes(StandardCharsets.UTF_8));
+    }
+
+    Path pathToDatabase = FixtureDatabase.newDatabasePath();
+    DefaultDatabaseParser parser = FixtureDatabase.newParser(pathToDatabase);
+    parser.parseSet(setPath);
+    parser.parseSet(reprintPath);
+    assertEquals(setContent, FixtureDatabase.content(pathToDatabase));
+
+    Path allSetsDatabase = FixtureDatabase.newDatabasePath();
+    FixtureDatabase.newParser(allSetsDatabase).parseAllSets(allSetsPath);
+    assertEquals(setContent, FixtureDatabase.content(allSetsDatabase));
+  }
+
+  @DisplayName("Reads each file of an archive or directory by the shape of its JSON")
+  @Test
+  public void archivesAndDirectories() throws IOException, SQLException {
+    Path setsDirectory = Files.createTempDirectory(directory, "sets");
+    Files.copy(FixtureDatabase.setPath, setsDirectory.resolve("GRN.json"));
+    Files.copy(reprintPath, setsDirectory.resolve("RGR.json"));
+    Path allSetsDirectory = Files.createTempDirectory(directory, "allSets");
+    Files.copy(allSetsPath, allSetsDirectory.resolve("AllSets.json"));
+    Path setsZip = directory.resolve("Sets.zip");
+    Path allSetsZip = directory.resolve("AllSets.zip");
+    Path setZip = directory.resolve("GRN.zip");
+    try (ZipOutputStream output = new ZipOutputStream(Files.newOutputStream(setsZip))) {
+      for (Path setPath : new Path[]{FixtureDatabase.setPath, reprintPath}) {
+        output.putNextEntry(new ZipEntry(setPath.getFileName().toString()));
+        output.write(Files.readAllBytes(setPath));
+      }
+    }
+    try (ZipOutputStream output = new ZipOutputStream(Files.newOutputStream(allSetsZip))) {
+      output.putNextEntry(new ZipEntry("AllSets.json"));
+      output.write(Files.readAllBytes(allSetsPath));
+    }
+    try (ZipOutputStream output = new ZipOutputStream(Files.newOutputStream(setZip))) {
+      output.putNextEntry(new ZipEntry("GRN.json"));
+      output.write(Files.readAllBytes(FixtureDatabase.setPath));
+    }
+
+    for (Path path : new Path[]{setsDirectory, allSetsDirectory, setsZip, allSetsZip}) {
+      Path pathToDatabase = FixtureDatabase.newDatabasePath();
+      FixtureDatabase.newParser(pathToDatabase).parseAllSets(path);
+      assertEquals(setContent, FixtureDatabase.content(pathToDatabase), path.toString());
+    }
+
+    // An archive of a single file is still read as a single set when that's what the file is
+    Path pathToDatabase = FixtureDatabase.newDatabasePath();
+    FixtureDatabase.newParser(pathToDatabase).parseAllSets(setZip);
+    assertEquals(1, FixtureDatabase.rowCount(pathToDatabase, "Expansion"));
+    assertEquals(283, FixtureDatabase.rowCount(pathToDatabase, "CardExpansion"));
+  }
+}
@@ -0,0 +1,56 @@
+package equality;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import database.parsing.DefaultDatabaseParser;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.List;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests to verify that streaming a file of multiple sets, holding the Guilds of Ravnica set kept in
+ * resources and a set reprinting some of its cards, into a Card & Deck Database (CDDB) gives the
+ * same content as parsing each set alone, and that a malformed file of sets is rejected.
+ */
+class DatabaseParserTest {
+
+  public static Path directory;
+  public static Path allSetsPath;
+  public static List<String> setContent;
+
+  @BeforeAll
+  public static void init() throws IOException, SQLException {
+    directory = Files.createTempDirectory("parser");
+    allSetsPath = FixtureDatabase.writeAllSets(directory);
+    setContent = FixtureDatabase.setContent();
+  }
+
+  @DisplayName("Streaming a file of multiple sets gives the same content as each set alone")
+  @Test
+  public void streamAllSets() throws IOException, SQLException {
+    Path pathToDatabase = FixtureDatabase.newDatabasePath();
+    FixtureDatabase.newParser(pathToDatabase).parseAllSets(allSetsPath);
+    assertEquals(setContent, FixtureDatabase.content(pathToDatabase));
+    assertEquals(0, FixtureDatabase.rowCount(pathToDatabase, "IngestCheckpoint"));
+  }
+
+  @DisplayName("Throws on sets not separated by a single comma")
+  @Test
+  public void malformedSeparator() throws IOException, SQLException {
+    for (String separator : new String[]{"", ",,", ";"}) {
+      Path malformedPath = directory.resolve("Malformed.json");
+      FixtureDatabase.write(malformedPath, FixtureDatabase.allSets(separator));
+      Path pathToDatabase = FixtureDatabase.newDatabasePath();
+      DefaultDatabaseParser parser = FixtureDatabase.newParser(pathToDatabase);
+      assertThrows(IllegalArgumentException.class, () -> parser.parseAllSets(malformedPath));
+
+      // Sets before the malformed separator are still added
+      assertEquals(1, FixtureDatabase.rowCount(pathToDatabase, "Expansion"));
+    }
+  }
+}
@@ -408,4 +408,25 @@ public class DeckCreationTest {
     idsToNames = deckChannel.getDecks();
     assertTrue(idsToNames.isEmpty());
   }
+
+  @DisplayName("Failed unit of work leaves none of its decks behind")
+  @Test
+  public void failedUnitOfWork() throws SQLException {
+    int deckId = 1;
+    LocalDateTime localDateTime = LocalDateTime.of(2007, 3, 23, 5, 14);
+    deckInstance = new DefaultDeckInstance(deckId, localDateTime, new HashMap<>(), new HashMap<>());
+    SortedSet<DeckInstance> deckInstances = new TreeSet<>();
+    deckInstances.add(deckInstance);
+    oldDeck = new DefaultDeck(deckId, "notebook", "foobar", deckInstances);
+
+    // Adding the same deck twice fails the whole unit of work
+    assertThrows(IllegalArgumentException.class, () -> deckChannel.inTransaction(channel -> {
+      channel.addDeck(oldDeck);
+      channel.updateDeckName(deckId, "soccer");
+      channel.addDeck(oldDeck);
+    }));
+
+    // Check nothing from the unit of work is in database
+    assertTrue(deckChannel.getDecks().isEmpty());
+  }
 }
@@ -0,0 +1,282 @@
+package equality;
+
+import database.parsing.DefaultDatabaseParser;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import value_objects.card.Card;
+import value_objects.card.printing.CardPrinting;
+
+/**
+ * Builds small Card & Deck Databases (CDDBs) for tests that need real cards rather than the
+ * prebuilt test CDDB, from the Guilds of Ravnica set kept in resources, plus a smaller set
+ * reprinting some of its cards with a different rarity and artist. Also reads back the content of
+ * such CDDBs, for tests comparing the ways sets can be parsed.
+ */
+final class FixtureDatabase {
+
+  /**
+   * Path to the file the CDDB is initialized from.
+   */
+  static final Path initalizationPath = Paths.get("resources", "database_init.txt");
+
+  /**
+   * Path to the Guilds of Ravnica set.
+   */
+  static final Path setPath = Paths.get("resources", "GRN.json");
+
+  /**
+   * Full name of the set reprinting some of the cards of Guilds of Ravnica.
+   */
+  static final String reprintSetName = "Ravnica Reprints";
+
+  /**
+   * Number of cards of Guilds of Ravnica the reprint set reprints.
+   */
+  static final int reprintedCards = 40;
+
+  /**
+   * Tables of the CDDB holding parsed sets, compared between CDDBs.
+   */
+  private static final String[] setTables = new String[]{"Expansion", "Block", "SetFingerprint",
+      "Card", "Color", "ColorIdentity", "Loyalty", "PowerToughness", "Mana", "CardExpansion",
+      "Artist", "Supertype", "Type", "Subtype", "TwoCards", "ThreeCards", "ValueFrequency"};
+
+  /**
+   * Statement checking the full text index of card names and text matches the cards it indexes.
+   */
+  static final String integrityCheck =
+      "INSERT INTO CardSearch(CardSearch, rank) VALUES ('integrity-check', 1)";
+
+  /**
+   * Content of a CDDB holding Guilds of Ravnica and the reprint set, each parsed on its own, null
+   * until first asked for.
+   */
+  private static List<String> setContent;
+
+  private FixtureDatabase() {
+  }
+
+  /**
+   * Creates a CDDB in a new temporary directory holding Guilds of Ravnica and the reprint set.
+   * @return path to the created CDDB
+   * @throws IOException if the temporary directory or reprint set fails to be written
+   * @throws SQLException if the sets fail to be parsed into the CDDB
+   */
+  static Path create() throws IOException, SQLException {
+    Path directory = Files.createTempDirectory("cddb");
+    Path pathToDatabase = directory.resolve("fixture_cddb.db");
+    DefaultDatabaseParser parser = newParser(pathToDatabase);
+    parser.parseSet(setPath);
+    parser.parseSet(writeReprintSet(directory));
+    return pathToDatabase;
+  }
+
+  /**
+   * Returns the content of a CDDB holding Guilds of Ravnica and the reprint set, each parsed on its
+   * own, which every other way of parsing them must give as well.
+   * @return rows of the CDDB, as by {@link #content(Path)}
+   * @throws IOException if the temporary directory or reprint set fails to be written
+   * @throws SQLException if the sets fail to be parsed, or the rows fail to be read
+   */
+  static synchronized List<String> setContent() throws IOException, SQLException {
+    if (setContent == null) {
+      setContent = content(create());
+    }
+    return setContent;
+  }
+
+  /**
+   * Reads the Guilds of Ravnica set.
+   * @return the set as JSON
+   * @throws IOException if the set fails to be read
+   */
+  static JSONObject readSet() throws IOException {
+    return new JSONObject(new String(Files.readAllBytes(setPath), StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Returns a set reprinting the first {@link #reprintedCards} cards of Guilds of Ravnica, each as
+   * a mythic drawn by a single artist.
+   * @return the reprint set as JSON
+   * @throws IOException if Guilds of Ravnica fails to be read
+   */
+  static JSONObject reprintSet() throws IOException {
+    JSONObject set = readSet();
+    JSONArray cards = set.getJSONArray("cards");
+    JSONArray reprints = new JSONArray();
+    for (int i = 0; i < reprintedCards; i++) {
+      JSONObject card = cards.getJSONObject(i);
+      card.put("rarity", "mythic");
+      card.put("artist", "Svetlin Velinov");
+      reprints.put(card);
+    }
+    set.put("name", reprintSetName);
+    set.put("code", "RGR");
+    set.put("releaseDate", "2019-10-04");
+    set.put("totalSetSize", reprintedCards);
+    set.put("cards", reprints);
+    return set;
+  }
+
+  /**
+   * Returns the printings of the cards returned by a query, as name, expansion, and number, in
+   * order.
+   * @param cards cards returned by a query
+   * @return printings of the cards
+   */
+  static List<String> printings(Iterable<Card> cards) {
+    List<String> printings = new ArrayList<>();
+    for (Card card : cards) {
+      for (CardPrinting printing : card.getCardPrintings()) {
+        printings.add(String.format("%s|%s|%s", printing.getCardName(),
+            printing.getCardExpansion(), printing.getIdentifyingNumber()));
+      }
+    }
+    return printings;
+  }
+
+  /**
+   * Writes the reprint set to a file in the given directory.
+   * @param directory directory to write to
+   * @return path to the written set
+   * @throws IOException if the set fails to be written
+   */
+  static Path writeReprintSet(Path directory) throws IOException {
+    Path reprintPath = directory.resolve("RGR.json");
+    write(reprintPath, reprintSet().toString());
+    return reprintPath;
+  }
+
+  /**
+   * Writes a file of multiple sets holding Guilds of Ravnica and the reprint set to the given
+   * directory.
+   * @param directory directory to write to
+   * @return path to the written file
+   * @throws IOException if the file fails to be written
+   */
+  static Path writeAllSets(Path directory) throws IOException {
+    Path allSetsPath = directory.resolve("AllSets.json");
+    write(allSetsPath, allSets(","));
+    return allSetsPath;
+  }
+
+  /**
+   * Returns a file of multiple sets holding Guilds of Ravnica and the reprint set, keyed by their
+   * shorthand names, in the form MTGJSON provides every set in.
+   * @param separator text separating the two sets
+   * @return the file of sets as text
+   * @throws IOException if either set fails to be read
+   */
+  static String allSets(String separator) throws IOException {
+    return String.format("{\"GRN\": %s%s \"RGR\": %s}", readSet(), separator, reprintSet());
+  }
+
+  /**
+   * Writes the given text to the file at the given path.
+   * @param path path to the file
+   * @param text text to write
+   * @throws IOException if the file fails to be written
+   */
+  static void write(Path path, String text) throws IOException {
+    Files.write(path, text.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Returns a path to a CDDB in a new temporary directory, not yet created.
+   * @return path to the CDDB
+   * @throws IOException if the directory of the CDDB fails to be created
+   */
+  static Path newDatabasePath() throws IOException {
+    return Files.createTempDirectory("cddb").resolve("cddb.db");
+  }
+
+  /**
+   * Creates a parser over a new, empty CDDB at the given path.
+   * @param pathToDatabase path to the CDDB
+   * @return parser over the CDDB
+   * @throws SQLException if the CDDB fails to be created
+   */
+  static DefaultDatabaseParser newParser(Path pathToDatabase) throws SQLException {
+    return new DefaultDatabaseParser(pathToDatabase, initalizationPath);
+  }
+
+  /**
+   * Connects directly to the CDDB at the given path.
+   * @param pathToDatabase path to the CDDB
+   * @return connection to the CDDB
+   * @throws SQLException if the connection fails
+   */
+  static Connection connect(Path pathToDatabase) throws SQLException {
+    return DriverManager.getConnection("jdbc:sqlite:" + pathToDatabase);
+  }
+
+  /**
+   * Returns every row of every table of parsed sets in the CDDB at the given path, in order.
+   * @param pathToDatabase path to the CDDB
+   * @return rows of the CDDB, each prefixed by its table
+   * @throws SQLException if the rows fail to be read
+   */
+  static List<String> content(Path pathToDatabase) throws SQLException {
+    List<String> content = new ArrayList<>();
+    try (Connection connection = connect(pathToDatabase); Statement statement =
+        connection.createStatement()) {
+      for (String table : setTables) {
+        List<String> rows = new ArrayList<>();
+        try (ResultSet resultSet = statement.executeQuery("SELECT * FROM " + table)) {
+          int columns = resultSet.getMetaData().getColumnCount();
+          while (resultSet.next()) {
+            StringBuilder row = new StringBuilder(table);
+            for (int i = 1; i <= columns; i++) {
+              row.append('|').append(resultSet.getString(i));
+            }
+            rows.add(row.toString());
+          }
+        }
+        Collections.sort(rows);
+        content.addAll(rows);
+      }
+    }
+    return content;
+  }
+
+  /**
+   * Runs the given statement directly against the CDDB at the given path.
+   * @param pathToDatabase path to the CDDB
+   * @param sql statement to run
+   * @throws SQLException if the statement fails
+   */
+  static void execute(Path pathToDatabase, String sql) throws SQLException {
+    try (Connection connection = connect(pathToDatabase); Statement statement =
+        connection.createStatement()) {
+      statement.execute(sql);
+    }
+  }
+
+  /**
+   * Returns the number of rows of the given table in the CDDB at the given path.
+   * @param pathToDatabase path to the CDDB
+   * @param table table to count the rows of
+   * @return number of rows in the table
+   * @throws SQLException if the rows fail to be counted
+   */
+  static int rowCount(Path pathToDatabase, String table) throws SQLException {
+    try (Connection connection = connect(pathToDatabase); Statement statement =
+        connection.createStatement();
+        ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+      return resultSet.getInt(1);
+    }
+  }
+}
@@ -0,0 +1,48 @@
+package equality;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import database.parsing.DefaultDatabaseParser;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests to verify that decoding the sets of a file of multiple sets on worker threads gives the
+ * same Card & Deck Database (CDDB) content no matter how many threads decode them, over the Guilds
+ * of Ravnica set kept in resources and a set reprinting some of its cards.
+ */
+class ParallelDecodeTest {
+
+  public static Path allSetsPath;
+
+  @BeforeAll
+  public static void init() throws IOException {
+    allSetsPath = FixtureDatabase.writeAllSets(Files.createTempDirectory("decode"));
+  }
+
+  @DisplayName("Throws if number of decode threads isn't positive")
+  @Test
+  public void nonPositiveThreads() throws IOException, SQLException {
+    DefaultDatabaseParser parser = FixtureDatabase.newParser(FixtureDatabase.newDatabasePath());
+    assertThrows(IllegalArgumentException.class, () -> parser.setDecodeThreads(0));
+    assertThrows(IllegalArgumentException.class, () -> parser.setDecodeThreads(-1));
+  }
+
+  @DisplayName("Any number of decode threads gives the same content as each set alone")
+  @Test
+  public void decodeThreads() throws IOException, SQLException {
+    for (int decodeThreads : new int[]{1, 2, 4}) {
+      Path pathToDatabase = FixtureDatabase.newDatabasePath();
+      DefaultDatabaseParser parser = FixtureDatabase.newParser(pathToDatabase);
+      parser.setDecodeThreads(decodeThreads);
+      parser.parseAllSets(allSetsPath);
+      assertEquals(FixtureDatabase.setContent(), FixtureDatabase.content(pathToDatabase),
+          String.format("%d decode threads", decodeThreads));
+    }
+  }
+}
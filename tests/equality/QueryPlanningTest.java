@@ -0,0 +1,169 @@
+package equality;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import database.access.DefaultDatabaseChannel;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import value_objects.card.query.CardQuery;
+import value_objects.card.query.Comparison;
+import value_objects.card.query.SearchOption;
+import value_objects.card.query.Stat;
+
+/**
+ * Tests to verify that card queries planned by the value frequencies of the CDDB draw their
+ * candidates from the filter estimated to match the fewest cards, and return the same cards and
+ * printings as the same queries run with every filter in full, over a small CDDB of Guilds of
+ * Ravnica and a set reprinting some of its cards.
+ */
+class QueryPlanningTest {
+
+  /**
+   * Matches the start of the candidates of a planned query, capturing the table they're drawn from.
+   */
+  private static final Pattern candidates =
+      Pattern.compile("WITH Candidates AS \\(SELECT [\\w.]+ FROM (\\w+)");
+
+  public static DefaultDatabaseChannel plannedChannel;
+  public static DefaultDatabaseChannel unplannedChannel;
+
+  @BeforeAll
+  public static void init() throws IOException, SQLException {
+    Path pathToDatabase = FixtureDatabase.create();
+    plannedChannel = new DefaultDatabaseChannel(pathToDatabase);
+    unplannedChannel = new DefaultDatabaseChannel(pathToDatabase);
+    unplannedChannel.setQueryPlanningEnabled(false);
+  }
+
+  /**
+   * Returns the table the candidates of a planned query are drawn from, i.e. the table of the
+   * filter estimated to match the fewest cards.
+   * @param plannedSql planned query, as SQL
+   * @return table of the candidates, or null if the query wasn't planned
+   */
+  private static String candidatesTable(String plannedSql) {
+    Matcher matcher = candidates.matcher(plannedSql);
+    return matcher.find() ? matcher.group(1) : null;
+  }
+
+  /**
+   * Applies the given filters to a query through each channel, and asserts the planned query
+   * returns the same printings as the unplanned query.
+   * @param filters filters to apply to the queries
+   * @return planned query, as SQL with placeholders for its values
+   * @throws SQLException if either query fails
+   */
+  private static String assertSamePrintings(Consumer<CardQuery> filters) throws SQLException {
+    CardQuery plannedQuery = plannedChannel.getQuery();
+    CardQuery unplannedQuery = unplannedChannel.getQuery();
+    filters.accept(plannedQuery);
+    filters.accept(unplannedQuery);
+
+    String plannedSql = plannedQuery.asParameterizedQuery().getA();
+    assertFalse(unplannedQuery.asParameterizedQuery().getA().contains("WITH Candidates"));
+    assertEquals(FixtureDatabase.printings(unplannedChannel.queryCards(unplannedQuery)),
+        FixtureDatabase.printings(plannedChannel.queryCards(plannedQuery)), plannedSql);
+    return plannedSql;
+  }
+
+  @DisplayName("Single filter isn't planned")
+  @Test
+  public void singleFilter() throws SQLException {
+    assertNull(candidatesTable(assertSamePrintings(query -> query.byType("Creature",
+        SearchOption.MustInclude))));
+  }
+
+  @DisplayName("Plan doesn't depend on the order filters are given in")
+  @Test
+  public void filterOrder() throws SQLException {
+    String typeFirst = assertSamePrintings(query -> {
+      query.byType("Creature", SearchOption.MustInclude);
+      query.bySupertype("Legendary", SearchOption.MustInclude);
+    });
+    String supertypeFirst = assertSamePrintings(query -> {
+      query.bySupertype("Legendary", SearchOption.MustInclude);
+      query.byType("Creature", SearchOption.MustInclude);
+    });
+    assertEquals("Supertype", candidatesTable(typeFirst));
+    assertEquals(typeFirst, supertypeFirst);
+  }
+
+  @DisplayName("Types, colors, and stats")
+  @Test
+  public void typesColorsStats() throws SQLException {
+    assertEquals("Subtype", candidatesTable(assertSamePrintings(query -> {
+      query.byType("Creature", SearchOption.MustInclude);
+      query.bySubtype("Elf", SearchOption.MustInclude);
+      query.byColor("G", SearchOption.MustInclude);
+      query.byStat(Stat.POWER, Comparison.GREATER_EQUAL, 2);
+    })));
+  }
+
+  @DisplayName("Color identity and supertypes with disallowed values")
+  @Test
+  public void disallowedValues() throws SQLException {
+    assertEquals("Supertype", candidatesTable(assertSamePrintings(query -> {
+      query.byColorIdentity("B", SearchOption.OneOf);
+      query.byColorIdentity("R", SearchOption.OneOf);
+      query.byColor("G", SearchOption.Disallow);
+      query.bySupertype("Legendary", SearchOption.MustInclude);
+      query.byType("Land", SearchOption.Disallow);
+    })));
+  }
+
+  @DisplayName("Name and text")
+  @Test
+  public void nameText() throws SQLException {
+    assertEquals("Type", candidatesTable(assertSamePrintings(query -> {
+      query.byName("guild", SearchOption.Disallow);
+      query.byText("flying", SearchOption.MustInclude);
+      query.byType("Creature", SearchOption.MustInclude);
+      query.byStat(Stat.CMC, Comparison.LESS_EQUAL, 3);
+    })));
+  }
+
+  @DisplayName("Mana types and stat versus stat")
+  @Test
+  public void manaStatVersusStat() throws SQLException {
+    assertEquals("Mana", candidatesTable(assertSamePrintings(query -> {
+      query.byManaType("{W}", Comparison.GREATER_EQUAL, 1);
+      query.byManaType("{1}", Comparison.LESS, 3);
+      query.byStatVersusStat(Stat.POWER, Comparison.LESS, Stat.TOUGHNESS);
+    })));
+  }
+
+  @DisplayName("Card filters with printing filters")
+  @Test
+  public void printingFilters() throws SQLException {
+    assertEquals("Color", candidatesTable(assertSamePrintings(query -> {
+      query.byColor("W", SearchOption.MustInclude);
+      query.byType("Creature", SearchOption.MustInclude);
+      query.bySet(FixtureDatabase.reprintSetName, SearchOption.MustInclude);
+      query.byRarity("mythic", SearchOption.OneOf);
+    })));
+    assertEquals("Subtype", candidatesTable(assertSamePrintings(query -> {
+      query.bySubtype("Human", SearchOption.OneOf);
+      query.bySubtype("Elf", SearchOption.OneOf);
+      query.byStat(Stat.TOUGHNESS, Comparison.GREATER, 1);
+      query.byArtist("Svetlin Velinov", SearchOption.Disallow);
+      query.byFlavorText("guild", SearchOption.Disallow);
+    })));
+  }
+
+  @DisplayName("Filter with no matching cards")
+  @Test
+  public void noMatches() throws SQLException {
+    assertEquals("Supertype", candidatesTable(assertSamePrintings(query -> {
+      query.bySupertype("Basic", SearchOption.MustInclude);
+      query.byType("Creature", SearchOption.MustInclude);
+      query.byColor("R", SearchOption.MustInclude);
+    })));
+  }
+}
@@ -0,0 +1,131 @@
+package equality;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import database.access.DefaultDatabaseChannel;
+import database.parsing.DefaultDatabaseParser;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.List;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import value_objects.card.query.CardQuery;
+import value_objects.card.query.SearchOption;
+
+/**
+ * Tests to verify that parsing sets into a Card & Deck Database (CDDB) that already holds them
+ * skips sets whose fingerprint hasn't changed, and refreshes those that have to match, over the
+ * Guilds of Ravnica set kept in resources and a set reprinting some of its cards.
+ */
+class ReingestTest {
+
+  public static Path directory;
+  public static Path reprintPath;
+  public static Path allSetsPath;
+  public static List<String> setContent;
+
+  @BeforeAll
+  public static void init() throws IOException, SQLException {
+    directory = Files.createTempDirectory("reingest");
+    reprintPath = FixtureDatabase.writeReprintSet(directory);
+    allSetsPath = FixtureDatabase.writeAllSets(directory);
+    setContent = FixtureDatabase.setContent();
+  }
+
+  @DisplayName("Skips sets whose fingerprint hasn't changed")
+  @Test
+  public void fingerprintSkip() throws IOException, SQLException {
+    Path pathToDatabase = FixtureDatabase.newDatabasePath();
+    DefaultDatabaseParser parser = FixtureDatabase.newParser(pathToDatabase);
+    parser.parseAllSets(allSetsPath);
+    long executed = parser.getStatementsExecuted();
+
+    // Refreshing a set would update each of its cards
+    parser.parseSet(FixtureDatabase.setPath);
+    parser.parseAllSets(allSetsPath);
+    assertTrue(parser.getStatementsExecuted() - executed < FixtureDatabase.reprintedCards);
+    assertEquals(setContent, FixtureDatabase.content(pathToDatabase));
+  }
+
+  @DisplayName("Refreshes sets whose content has changed")
+  @Test
+  public void refresh() throws IOException, SQLException {
+    Path pathToDatabase = FixtureDatabase.newDatabasePath();
+    DefaultDatabaseParser parser = FixtureDatabase.newParser(pathToDatabase);
+    parser.parseSet(FixtureDatabase.setPath);
+    parser.parseSet(reprintPath);
+
+    // Change a card's text, colors, rarity, and artist
+    JSONObject set = FixtureDatabase.readSet();
+    JSONObject card = set.getJSONArray("cards").getJSONObject(0);
+    String cardName = card.getString("name");
+    card.put("text", "Zyzzyva enters the battlefield.");
+    card.put("colors", new JSONArray().put("W").put("U"));
+    card.put("rarity", "rare");
+    card.put("artist", "Titus Lunter");
+    Path changedPath = directory.resolve("GRN-changed.json");
+    FixtureDatabase.write(changedPath, set.toString());
+
+    parser.parseSet(changedPath);
+    List<String> changedContent = FixtureDatabase.content(pathToDatabase);
+    assertNotEquals(setContent, changedContent);
+    assertTrue(changedContent.contains(String.format("Color|%s|U", cardName)));
+    FixtureDatabase.execute(pathToDatabase, FixtureDatabase.integrityCheck);
+
+    DefaultDatabaseChannel channel = new DefaultDatabaseChannel(pathToDatabase);
+    CardQuery cardQuery = channel.getQuery();
+    cardQuery.byText("zyzzyva", SearchOption.MustInclude);
+    assertEquals(cardName, channel.queryCards(cardQuery).first().getName());
+
+    // Refreshing back to the original set restores its original content
+    parser.parseSet(FixtureDatabase.setPath);
+    assertEquals(setContent, FixtureDatabase.content(pathToDatabase));
+    FixtureDatabase.execute(pathToDatabase, FixtureDatabase.integrityCheck);
+    assertTrue(channel.queryCards(cardQuery).isEmpty());
+  }
+
+  @DisplayName("Removes printings no longer in a refreshed set, unless a deck holds them")
+  @Test
+  public void removedPrintings() throws IOException, SQLException {
+    Path pathToDatabase = FixtureDatabase.newDatabasePath();
+    DefaultDatabaseParser parser = FixtureDatabase.newParser(pathToDatabase);
+    parser.parseSet(FixtureDatabase.setPath);
+
+    // Drop the first two cards of the set, the second of which a deck holds
+    JSONObject set = FixtureDatabase.readSet();
+    JSONObject removed = (JSONObject) set.getJSONArray("cards").remove(0);
+    JSONObject held = (JSONObject) set.getJSONArray("cards").remove(0);
+    Path changedPath = directory.resolve("GRN-removed.json");
+    FixtureDatabase.write(changedPath, set.toString());
+    FixtureDatabase.execute(pathToDatabase,
+        "INSERT INTO Deck(id, name, desp) VALUES (1, 'Deck', '')");
+    FixtureDatabase.execute(pathToDatabase,
+        "INSERT INTO DeckInstance(deck_id, creation) VALUES (1, 0)");
+    FixtureDatabase.execute(pathToDatabase, String.format("INSERT INTO DeckInstCard(deck_id, "
+        + "deck_inst_creation, card_name) VALUES (1, 0, '%s')", held.getString("name")));
+    FixtureDatabase.execute(pathToDatabase, String.format("INSERT INTO DeckInstCardExpansion("
+        + "deck_id, deck_inst_creation, card_name, expansion, card_number, quantity) VALUES (1, "
+        + "0, '%s', 'Guilds of Ravnica', '%s', 1)", held.getString("name"),
+        held.getString("number")));
+
+    int printings = FixtureDatabase.rowCount(pathToDatabase, "CardExpansion");
+    int cards = FixtureDatabase.rowCount(pathToDatabase, "Card");
+    parser.parseSet(changedPath);
+    assertEquals(printings - 1, FixtureDatabase.rowCount(pathToDatabase, "CardExpansion"));
+    assertEquals(cards, FixtureDatabase.rowCount(pathToDatabase, "Card"));
+    assertEquals(1, parser.getStalePrintingsKept());
+    List<String> changedContent = FixtureDatabase.content(pathToDatabase);
+    assertFalse(changedContent.stream().anyMatch(row -> row.startsWith(String.format(
+        "CardExpansion|%s|Guilds of Ravnica|%s|", removed.getString("name"),
+        removed.getString("number")))));
+    assertTrue(changedContent.stream().anyMatch(row -> row.startsWith(String.format(
+        "CardExpansion|%s|Guilds of Ravnica|%s|", held.getString("name"),
+        held.getString("number")))));
+    FixtureDatabase.execute(pathToDatabase, FixtureDatabase.integrityCheck);
+  }
+}
@@ -0,0 +1,33 @@
+package equality;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import database.parsing.DefaultDatabaseParser;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.sql.SQLException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests to verify that the statements a parse runs against the Card & Deck Database (CDDB) are
+ * prepared once per parse and reused for every row, over the Guilds of Ravnica set kept in
+ * resources and a set reprinting some of its cards.
+ */
+class StatementReuseTest {
+
+  @DisplayName("Statements prepared don't grow with the number of cards")
+  @Test
+  public void preparedOnce() throws IOException, SQLException {
+    DefaultDatabaseParser parser = FixtureDatabase.newParser(FixtureDatabase.newDatabasePath());
+    parser.parseSet(FixtureDatabase.setPath);
+    long prepared = parser.getStatementsPrepared();
+    assertTrue(prepared > 0);
+    assertTrue(prepared < 100, String.format("%d statements prepared", prepared));
+    assertTrue(parser.getStatementsExecuted() > 10 * prepared);
+
+    // Each parse prepares its own statements, but no more for a set of fewer cards
+    parser.parseSet(FixtureDatabase.writeReprintSet(Files.createTempDirectory("reuse")));
+    assertTrue(parser.getStatementsPrepared() - prepared <= prepared);
+  }
+}